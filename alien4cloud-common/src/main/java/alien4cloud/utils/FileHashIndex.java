@@ -0,0 +1,114 @@
+package alien4cloud.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Index of the SHA-1 hash of every file of a directory identified by its path relative to the directory, its size and last modification date. It allows
+ * {@link FileUtil#deepSHA1(Path, FileHashIndex)} to hash again only the files that have changed since the previous computation.
+ */
+@Slf4j
+public class FileHashIndex {
+    private static final String SEPARATOR = "\t";
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Load an index from a file previously written by {@link #save(Path)}. An empty index is returned if the file doesn't exist or cannot be read.
+     *
+     * @param indexPath The path of the index file.
+     * @return The loaded index.
+     */
+    public static FileHashIndex load(Path indexPath) {
+        FileHashIndex index = new FileHashIndex();
+        if (!Files.isRegularFile(indexPath)) {
+            return index;
+        }
+        try {
+            for (String line : Files.readAllLines(indexPath, StandardCharsets.UTF_8)) {
+                String[] columns = line.split(SEPARATOR, 4);
+                if (columns.length == 4) {
+                    index.entries.put(columns[3], new Entry(Long.parseLong(columns[0]), Long.parseLong(columns[1]), columns[2]));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Unable to read file hash index {}, all files will be hashed.", indexPath, e);
+            index.entries.clear();
+        }
+        return index;
+    }
+
+    /**
+     * Save the index in the given file.
+     *
+     * @param indexPath The path of the index file.
+     * @throws IOException In case the file cannot be written.
+     */
+    public void save(Path indexPath) throws IOException {
+        List<String> lines = entries.entrySet().stream()
+                .map(entry -> entry.getValue().size + SEPARATOR + entry.getValue().lastModified + SEPARATOR + entry.getValue().hash + SEPARATOR + entry.getKey())
+                .sorted().collect(Collectors.toList());
+        Files.write(indexPath, lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Get the hash of a file if it has not changed since it was indexed.
+     *
+     * @param relativePath The path of the file relative to the indexed directory.
+     * @param size The current size of the file.
+     * @param lastModified The current last modification date of the file.
+     * @return The hash of the file or null if the file is not indexed or has changed.
+     */
+    public String get(String relativePath, long size, long lastModified) {
+        Entry entry = entries.get(relativePath);
+        if (entry == null || entry.size != size || entry.lastModified != lastModified) {
+            return null;
+        }
+        return entry.hash;
+    }
+
+    /**
+     * Register the hash of a file.
+     *
+     * @param relativePath The path of the file relative to the indexed directory.
+     * @param size The size of the file.
+     * @param lastModified The last modification date of the file.
+     * @param hash The hash of the file.
+     */
+    public void put(String relativePath, long size, long lastModified, String hash) {
+        entries.put(relativePath, new Entry(size, lastModified, hash));
+    }
+
+    /**
+     * Remove the files that are not in the given list from the index.
+     *
+     * @param relativePaths The paths of the files that still exist in the directory.
+     */
+    public void retain(Collection<String> relativePaths) {
+        entries.keySet().retainAll(relativePaths);
+    }
+
+    /**
+     * @return The number of indexed files.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    @AllArgsConstructor(suppressConstructorProperties = true)
+    private static class Entry {
+        private final long size;
+        private final long lastModified;
+        private final String hash;
+    }
+}
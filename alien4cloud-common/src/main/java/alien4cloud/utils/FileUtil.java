@@ -1,15 +1,21 @@
 package alien4cloud.utils;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.file.*;
 import java.nio.file.FileSystem;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.regex.Pattern;
+import java.util.stream.IntStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -29,6 +35,13 @@ import javax.xml.bind.DatatypeConverter;
 
 @Slf4j
 public final class FileUtil {
+    /** Size of the buffer used to read files when computing hashes. */
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+    /** Files larger than this size are memory mapped when computing hashes. */
+    private static final long MEMORY_MAPPING_THRESHOLD = 1024 * 1024;
+    /** Minimum number of files in a directory to hash them in parallel. */
+    private static final int PARALLEL_HASH_THRESHOLD = 8;
+
     /**
      * Utility class should have private constructor.
      */
@@ -354,9 +367,7 @@ public final class FileUtil {
         if (!Files.exists(path)) {
             throw new FileNotFoundException("File not found in hash processor" + path);
         }
-        MessageDigest digest = MessageDigest.getInstance("SHA1");
-        addFileToDigest(digest, path);
-        return DatatypeConverter.printHexBinary(digest.digest());
+        return DatatypeConverter.printHexBinary(sha1(path));
     }
 
     /**
@@ -365,35 +376,115 @@ public final class FileUtil {
      * @param rootPath The root path for which to compute SHA-1 on every sub files and folders.
      * @return The SHA-1 hash string.
      */
-    @SneakyThrows({ IOException.class })
     public static String deepSHA1(Path rootPath) {
+        return deepSHA1(rootPath, null);
+    }
+
+    /**
+     * Computes a SHA-1 checksum on a directory. The checksum ignores hidden files and folders.
+     * <p>
+     * The checksum is computed from the sorted list of files relative paths and their individual SHA-1 so it doesn't depend on the file system ordering. Files
+     * of a directory are hashed in parallel and if an index is provided, only the files that changed since their indexing are hashed again. The index is updated
+     * with the current state of the directory.
+     * </p>
+     *
+     * @param rootPath The root path for which to compute SHA-1 on every sub files and folders.
+     * @param index The optional index of files hashes (ignored for zip files).
+     * @return The SHA-1 hash string.
+     */
+    @SneakyThrows({ IOException.class })
+    public static String deepSHA1(Path rootPath, FileHashIndex index) {
         if (isZipFile(rootPath)) {
             try (FileSystem csarFS = FileSystems.newFileSystem(rootPath, null)) {
                 Path innerZipPath = csarFS.getPath(FileSystems.getDefault().getSeparator());
-                return computeDirectoryHash(innerZipPath);
+                return computeDirectoryHash(innerZipPath, null);
             }
         } else if (Files.isRegularFile(rootPath)) {
             return getSHA1Checksum(rootPath);
         } else if (Files.isDirectory(rootPath)) {
-            return computeDirectoryHash(rootPath);
+            return computeDirectoryHash(rootPath, index);
         }
         throw new FileNotFoundException("Unable to compute hash for file " + rootPath);
     }
 
     @SneakyThrows({ IOException.class, NoSuchAlgorithmException.class })
-    private static String computeDirectoryHash(Path rootPath) {
+    private static String computeDirectoryHash(Path rootPath, FileHashIndex index) {
+        // sort files by relative path so the hash doesn't depend on the file system ordering.
+        final SortedMap<String, Path> files = new TreeMap<>();
+        final String separator = rootPath.getFileSystem().getSeparator();
+        Files.walkFileTree(rootPath, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                return dir.equals(rootPath) || isNotHidden(dir) ? FileVisitResult.CONTINUE : FileVisitResult.SKIP_SUBTREE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (attrs.isRegularFile() && isNotHidden(file)) {
+                    files.put(rootPath.relativize(file).toString().replace(separator, "/"), file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        List<Map.Entry<String, Path>> entries = Lists.newArrayList(files.entrySet());
+        IntStream indexes = IntStream.range(0, entries.size());
+        if (entries.size() >= PARALLEL_HASH_THRESHOLD && rootPath.getFileSystem() == FileSystems.getDefault()) {
+            indexes = indexes.parallel();
+        }
+        String[] hashes = indexes.mapToObj(i -> getSHA1Checksum(entries.get(i).getKey(), entries.get(i).getValue(), index)).toArray(String[]::new);
+        if (index != null) {
+            index.retain(files.keySet());
+        }
+
         MessageDigest digest = MessageDigest.getInstance("SHA1");
-        Files.walk(rootPath).filter(FileUtil::isNotHidden).filter(Files::isRegularFile).forEach(path -> addFileToDigest(digest, path));
+        for (int i = 0; i < hashes.length; i++) {
+            digest.update(entries.get(i).getKey().getBytes(Charsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(hashes[i].getBytes(Charsets.UTF_8));
+            digest.update((byte) '\n');
+        }
         return DatatypeConverter.printHexBinary(digest.digest());
-
     }
 
     @SneakyThrows({ IOException.class })
-    private static void addFileToDigest(MessageDigest digest, Path path) {
-        try (InputStream digestInputStream = new DigestInputStream(new BufferedInputStream(Files.newInputStream(path)), digest)) {
-            while (digestInputStream.read() != -1) {
+    private static String getSHA1Checksum(String relativePath, Path path, FileHashIndex index) {
+        if (index == null) {
+            return DatatypeConverter.printHexBinary(sha1(path));
+        }
+        long size = Files.size(path);
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+        String hash = index.get(relativePath, size, lastModified);
+        if (hash == null) {
+            hash = DatatypeConverter.printHexBinary(sha1(path));
+            index.put(relativePath, size, lastModified, hash);
+        }
+        return hash;
+    }
+
+    /**
+     * Compute the SHA-1 of a file content, large files of the default file system are memory mapped while others are read through a large buffer.
+     */
+    @SneakyThrows({ NoSuchAlgorithmException.class })
+    private static byte[] sha1(Path path) throws IOException {
+        MessageDigest digest = MessageDigest.getInstance("SHA1");
+        try (SeekableByteChannel channel = Files.newByteChannel(path)) {
+            if (channel instanceof FileChannel && channel.size() >= MEMORY_MAPPING_THRESHOLD) {
+                FileChannel fileChannel = (FileChannel) channel;
+                long size = fileChannel.size();
+                for (long position = 0; position < size; position += Integer.MAX_VALUE) {
+                    digest.update(fileChannel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(Integer.MAX_VALUE, size - position)));
+                }
+            } else {
+                ByteBuffer buffer = ByteBuffer.allocate(HASH_BUFFER_SIZE);
+                while (channel.read(buffer) != -1) {
+                    buffer.flip();
+                    digest.update(buffer);
+                    buffer.clear();
+                }
             }
         }
+        return digest.digest();
     }
 
     @SneakyThrows({ IOException.class })
@@ -43,6 +43,27 @@ public class TreeNode implements Comparable<TreeNode> {
         return null;
     }
 
+    /**
+     * Create a deep copy of this node and of its children.
+     *
+     * @param copyParent The parent of the copy.
+     * @return A copy of the node.
+     */
+    public TreeNode copy(TreeNode copyParent) {
+        TreeNode copy = new TreeNode(name);
+        copy.setFullPath(fullPath);
+        copy.setArtifactId(artifactId);
+        copy.setLeaf(isLeaf);
+        copy.setParent(copyParent);
+        if (children != null) {
+            copy.setChildren(new TreeSet<>());
+            for (TreeNode child : children) {
+                copy.getChildren().add(child.copy(copy));
+            }
+        }
+        return copy;
+    }
+
     @Override
     public int compareTo(TreeNode o) {
         return this.name.compareTo(o.getName());
@@ -0,0 +1,101 @@
+package alien4cloud.utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+
+public class FileUtilHashTest {
+    private Path tempDir;
+
+    @Before
+    public void setup() throws IOException {
+        tempDir = Files.createTempDirectory("a4c-hash-test");
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        FileUtil.delete(tempDir);
+    }
+
+    private void write(Path path, String content) throws IOException {
+        Files.createDirectories(path.getParent());
+        Files.write(path, content.getBytes(Charsets.UTF_8));
+    }
+
+    private Path createArchive(String name, boolean reverseOrder) throws IOException {
+        Path root = tempDir.resolve(name);
+        String[] files = { "tosca.yml", "scripts/create.sh", "scripts/start.sh", "images/icon.txt" };
+        for (int i = 0; i < files.length; i++) {
+            String file = files[reverseOrder ? files.length - 1 - i : i];
+            write(root.resolve(file), "content of " + file);
+        }
+        return root;
+    }
+
+    @Test
+    public void directoryHashShouldNotDependOnCreationOrder() throws IOException {
+        Assert.assertEquals(FileUtil.deepSHA1(createArchive("first", false)), FileUtil.deepSHA1(createArchive("second", true)));
+    }
+
+    @Test
+    public void directoryHashShouldIgnoreHiddenFiles() throws IOException {
+        Path archive = createArchive("archive", false);
+        String hash = FileUtil.deepSHA1(archive);
+        write(archive.resolve(".hidden"), "hidden");
+        write(archive.resolve(".git/config"), "hidden");
+        Assert.assertEquals(hash, FileUtil.deepSHA1(archive));
+    }
+
+    @Test
+    public void directoryHashShouldDependOnPathsAndContent() throws IOException {
+        Path archive = createArchive("archive", false);
+        String hash = FileUtil.deepSHA1(archive);
+        write(archive.resolve("scripts/start.sh"), "updated");
+        String updatedHash = FileUtil.deepSHA1(archive);
+        Assert.assertNotEquals(hash, updatedHash);
+        Files.move(archive.resolve("scripts/start.sh"), archive.resolve("scripts/run.sh"));
+        Assert.assertNotEquals(updatedHash, FileUtil.deepSHA1(archive));
+    }
+
+    @Test
+    public void zipAndDirectoryHashShouldBeEqual() throws IOException {
+        Path archive = createArchive("archive", false);
+        Path zip = tempDir.resolve("archive.zip");
+        FileUtil.zip(archive, zip);
+        Assert.assertEquals(FileUtil.deepSHA1(archive), FileUtil.deepSHA1(zip));
+    }
+
+    @Test
+    public void indexShouldBeUsedForUnchangedFiles() throws IOException {
+        Path archive = createArchive("archive", false);
+        Path indexPath = tempDir.resolve("archive.idx");
+        FileHashIndex index = new FileHashIndex();
+        String hash = FileUtil.deepSHA1(archive, index);
+        Assert.assertEquals(FileUtil.deepSHA1(archive), hash);
+        Assert.assertEquals(4, index.size());
+        index.save(indexPath);
+
+        // a fake hash in the index for an unchanged file is reused
+        Path icon = archive.resolve("images/icon.txt");
+        index = FileHashIndex.load(indexPath);
+        index.put("images/icon.txt", Files.size(icon), Files.getLastModifiedTime(icon).toMillis(), "FAKE");
+        Assert.assertNotEquals(hash, FileUtil.deepSHA1(archive, index));
+
+        // a changed file is hashed again
+        Files.setLastModifiedTime(icon, FileTime.fromMillis(Files.getLastModifiedTime(icon).toMillis() + 1000));
+        Assert.assertEquals(hash, FileUtil.deepSHA1(archive, index));
+
+        // removed files are removed from the index
+        Files.delete(icon);
+        FileUtil.deepSHA1(archive, index);
+        Assert.assertEquals(3, index.size());
+    }
+}
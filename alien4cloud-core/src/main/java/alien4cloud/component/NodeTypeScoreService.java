@@ -2,32 +2,53 @@ package alien4cloud.component;
 
 import java.util.Date;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
 
 import lombok.extern.slf4j.Slf4j;
 
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.aggregations.Aggregation;
+import org.elasticsearch.search.aggregations.AggregationBuilder;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.bucket.terms.Terms;
+import org.elasticsearch.search.aggregations.metrics.tophits.TopHits;
+import org.elasticsearch.search.aggregations.metrics.tophits.TopHitsBuilder;
+import org.elasticsearch.search.sort.FieldSortBuilder;
+import org.elasticsearch.search.sort.SortOrder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
 
-import alien4cloud.Constants;
+import alien4cloud.dao.IAggregationQueryManager;
 import alien4cloud.dao.IGenericSearchDAO;
-import alien4cloud.dao.model.GetMultipleDataResult;
+import alien4cloud.dao.RefreshPolicy;
+import alien4cloud.dao.model.BulkWriteResult;
+import alien4cloud.dao.model.FacetedSearchResult;
 import org.alien4cloud.tosca.model.types.NodeType;
 import org.alien4cloud.tosca.model.templates.Topology;
-import alien4cloud.utils.MapUtil;
-import alien4cloud.utils.version.Version;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.Maps;
 
 /**
  * Updates the scoring of node types based on their usage, version and default capabilities.
+ * <p>
+ * Scoring is performed as a batch: usages of all types are counted with a single aggregation on topologies, the latest version of every element is found with
+ * a single aggregation on node types and scores are written using partial bulk updates.
  */
 @Slf4j
 @Component
 public class NodeTypeScoreService implements Runnable {
+    private static final String USAGE_AGGREGATION = "type_usage";
+    private static final String LATEST_VERSION_AGGREGATION = "latest_version";
+    private static final String HIGHEST_VERSION_HIT = "highest_version";
+
     @Resource(name = "alien-es-dao")
     private IGenericSearchDAO alienESDAO;
     @Resource(name = "node-type-score-scheduler")
@@ -41,6 +62,9 @@ public class NodeTypeScoreService implements Runnable {
     private long versionBoost;
     @Value("${components.search.boost.default}")
     private long defaultBoost;
+    /** Maximum number of score updates to send in a single bulk request. */
+    @Value("${components.search.boost.bulk_size:500}")
+    private int bulkSize = 500;
 
     /** Refresh boost for all indexed node types in the system. */
     @PostConstruct
@@ -54,47 +78,103 @@ public class NodeTypeScoreService implements Runnable {
     @Override
     public void run() {
         log.info("Updating node type scores.");
-        // Go over all indexed node types.
-        GetMultipleDataResult<NodeType> getMultipleDataResult = alienESDAO.find(NodeType.class, null, 0, Constants.DEFAULT_ES_SEARCH_SIZE);
-        int from = getMultipleDataResult.getTo() + 1;
-        processNodeTypes(getMultipleDataResult.getData());
-        while (getMultipleDataResult.getData().length > 0 && from < getMultipleDataResult.getTotalResults()) {
-            getMultipleDataResult = alienESDAO.find(NodeType.class, null, from, from + Constants.DEFAULT_ES_SEARCH_SIZE);
-            from = getMultipleDataResult.getTo() + 1;
-            processNodeTypes(getMultipleDataResult.getData());
+        long start = System.currentTimeMillis();
+        Map<String, Long> usages = getUsages();
+        Map<String, String> latestVersions = getLatestVersions();
+
+        Map<String, Map<String, Object>> scores = Maps.newHashMap();
+        try (Stream<NodeType> nodeTypes = alienESDAO.stream(NodeType.class, QueryBuilders.matchAllQuery())) {
+            nodeTypes.forEach(nodeType -> {
+                long score = computeScore(nodeType, usages, latestVersions);
+                if (score != nodeType.getAlienScore()) {
+                    Map<String, Object> partialDocument = Maps.newHashMap();
+                    partialDocument.put("alienScore", score);
+                    scores.put(nodeType.getId(), partialDocument);
+                }
+            });
         }
+        BulkWriteResult result = alienESDAO.bulkUpdate(NodeType.class, scores, bulkSize, RefreshPolicy.IMMEDIATE);
+        if (!result.isSuccess()) {
+            log.warn("Failed to update the score of {} node types.", result.getFailures().size());
+        }
+        log.info("Updated {} node type scores in {} ms.", scores.size(), System.currentTimeMillis() - start);
     }
 
-    private void processNodeTypes(NodeType[] indexedNodeTypes) {
-        for (NodeType nodeType : indexedNodeTypes) {
-            if (log.isDebugEnabled()) {
-                log.debug("Processing node score for type {}", nodeType.getId());
-            }
-            Map<String, String[]> usedNodeFiler = Maps.newHashMap();
-            usedNodeFiler.put("nodeTemplates.value.type", new String[] { nodeType.getElementId() });
-            // count the applications that uses the node-type
-            long usageFactor = usageBoost * alienESDAO.count(Topology.class, null, usedNodeFiler);
-            // get the version factor (latest version of a node is better than previous version, snapshot versions do not get boost)
-            long versionFactor = isLatestVersion(nodeType) ? versionBoost : 0;
-            // default boost (boost node types that have a default capability)
-            long defaultFactor = nodeType.getDefaultCapabilities() == null || nodeType.getDefaultCapabilities().isEmpty() ? 0 : defaultBoost;
-            // update the score for the node type.
-            nodeType.setAlienScore(usageFactor + defaultFactor + versionFactor);
-            alienESDAO.save(nodeType);
+    private long computeScore(NodeType nodeType, Map<String, Long> usages, Map<String, String> latestVersions) {
+        if (log.isDebugEnabled()) {
+            log.debug("Processing node score for type {}", nodeType.getId());
         }
+        // count the applications that uses the node-type
+        Long usage = usages.get(nodeType.getElementId());
+        long usageFactor = usage == null ? 0 : usageBoost * usage;
+        // get the version factor (latest version of a node is better than previous version, snapshot versions do not get boost)
+        long versionFactor = nodeType.getArchiveVersion().equals(latestVersions.get(nodeType.getElementId())) ? versionBoost : 0;
+        // default boost (boost node types that have a default capability)
+        long defaultFactor = nodeType.getDefaultCapabilities() == null || nodeType.getDefaultCapabilities().isEmpty() ? 0 : defaultBoost;
+        return usageFactor + defaultFactor + versionFactor;
+    }
+
+    /**
+     * @return The number of topologies that uses every node type element id.
+     */
+    private Map<String, Long> getUsages() {
+        Map<String, Long> usages = Maps.newHashMap();
+        // size 0 means all the terms
+        AggregationBuilder aggregation = AggregationBuilders.terms(USAGE_AGGREGATION).field("nodeTemplates.value.type").size(0);
+        alienESDAO.buildQuery(Topology.class).prepareSearch().facetedSearch(new AggregationReader(aggregation, terms -> {
+            for (Terms.Bucket bucket : terms.getBuckets()) {
+                usages.put(bucket.getKey(), bucket.getDocCount());
+            }
+        }));
+        return usages;
     }
 
-    private boolean isLatestVersion(NodeType nodeType) {
-        Map<String, String[]> filters = MapUtil.newHashMap(new String[] { "elementId" }, new String[][] { new String[] { nodeType.getElementId() } });
-        // TODO get a single element and order by version.
-        Version nodeVersion = new Version(((NodeType) nodeType).getArchiveVersion());
+    /**
+     * @return The latest archive version of every node type element id.
+     */
+    private Map<String, String> getLatestVersions() {
+        Map<String, String> latestVersions = Maps.newHashMap();
+        TopHitsBuilder topHitAggregation = AggregationBuilders.topHits(HIGHEST_VERSION_HIT).setSize(1)
+                .setFetchSource(new String[] { "archiveVersion" }, null)
+                .addSort(new FieldSortBuilder("nestedVersion.majorVersion").order(SortOrder.DESC))
+                .addSort(new FieldSortBuilder("nestedVersion.minorVersion").order(SortOrder.DESC))
+                .addSort(new FieldSortBuilder("nestedVersion.incrementalVersion").order(SortOrder.DESC))
+                .addSort(new FieldSortBuilder("nestedVersion.qualifier").order(SortOrder.DESC).missing("_first"));
+        AggregationBuilder aggregation = AggregationBuilders.terms(LATEST_VERSION_AGGREGATION).field("rawElementId").size(0)
+                .subAggregation(topHitAggregation);
+        alienESDAO.buildQuery(NodeType.class).prepareSearch().facetedSearch(new AggregationReader(aggregation, terms -> {
+            for (Terms.Bucket bucket : terms.getBuckets()) {
+                TopHits topHits = bucket.getAggregations().get(HIGHEST_VERSION_HIT);
+                for (SearchHit hit : topHits.getHits()) {
+                    latestVersions.put(bucket.getKey(), (String) hit.getSource().get("archiveVersion"));
+                }
+            }
+        }));
+        return latestVersions;
+    }
+
+    /**
+     * Aggregation query manager that just gives the terms aggregation result to a consumer.
+     */
+    private static class AggregationReader implements IAggregationQueryManager {
+        private final AggregationBuilder aggregation;
+        private final Consumer<Terms> termsConsumer;
+
+        private AggregationReader(AggregationBuilder aggregation, Consumer<Terms> termsConsumer) {
+            this.aggregation = aggregation;
+            this.termsConsumer = termsConsumer;
+        }
+
+        @Override
+        public AggregationBuilder getQueryAggregation() {
+            return aggregation;
+        }
 
-        for (Object otherVersionNodeType : alienESDAO.find(NodeType.class, filters, Constants.DEFAULT_ES_SEARCH_SIZE).getData()) {
-            Version otherVersion = new Version(((NodeType) otherVersionNodeType).getArchiveVersion());
-            if (nodeVersion.compareTo(otherVersion) < 0) {
-                return false;
+        @Override
+        public void setData(ObjectMapper objectMapper, Function getClassFromType, FacetedSearchResult result, Aggregation aggregation) {
+            if (aggregation != null) {
+                termsConsumer.accept((Terms) aggregation);
             }
         }
-        return true;
     }
 }
@@ -5,8 +5,10 @@ import java.util.concurrent.Executor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 @Configuration
@@ -17,6 +19,9 @@ public class SchedulingConfiguration {
     @Value("${paas_monitor.threadpool_size}")
     private int paasMonitorThreadPoolSize;
 
+    @Value("${archive.import.parallelism:1}")
+    private int archiveImportParallelism;
+
     @Bean(name = "paas-monitor-scheduler")
     public Executor getPaaSScheduler() {
         ThreadPoolTaskScheduler threadPoolTaskScheduler = new ThreadPoolTaskScheduler();
@@ -33,4 +38,11 @@ public class SchedulingConfiguration {
         return threadPoolTaskScheduler;
     }
 
+    @Bean(name = "archive-import-executor")
+    public AsyncTaskExecutor getArchiveImportExecutor() {
+        ThreadPoolTaskExecutor threadPoolTaskExecutor = new ThreadPoolTaskExecutor();
+        threadPoolTaskExecutor.setCorePoolSize(Math.max(1, archiveImportParallelism));
+        threadPoolTaskExecutor.setThreadNamePrefix("archive-import-");
+        return threadPoolTaskExecutor;
+    }
 }
\ No newline at end of file
@@ -6,20 +6,23 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.util.Set;
+import java.util.Map;
 
 import org.springframework.stereotype.Service;
 
 import com.google.common.base.Strings;
-import com.google.common.collect.Sets;
+import com.google.common.collect.Maps;
 
 import alien4cloud.exception.GitException;
 import alien4cloud.tosca.parser.ToscaArchiveParser;
+import alien4cloud.utils.FileHashIndex;
 import alien4cloud.utils.FileUtil;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * This service detects TOSCA cloud service archives in a given folder and return an ordered list of archives path to import.
  */
+@Slf4j
 @Service
 public class CsarFinderService {
 
@@ -27,11 +30,15 @@ public class CsarFinderService {
      * Search in the given path for folders that contains CloudServiceArchives and zip them so they.
      *
      * @param searchPath The path in which to search for archives.
-     * @return a list of path that contains archives.
+     * @param zipPath The path in which to create the archives zip files.
+     * @param hashIndexPath The path in which the index of the archives files hashes are kept between imports, null if the indexes must not be kept.
+     * @param subpath The sub path of the archives to import.
+     * @return The paths of the zipped archives and the hash of their content (see {@link FileUtil#deepSHA1(Path)}).
      */
-    public Set<Path> prepare(Path searchPath, Path zipPath, String subpath) {
+    public Map<Path, String> prepare(Path searchPath, Path zipPath, Path hashIndexPath, String subpath) {
         ToscaFinderWalker toscaFinderWalker = new ToscaFinderWalker();
         toscaFinderWalker.zipRootPath = zipPath;
+        toscaFinderWalker.hashIndexRootPath = hashIndexPath;
         toscaFinderWalker.rootPath = searchPath;
         toscaFinderWalker.subpath = subpath;
         try {
@@ -45,8 +52,9 @@ public class CsarFinderService {
     private static class ToscaFinderWalker extends SimpleFileVisitor<Path> {
         private Path rootPath;
         private Path zipRootPath;
+        private Path hashIndexRootPath;
         private String subpath;
-        private Set<Path> toscaArchives = Sets.newHashSet();
+        private Map<Path, String> toscaArchives = Maps.newHashMap();
 
         @Override
         public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
@@ -80,10 +88,27 @@ public class CsarFinderService {
                     FileUtil.delete(zipPath);
                 }
                 FileUtil.zip(path, zipPath);
-                toscaArchives.add(zipPath);
+                // the hash of the archive directory is the hash of the zip, only the files changed since the previous import are hashed again.
+                toscaArchives.put(zipPath, hash(path, relativePath));
             } catch (IOException e) {
                 throw new GitException("Failed to zip archives in order to import them.", e);
             }
         }
+
+        private String hash(Path path, Path relativePath) {
+            if (hashIndexRootPath == null) {
+                return FileUtil.deepSHA1(path);
+            }
+            Path indexPath = hashIndexRootPath.resolve(relativePath).resolve("archive.idx");
+            FileHashIndex index = FileHashIndex.load(indexPath);
+            String hash = FileUtil.deepSHA1(path, index);
+            try {
+                Files.createDirectories(indexPath.getParent());
+                index.save(indexPath);
+            } catch (IOException e) {
+                log.warn("Failed to save the files hash index of archive {}, files will be hashed again on next import.", path, e);
+            }
+            return hash;
+        }
     }
 }
\ No newline at end of file
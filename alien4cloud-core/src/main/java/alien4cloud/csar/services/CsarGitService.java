@@ -6,7 +6,6 @@ import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
 
 import javax.annotation.Resource;
 import javax.inject.Inject;
@@ -22,6 +21,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.FileSystemUtils;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 
 import alien4cloud.common.AlienConstants;
 import alien4cloud.component.repository.exception.CSARUsedInActiveDeployment;
@@ -54,12 +54,14 @@ public class CsarGitService {
     // TODO store archives that are not 'temp' in another location.
     private Path tempDirPath;
     private Path tempZipDirPath;
+    private Path tempHashIndexDirPath;
 
     @Required
     @Value("${directories.alien}/${directories.upload_temp}")
     public void setTempDirPath(String tempDirPath) throws IOException {
         this.tempDirPath = FileUtil.createDirectoryIfNotExists(tempDirPath + "/git");
         this.tempZipDirPath = FileUtil.createDirectoryIfNotExists(tempDirPath + "/gitzips");
+        this.tempHashIndexDirPath = FileUtil.createDirectoryIfNotExists(tempDirPath + "/githashes");
     }
 
     /**
@@ -74,6 +76,10 @@ public class CsarGitService {
             if (Files.isDirectory(repositoryPath)) {
                 FileSystemUtils.deleteRecursively(repositoryPath.toFile());
             }
+            Path hashIndexPath = tempHashIndexDirPath.resolve(csarGit.getId());
+            if (Files.isDirectory(hashIndexPath)) {
+                FileSystemUtils.deleteRecursively(hashIndexPath.toFile());
+            }
         }
         alienDAO.delete(CsarGitRepository.class, csarGit.getId());
     }
@@ -144,24 +150,31 @@ public class CsarGitService {
         // find all the archives under the given hierarchy and zip them to create archives
         Path archiveZipRoot = tempZipDirPath.resolve(csarGitRepository.getId());
         Path archiveGitRoot = tempDirPath.resolve(csarGitRepository.getId());
-        Set<Path> archivePaths = csarFinderService.prepare(archiveGitRoot, archiveZipRoot, csarGitCheckoutLocation.getSubPath());
+        // files hashes are only worth keeping if the repository is not cloned again on next import.
+        Path hashIndexRoot = csarGitRepository.isStoredLocally() ? tempHashIndexDirPath.resolve(csarGitRepository.getId()) : null;
+        Map<Path, String> archiveHashes = csarFinderService.prepare(archiveGitRoot, archiveZipRoot, hashIndexRoot, csarGitCheckoutLocation.getSubPath());
 
         // TODO code review has to be completed to further cleanup below processing.
         List<ParsingResult<Csar>> parsingResult = Lists.newArrayList();
         try {
-            Map<CSARDependency, CsarDependenciesBean> csarDependenciesBeans = uploadService.preParsing(archivePaths, parsingResult);
-            List<CsarDependenciesBean> sorted = sort(csarDependenciesBeans);
-            for (CsarDependenciesBean csarBean : sorted) {
-                if (csarGitCheckoutLocation.getLastImportedHash() != null && csarGitCheckoutLocation.getLastImportedHash().equals(gitHash)) {
-                    if (csarService.get(csarBean.getSelf().getName(), csarBean.getSelf().getVersion()) != null) {
-                        // no commit since last import and the archive still exist in the repo, so do not import
-                        // TODO notify the user that the archive has already been imported
-                        continue;
+            Map<CSARDependency, CsarDependenciesBean> csarDependenciesBeans = uploadService.preParsing(archiveHashes.keySet(), archiveHashes, parsingResult);
+            // archives of a same level don't depend on each other and can be imported concurrently.
+            for (List<CsarDependenciesBean> level : sort(csarDependenciesBeans)) {
+                List<Path> levelPaths = Lists.newArrayList();
+                Map<Path, String> levelHashes = Maps.newHashMap();
+                for (CsarDependenciesBean csarBean : level) {
+                    if (csarGitCheckoutLocation.getLastImportedHash() != null && csarGitCheckoutLocation.getLastImportedHash().equals(gitHash)) {
+                        if (csarService.get(csarBean.getSelf().getName(), csarBean.getSelf().getVersion()) != null) {
+                            // no commit since last import and the archive still exist in the repo, so do not import
+                            // TODO notify the user that the archive has already been imported
+                            continue;
+                        }
                     }
+                    levelPaths.add(csarBean.getPath());
+                    levelHashes.put(csarBean.getPath(), csarBean.getHash());
                 }
                 // FIXME Add possibility to choose an workspace
-                ParsingResult<Csar> result = uploadService.upload(csarBean.getPath(), CSARSource.GIT, AlienConstants.GLOBAL_WORKSPACE_ID);
-                parsingResult.add(result);
+                parsingResult.addAll(uploadService.upload(levelPaths, levelHashes, CSARSource.GIT, AlienConstants.GLOBAL_WORKSPACE_ID));
             }
             return parsingResult;
         } catch (ParsingException e) {
@@ -175,8 +188,14 @@ public class CsarGitService {
         }
     }
 
-    private List<CsarDependenciesBean> sort(Map<CSARDependency, CsarDependenciesBean> elements) {
-        List<CsarDependenciesBean> sortedCsars = Lists.newArrayList();
+    /**
+     * Sort archives by dependency levels: an archive only depends on archives from previous levels.
+     *
+     * @param elements The archives to sort.
+     * @return The list of levels.
+     */
+    List<List<CsarDependenciesBean>> sort(Map<CSARDependency, CsarDependenciesBean> elements) {
+        List<List<CsarDependenciesBean>> sortedCsars = Lists.newArrayList();
 
         List<CsarDependenciesBean> independents = Lists.newArrayList();
         for (Map.Entry<CSARDependency, CsarDependenciesBean> entry : elements.entrySet()) {
@@ -206,15 +225,18 @@ public class CsarGitService {
         }
 
         while (independents.size() > 0) {
-            CsarDependenciesBean independent = independents.remove(0);
-            elements.remove(independent.getSelf()); // remove from the elements
-            sortedCsars.add(independent); // element has no more dependencies
-            for (CsarDependenciesBean dependent : independent.getDependents()) {
-                dependent.getDependencies().remove(independent.getSelf());
-                if (dependent.getDependencies().isEmpty()) {
-                    independents.add(dependent);
+            List<CsarDependenciesBean> nextIndependents = Lists.newArrayList();
+            for (CsarDependenciesBean independent : independents) {
+                elements.remove(independent.getSelf()); // remove from the elements
+                for (CsarDependenciesBean dependent : independent.getDependents()) {
+                    dependent.getDependencies().remove(independent.getSelf());
+                    if (dependent.getDependencies().isEmpty()) {
+                        nextIndependents.add(dependent);
+                    }
                 }
             }
+            sortedCsars.add(independents); // elements of the level have no more dependencies
+            independents = nextIndependents;
         }
 
         if (elements.size() > 0) {
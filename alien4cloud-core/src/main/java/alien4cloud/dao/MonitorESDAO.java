@@ -2,25 +2,61 @@ package alien4cloud.dao;
 
 import java.beans.IntrospectionException;
 import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
 
+import org.elasticsearch.action.bulk.BulkRequestBuilder;
+import org.elasticsearch.action.search.SearchType;
+import org.elasticsearch.search.SearchHit;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import alien4cloud.dao.model.BulkWriteResult;
 import alien4cloud.exception.IndexingServiceException;
 import alien4cloud.model.deployment.DeploymentTopology;
 import alien4cloud.paas.model.*;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Elastic Search DAO for Monitor events in Alien application.
  *
+ * Unless paas_monitor.events_index_period is NONE, monitor events and deployment logs are stored in time partitioned indices (see
+ * {@link TimePartitionedIndex}) that are dropped once older than paas_monitor.events_lifetime rather than relying on documents TTL.
+ *
  * @author luc boutier
  */
+@Slf4j
 @Component("alien-monitor-es-dao")
 public class MonitorESDAO extends ESGenericSearchDAO {
+    public static final String EVENTS_INDEX = "deploymentmonitorevents";
+    private static final Pattern DURATION_PATTERN = Pattern.compile("(\\d+)\\s*(ms|s|m|h|d|w)?");
+    private static final long RETENTION_CHECK_INTERVAL_MS = TimeUnit.HOURS.toMillis(1);
+
     @Value("${paas_monitor.events_lifetime}")
     private String eventMonitoringTtl;
+    /** Period of the monitor events and logs indices partitions (NONE, DAILY or WEEKLY). */
+    @Value("${paas_monitor.events_index_period:DAILY}")
+    private String eventsIndexPeriod;
+    @Resource(name = "paas-monitor-scheduler")
+    private TaskScheduler scheduler;
+
+    private final Map<Class<?>, TimePartitionedIndex> partitionedIndices = Maps.newHashMap();
+    /** Partitions known to exist and to be referenced by their alias. */
+    private final Set<String> existingPartitions = ConcurrentHashMap.newKeySet();
 
     /** Initialize the dao after being loaded by spring (Create the indexes). */
     @PostConstruct
@@ -38,8 +74,156 @@ public class MonitorESDAO extends ESGenericSearchDAO {
                 PaaSMessageMonitorEvent.class, PaaSInstancePersistentResourceMonitorEvent.class, PaaSWorkflowStepMonitorEvent.class,
                 PaaSWorkflowMonitorEvent.class };
         initIndices("deployedtopologies", null, DeploymentTopology.class);
-        initIndices("deploymentmonitorevents", eventMonitoringTtl, classes);
-        initIndices(PaaSDeploymentLog.class.getSimpleName().toLowerCase(), eventMonitoringTtl, PaaSDeploymentLog.class);
+        if ("NONE".equalsIgnoreCase(eventsIndexPeriod)) {
+            initIndices(EVENTS_INDEX, eventMonitoringTtl, classes);
+            initIndices(PaaSDeploymentLog.class.getSimpleName().toLowerCase(), eventMonitoringTtl, PaaSDeploymentLog.class);
+        } else {
+            TimePartitionedIndex.Period period = TimePartitionedIndex.Period.valueOf(eventsIndexPeriod.toUpperCase());
+            initPartitionedIndex(new TimePartitionedIndex(EVENTS_INDEX, period, classes));
+            initPartitionedIndex(new TimePartitionedIndex(PaaSDeploymentLog.class.getSimpleName().toLowerCase(), period, PaaSDeploymentLog.class));
+            scheduler.scheduleWithFixedDelay(this::dropExpiredPartitions, RETENTION_CHECK_INTERVAL_MS);
+        }
+        // events and logs don't need read-your-writes, deployment topologies (runtime state) do.
+        setRefreshPolicy(RefreshPolicy.DEFERRED, classes);
+        setRefreshPolicy(RefreshPolicy.DEFERRED, PaaSDeploymentLog.class);
         initCompleted();
     }
-}
\ No newline at end of file
+
+    private void initPartitionedIndex(TimePartitionedIndex index) {
+        // classes are mapped to the alias for reads, writes are routed to the current partition by getWriteIndexForType.
+        addToMappedClasses(index.getAlias(), index.getClasses());
+        for (Class<?> clazz : index.getClasses()) {
+            partitionedIndices.put(clazz, index);
+        }
+        boolean aliasExists = getClient().admin().indices().prepareAliasesExist(index.getAlias()).execute().actionGet().exists();
+        if (!aliasExists && indexExist(index.getAlias())) {
+            migrateLegacyIndex(index);
+        } else {
+            ensurePartition(index, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Move the documents of a non-partitioned index (created before partitioning) to the current partition and replace the index by the partitions alias.
+     */
+    private void migrateLegacyIndex(TimePartitionedIndex index) {
+        String partition = index.getPartition(System.currentTimeMillis());
+        log.info("Migrating index <{}> to time partitioned index <{}>", index.getAlias(), partition);
+        createIndex(partition, null, index.getClasses());
+        BulkWriteResult result = new BulkWriteResult();
+        scroll(getClient().prepareSearch(index.getAlias()), SearchType.SCAN, DEFAULT_PAGE_SIZE, hits -> {
+            BulkRequestBuilder bulkRequestBuilder = getClient().prepareBulk();
+            for (SearchHit hit : hits) {
+                bulkRequestBuilder.add(getClient().prepareIndex(partition, hit.getType(), hit.getId()).setSource(hit.getSourceRef()));
+            }
+            executeBulk(bulkRequestBuilder, result);
+        });
+        if (!result.isSuccess()) {
+            throw new IndexingServiceException("Failed to migrate " + result.getFailures().size() + " documents from index <" + index.getAlias() + ">");
+        }
+        getClient().admin().indices().prepareDelete(index.getAlias()).execute().actionGet();
+        getClient().admin().indices().prepareAliases().addAlias(partition, index.getAlias()).execute().actionGet();
+        existingPartitions.add(partition);
+        log.info("Migrated {} documents from index <{}> to <{}>", result.getItemCount(), index.getAlias(), partition);
+    }
+
+    /**
+     * Create the partition for the given time and add it to the alias if it doesn't exist yet.
+     *
+     * @return The name of the partition.
+     */
+    private String ensurePartition(TimePartitionedIndex index, long time) {
+        String partition = index.getPartition(time);
+        if (existingPartitions.contains(partition)) {
+            return partition;
+        }
+        synchronized (existingPartitions) {
+            if (!existingPartitions.contains(partition)) {
+                if (!indexExist(partition)) {
+                    log.info("Creating partition <{}> of index <{}>", partition, index.getAlias());
+                    createIndex(partition, null, index.getClasses());
+                }
+                getClient().admin().indices().prepareAliases().addAlias(partition, index.getAlias()).execute().actionGet();
+                existingPartitions.add(partition);
+            }
+        }
+        return partition;
+    }
+
+    private List<String> getPartitions(TimePartitionedIndex index) {
+        return Lists.newArrayList(getClient().admin().indices().prepareGetAliases(index.getAlias()).execute().actionGet().getAliases().keysIt());
+    }
+
+    @Override
+    public String getWriteIndexForType(Class<?> clazz) {
+        TimePartitionedIndex index = partitionedIndices.get(clazz);
+        if (index == null) {
+            return super.getWriteIndexForType(clazz);
+        }
+        return ensurePartition(index, System.currentTimeMillis());
+    }
+
+    @Override
+    public String[] getIndicesForType(Class<?> clazz, Date since) {
+        TimePartitionedIndex index = partitionedIndices.get(clazz);
+        if (index == null || since == null) {
+            return super.getIndicesForType(clazz, since);
+        }
+        List<String> partitions = index.getPartitionsSince(getPartitions(index), since.getTime());
+        if (partitions.isEmpty()) {
+            // never search an empty list of indices as elastic search would search all indices.
+            partitions.add(ensurePartition(index, System.currentTimeMillis()));
+        }
+        return partitions.toArray(new String[partitions.size()]);
+    }
+
+    /**
+     * Drop the partitions that only contain documents older than the events lifetime.
+     */
+    public void dropExpiredPartitions() {
+        long expirationTime = System.currentTimeMillis() - parseDuration(eventMonitoringTtl);
+        for (TimePartitionedIndex index : Sets.newHashSet(partitionedIndices.values())) {
+            try {
+                List<String> expiredPartitions = index.getPartitionsBefore(getPartitions(index), expirationTime);
+                // the current partition is never dropped as it is cached as existing.
+                expiredPartitions.remove(index.getPartition(System.currentTimeMillis()));
+                if (!expiredPartitions.isEmpty()) {
+                    log.info("Dropping expired partitions {} of index <{}>", expiredPartitions, index.getAlias());
+                    getClient().admin().indices().prepareDelete(expiredPartitions.toArray(new String[expiredPartitions.size()])).execute().actionGet();
+                    existingPartitions.removeAll(expiredPartitions);
+                }
+            } catch (Exception e) {
+                log.error("Failed to drop expired partitions of index <{}>", index.getAlias(), e);
+            }
+        }
+    }
+
+    /**
+     * Parse a duration expressed in elastic search TTL notation.
+     *
+     * @param duration The duration: a number followed by a unit, d (days), m (minutes), h (hours), s (seconds), ms (milliseconds, default) or w (weeks).
+     * @return The duration in milliseconds.
+     */
+    static long parseDuration(String duration) {
+        Matcher matcher = DURATION_PATTERN.matcher(duration.trim());
+        if (!matcher.matches()) {
+            throw new IndexingServiceException("Invalid events lifetime <" + duration + ">");
+        }
+        long value = Long.parseLong(matcher.group(1));
+        String unit = matcher.group(2) == null ? "ms" : matcher.group(2);
+        switch (unit) {
+        case "s":
+            return TimeUnit.SECONDS.toMillis(value);
+        case "m":
+            return TimeUnit.MINUTES.toMillis(value);
+        case "h":
+            return TimeUnit.HOURS.toMillis(value);
+        case "d":
+            return TimeUnit.DAYS.toMillis(value);
+        case "w":
+            return TimeUnit.DAYS.toMillis(value * 7);
+        default:
+            return value;
+        }
+    }
+}
@@ -131,6 +131,7 @@ public class DeployService {
         // Download and process all remote artifacts before deployment
         artifactProcessorService.processArtifacts(deploymentContext);
         // Build the context for deployment and deploy
+        orchestratorPluginService.wakeUp(deployment.getOrchestratorId());
         orchestratorPlugin.deploy(deploymentContext, new IPaaSCallback<Object>() {
             @Override
             public void onSuccess(Object data) {
@@ -110,6 +110,7 @@ public class DeploymentRuntimeService {
         alienMonitorDao.save(topology);
         IOrchestratorPlugin orchestratorPlugin = orchestratorPluginService.getOrFail(deployment.getOrchestratorId());
         PaaSDeploymentContext deploymentContext = new PaaSDeploymentContext(deployment, deploymentTopology);
+        orchestratorPluginService.wakeUp(deployment.getOrchestratorId());
         orchestratorPlugin.scale(deploymentContext, nodeTemplateId, instances, new IPaaSCallback() {
             @Override
             public void onFailure(Throwable throwable) {
@@ -138,12 +138,13 @@ public class DeploymentRuntimeStateService {
      */
     public GetMultipleDataResult<?> getDeploymentEvents(String applicationEnvironmentId, int from, int size) {
         Deployment deployment = deploymentService.getActiveDeploymentOrFail(applicationEnvironmentId);
-        String index = alienMonitorDao.getIndexForType(AbstractMonitorEvent.class);
+        // events of a deployment cannot be older than the deployment so only the partitions written since its start are searched.
+        String[] indices = alienMonitorDao.getIndicesForType(AbstractMonitorEvent.class, deployment.getStartDate());
 
         QueryHelper.ISearchQueryBuilderHelper searchQueryHelperBuilder = queryHelper.buildQuery()
                 .types(PaaSDeploymentStatusMonitorEvent.class, PaaSInstanceStateMonitorEvent.class, PaaSMessageMonitorEvent.class,
                         PaaSInstancePersistentResourceMonitorEvent.class)
-                .filters(MapUtil.newHashMap(new String[] { "deploymentId" }, new String[][] { new String[] { deployment.getId() } })).prepareSearch(index)
+                .filters(MapUtil.newHashMap(new String[] { "deploymentId" }, new String[][] { new String[] { deployment.getId() } })).prepareSearch(indices)
                 .fieldSort("_timestamp", true);
         return alienMonitorDao.search(searchQueryHelperBuilder, from, size);
     }
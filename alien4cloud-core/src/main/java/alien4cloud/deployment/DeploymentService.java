@@ -1,6 +1,7 @@
 package alien4cloud.deployment;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 import javax.annotation.Resource;
 import javax.inject.Inject;
@@ -209,14 +210,13 @@ public class DeploymentService {
         Map<String, Set<String>> result = new HashMap<>();
         Map<String, String[]> activeDeploymentFilters = MapUtil.newHashMap(new String[] { "environmentId" },
                 new String[][] { new String[] { applicationEnvironmentId } });
-        GetMultipleDataResult<Deployment> dataResult = alienDao.search(Deployment.class, null, activeDeploymentFilters, Integer.MAX_VALUE);
-        if (dataResult.getData() != null && dataResult.getData().length > 0) {
-            for (Deployment deployment : dataResult.getData()) {
+        try (Stream<Deployment> deployments = alienDao.stream(Deployment.class, activeDeploymentFilters)) {
+            deployments.forEach(deployment -> {
                 if (!result.containsKey(deployment.getOrchestratorId())) {
                     result.put(deployment.getOrchestratorId(), new HashSet<String>());
                 }
                 result.get(deployment.getOrchestratorId()).add(deployment.getOrchestratorDeploymentId());
-            }
+            });
         }
         return result;
     }
@@ -51,10 +51,24 @@ import lombok.extern.slf4j.Slf4j;
 
 /**
  * Manages the deployment topology handling.
+ * <p>
+ * The deployment topology is generated in stages (see {@link GenerationStage}). Changes only process the stages that depend on what has changed: for example
+ * a change of a location (resources or meta-properties) doesn't require to merge the initial topology again and a change of the inputs doesn't require to
+ * match the nodes again.
  */
 @Service
 @Slf4j
 public class DeploymentTopologyService {
+    /** Stages of the generation of a deployment topology, in processing order. */
+    private enum GenerationStage {
+        /** Merge of the initial topology and processing of the topology composition. Every other stage must be processed after this one. */
+        TOPOLOGY,
+        /** Processing of the input properties, get_input functions and orchestrator deployment properties. */
+        INPUTS,
+        /** Matching of the nodes against the locations resources and substitution of the matched nodes. */
+        SUBSTITUTION
+    }
+
     @Resource(name = "alien-es-dao")
     private IGenericSearchDAO alienDAO;
     @Inject
@@ -141,18 +155,22 @@ public class DeploymentTopologyService {
             if (locationsInvalid) {
                 // Generate the deployment topology if none exist or if locations are not valid anymore
                 deploymentTopology = generateDeploymentTopology(id, environment, topology, new DeploymentTopology());
-            } else if (checkIfTopologyOrLocationHasChanged(deploymentTopology, locations.values(), topology)) {
+            } else if (checkIfTopologyHasChanged(deploymentTopology, topology)) {
                 // Re-generate the deployment topology if the initial topology has been changed
                 generateDeploymentTopology(id, environment, topology, deploymentTopology);
+            } else if (checkIfLocationHasChanged(deploymentTopology, locations.values())) {
+                // Location resources may have been added, updated or removed and location meta-properties used as inputs may have been updated
+                processStages(deploymentTopology, topology, environment, EnumSet.of(GenerationStage.INPUTS, GenerationStage.SUBSTITUTION));
             }
         }
         return deploymentTopology;
     }
 
-    private boolean checkIfTopologyOrLocationHasChanged(DeploymentTopology deploymentTopology, Collection<Location> locations, Topology topology) {
-        if (deploymentTopology.getLastDeploymentTopologyUpdateDate().before(topology.getLastUpdateDate())) {
-            return true;
-        }
+    private boolean checkIfTopologyHasChanged(DeploymentTopology deploymentTopology, Topology topology) {
+        return deploymentTopology.getLastDeploymentTopologyUpdateDate().before(topology.getLastUpdateDate());
+    }
+
+    private boolean checkIfLocationHasChanged(DeploymentTopology deploymentTopology, Collection<Location> locations) {
         for (Location location : locations) {
             if (deploymentTopology.getLastDeploymentTopologyUpdateDate().before(location.getLastUpdateDate())) {
                 return true;
@@ -173,7 +191,7 @@ public class DeploymentTopologyService {
         // Handle the case when new resources added
         // TODO In the case when resource is updated / deleted on the location we should update everywhere where they are used
         if (availableSubstitutions.size() != existingSubstitutions.size()) {
-            updateDeploymentTopology(deploymentTopology);
+            updateDeploymentTopologySubstitutions(deploymentTopology);
         }
         return new DeploymentConfiguration(deploymentTopology, substitutionConfiguration);
     }
@@ -223,13 +241,50 @@ public class DeploymentTopologyService {
     }
 
     private void doUpdateDeploymentTopology(DeploymentTopology deploymentTopology, Topology topology, ApplicationEnvironment environment) {
+        processStages(deploymentTopology, topology, environment, EnumSet.allOf(GenerationStage.class));
+    }
+
+    /**
+     * Re-process the node substitutions of the deployment topology and save it. This should be called when the substitutions or the location resources have
+     * changed while the initial topology and the inputs have not.
+     *
+     * @param deploymentTopology the deployment topology to update
+     */
+    private void updateDeploymentTopologySubstitutions(DeploymentTopology deploymentTopology) {
+        processStages(deploymentTopology, null, null, EnumSet.of(GenerationStage.SUBSTITUTION));
+    }
+
+    /**
+     * Process the given generation stages on the deployment topology and save it.
+     *
+     * @param deploymentTopology The deployment topology to update.
+     * @param topology The initial topology, required only for the topology and inputs stages.
+     * @param environment The environment of the deployment topology, required only for the inputs stage.
+     * @param stages The stages to process, the topology stage requires all the other stages to be processed.
+     */
+    private void processStages(DeploymentTopology deploymentTopology, Topology topology, ApplicationEnvironment environment, Set<GenerationStage> stages) {
         Map<String, NodeTemplate> previousNodeTemplates = deploymentTopology.getNodeTemplates();
-        ReflectionUtil.mergeObject(topology, deploymentTopology, "id");
-        topologyCompositionService.processTopologyComposition(deploymentTopology);
-        deploymentInputService.processInputProperties(deploymentTopology);
-        inputsPreProcessorService.processGetInput(deploymentTopology, environment, topology);
-        deploymentInputService.processProviderDeploymentProperties(deploymentTopology);
-        deploymentNodeSubstitutionService.processNodesSubstitution(deploymentTopology, previousNodeTemplates);
+        if (stages.contains(GenerationStage.TOPOLOGY)) {
+            ReflectionUtil.mergeObject(topology, deploymentTopology, "id");
+            topologyCompositionService.processTopologyComposition(deploymentTopology);
+        } else if (stages.contains(GenerationStage.SUBSTITUTION)) {
+            // the substituted nodes must be matched again from the nodes of the initial topology, restore them before the inputs are processed on them.
+            previousNodeTemplates = Maps.newHashMap(previousNodeTemplates);
+            for (Map.Entry<String, String> substitutedNodeEntry : deploymentTopology.getSubstitutedNodes().entrySet()) {
+                NodeTemplate originalNode = deploymentTopology.getOriginalNodes().get(substitutedNodeEntry.getKey());
+                if (originalNode != null) {
+                    deploymentTopology.getNodeTemplates().put(substitutedNodeEntry.getKey(), originalNode);
+                }
+            }
+        }
+        if (stages.contains(GenerationStage.INPUTS)) {
+            deploymentInputService.processInputProperties(deploymentTopology);
+            inputsPreProcessorService.processGetInput(deploymentTopology, environment, topology);
+            deploymentInputService.processProviderDeploymentProperties(deploymentTopology);
+        }
+        if (stages.contains(GenerationStage.SUBSTITUTION)) {
+            deploymentNodeSubstitutionService.processNodesSubstitution(deploymentTopology, previousNodeTemplates);
+        }
         save(deploymentTopology);
     }
 
@@ -241,10 +296,7 @@ public class DeploymentTopologyService {
     public void updateDeploymentTopologyInputsAndSave(DeploymentTopology deploymentTopology) {
         ApplicationEnvironment environment = appEnvironmentServices.getOrFail(deploymentTopology.getEnvironmentId());
         Topology topology = topologyServiceCore.getOrFail(deploymentTopology.getInitialTopologyId());
-        deploymentInputService.processInputProperties(deploymentTopology);
-        inputsPreProcessorService.processGetInput(deploymentTopology, environment, topology);
-        deploymentInputService.processProviderDeploymentProperties(deploymentTopology);
-        save(deploymentTopology);
+        processStages(deploymentTopology, topology, environment, EnumSet.of(GenerationStage.INPUTS));
     }
 
     /**
@@ -515,9 +567,9 @@ public class DeploymentTopologyService {
         // check if the resource exists
         locationResourceService.getOrFail(locationResourceTemplateId);
         deploymentTopology.getSubstitutedNodes().put(nodeId, locationResourceTemplateId);
-        // revert the old substituted to the original one. It will be updated when processing the substitutions in updateDeploymentTopology
+        // revert the old substituted to the original one. It will be updated when processing the substitutions
         deploymentTopology.getNodeTemplates().put(nodeId, deploymentTopology.getOriginalNodes().get(nodeId));
-        updateDeploymentTopology(deploymentTopology);
+        updateDeploymentTopologySubstitutions(deploymentTopology);
         return deploymentConfiguration;
     }
 }
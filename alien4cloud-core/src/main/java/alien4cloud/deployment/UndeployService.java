@@ -66,6 +66,7 @@ public class UndeployService {
         IOrchestratorPlugin orchestratorPlugin = orchestratorPluginService.getOrFail(deployment.getOrchestratorId());
         DeploymentTopology deployedTopology = deploymentRuntimeStateService.getRuntimeTopology(deployment.getId());
         PaaSDeploymentContext deploymentContext = new PaaSDeploymentContext(deployment, deployedTopology);
+        orchestratorPluginService.wakeUp(deployment.getOrchestratorId());
         orchestratorPlugin.undeploy(deploymentContext, new IPaaSCallback<ResponseEntity>() {
             @Override
             public void onSuccess(ResponseEntity data) {
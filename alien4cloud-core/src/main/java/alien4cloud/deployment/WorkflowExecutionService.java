@@ -40,6 +40,7 @@ public class WorkflowExecutionService {
         DeploymentTopology deploymentTopology = deploymentRuntimeStateService.getRuntimeTopologyFromEnvironment(deployment.getEnvironmentId());
         IOrchestratorPlugin orchestratorPlugin = orchestratorPluginService.getOrFail(deployment.getOrchestratorId());
         PaaSDeploymentContext deploymentContext = new PaaSDeploymentContext(deployment, deploymentTopology);
+        orchestratorPluginService.wakeUp(deployment.getOrchestratorId());
         orchestratorPlugin.launchWorkflow(deploymentContext, workflowName, params, iPaaSCallback);
     }
 
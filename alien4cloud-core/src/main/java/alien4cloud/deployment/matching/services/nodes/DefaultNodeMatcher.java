@@ -2,6 +2,7 @@ package alien4cloud.deployment.matching.services.nodes;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -26,14 +27,25 @@ import alien4cloud.tosca.normative.ToscaType;
 import alien4cloud.tosca.properties.constraints.exception.ConstraintValueDoNotMatchPropertyTypeException;
 import alien4cloud.tosca.properties.constraints.exception.ConstraintViolationException;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 
 /**
  * Default implementation of INodeMatcherPlugin to be used when no matching plugin has been defined.
+ * <p>
+ * On-demand resources of a location are indexed by their type and all the types they derive from, so that the candidates for a node are found without going
+ * through all the resources of the location. Indexes are kept as long as the location resources instance is used (see
+ * {@link alien4cloud.orchestrators.locations.services.ILocationResourceService#getLocationResources}).
  */
 @Slf4j
 @Component
 public class DefaultNodeMatcher implements INodeMatcherPlugin {
+    /** On-demand resources indexed by type and ancestor types, by location resources instance. */
+    private final Cache<LocationResources, ListMultimap<String, LocationResourceTemplate>> candidatesIndexes = CacheBuilder.newBuilder().weakKeys().build();
+
     // TODO initialize default matching configuration based on parsing a yaml file within a4c for nodes like Compute etc.
     /**
      * Match a node against a location.
@@ -85,11 +97,15 @@ public class DefaultNodeMatcher implements INodeMatcherPlugin {
          * constraint is applied.
          */
         List<LocationResourceTemplate> matchingResults = Lists.newArrayList();
-        List<LocationResourceTemplate> candidates = locationResources.getNodeTemplates();
+        // The matchingConfigurations can be null when the associate orchestrator is disabled
+        if (matchingConfigurations == null) {
+            return matchingResults;
+        }
+        // For the moment only match by node type, the index only returns candidates which type is or derives from the node type
+        List<LocationResourceTemplate> candidates = getCandidatesIndex(locationResources).get(nodeTemplate.getType());
         for (LocationResourceTemplate candidate : candidates) {
             String candidateTypeName = candidate.getTemplate().getType();
             NodeType candidateType = locationResources.getNodeTypes().get(candidateTypeName);
-            // For the moment only match by node type
             if (isValidCandidate(nodeTemplate, nodeType, candidate, candidateType, locationResources.getCapabilityTypes(), matchingConfigurations)) {
                 matchingResults.add(candidate);
             }
@@ -99,8 +115,43 @@ public class DefaultNodeMatcher implements INodeMatcherPlugin {
         return matchingResults;
     }
 
+    private ListMultimap<String, LocationResourceTemplate> getCandidatesIndex(final LocationResources locationResources) {
+        try {
+            return candidatesIndexes.get(locationResources, () -> buildCandidatesIndex(locationResources));
+        } catch (ExecutionException e) {
+            // index building doesn't throw checked exceptions
+            throw new IllegalStateException("Unable to index location resources", e.getCause());
+        }
+    }
+
+    /**
+     * Index the on-demand resources of a location by their type and the types they derive from, keeping the order of the resources.
+     *
+     * @param locationResources The resources of the location.
+     * @return A multimap of the resources that can match a given type.
+     */
+    private ListMultimap<String, LocationResourceTemplate> buildCandidatesIndex(LocationResources locationResources) {
+        ImmutableListMultimap.Builder<String, LocationResourceTemplate> builder = ImmutableListMultimap.builder();
+        for (LocationResourceTemplate candidate : locationResources.getNodeTemplates()) {
+            NodeType candidateType = locationResources.getNodeTypes().get(candidate.getTemplate().getType());
+            if (candidateType == null) {
+                log.debug("Type of location resource {} is not defined in the location resources, it will never be matched.", candidate.getId());
+                continue;
+            }
+            builder.put(candidateType.getElementId(), candidate);
+            if (candidateType.getDerivedFrom() != null) {
+                for (String parentType : candidateType.getDerivedFrom()) {
+                    if (!parentType.equals(candidateType.getElementId())) {
+                        builder.put(parentType, candidate);
+                    }
+                }
+            }
+        }
+        return builder.build();
+    }
+
     /**
-     * Checks if the type of a LocationResourceTemplate is matching the expected type.
+     * Checks if a LocationResourceTemplate which type matches the expected type is a valid match for a node template.
      *
      * @param nodeTemplate The node template to match.
      * @param nodeType The type of the node template to match.
@@ -111,16 +162,6 @@ public class DefaultNodeMatcher implements INodeMatcherPlugin {
      */
     private boolean isValidCandidate(NodeTemplate nodeTemplate, NodeType nodeType, LocationResourceTemplate candidate, NodeType candidateType,
                                      Map<String, CapabilityType> capabilityTypes, Map<String, MatchingConfiguration> matchingConfigurations) {
-        // Check that the candidate node type is valid
-        if (!isCandidateTypeValid(nodeTemplate, candidate, candidateType)) {
-            return false;
-        }
-
-        // The matchingConfigurations can be null when the associate orchestrator is disabled
-        if (matchingConfigurations == null)  {
-            return false;
-        }
-
         // Check that the note template properties are matching the constraints specified for matching.
         MatchingConfiguration matchingConfiguration = matchingConfigurations.get(candidateType.getElementId());
 
@@ -198,17 +239,4 @@ public class DefaultNodeMatcher implements INodeMatcherPlugin {
         }
         return true;
     }
-
-    /**
-     * Checks if the type of a LocationResourceTemplate is matching the expected type.
-     * 
-     * @param nodeTemplate The node template to match.
-     * @param candidateType The type of the candidate node.
-     * @param candidate The candidate location resource.
-     * @return True if the candidate type matches the node template type, false if not.
-     */
-    private boolean isCandidateTypeValid(NodeTemplate nodeTemplate, LocationResourceTemplate candidate, NodeType candidateType) {
-        return candidateType.getElementId().equals(nodeTemplate.getType())
-                || (candidateType.getDerivedFrom() != null && candidateType.getDerivedFrom().contains(nodeTemplate.getType()));
-    }
-}
\ No newline at end of file
+}
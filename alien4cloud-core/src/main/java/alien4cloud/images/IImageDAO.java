@@ -1,5 +1,7 @@
 package alien4cloud.images;
 
+import java.util.Collection;
+
 import alien4cloud.utils.ImageQuality;
 
 /**
@@ -32,10 +34,28 @@ public interface IImageDAO {
      */
     ImageData readImage(String id, ImageQuality imageQuality);
 
+    /**
+     * Get the description of an image to serve it without reading it fully. Descriptions are kept in memory so this doesn't require any query once the
+     * image has been served once, the content of small images is also kept in memory.
+     *
+     * @param id The id of the image to get.
+     * @param imageQuality The level of quality of the image to get.
+     * @return The description of the image.
+     * @throws alien4cloud.exception.NotFoundException if the image doesn't exist.
+     */
+    ImageFile getImageFile(String id, ImageQuality imageQuality);
+
     /**
      * Delete the given image.
      * 
      * @param id Id of the image to delete.
      */
     void delete(String id);
+
+    /**
+     * Delete the given images using bulk requests.
+     *
+     * @param ids Ids of the images to delete.
+     */
+    void delete(Collection<String> ids);
 }
\ No newline at end of file
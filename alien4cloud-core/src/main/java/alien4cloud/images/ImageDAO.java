@@ -3,13 +3,17 @@ package alien4cloud.images;
 import java.awt.image.BufferedImage;
 import java.beans.IntrospectionException;
 import java.io.ByteArrayInputStream;
-import java.io.FileOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
@@ -23,22 +27,53 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import alien4cloud.dao.ESGenericIdDAO;
+import alien4cloud.dao.RefreshPolicy;
 import alien4cloud.exception.IndexingServiceException;
 import alien4cloud.exception.NotFoundException;
 import alien4cloud.images.exception.ImageUploadException;
 import alien4cloud.utils.ImageQuality;
 import alien4cloud.utils.ImageResizeUtil;
 
+import com.google.common.base.Optional;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
 /**
  * A dao to store/load images.
  */
 @Slf4j
 @Component("image-dao")
 public class ImageDAO extends ESGenericIdDAO implements IImageDAO {
+    private static final int DELETE_BULK_SIZE = 500;
+    private static final String PNG_MIME = "image/png";
+    /** Qualities of the images which content is kept in memory once served. */
+    private static final Set<ImageQuality> CACHED_QUALITIES = EnumSet.of(ImageQuality.QUALITY_16, ImageQuality.QUALITY_32, ImageQuality.QUALITY_64,
+            ImageQuality.QUALITY_128);
+
     @Resource
     private MappingBuilder mappingBuilder;
     private Path rootPath;
 
+    /** Maximum size in bytes of the content of the images kept in memory. */
+    @Value("${images.cache.max_bytes:8388608}")
+    private long cacheMaxBytes = 8388608;
+
+    /** Maximum number of image descriptions (including unknown images) kept in memory. */
+    @Value("${images.cache.max_files:10000}")
+    private long cacheMaxFiles = 10000;
+
+    /**
+     * Description of the images that have been written or requested, by image id (including quality). Images are never modified once written, images that
+     * don't exist are kept as absent so that requests for unknown images don't hit the data source.
+     */
+    private Cache<String, Optional<ImageFile>> imageFiles;
+    /** Least recently used content of small images, by image id (including quality). */
+    private Cache<String, byte[]> contentCache;
+
     @Required
     @Value("${directories.alien}/${directories.images}")
     public void setRootPath(String path) throws IOException {
@@ -50,6 +85,13 @@ public class ImageDAO extends ESGenericIdDAO implements IImageDAO {
 
     @PostConstruct
     public void initEnvironment() {
+        imageFiles = CacheBuilder.newBuilder().maximumSize(cacheMaxFiles).build();
+        contentCache = CacheBuilder.newBuilder().maximumWeight(cacheMaxBytes).weigher(new Weigher<String, byte[]>() {
+            @Override
+            public int weigh(String key, byte[] value) {
+                return value.length;
+            }
+        }).build();
         // init ES annotation scanning
         try {
             mappingBuilder.initialize(ImageData.class.getPackage().getName());
@@ -98,18 +140,21 @@ public class ImageDAO extends ESGenericIdDAO implements IImageDAO {
     }
 
     private void saveAsPng(String imageId, BufferedImage target) throws IOException {
-        FileOutputStream fos = new FileOutputStream(rootPath.resolve(imageId + ".png").toFile());
-        try {
-            ImageIO.write(target, "png", fos);
-            fos.flush();
-        } finally {
-            fos.close();
-        }
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ImageIO.write(target, "png", bos);
+        byte[] content = bos.toByteArray();
+        Path imagePath = getImagePath(imageId);
+        Files.write(imagePath, content);
         // save in elastic search
         ImageData imageData = new ImageData();
         imageData.setId(imageId);
-        imageData.setMime("image/png");
+        imageData.setMime(PNG_MIME);
         this.save(imageData);
+        imageFiles.put(imageId, Optional.of(new ImageFile(imageId, PNG_MIME, imagePath, content.length, Hashing.sha1().hashBytes(content).toString(), null)));
+    }
+
+    private Path getImagePath(String imageId) {
+        return rootPath.resolve(imageId + ".png");
     }
 
     @Override
@@ -120,7 +165,7 @@ public class ImageDAO extends ESGenericIdDAO implements IImageDAO {
         }
         if (imageData.getData() == null) {
             try {
-                imageData.setData(Files.readAllBytes(rootPath.resolve(imageData.getId() + ".png")));
+                imageData.setData(Files.readAllBytes(getImagePath(imageData.getId())));
             } catch (IOException e) {
                 throw new NotFoundException("Unable to find image on disk.");
             }
@@ -128,9 +173,73 @@ public class ImageDAO extends ESGenericIdDAO implements IImageDAO {
         return imageData;
     }
 
+    @Override
+    public ImageFile getImageFile(String id, ImageQuality imageQuality) {
+        String imageId = getImageId(imageQuality, id);
+        Optional<ImageFile> cachedImageFile;
+        try {
+            cachedImageFile = imageFiles.get(imageId, () -> loadImageFile(imageId));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+        if (!cachedImageFile.isPresent()) {
+            throw new NotFoundException("Unable to find image.");
+        }
+        ImageFile imageFile = cachedImageFile.get();
+        if (imageFile.getContent() != null || !CACHED_QUALITIES.contains(imageQuality)) {
+            return imageFile;
+        }
+        final Path imagePath = imageFile.getPath();
+        try {
+            return imageFile.withContent(contentCache.get(imageId, () -> Files.readAllBytes(imagePath)));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            throw new NotFoundException("Unable to find image on disk.");
+        }
+    }
+
+    /**
+     * Load the description of an image from the data source.
+     *
+     * @return The description of the image or absent if the image doesn't exist.
+     */
+    private Optional<ImageFile> loadImageFile(String imageId) {
+        ImageData imageData = findById(ImageData.class, imageId);
+        if (imageData == null) {
+            return Optional.absent();
+        }
+        if (imageData.getData() != null) {
+            byte[] content = imageData.getData();
+            return Optional.of(new ImageFile(imageId, imageData.getMime(), null, content.length, Hashing.sha1().hashBytes(content).toString(), content));
+        }
+        Path imagePath = getImagePath(imageId);
+        try {
+            String hash = com.google.common.io.Files.hash(imagePath.toFile(), Hashing.sha1()).toString();
+            return Optional.of(new ImageFile(imageId, imageData.getMime(), imagePath, Files.size(imagePath), hash, null));
+        } catch (IOException e) {
+            log.debug("Image {} is not on disk", imageId, e);
+            return Optional.absent();
+        }
+    }
+
     @Override
     public void delete(String id) {
         delete(ImageData.class, id);
+        evict(id);
+    }
+
+    @Override
+    public void delete(Collection<String> ids) {
+        // images are always fetched by id (real-time), so there is no need to refresh after each bulk request.
+        bulkDelete(ImageData.class, ids, DELETE_BULK_SIZE, RefreshPolicy.DEFERRED);
+        ids.forEach(this::evict);
+    }
+
+    private void evict(String id) {
+        for (ImageQuality imageQuality : ImageQuality.values()) {
+            String imageId = getImageId(imageQuality, id);
+            imageFiles.invalidate(imageId);
+            contentCache.invalidate(imageId);
+        }
     }
 
     private String getImageId(final ImageQuality imageQuality, final String id) {
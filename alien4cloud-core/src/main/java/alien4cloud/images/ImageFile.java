@@ -0,0 +1,33 @@
+package alien4cloud.images;
+
+import java.nio.file.Path;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Description of a stored image that allows to serve it without loading it from the data source.
+ */
+@Getter
+@AllArgsConstructor(suppressConstructorProperties = true)
+public class ImageFile {
+    /** Id of the image including the quality prefix. */
+    private final String id;
+    private final String mime;
+    /** Path of the image file or null if the image content is stored in the data source. */
+    private final Path path;
+    /** Size of the image in bytes. */
+    private final long length;
+    /** SHA-1 of the image content, to be used as a strong entity tag. */
+    private final String hash;
+    /** Content of the image if available in memory, null if the image must be read from its path. */
+    private final byte[] content;
+
+    /**
+     * @param content The content of the image.
+     * @return A copy of this image file with the given content in memory.
+     */
+    public ImageFile withContent(byte[] content) {
+        return new ImageFile(id, mime, path, length, hash, content);
+    }
+}
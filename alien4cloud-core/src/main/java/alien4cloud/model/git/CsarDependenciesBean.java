@@ -14,6 +14,8 @@ import lombok.Setter;
 @EqualsAndHashCode(of = "self")
 public class CsarDependenciesBean {
     private Path path;
+    /** The hash of the archive content computed when the archive has been pre-parsed. */
+    private String hash;
     private CSARDependency self;
     private Set<CSARDependency> dependencies;
     private Set<CsarDependenciesBean> dependents = Sets.newHashSet();
@@ -31,6 +31,13 @@ public interface ILocationResourceService {
      */
     LocationResources getLocationResourcesFromOrchestrator(Location location);
 
+    /**
+     * Notify that the resources of a location have changed so that they are computed again on next {@link #getLocationResources(Location)} call.
+     *
+     * @param locationId The id of the location which resources have changed.
+     */
+    void invalidateLocationResources(String locationId);
+
     LocationResourceTypes getLocationResourceTypes(Collection<LocationResourceTemplate> resourceTemplates);
 
     /**
@@ -6,6 +6,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.annotation.Resource;
 import javax.inject.Inject;
@@ -14,7 +18,12 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.MapUtils;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
+import org.alien4cloud.tosca.catalog.events.AfterArchiveDeleted;
+import org.alien4cloud.tosca.catalog.events.AfterArchiveIndexed;
+import org.alien4cloud.tosca.catalog.events.BeforeArchiveDeleted;
+import org.alien4cloud.tosca.model.Csar;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 import com.google.common.collect.Lists;
@@ -23,7 +32,6 @@ import com.google.common.collect.Sets;
 
 import alien4cloud.component.ICSARRepositorySearchService;
 import alien4cloud.dao.IGenericSearchDAO;
-import alien4cloud.dao.model.GetMultipleDataResult;
 import alien4cloud.events.LocationTemplateCreated;
 import alien4cloud.exception.NotFoundException;
 import org.alien4cloud.tosca.model.CSARDependency;
@@ -54,6 +62,9 @@ import alien4cloud.utils.services.PropertyService;
 
 /**
  * Location Resource Service provides utilities to query LocationResourceTemplate.
+ * <p>
+ * The resources of a location (templates and resolved types) are computed once and kept in memory as long as the location, its orchestrator plugin and the
+ * archives it depends on don't change, so that node matching doesn't have to query them on every deployment topology update.
  */
 @Component("location-resource-service")
 public class LocationResourceService implements ILocationResourceService {
@@ -74,6 +85,13 @@ public class LocationResourceService implements ILocationResourceService {
     @Inject
     private ApplicationContext applicationContext;
 
+    /** Resources of the locations by location id. */
+    private final Map<String, CachedLocationResources> locationResourcesCache = new ConcurrentHashMap<>();
+    /** Incremented on every invalidation so that resources computed before an invalidation are not cached. */
+    private final AtomicLong cacheGeneration = new AtomicLong();
+    private final AtomicLong cacheHitCount = new AtomicLong();
+    private final AtomicLong cacheMissCount = new AtomicLong();
+
     /*
      * (non-Javadoc)
      * 
@@ -81,17 +99,77 @@ public class LocationResourceService implements ILocationResourceService {
      */
     @Override
     public LocationResources getLocationResources(Location location) {
-        Orchestrator orchestrator = orchestratorService.get(location.getOrchestratorId());
-        if (orchestrator != null && orchestratorPluginService.get(orchestrator.getId()) != null) {
-            return getLocationResourcesFromOrchestrator(location);
+        IOrchestratorPlugin orchestratorInstance = orchestratorPluginService.get(location.getOrchestratorId());
+        long locationVersion = location.getLastUpdateDate() == null ? 0 : location.getLastUpdateDate().getTime();
+        CachedLocationResources cached = locationResourcesCache.get(location.getId());
+        if (cached != null && cached.locationVersion == locationVersion && cached.orchestratorInstance == orchestratorInstance) {
+            cacheHitCount.incrementAndGet();
+            return cached.locationResources;
+        }
+        cacheMissCount.incrementAndGet();
+        long generation = cacheGeneration.get();
+        LocationResources locationResources;
+        if (orchestratorInstance != null) {
+            locationResources = getLocationResourcesFromOrchestrator(location, orchestratorInstance);
+        } else {
+            List<LocationResourceTemplate> locationResourceTemplates = getResourcesTemplates(location.getId());
+            Set<String> exposedTypes = locationResourceTemplates.stream().map(template -> template.getTemplate().getType()).collect(Collectors.toSet());
+            locationResources = new LocationResources();
+            setLocationRessourceTypes(exposedTypes, location, locationResources);
+            setLocationRessource(locationResourceTemplates, locationResources);
+        }
+        if (generation == cacheGeneration.get()) {
+            locationResourcesCache.put(location.getId(), new CachedLocationResources(locationVersion, orchestratorInstance, location.getDependencies(),
+                    locationResources));
         }
-
-        List<LocationResourceTemplate> locationResourceTemplates = getResourcesTemplates(location.getId());
-        LocationResources locationResources = new LocationResources(getLocationResourceTypes(locationResourceTemplates));
-        setLocationRessource(locationResourceTemplates, locationResources);
         return locationResources;
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see alien4cloud.orchestrators.locations.services.ILocationResourceService#invalidateLocationResources(java.lang.String)
+     */
+    @Override
+    public void invalidateLocationResources(String locationId) {
+        cacheGeneration.incrementAndGet();
+        locationResourcesCache.remove(locationId);
+    }
+
+    @EventListener
+    public void handleArchiveIndexed(AfterArchiveIndexed event) {
+        invalidateLocationResourcesUsingArchive(event.getArchiveRoot().getArchive().getId());
+    }
+
+    @EventListener
+    public void handleArchiveDeleting(BeforeArchiveDeleted event) {
+        invalidateLocationResourcesUsingArchive(event.getArchiveId());
+    }
+
+    @EventListener
+    public void handleArchiveDeleted(AfterArchiveDeleted event) {
+        invalidateLocationResourcesUsingArchive(event.getArchiveId());
+    }
+
+    private void invalidateLocationResourcesUsingArchive(String archiveId) {
+        cacheGeneration.incrementAndGet();
+        locationResourcesCache.values().removeIf(cached -> cached.archiveIds.contains(archiveId));
+    }
+
+    /**
+     * @return The number of location resources requests served from the cache.
+     */
+    public long getCacheHitCount() {
+        return cacheHitCount.get();
+    }
+
+    /**
+     * @return The number of location resources requests that required to query the location templates and types.
+     */
+    public long getCacheMissCount() {
+        return cacheMissCount.get();
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -101,9 +179,13 @@ public class LocationResourceService implements ILocationResourceService {
      */
     @Override
     public LocationResources getLocationResourcesFromOrchestrator(Location location) {
-        LocationResources locationResources = new LocationResources();
         Orchestrator orchestrator = orchestratorService.getOrFail(location.getOrchestratorId());
         IOrchestratorPlugin orchestratorInstance = (IOrchestratorPlugin) orchestratorPluginService.getOrFail(orchestrator.getId());
+        return getLocationResourcesFromOrchestrator(location, orchestratorInstance);
+    }
+
+    private LocationResources getLocationResourcesFromOrchestrator(Location location, IOrchestratorPlugin orchestratorInstance) {
+        LocationResources locationResources = new LocationResources();
         ILocationConfiguratorPlugin configuratorPlugin = orchestratorInstance.getConfigurator(location.getInfrastructureType());
         List<String> allExposedTypes = configuratorPlugin.getResourcesTypes();
         setLocationRessourceTypes(allExposedTypes, location, locationResources);
@@ -220,11 +302,9 @@ public class LocationResourceService implements ILocationResourceService {
 
     private List<LocationResourceTemplate> getResourcesTemplates(Map<String, String[]> filter) {
         // get all defined resources for this resource.
-        GetMultipleDataResult<LocationResourceTemplate> result = alienDAO.find(LocationResourceTemplate.class, filter, Integer.MAX_VALUE);
-        if (result.getData() == null) {
-            return Lists.newArrayList();
+        try (Stream<LocationResourceTemplate> resourceTemplates = alienDAO.stream(LocationResourceTemplate.class, filter)) {
+            return resourceTemplates.collect(Collectors.toList());
         }
-        return Lists.newArrayList(result.getData());
     }
 
     /*
@@ -299,6 +379,7 @@ public class LocationResourceService implements ILocationResourceService {
         Location location = locationService.getOrFail(resourceTemplate.getLocationId());
         alienDAO.delete(LocationResourceTemplate.class, resourceId);
         alienDAO.save(location);
+        invalidateLocationResources(location.getId());
     }
 
     /*
@@ -429,6 +510,7 @@ public class LocationResourceService implements ILocationResourceService {
         Location location = locationService.getOrFail(locationId);
         alienDAO.delete(LocationResourceTemplate.class, builder);
         alienDAO.save(location);
+        invalidateLocationResources(locationId);
     }
 
     /*
@@ -441,6 +523,7 @@ public class LocationResourceService implements ILocationResourceService {
     public void saveResource(Location location, LocationResourceTemplate resourceTemplate) {
         alienDAO.save(location);
         alienDAO.save(resourceTemplate);
+        invalidateLocationResources(location.getId());
     }
 
     /*
@@ -454,4 +537,30 @@ public class LocationResourceService implements ILocationResourceService {
         Location location = locationService.getOrFail(resourceTemplate.getLocationId());
         saveResource(location, resourceTemplate);
     }
+
+    /**
+     * Resources of a location with the state of the location they have been computed for.
+     */
+    private static class CachedLocationResources {
+        /** Last update date of the location, updated whenever the location dependencies or resources change. */
+        private final long locationVersion;
+        /** Orchestrator plugin instance, a new instance is created when the orchestrator is enabled again. */
+        private final IOrchestratorPlugin orchestratorInstance;
+        /** Ids of the archives the location types come from. */
+        private final Set<String> archiveIds;
+        private final LocationResources locationResources;
+
+        private CachedLocationResources(long locationVersion, IOrchestratorPlugin orchestratorInstance, Set<CSARDependency> dependencies,
+                LocationResources locationResources) {
+            this.locationVersion = locationVersion;
+            this.orchestratorInstance = orchestratorInstance;
+            this.archiveIds = Sets.newHashSet();
+            if (dependencies != null) {
+                for (CSARDependency dependency : dependencies) {
+                    archiveIds.add(new Csar(dependency.getName(), dependency.getVersion()).getId());
+                }
+            }
+            this.locationResources = locationResources;
+        }
+    }
 }
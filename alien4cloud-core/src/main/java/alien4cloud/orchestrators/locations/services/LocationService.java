@@ -205,8 +205,9 @@ public class LocationService {
                 template.setEnabled(true);
                 NodeType nodeType = csarRepoSearchService.getRequiredElementInDependencies(NodeType.class, template.getTemplate().getType(),
                         location.getDependencies());
-                nodeType.getDerivedFrom().add(0, template.getTemplate().getType());
-                template.setTypes(nodeType.getDerivedFrom());
+                List<String> types = Lists.newArrayList(nodeType.getDerivedFrom());
+                types.add(0, template.getTemplate().getType());
+                template.setTypes(types);
                 // FIXME Workaround to remove default scalable properties from compute
                 TopologyUtils.setNullScalingPolicy(template.getTemplate(), nodeType);
 
@@ -218,6 +219,7 @@ public class LocationService {
             }
             alienDAO.save(templates.toArray(new LocationResourceTemplate[templates.size()]));
             alienDAO.save(location);
+            locationResourceService.invalidateLocationResources(location.getId());
         }
         return templates;
     }
@@ -291,6 +293,7 @@ public class LocationService {
         alienDAO.delete(LocationResourceTemplate.class, QueryBuilders.termQuery("locationId", id));
         // delete the location
         alienDAO.delete(Location.class, id);
+        locationResourceService.invalidateLocationResources(id);
         // delete all archives associated with this location only, if possible of course
         Map<Csar, List<Usage>> usages = locationArchiveIndexer.deleteArchives(orchestrator, location);
         if (MapUtils.isNotEmpty(usages)) {
@@ -0,0 +1,147 @@
+package alien4cloud.paas;
+
+/**
+ * State machine that computes the delay before the next poll of an orchestrator.
+ *
+ * The orchestrator is polled every active interval while operations are in flight, that is for the active period following an operation start (see
+ * {@link #wakeUp()}) or the reception of events. Once the active period is over the delay between polls is doubled after every poll (or check for
+ * deployments) without events, from the idle interval up to the maximum interval.
+ */
+public class AdaptivePollingPolicy {
+    public enum State {
+        /** Operations are in flight on the orchestrator, it is polled every active interval. */
+        ACTIVE,
+        /** The orchestrator has deployments but no recent activity, polls are backed off. */
+        IDLE,
+        /** The orchestrator has no deployment, only checks for new deployments are performed and backed off. */
+        NO_DEPLOYMENT,
+        /** The orchestrator pushes its events, no polling is required. */
+        PUSH
+    }
+
+    private final long activeIntervalMs;
+    private final long idleIntervalMs;
+    private final long maxIntervalMs;
+    private final long activePeriodMs;
+
+    private State state = State.NO_DEPLOYMENT;
+    private long activeUntil = 0;
+    private long backoffDelayMs;
+
+    /**
+     * Create a new polling policy.
+     *
+     * @param activeIntervalMs Delay between polls while operations are in flight.
+     * @param idleIntervalMs Initial delay between polls once the orchestrator is idle.
+     * @param maxIntervalMs Maximum delay between polls.
+     * @param activePeriodMs Duration during which the orchestrator is considered active after an operation start or the reception of events.
+     */
+    public AdaptivePollingPolicy(long activeIntervalMs, long idleIntervalMs, long maxIntervalMs, long activePeriodMs) {
+        this.activeIntervalMs = activeIntervalMs;
+        this.idleIntervalMs = idleIntervalMs;
+        this.maxIntervalMs = Math.max(idleIntervalMs, maxIntervalMs);
+        this.activePeriodMs = activePeriodMs;
+        this.backoffDelayMs = idleIntervalMs;
+    }
+
+    /**
+     * An operation has been started on the orchestrator.
+     */
+    public synchronized void wakeUp() {
+        if (state != State.PUSH) {
+            activate();
+        }
+    }
+
+    /**
+     * A poll returned events.
+     */
+    public synchronized void onEvents() {
+        if (state != State.PUSH) {
+            activate();
+        }
+    }
+
+    /**
+     * A poll returned no events.
+     */
+    public synchronized void onEmptyPoll() {
+        if (state == State.ACTIVE && System.currentTimeMillis() < activeUntil) {
+            return;
+        }
+        backOff(State.IDLE);
+    }
+
+    /**
+     * A poll failed.
+     */
+    public synchronized void onPollFailure() {
+        backOff(State.IDLE);
+    }
+
+    /**
+     * A check for active deployments found one.
+     */
+    public synchronized void onDeploymentFound() {
+        if (state == State.NO_DEPLOYMENT) {
+            state = State.IDLE;
+            backoffDelayMs = idleIntervalMs;
+        }
+    }
+
+    /**
+     * A check for active deployments found none.
+     */
+    public synchronized void onNoDeployment() {
+        backOff(State.NO_DEPLOYMENT);
+    }
+
+    /**
+     * The orchestrator starts or stops to push its events.
+     *
+     * @param pushEnabled true if the orchestrator now pushes its events, false if it has to be polled again.
+     */
+    public synchronized void onPush(boolean pushEnabled) {
+        if (pushEnabled) {
+            state = State.PUSH;
+        } else {
+            activate();
+        }
+    }
+
+    /**
+     * @return The current state of the policy.
+     */
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return The delay in milliseconds to wait before the next poll.
+     */
+    public synchronized long getNextDelayMs() {
+        switch (state) {
+        case ACTIVE:
+            return activeIntervalMs;
+        case PUSH:
+            return maxIntervalMs;
+        default:
+            return backoffDelayMs;
+        }
+    }
+
+    private void activate() {
+        state = State.ACTIVE;
+        activeUntil = System.currentTimeMillis() + activePeriodMs;
+        backoffDelayMs = idleIntervalMs;
+    }
+
+    private void backOff(State newState) {
+        if (state == newState) {
+            backoffDelayMs = Math.min(maxIntervalMs, backoffDelayMs * 2);
+        } else {
+            state = newState;
+            backoffDelayMs = idleIntervalMs;
+        }
+    }
+}
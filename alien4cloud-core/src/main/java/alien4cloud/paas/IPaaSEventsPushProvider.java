@@ -0,0 +1,26 @@
+package alien4cloud.paas;
+
+import java.util.Date;
+
+import alien4cloud.paas.model.AbstractMonitorEvent;
+
+/**
+ * Optional interface that a {@link IPaaSProvider} may implement in order to push monitoring events to alien4cloud as soon as they happen rather than being
+ * polled through {@link IPaaSProvider#getEventsSince(Date, int, IPaaSCallback)}. Polling remains the fallback when the provider doesn't implement this
+ * interface or when the subscription fails.
+ */
+public interface IPaaSEventsPushProvider {
+    /**
+     * Start to push the events of the orchestrator to alien4cloud.
+     *
+     * @param since The date of the last event known by alien4cloud, events that happened after this date must be pushed first.
+     * @param callback The callback on which to push events (onSuccess may be called as many times as required). Calls to onSuccess block when alien4cloud's
+     *            events queue is full. onFailure must be called when the provider is no more able to push events so alien4cloud falls back to polling.
+     */
+    void subscribeEvents(Date since, IPaaSCallback<AbstractMonitorEvent[]> callback);
+
+    /**
+     * Stop to push events to alien4cloud.
+     */
+    void unsubscribeEvents();
+}
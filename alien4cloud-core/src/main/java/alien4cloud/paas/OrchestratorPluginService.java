@@ -2,11 +2,13 @@ package alien4cloud.paas;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ScheduledFuture;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
 import javax.inject.Inject;
 
@@ -21,6 +23,7 @@ import alien4cloud.exception.AlreadyExistException;
 import alien4cloud.orchestrators.plugin.IOrchestratorPlugin;
 import alien4cloud.paas.exception.OrchestratorDisabledException;
 import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -35,9 +38,24 @@ public class OrchestratorPluginService implements IPaasEventService {
     private IGenericSearchDAO alienMonitorDao;
     @Resource(name = "paas-monitor-scheduler")
     private TaskScheduler scheduler;
-    /** Interval in milliseconds on which to retrieve monitoring events from a PaaS provider. */
+    /** Interval in milliseconds on which to retrieve monitoring events from an idle PaaS provider, doubled after every poll without events. */
     @Value("${paas_monitor.monitor_interval_ms}")
     private long monitorIntervalMs = 1000 * 30;
+    /** Interval in milliseconds on which to retrieve monitoring events from a PaaS provider while operations are in flight. */
+    @Value("${paas_monitor.active_interval_ms:500}")
+    private long activeIntervalMs;
+    /** Maximum interval in milliseconds between two polls of a PaaS provider. */
+    @Value("${paas_monitor.max_interval_ms:30000}")
+    private long maxIntervalMs;
+    /** Duration in milliseconds during which a PaaS provider is polled on the active interval after an operation start or the reception of events. */
+    @Value("${paas_monitor.active_period_ms:60000}")
+    private long activePeriodMs;
+    /** Maximum number of monitoring events waiting to be saved and dispatched to listeners. */
+    @Value("${paas_monitor.events_queue_size:10000}")
+    private int eventsQueueSize;
+    /** Maximum number of monitoring events waiting to be processed by every listener. */
+    @Value("${paas_monitor.listener_queue_size:1000}")
+    private int listenerQueueSize;
     @Inject
     private DeploymentStatusEventHandler deploymentStatusEventHandler;
 
@@ -45,6 +63,8 @@ public class OrchestratorPluginService implements IPaasEventService {
 
     @SuppressWarnings("rawtypes")
     private List<IPaasEventListener> listeners = Collections.synchronizedList(new ArrayList<IPaasEventListener>());
+    @Getter
+    private PaaSEventsDispatcher eventsDispatcher;
 
     public OrchestratorPluginService() {
         log.info("Create new PaaSProvider instance.");
@@ -57,8 +77,13 @@ public class OrchestratorPluginService implements IPaasEventService {
 
     @PostConstruct
     public void init() {
-        // Deployment status event handler should be the first handler has quite important.
-        listeners.add(0, deploymentStatusEventHandler);
+        // Deployment status event handler should be the first handler has quite important, it processes every event before the other listeners.
+        eventsDispatcher = new PaaSEventsDispatcher(alienMonitorDao, deploymentStatusEventHandler, listeners, eventsQueueSize, listenerQueueSize);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        eventsDispatcher.shutdown();
     }
 
     /**
@@ -73,12 +98,53 @@ public class OrchestratorPluginService implements IPaasEventService {
             throw new AlreadyExistException("Cloud [" + orchestratorId + "] has already been registered");
         }
         // create the polling monitor responsible to monitor this instance.
-        PaaSProviderPollingMonitor monitor = new PaaSProviderPollingMonitor(alienDao, alienMonitorDao, instance, listeners, orchestratorId);
-        ScheduledFuture<?> monitorFuture = scheduler.scheduleAtFixedRate(monitor, monitorIntervalMs);
-        Registration registration = new Registration(instance, monitorFuture);
+        AdaptivePollingPolicy pollingPolicy = new AdaptivePollingPolicy(activeIntervalMs, monitorIntervalMs, maxIntervalMs, activePeriodMs);
+        PaaSProviderPollingMonitor monitor = new PaaSProviderPollingMonitor(alienDao, alienMonitorDao, instance, eventsDispatcher, pollingPolicy,
+                orchestratorId);
+        monitor.start();
+        Registration registration = new Registration(instance, monitor, schedule(monitor));
         monitorRegistrations.put(orchestratorId, registration);
     }
 
+    private ScheduledFuture<?> schedule(PaaSProviderPollingMonitor monitor) {
+        // the first execution is immediate, next ones are scheduled according to the monitor polling policy.
+        return scheduler.schedule(monitor, triggerContext -> triggerContext.lastCompletionTime() == null ? new Date()
+                : new Date(triggerContext.lastCompletionTime().getTime() + monitor.getNextDelayMs()));
+    }
+
+    /**
+     * Notify the monitor of an orchestrator that an operation has been started so it polls events immediately and then frequently until the orchestrator
+     * becomes idle again.
+     *
+     * @param orchestratorId The id of the orchestrator on which an operation has been started.
+     */
+    public void wakeUp(String orchestratorId) {
+        Registration registration = monitorRegistrations.get(orchestratorId);
+        if (registration == null) {
+            return;
+        }
+        registration.monitor.wakeUp();
+        synchronized (registration) {
+            if (registration.registration.isCancelled()) {
+                // the orchestrator has been unregistered.
+                return;
+            }
+            registration.registration.cancel(false);
+            registration.registration = schedule(registration.monitor);
+        }
+    }
+
+    /**
+     * Get the monitor of an orchestrator in order to access its polling metrics.
+     *
+     * @param orchestratorId The id of the orchestrator.
+     * @return The monitor of the orchestrator or null if the orchestrator is not registered.
+     */
+    public PaaSProviderPollingMonitor getMonitor(String orchestratorId) {
+        Registration registration = monitorRegistrations.get(orchestratorId);
+        return registration == null ? null : registration.monitor;
+    }
+
     /**
      * Remove the registration for the given cloud (will stop monitoring the cloud using the registered IOrchestratorPlugin).
      *
@@ -88,7 +154,10 @@ public class OrchestratorPluginService implements IPaasEventService {
         log.info("Unregister provider with id {}", orchestratorId);
         Registration registration = monitorRegistrations.remove(orchestratorId);
         if (registration != null) {
-            registration.registration.cancel(false);
+            synchronized (registration) {
+                registration.registration.cancel(false);
+            }
+            registration.monitor.stop();
             return registration.instance;
         } else {
             return null;
@@ -126,6 +195,7 @@ public class OrchestratorPluginService implements IPaasEventService {
     @AllArgsConstructor(suppressConstructorProperties = true)
     private class Registration {
         private IOrchestratorPlugin instance;
+        private PaaSProviderPollingMonitor monitor;
         private ScheduledFuture<?> registration;
     }
 }
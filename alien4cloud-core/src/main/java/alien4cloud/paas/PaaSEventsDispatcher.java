@@ -0,0 +1,367 @@
+package alien4cloud.paas;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.collect.Sets;
+
+import alien4cloud.dao.IGenericSearchDAO;
+import alien4cloud.paas.model.AbstractMonitorEvent;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Receives the monitoring events of all orchestrators (polled or pushed) in a bounded queue, saves them and dispatches them to the {@link IPaasEventListener}s.
+ *
+ * Events are first processed by the synchronous listener (the deployment status handler) from the ingestion thread, so every other listener sees an event
+ * once the deployment status it carries has been persisted. Every other listener has its own lane (a bounded queue and a thread) so a slow or failing listener
+ * doesn't delay the other ones. Events are dispatched to a listener in the order they have been received and a failing dispatch is retried with an
+ * exponential backoff. Every event is dispatched to every listener: when the lane of a slow listener is full, the ingestion waits for space in the lane, the
+ * ingestion queue then fills up and producers (pollers or pushing orchestrators) wait for it. Events are only skipped for a listener that is removed while
+ * the ingestion waits for its lane.
+ */
+@Slf4j
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public class PaaSEventsDispatcher {
+    private static final int MAX_SAVED_EVENTS = 500;
+    private static final int MAX_LISTENER_RETRY = 3;
+    private static final long LISTENER_FAIL_RETRY_DELAY_MS = 10;
+    private static final int MAX_SAVE_RETRY = 5;
+    private static final long SAVE_FAIL_RETRY_DELAY_MS = 100;
+    private static final long POLL_TIMEOUT_MS = 100;
+    private static final long SHUTDOWN_TIMEOUT_S = 10;
+
+    private final IGenericSearchDAO monitorDAO;
+    private final IPaasEventListener synchronousListener;
+    private final List<IPaasEventListener> listeners;
+    private final int listenerQueueSize;
+    private final BlockingQueue<AbstractMonitorEvent> queue;
+    private final Map<IPaasEventListener, ListenerLane> lanes = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+    /** False once shutdown has been requested, the ingestion then stops when its queue is empty. */
+    private volatile boolean running = true;
+    /** False once the ingestion has stopped, the lanes then stop when their queue is empty. */
+    private volatile boolean ingesting = true;
+
+    private final AtomicLong dispatchedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong skippedCount = new AtomicLong();
+    private final AtomicLong backpressureCount = new AtomicLong();
+    private final AtomicLong backpressureTimeMs = new AtomicLong();
+    private final AtomicLong unsavedCount = new AtomicLong();
+    private final AtomicLong totalLatencyMs = new AtomicLong();
+    private final AtomicLong maxLatencyMs = new AtomicLong();
+
+    /**
+     * Create and start a new dispatcher.
+     *
+     * @param monitorDAO The dao in which to save events.
+     * @param synchronousListener The listener that processes every event before it is dispatched to the other listeners, may be null.
+     * @param listeners The listeners to which to dispatch events, listeners added to the list after creation also receive the next events.
+     * @param queueSize Maximum number of events waiting to be saved and dispatched.
+     * @param listenerQueueSize Maximum number of events waiting to be processed by every listener.
+     */
+    public PaaSEventsDispatcher(IGenericSearchDAO monitorDAO, IPaasEventListener synchronousListener, List<IPaasEventListener> listeners, int queueSize,
+            int listenerQueueSize) {
+        this.monitorDAO = monitorDAO;
+        this.synchronousListener = synchronousListener;
+        this.listeners = listeners;
+        this.listenerQueueSize = listenerQueueSize;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "paas-events-dispatcher-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.execute(this::ingest);
+    }
+
+    /**
+     * Add events to the queue of events to save and dispatch. This method blocks while the queue is full.
+     *
+     * @param events The events to add.
+     * @throws InterruptedException If the current thread is interrupted while waiting for space in the queue.
+     */
+    public void publish(AbstractMonitorEvent[] events) throws InterruptedException {
+        for (AbstractMonitorEvent event : events) {
+            queue.put(event);
+        }
+    }
+
+    /**
+     * Stop the dispatcher once the events already received have been saved and dispatched. Events that are not processed within the shutdown timeout are
+     * dropped.
+     */
+    public void shutdown() {
+        running = false;
+        executor.shutdown();
+        try {
+            if (executor.awaitTermination(SHUTDOWN_TIMEOUT_S, TimeUnit.SECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.warn("Events dispatcher stopped before processing {} events and {} listener events", getQueueDepth(), getListenersQueueDepth());
+        executor.shutdownNow();
+    }
+
+    private void ingest() {
+        List<AbstractMonitorEvent> batch = new ArrayList<>(MAX_SAVED_EVENTS);
+        try {
+            while (true) {
+                AbstractMonitorEvent first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (!running) {
+                        return;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_SAVED_EVENTS - 1);
+                try {
+                    save(batch);
+                    dispatch(batch);
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    log.error("Failed to dispatch {} monitoring events", batch.size(), e);
+                } finally {
+                    batch.clear();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            ingesting = false;
+        }
+    }
+
+    /**
+     * Save events, retrying with an exponential backoff. Events that still cannot be saved are dispatched anyway as the monitors have already moved past
+     * them and they would otherwise be lost for the listeners.
+     */
+    private void save(List<AbstractMonitorEvent> batch) throws InterruptedException {
+        for (int retry = 0;; retry++) {
+            try {
+                monitorDAO.save(batch.toArray(new AbstractMonitorEvent[batch.size()]));
+                return;
+            } catch (Exception e) {
+                if (retry >= MAX_SAVE_RETRY) {
+                    unsavedCount.addAndGet(batch.size());
+                    log.error("Failed to save {} monitoring events after {} retries, events are dispatched without being saved", batch.size(), retry, e);
+                    return;
+                }
+                log.warn("Failed to save {} monitoring events, retry {} on {}", batch.size(), retry + 1, MAX_SAVE_RETRY, e);
+                TimeUnit.MILLISECONDS.sleep(SAVE_FAIL_RETRY_DELAY_MS << retry);
+            }
+        }
+    }
+
+    private void dispatch(List<AbstractMonitorEvent> batch) throws InterruptedException {
+        List<IPaasEventListener> currentListeners;
+        synchronized (listeners) {
+            currentListeners = new ArrayList<>(listeners);
+        }
+        closeRemovedLanes(currentListeners);
+        for (AbstractMonitorEvent event : batch) {
+            if (synchronousListener != null) {
+                dispatch(synchronousListener, event);
+            }
+            for (IPaasEventListener listener : currentListeners) {
+                enqueue(listener, event);
+            }
+        }
+    }
+
+    /**
+     * Add an event to the lane of a listener, waiting for space in the lane if the listener is slow.
+     */
+    private void enqueue(IPaasEventListener listener, AbstractMonitorEvent event) throws InterruptedException {
+        ListenerLane lane = getLane(listener);
+        if (lane.events.offer(event)) {
+            return;
+        }
+        if (backpressureCount.incrementAndGet() % 1000 == 1) {
+            log.warn("Listener {} is too slow to process monitoring events, events ingestion waited for listeners {} times", listener, backpressureCount.get());
+        }
+        long start = System.currentTimeMillis();
+        try {
+            while (!lane.events.offer(event, POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                if (!isListening(listener)) {
+                    // the listener has been removed, its lane will be closed before the next events are dispatched.
+                    skippedCount.incrementAndGet();
+                    return;
+                }
+            }
+        } finally {
+            backpressureTimeMs.addAndGet(System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * Dispatch an event to a listener, retrying with an exponential backoff in case of failure.
+     */
+    private void dispatch(IPaasEventListener listener, AbstractMonitorEvent event) throws InterruptedException {
+        for (int retry = 0;; retry++) {
+            try {
+                if (listener.canHandle(event)) {
+                    listener.eventHappened(event);
+                }
+                recordLatency(event);
+                return;
+            } catch (Exception e) {
+                log.error("Failed to dispatch event {} to listener {} retry {} on {}.", event.toString(), listener.toString(), retry, MAX_LISTENER_RETRY, e);
+                if (retry >= MAX_LISTENER_RETRY) {
+                    failedCount.incrementAndGet();
+                    return;
+                }
+                TimeUnit.MILLISECONDS.sleep(LISTENER_FAIL_RETRY_DELAY_MS << retry);
+            }
+        }
+    }
+
+    private boolean isListening(IPaasEventListener listener) {
+        synchronized (listeners) {
+            return listeners.contains(listener);
+        }
+    }
+
+    private ListenerLane getLane(IPaasEventListener listener) {
+        return lanes.computeIfAbsent(listener, key -> {
+            ListenerLane lane = new ListenerLane(key);
+            executor.execute(lane);
+            return lane;
+        });
+    }
+
+    /**
+     * Stop the lanes of the listeners that have been removed, once they have processed the events already in their queue.
+     */
+    private void closeRemovedLanes(List<IPaasEventListener> currentListeners) {
+        if (lanes.size() <= currentListeners.size() && currentListeners.containsAll(lanes.keySet())) {
+            return;
+        }
+        Set<IPaasEventListener> current = Sets.newHashSet(currentListeners);
+        lanes.entrySet().removeIf(entry -> {
+            if (current.contains(entry.getKey())) {
+                return false;
+            }
+            entry.getValue().closed = true;
+            return true;
+        });
+    }
+
+    private void recordLatency(AbstractMonitorEvent event) {
+        dispatchedCount.incrementAndGet();
+        long latency = Math.max(0, System.currentTimeMillis() - event.getDate());
+        totalLatencyMs.addAndGet(latency);
+        maxLatencyMs.accumulateAndGet(latency, Math::max);
+    }
+
+    /**
+     * @return The number of events waiting to be saved and dispatched.
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * @return The number of events waiting to be processed by the listeners (an event waiting for several listeners is counted for every listener).
+     */
+    public int getListenersQueueDepth() {
+        return lanes.values().stream().mapToInt(lane -> lane.events.size()).sum();
+    }
+
+    /**
+     * @return The number of events dispatched to a listener.
+     */
+    public long getDispatchedCount() {
+        return dispatchedCount.get();
+    }
+
+    /**
+     * @return The number of events that a listener failed to process after all retries.
+     */
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * @return The average delay in milliseconds between the date of an event and its processing by a listener.
+     */
+    public long getAverageLatencyMs() {
+        long count = dispatchedCount.get();
+        return count == 0 ? 0 : totalLatencyMs.get() / count;
+    }
+
+    /**
+     * @return The maximum delay in milliseconds between the date of an event and its processing by a listener.
+     */
+    public long getMaxLatencyMs() {
+        return maxLatencyMs.get();
+    }
+
+    /**
+     * @return The number of events skipped for a listener because it has been removed while the ingestion was waiting for space in its queue.
+     */
+    public long getSkippedCount() {
+        return skippedCount.get();
+    }
+
+    /**
+     * @return The total time in milliseconds during which the ingestion waited for space in the queue of a slow listener.
+     */
+    public long getBackpressureTimeMs() {
+        return backpressureTimeMs.get();
+    }
+
+    /**
+     * @return The number of events dispatched without being saved because the save failed after all retries.
+     */
+    public long getUnsavedCount() {
+        return unsavedCount.get();
+    }
+
+    /**
+     * Queue and thread processing the events of a single listener.
+     */
+    private class ListenerLane implements Runnable {
+        private final IPaasEventListener listener;
+        private final BlockingQueue<AbstractMonitorEvent> events;
+        /** True once the listener has been removed, the lane then stops when its queue is empty. */
+        private volatile boolean closed;
+
+        private ListenerLane(IPaasEventListener listener) {
+            this.listener = listener;
+            this.events = new ArrayBlockingQueue<>(listenerQueueSize);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    AbstractMonitorEvent event = events.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                    if (event != null) {
+                        // only this listener's lane waits before a retry, ingestion and other listeners keep going.
+                        dispatch(listener, event);
+                    } else if (closed || !ingesting) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -1,9 +1,9 @@
 package alien4cloud.paas;
 
 import java.util.Date;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.elasticsearch.mapping.QueryHelper;
 
@@ -17,43 +17,46 @@ import alien4cloud.paas.model.AbstractMonitorEvent;
 import alien4cloud.paas.model.PaaSDeploymentStatusMonitorEvent;
 import alien4cloud.utils.MapUtil;
 import alien4cloud.utils.TypeScanner;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * Monitor service to watch a deployed topologies for a given PaaS provider.
+ * Monitor service to watch a deployed topologies for a given PaaS provider. Events are pushed by the provider when it implements
+ * {@link IPaaSEventsPushProvider} or polled otherwise and published to the {@link PaaSEventsDispatcher}.
  */
 @SuppressWarnings("unchecked")
 @Slf4j
 public class PaaSProviderPollingMonitor implements Runnable {
     private static final int MAX_POLLED_EVENTS = 500;
-    private static final int MAX_LISTENER_RETRY = 3;
-    private static final long LISTENER_FAIL_RETRY_SLEEP_MS = 10;
 
     private final IGenericSearchDAO dao;
     private final IGenericSearchDAO monitorDAO;
     private final IPaaSProvider paaSProvider;
     private Date lastPollingDate;
-    @SuppressWarnings("rawtypes")
-    private List<IPaasEventListener> listeners;
+    private final PaaSEventsDispatcher eventsDispatcher;
     private PaaSEventsCallback paaSEventsCallback;
     private String orchestratorId;
     private boolean hasDeployments = false;
     private boolean getEventsInProgress = false;
+    private volatile boolean pushEnabled = false;
+    private final AdaptivePollingPolicy pollingPolicy;
+    private final AtomicLong pollCount = new AtomicLong();
+    private volatile long lastPollCompletionTime = System.currentTimeMillis();
 
     /**
      * Create a new instance of the {@link PaaSProviderPollingMonitor} to monitor the given paas provider.
      *
      * @param paaSProvider The paas provider to monitor.
+     * @param eventsDispatcher The dispatcher to which to publish the events of the paas provider.
+     * @param pollingPolicy The policy that defines the delay between polls.
      */
-    @SuppressWarnings("rawtypes")
-    public PaaSProviderPollingMonitor(IGenericSearchDAO dao, IGenericSearchDAO monitorDAO, IPaaSProvider paaSProvider, List<IPaasEventListener> listeners,
-            String orchestratorId) {
+    public PaaSProviderPollingMonitor(IGenericSearchDAO dao, IGenericSearchDAO monitorDAO, IPaaSProvider paaSProvider, PaaSEventsDispatcher eventsDispatcher,
+            AdaptivePollingPolicy pollingPolicy, String orchestratorId) {
         this.orchestratorId = orchestratorId;
         this.dao = dao;
         this.monitorDAO = monitorDAO;
         this.paaSProvider = paaSProvider;
-        this.listeners = listeners;
+        this.eventsDispatcher = eventsDispatcher;
+        this.pollingPolicy = pollingPolicy;
         Set<Class<?>> eventClasses = Sets.newHashSet();
         try {
             eventClasses = TypeScanner.scanTypes("alien4cloud.paas.model", AbstractMonitorEvent.class);
@@ -88,43 +91,92 @@ public class PaaSProviderPollingMonitor implements Runnable {
         paaSEventsCallback = new PaaSEventsCallback();
     }
 
+    /**
+     * Start to monitor the paas provider. If the provider is able to push events it is subscribed, otherwise (or in case of subscription failure) events are
+     * polled on every {@link #run()}.
+     */
+    public void start() {
+        if (paaSProvider instanceof IPaaSEventsPushProvider) {
+            try {
+                ((IPaaSEventsPushProvider) paaSProvider).subscribeEvents(lastPollingDate, new PushedEventsCallback());
+                pushEnabled = true;
+                pollingPolicy.onPush(true);
+                log.info("Orchestrator {} pushes its events, polling is disabled", orchestratorId);
+            } catch (Exception e) {
+                log.error("Failed to subscribe to events of orchestrator {}, falling back to polling", orchestratorId, e);
+            }
+        }
+    }
+
+    /**
+     * Stop to monitor the paas provider.
+     */
+    public void stop() {
+        if (pushEnabled) {
+            pushEnabled = false;
+            ((IPaaSEventsPushProvider) paaSProvider).unsubscribeEvents();
+        }
+    }
+
+    /**
+     * Enrich the events with the orchestrator id and date, update the last polling date and publish them to the dispatcher.
+     *
+     * @param auditEvents The events received from the orchestrator.
+     */
+    private void publish(AbstractMonitorEvent[] auditEvents) {
+        if (auditEvents == null || auditEvents.length == 0) {
+            return;
+        }
+        synchronized (this) {
+            if (log.isDebugEnabled()) {
+                log.debug("Saving events for orchestrator {}", orchestratorId);
+                for (AbstractMonitorEvent event : auditEvents) {
+                    log.debug(event.toString());
+                }
+            }
+            Date lastEventDate = lastPollingDate;
+            for (AbstractMonitorEvent event : auditEvents) {
+                // Enrich event with cloud id before saving them
+                event.setOrchestratorId(orchestratorId);
+                // If not set initialize a date for event or update the last event date (last polling)
+                if (event.getDate() > 0) {
+                    Date eventDate = new Date(event.getDate());
+                    lastEventDate = eventDate.after(lastEventDate) ? eventDate : lastEventDate;
+                } else {
+                    event.setDate(System.currentTimeMillis());
+                }
+            }
+            if (lastEventDate != null) {
+                lastPollingDate = lastEventDate;
+            }
+        }
+        // publish out of the lock as it blocks while the dispatcher queue is full.
+        try {
+            eventsDispatcher.publish(auditEvents);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while publishing {} events of orchestrator {}", auditEvents.length, orchestratorId);
+        }
+    }
+
     private class PaaSEventsCallback implements IPaaSCallback<AbstractMonitorEvent[]> {
         @Override
         public void onSuccess(AbstractMonitorEvent[] auditEvents) {
-            synchronized (PaaSProviderPollingMonitor.this) {
-                if (log.isTraceEnabled()) {
-                    log.trace("Polled from date {}", lastPollingDate);
-                }
-                if (log.isDebugEnabled() && auditEvents != null && auditEvents.length > 0) {
-                    log.debug("Saving events for orchestrator {}", orchestratorId);
-                    for (AbstractMonitorEvent event : auditEvents) {
-                        log.debug(event.toString());
-                    }
-                }
-                if (auditEvents != null && auditEvents.length > 0) {
-                    Date lastEventDate = lastPollingDate;
-                    for (AbstractMonitorEvent event : auditEvents) {
-                        // Enrich event with cloud id before saving them
-                        event.setOrchestratorId(orchestratorId);
-                        // If not set initialize a date for event or update the last event date (last polling)
-                        if (event.getDate() > 0) {
-                            Date eventDate = new Date(event.getDate());
-                            lastEventDate = eventDate.after(lastEventDate) ? eventDate : lastEventDate;
-                        } else {
-                            event.setDate(System.currentTimeMillis());
-                        }
-
-                        // dispatch the event to all listeners
-                        for (IPaasEventListener listener : listeners) {
-                            dispatchEvent(listener, event);
-                        }
-                    }
-                    monitorDAO.save(auditEvents);
-                    if (lastEventDate != null) {
-                        lastPollingDate = lastEventDate;
+            if (log.isTraceEnabled()) {
+                log.trace("Polled from date {}", lastPollingDate);
+            }
+            try {
+                publish(auditEvents);
+            } finally {
+                synchronized (PaaSProviderPollingMonitor.this) {
+                    if (auditEvents != null && auditEvents.length > 0) {
+                        pollingPolicy.onEvents();
+                    } else {
+                        pollingPolicy.onEmptyPoll();
                     }
+                    lastPollCompletionTime = System.currentTimeMillis();
+                    getEventsInProgress = false;
                 }
-                getEventsInProgress = false;
             }
         }
 
@@ -135,40 +187,26 @@ public class PaaSProviderPollingMonitor implements Runnable {
                 // Make it re-verify if has deployment returns something in order to no loop infinitely
                 // If the PaaS is down, there might be a chance that the deployment has been marked as failed
                 hasDeployments = false;
+                pollingPolicy.onPollFailure();
                 log.error("Error happened while trying to retrieve events from PaaS provider", throwable);
             }
         }
     }
 
-    /**
-     * Dispatch an event to the registered listener.
-     *
-     * @param listener The listener to which to send the event.
-     * @param event The event to dispatch.
-     */
-    private void dispatchEvent(IPaasEventListener listener, AbstractMonitorEvent event) {
-        dispatchEvent(listener, event, 0);
-    }
+    private class PushedEventsCallback implements IPaaSCallback<AbstractMonitorEvent[]> {
+        @Override
+        public void onSuccess(AbstractMonitorEvent[] auditEvents) {
+            publish(auditEvents);
+        }
 
-    /**
-     * Dispatch an event to the registered listener.
-     * 
-     * @param listener The listener to which to send the event.
-     * @param event The event to dispatch.
-     * @param retry The current retry index (0 for first dispatch)
-     */
-    @SneakyThrows
-    private void dispatchEvent(IPaasEventListener listener, AbstractMonitorEvent event, int retry) {
-        try {
-            if (listener.canHandle(event)) {
-                listener.eventHappened(event);
-            }
-        } catch (Exception e) {
-            log.error("Failed to dispatch event {} to listener {} retry {} on {}.", event.toString(), listener.toString(), retry, MAX_LISTENER_RETRY, e);
-            // Even if that fails
-            if (retry < MAX_LISTENER_RETRY) {
-                Thread.sleep(LISTENER_FAIL_RETRY_SLEEP_MS);
-                dispatchEvent(listener, event, retry + 1);
+        @Override
+        public void onFailure(Throwable throwable) {
+            synchronized (PaaSProviderPollingMonitor.this) {
+                // polling resumes from the date of the last pushed event.
+                pushEnabled = false;
+                hasDeployments = false;
+                pollingPolicy.onPush(false);
+                log.error("Orchestrator {} failed to push events, falling back to polling", orchestratorId, throwable);
             }
         }
     }
@@ -178,19 +216,63 @@ public class PaaSProviderPollingMonitor implements Runnable {
         if (log.isTraceEnabled()) {
             log.trace("Poll scheduled");
         }
-        if (getEventsInProgress) {
-            // Get events since is running
+        if (pushEnabled || getEventsInProgress) {
+            // Events are pushed by the orchestrator or get events since is running
             return;
         }
         getEventsInProgress = true;
         if (hasDeployments) {
+            pollCount.incrementAndGet();
             paaSProvider.getEventsSince(lastPollingDate, MAX_POLLED_EVENTS, paaSEventsCallback);
         } else {
             getEventsInProgress = false;
             hasDeployments = getActiveDeployment() != null;
+            if (hasDeployments) {
+                pollingPolicy.onDeploymentFound();
+            } else {
+                pollingPolicy.onNoDeployment();
+            }
+            lastPollCompletionTime = System.currentTimeMillis();
         }
     }
 
+    /**
+     * Notify the monitor that an operation (deployment, undeployment, workflow...) has been started on the orchestrator so it polls events frequently.
+     */
+    public synchronized void wakeUp() {
+        // an operation is started on a deployment so no need to check for deployments.
+        hasDeployments = true;
+        pollingPolicy.wakeUp();
+    }
+
+    /**
+     * @return The delay in milliseconds before the next execution of the monitor.
+     */
+    public long getNextDelayMs() {
+        return pollingPolicy.getNextDelayMs();
+    }
+
+    /**
+     * @return The current state of the polling policy.
+     */
+    public AdaptivePollingPolicy.State getPollingState() {
+        return pollingPolicy.getState();
+    }
+
+    /**
+     * @return The number of polls performed on the orchestrator.
+     */
+    public long getPollCount() {
+        return pollCount.get();
+    }
+
+    /**
+     * @return The time in milliseconds since the last completed poll (or check for deployments).
+     */
+    public long getPollLagMs() {
+        return pushEnabled ? 0 : System.currentTimeMillis() - lastPollCompletionTime;
+    }
+
     private Deployment getActiveDeployment() {
         Deployment deployment = null;
         GetMultipleDataResult<Deployment> dataResult = dao.search(Deployment.class, null,
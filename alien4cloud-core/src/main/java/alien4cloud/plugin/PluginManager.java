@@ -16,6 +16,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import javax.annotation.Resource;
 
@@ -34,7 +35,6 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
 import alien4cloud.dao.IGenericSearchDAO;
-import alien4cloud.dao.model.GetMultipleDataResult;
 import alien4cloud.exception.AlreadyExistException;
 import alien4cloud.exception.NotFoundException;
 import alien4cloud.plugin.exception.MissingPlugingDescriptorFileException;
@@ -84,12 +84,11 @@ public class PluginManager {
 
     public void unloadAllPlugins() {
         log.info("Unloading plugins");
-        GetMultipleDataResult<Plugin> results = alienDAO.find(Plugin.class, MapUtil.newHashMap(new String[] { "enabled" }, new String[][] { { "true" } }),
-                Integer.MAX_VALUE);
-        for (Plugin plugin : results.getData()) {
+        Plugin[] plugins = getEnabledPlugins();
+        for (Plugin plugin : plugins) {
             unloadPlugin(plugin.getId(), false, false);
         }
-        log.info("{} Plugins unloaded", results.getData().length);
+        log.info("{} Plugins unloaded", plugins.length);
     }
 
     /**
@@ -114,11 +113,16 @@ public class PluginManager {
         }
 
         log.info("Initializing plugins");
-        // Load enabled plugins in alien, query using max value as anyway we must be able to load all plugins in memory.
-        GetMultipleDataResult<Plugin> results = alienDAO.find(Plugin.class, MapUtil.newHashMap(new String[] { "enabled" }, new String[][] { { "true" } }),
-                Integer.MAX_VALUE);
-        loadPlugins(results.getData());
-        log.info("{} Plugins initialized.", results.getData().length);
+        // Load enabled plugins in alien, anyway we must be able to load all plugins in memory.
+        Plugin[] plugins = getEnabledPlugins();
+        loadPlugins(plugins);
+        log.info("{} Plugins initialized.", plugins.length);
+    }
+
+    private Plugin[] getEnabledPlugins() {
+        try (Stream<Plugin> plugins = alienDAO.stream(Plugin.class, MapUtil.newHashMap(new String[] { "enabled" }, new String[][] { { "true" } }))) {
+            return plugins.toArray(Plugin[]::new);
+        }
     }
 
     /**
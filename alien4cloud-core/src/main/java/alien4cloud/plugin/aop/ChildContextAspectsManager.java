@@ -22,13 +22,16 @@ import org.springframework.util.ReflectionUtils.MethodCallback;
 import org.springframework.util.ReflectionUtils.MethodFilter;
 
 import javax.annotation.Resource;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
-import java.lang.reflect.UndeclaredThrowableException;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -50,6 +53,9 @@ import java.util.concurrent.locks.ReentrantLock;
  * <li>the bean can be already proxied in the main context: in this case, the annotation should be present at interface level.
  * <li>proxies are applied in the order child contexts are started.
  * </ul>
+ * <p>
+ * Invocations on the proxies don't take any lock: the targets of all the proxies are published as an immutable snapshot that is replaced as a whole when a
+ * child context is started or stopped, and methods are invoked through cached {@link MethodHandle}s.
  */
 @Component
 @Slf4j
@@ -64,8 +70,12 @@ public class ChildContextAspectsManager implements ApplicationListener<Applicati
     /** We store all the names of beans that implements {@link ApplicationListener} per child context. */
     private Map<String, GenericApplicationListenerAdapter[]> childApplicationListeners = Maps.newHashMap();
 
+    /** Lock for child context registration, invocations on proxies don't use it. */
     private Lock lock = new ReentrantLock();
 
+    /** Current target of every proxy indexed by {@link ProxyRegistry#index}. The array is never modified once published. */
+    private volatile Object[] proxyTargets = new Object[0];
+
     @Resource
     private ApplicationContext context;
 
@@ -113,7 +123,8 @@ public class ChildContextAspectsManager implements ApplicationListener<Applicati
         ProxyRegistry proxyRegistry = overridableCandidates.get(bean);
         if (proxyRegistry == null) {
             proxyRegistry = new ProxyRegistry();
-            Object proxy = Proxy.newProxyInstance(bean.getClass().getClassLoader(), bean.getClass().getInterfaces(), new DynamicProxyInvocationHandler(bean));
+            proxyRegistry.index = overridableCandidates.size();
+            Object proxy = Proxy.newProxyInstance(bean.getClass().getClassLoader(), bean.getClass().getInterfaces(), new DynamicProxyInvocationHandler(proxyRegistry));
             proxyRegistry.proxy = proxy;
             proxyRegistry.target = bean;
             proxyRegistry.original = bean;
@@ -138,6 +149,7 @@ public class ChildContextAspectsManager implements ApplicationListener<Applicati
                 log.debug("context started with id: {}", ctx.getId());
             }
             decorateProxyCandidate(ctx);
+            publishProxyTargets();
             detectApplicationListeners(ctx);
         } finally {
             lock.unlock();
@@ -181,6 +193,7 @@ public class ChildContextAspectsManager implements ApplicationListener<Applicati
                 for (ApplicationContext childContext : childContexts.values()) {
                     decorateProxyCandidate(childContext);
                 }
+                publishProxyTargets();
             }
         } finally {
             lock.unlock();
@@ -243,6 +256,17 @@ public class ChildContextAspectsManager implements ApplicationListener<Applicati
         }
     }
 
+    /**
+     * Publish the targets computed for the proxy candidates so that they are used by the next invocations. Must be called under lock.
+     */
+    private void publishProxyTargets() {
+        Object[] targets = new Object[overridableCandidates.size()];
+        for (ProxyRegistry proxyRegistry : overridableCandidates.values()) {
+            targets[proxyRegistry.index] = proxyRegistry.target;
+        }
+        proxyTargets = targets;
+    }
+
     /**
      * This {@link InvocationHandler} will invoke methods:
      * <ul>
@@ -251,62 +275,59 @@ public class ChildContextAspectsManager implements ApplicationListener<Applicati
      * </ul>
      */
     private class DynamicProxyInvocationHandler implements InvocationHandler {
+        /** Generic type of the invokers: (target, arguments) -> result. */
+        private final MethodType invokerType = MethodType.methodType(Object.class, Object.class, Object[].class);
 
         /**
-         * The original bean that is eventually overridden.
+         * The registry of the original bean that is eventually overridden.
          */
-        private Object obj;
+        private final ProxyRegistry proxyRegistry;
+
+        /** Invokers by method, a method invoker can be used for the original bean as well as for the proxies of the child contexts. */
+        private final Map<Method, MethodHandle> invokers = new ConcurrentHashMap<>();
 
-        public DynamicProxyInvocationHandler(Object obj) {
+        public DynamicProxyInvocationHandler(ProxyRegistry proxyRegistry) {
             super();
-            this.obj = obj;
+            this.proxyRegistry = proxyRegistry;
         }
 
         @Override
         public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-            lock.lock();
-            Object target = obj;
-            try {
-                ProxyRegistry proxyRegistry = overridableCandidates.get(obj);
-                if (proxyRegistry != null) {
-                    if (log.isDebugEnabled()) {
-                        if (proxyRegistry.target != proxyRegistry.original) {
-                            log.debug("Invoking method <{}> on proxy", method);
-                        } else {
-                            log.debug("Invoking method <{}> on native bean (no proxy found)", method);
-                        }
-                    }
-                    target = proxyRegistry.target;
+            Object[] targets = proxyTargets;
+            Object target = proxyRegistry.index < targets.length ? targets[proxyRegistry.index] : proxyRegistry.original;
+            if (log.isDebugEnabled()) {
+                if (target != proxyRegistry.original) {
+                    log.debug("Invoking method <{}> on proxy", method);
                 } else {
-                    if (log.isDebugEnabled()) {
-                        log.debug("Invoking method <{}> on native bean (no proxy registry found)", method);
-                    }
+                    log.debug("Invoking method <{}> on native bean (no proxy found)", method);
                 }
-            } finally {
-                lock.unlock();
             }
-            Object result = null;
-            try {
-                result = ReflectionUtils.invokeMethod(method, target, args);
-            } catch (Exception e) {
-                try {
-                    ReflectionUtils.handleReflectionException(e);
-                } catch (UndeclaredThrowableException ute) {
-                    throw ute.getUndeclaredThrowable();
-                }
+            // method handles don't wrap the exceptions thrown by the target
+            return (Object) getInvoker(method).invokeExact(target, args == null ? new Object[0] : args);
+        }
+
+        private MethodHandle getInvoker(Method method) throws IllegalAccessException {
+            MethodHandle invoker = invokers.get(method);
+            if (invoker == null) {
+                ReflectionUtils.makeAccessible(method);
+                invoker = MethodHandles.lookup().unreflect(method).asSpreader(Object[].class, method.getParameterCount()).asType(invokerType);
+                invokers.put(method, invoker);
             }
-            return result;
+            return invoker;
         }
     }
 
     private static class ProxyRegistry {
+        /** Index of the target of the proxy in the published targets. */
+        private int index;
+
         /** The bean name in the main application context. */
         private String beanName;
 
         /** The dynamic proxy for the bean. */
         private Object proxy;
 
-        /** The target : the original bean eventually proxied by child context aspects. */
+        /** The target : the original bean eventually proxied by child context aspects, used by invocations once published. */
         private Object target;
 
         /** The original bean that is candidate for being proxied by child context aspects. */
@@ -0,0 +1,171 @@
+package alien4cloud.suggestions.services;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import alien4cloud.suggestions.services.SuggestionService.MatchedSuggestion;
+
+/**
+ * In-memory index of the values of a suggestion entry that finds the values similar to an input without computing the Jaro-Winkler distance against every
+ * value.
+ * <p>
+ * Normalized values are indexed by their characters. Only values that share characters with the input can have a non-zero distance, and the number of shared
+ * characters bounds the distance, so values that cannot be part of the best matches are skipped.
+ */
+class SuggestionIndex {
+    /** Maximum increase of the Jaro distance for a common prefix (prefix of at most 4 characters with a 0.1 scaling factor). */
+    private static final double MAX_PREFIX_BOOST = 0.4;
+    /** The Jaro-Winkler distance is rounded to 2 decimals. */
+    private static final double ROUNDING_MARGIN = 0.005;
+
+    private static final Comparator<MatchedSuggestion> BEST_MATCH_FIRST = Comparator.comparing(MatchedSuggestion::getPriority).reversed()
+            .thenComparing(MatchedSuggestion::getValue);
+
+    /** Values of the entry in insertion order. */
+    private final Set<String> values = Sets.newLinkedHashSet();
+    /** Values of the entry by normalized value. */
+    private final Map<String, Set<String>> valuesByNormalizedValue = Maps.newHashMap();
+    /** For every character, the number of occurrences of the character in the normalized values that contain it. */
+    private final Map<Character, Map<String, Integer>> characterPostings = Maps.newHashMap();
+
+    SuggestionIndex(Collection<String> values) {
+        if (values != null) {
+            for (String value : values) {
+                add(value);
+            }
+        }
+    }
+
+    /**
+     * Normalize a value for matching (white spaces are removed and the value is lower cased).
+     */
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String noWhiteSpace = value.replace(" ", "");
+        return noWhiteSpace.toLowerCase();
+    }
+
+    synchronized boolean contains(String value) {
+        return values.contains(value);
+    }
+
+    synchronized void add(String value) {
+        if (value == null || !values.add(value)) {
+            return;
+        }
+        String normalizedValue = normalize(value);
+        Set<String> sameNormalizedValues = valuesByNormalizedValue.get(normalizedValue);
+        if (sameNormalizedValues == null) {
+            sameNormalizedValues = Sets.newLinkedHashSet();
+            valuesByNormalizedValue.put(normalizedValue, sameNormalizedValues);
+            for (Map.Entry<Character, Integer> characterCount : countCharacters(normalizedValue).entrySet()) {
+                characterPostings.computeIfAbsent(characterCount.getKey(), character -> Maps.newHashMap()).put(normalizedValue, characterCount.getValue());
+            }
+        }
+        sameNormalizedValues.add(value);
+    }
+
+    /**
+     * @param limit The maximum number of values to return.
+     * @return The first values of the entry in insertion order.
+     */
+    synchronized String[] getValues(int limit) {
+        return values.stream().limit(limit).toArray(String[]::new);
+    }
+
+    /**
+     * Find the values that are the most similar to the input.
+     *
+     * @param input The input value.
+     * @param minJaroWinkler The Jaro-Winkler distance a value must exceed to match.
+     * @param limit The maximum number of matches to return.
+     * @return The best matches ordered by decreasing distance.
+     */
+    synchronized List<MatchedSuggestion> match(String input, double minJaroWinkler, int limit) {
+        if (limit <= 0) {
+            return Lists.newArrayList();
+        }
+        String normalizedInput = normalize(input);
+        // count the characters shared by the input and every normalized value that contains at least one of them
+        Map<String, Integer> sharedCounts = Maps.newHashMap();
+        for (Map.Entry<Character, Integer> inputCount : countCharacters(normalizedInput).entrySet()) {
+            Map<String, Integer> postings = characterPostings.get(inputCount.getKey());
+            if (postings != null) {
+                for (Map.Entry<String, Integer> posting : postings.entrySet()) {
+                    sharedCounts.merge(posting.getKey(), Math.min(posting.getValue(), inputCount.getValue()), Integer::sum);
+                }
+            }
+        }
+        List<Candidate> candidates = Lists.newArrayListWithCapacity(sharedCounts.size());
+        for (Map.Entry<String, Integer> sharedCount : sharedCounts.entrySet()) {
+            double bound = upperBound(sharedCount.getValue(), normalizedInput.length(), sharedCount.getKey().length());
+            if (bound > minJaroWinkler) {
+                candidates.add(new Candidate(sharedCount.getKey(), bound));
+            }
+        }
+        candidates.sort(Comparator.comparingDouble((Candidate candidate) -> candidate.bound).reversed());
+
+        // worst of the best matches first
+        PriorityQueue<MatchedSuggestion> bestMatches = new PriorityQueue<>(BEST_MATCH_FIRST.reversed());
+        for (Candidate candidate : candidates) {
+            if (bestMatches.size() >= limit && candidate.bound < bestMatches.peek().getPriority()) {
+                // no remaining candidate can be better than the current matches
+                break;
+            }
+            double distance = StringUtils.getJaroWinklerDistance(normalizedInput, candidate.normalizedValue);
+            if (distance > minJaroWinkler) {
+                for (String value : valuesByNormalizedValue.get(candidate.normalizedValue)) {
+                    bestMatches.add(new MatchedSuggestion(distance, value));
+                    if (bestMatches.size() > limit) {
+                        bestMatches.poll();
+                    }
+                }
+            }
+        }
+        List<MatchedSuggestion> matches = Lists.newArrayList(bestMatches);
+        matches.sort(BEST_MATCH_FIRST);
+        return matches;
+    }
+
+    /**
+     * Compute the maximum Jaro-Winkler distance between two values that share the given number of characters, assuming no transposition and the longest
+     * common prefix.
+     */
+    private static double upperBound(int sharedCount, int inputLength, int valueLength) {
+        int shorter = Math.min(inputLength, valueLength);
+        int longer = Math.max(inputLength, valueLength);
+        int matches = Math.min(sharedCount, shorter);
+        double jaro = (matches / (double) shorter + matches / (double) longer + 1) / 3;
+        return jaro + MAX_PREFIX_BOOST * (1 - jaro) + ROUNDING_MARGIN;
+    }
+
+    private static Map<Character, Integer> countCharacters(String value) {
+        Map<Character, Integer> counts = Maps.newHashMap();
+        for (int i = 0; i < value.length(); i++) {
+            counts.merge(value.charAt(i), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    private static class Candidate {
+        private final String normalizedValue;
+        private final double bound;
+
+        private Candidate(String normalizedValue, double bound) {
+            this.normalizedValue = normalizedValue;
+            this.bound = bound;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Array;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
@@ -55,6 +56,9 @@ public class SuggestionService {
     /* The Levenshtein distance is a string metric for measuring the difference between two sequences. */
     private static final double MIN_JAROWINKLER = 0.0;
 
+    /** In-memory indexes of the suggestion values by suggestion entry id, loaded on first use. */
+    private final Map<String, SuggestionIndex> suggestionIndexes = new ConcurrentHashMap<>();
+
     /**
      * This method load the defaults suggestions to ES.
      * 
@@ -67,6 +71,7 @@ public class SuggestionService {
             for (SuggestionEntry suggestionEntry : suggestions) {
                 if (!isSuggestionExist(suggestionEntry)) {
                     alienDAO.save(suggestionEntry);
+                    suggestionIndexes.remove(suggestionEntry.getId());
                     try {
                         setSuggestionIdOnPropertyDefinition(suggestionEntry);
                     } catch (Exception e) {
@@ -91,16 +96,15 @@ public class SuggestionService {
         }
     }
 
-    private AbstractSuggestionEntry checkProperty(String nodePrefix, String propertyName, String propertyTextValue,
-                                                  Class<? extends AbstractInheritableToscaType> type, String elementId, ParsingContext context) {
-        AbstractSuggestionEntry suggestionEntry = getSuggestionEntry(ElasticSearchDAO.TOSCA_ELEMENT_INDEX, type.getSimpleName().toLowerCase(), elementId,
-                propertyName);
-        if (suggestionEntry != null) {
-            PriorityQueue<SuggestionService.MatchedSuggestion> similarValues = getJaroWinklerMatchedSuggestions(suggestionEntry.getSuggestions(),
-                    propertyTextValue, 0.8);
+    private String checkProperty(String nodePrefix, String propertyName, String propertyTextValue, Class<? extends AbstractInheritableToscaType> type,
+                                 String elementId, ParsingContext context) {
+        String suggestionId = SuggestionEntry.generateId(ElasticSearchDAO.TOSCA_ELEMENT_INDEX, type.getSimpleName().toLowerCase(), elementId, propertyName);
+        SuggestionIndex suggestionIndex = findSuggestionIndex(suggestionId);
+        if (suggestionIndex != null && !suggestionIndex.contains(propertyTextValue)) {
+            List<SuggestionService.MatchedSuggestion> similarValues = suggestionIndex.match(propertyTextValue, 0.8, 1);
             if (!similarValues.isEmpty()) {
                 // Has some similar values in the system already
-                SuggestionService.MatchedSuggestion mostMatched = similarValues.poll();
+                SuggestionService.MatchedSuggestion mostMatched = similarValues.get(0);
                 if (!mostMatched.getValue().equals(propertyTextValue)) {
                     // If user has entered a property value not the same as the most matched in the system
                     ParsingErrorLevel level;
@@ -111,7 +115,7 @@ public class SuggestionService {
                         // It's pretty similar
                         level = ParsingErrorLevel.INFO;
                         // Add suggestion anyway
-                        addSuggestionValueToSuggestionEntry(suggestionEntry.getId(), propertyTextValue);
+                        addSuggestionValueToSuggestionEntry(suggestionId, propertyTextValue);
                     }
                     context.getParsingErrors()
                             .add(new ParsingError(level, ErrorCode.POTENTIAL_BAD_PROPERTY_VALUE, null, null, null, null, "At path [" + nodePrefix + "."
@@ -119,10 +123,10 @@ public class SuggestionService {
                 }
             } else {
                 // Not similar add suggestion
-                addSuggestionValueToSuggestionEntry(suggestionEntry.getId(), propertyTextValue);
+                addSuggestionValueToSuggestionEntry(suggestionId, propertyTextValue);
             }
         }
-        return suggestionEntry;
+        return suggestionIndex == null ? null : suggestionId;
     }
 
     private void checkProperties(String nodePrefix, Map<String, AbstractPropertyValue> propertyValueMap, Class<? extends AbstractInheritableToscaType> type,
@@ -236,6 +240,7 @@ public class SuggestionService {
         suggestionEntry.setTargetElementId(elementId);
         suggestionEntry.setTargetProperty(propertyName);
         alienDAO.save(suggestionEntry);
+        suggestionIndexes.remove(suggestionEntry.getId());
         setSuggestionIdOnPropertyDefinition(suggestionEntry);
     }
 
@@ -244,6 +249,7 @@ public class SuggestionService {
      */
     public void createSimpleSuggestionEntry(SimpleSuggestionEntry suggestionEntry) {
         alienDAO.save(suggestionEntry);
+        suggestionIndexes.remove(suggestionEntry.getId());
     }
 
     private void checkPropertyConstraints(String prefix, Class<? extends AbstractInheritableToscaType> type, String elementId, String propertyName,
@@ -260,7 +266,7 @@ public class SuggestionService {
                 } else if (propertyConstraint instanceof ValidValuesConstraint) {
                     ValidValuesConstraint validValuesConstraint = (ValidValuesConstraint) propertyConstraint;
                     if (validValuesConstraint.getValidValues() != null && !validValuesConstraint.getValidValues().isEmpty()) {
-                        AbstractSuggestionEntry foundSuggestion = null;
+                        String foundSuggestion = null;
                         for (String valueToCheck : validValuesConstraint.getValidValues()) {
                             foundSuggestion = checkProperty(prefix, propertyName, valueToCheck, type, elementId, context);
                             if (foundSuggestion == null) {
@@ -323,6 +329,10 @@ public class SuggestionService {
     }
 
     public void addSuggestionValueToSuggestionEntry(String suggestionId, String newValue) {
+        SuggestionIndex suggestionIndex = suggestionIndexes.get(suggestionId);
+        if (suggestionIndex != null && suggestionIndex.contains(newValue)) {
+            return;
+        }
         AbstractSuggestionEntry suggestion = alienDAO.findById(AbstractSuggestionEntry.class, suggestionId);
         if (suggestion == null) {
             throw new NotFoundException("Suggestion entry [" + suggestionId + "] cannot be found");
@@ -333,14 +343,40 @@ public class SuggestionService {
         }
         suggestion.getSuggestions().add(newValue);
         alienDAO.save(suggestion);
+        // waits for the index to be loaded if a load is in progress so that the value cannot be missed
+        suggestionIndexes.computeIfPresent(suggestionId, (id, index) -> {
+            index.add(newValue);
+            return index;
+        });
     }
 
-    private String normalizeTextForMatching(String value) {
-        if (value == null) {
-            return "";
+    /**
+     * Get the in-memory index of the values of a suggestion entry, loading it if needed.
+     *
+     * @param suggestionId id of the suggestion
+     * @return the index of the values or null if the suggestion entry doesn't exist.
+     */
+    private SuggestionIndex findSuggestionIndex(String suggestionId) {
+        SuggestionIndex suggestionIndex = suggestionIndexes.get(suggestionId);
+        if (suggestionIndex != null) {
+            return suggestionIndex;
         }
-        String noWhiteSpace = value.replace(" ", "");
-        return noWhiteSpace.toLowerCase();
+        return suggestionIndexes.computeIfAbsent(suggestionId, id -> {
+            AbstractSuggestionEntry suggestionEntry = alienDAO.findById(AbstractSuggestionEntry.class, id);
+            return suggestionEntry == null ? null : new SuggestionIndex(suggestionEntry.getSuggestions());
+        });
+    }
+
+    private SuggestionIndex getSuggestionIndex(String suggestionId) {
+        SuggestionIndex suggestionIndex = findSuggestionIndex(suggestionId);
+        if (suggestionIndex == null) {
+            throw new NotFoundException("Suggestion entry [" + suggestionId + "] cannot be found");
+        }
+        return suggestionIndex;
+    }
+
+    private String normalizeTextForMatching(String value) {
+        return SuggestionIndex.normalize(value);
     }
 
     public static class MatchedSuggestion {
@@ -400,26 +436,15 @@ public class SuggestionService {
      * @return the suggestions ordered by the most match.
      */
     public String[] getJaroWinklerMatchedSuggestions(String suggestionId, String input, int limit) {
-        Set<String> allSuggestions = getSuggestions(suggestionId);
-        if (limit > allSuggestions.size()) {
-            limit = allSuggestions.size();
-        }
+        SuggestionIndex suggestionIndex = getSuggestionIndex(suggestionId);
         if (StringUtils.isBlank(input)) {
             // Finish prematurely the algorithm as the searched value is empty
-            String[] matches = new String[limit];
-            Iterator<String> allSuggestionsIterator = allSuggestions.iterator();
-            for (int i = 0; i < limit; i++) {
-                matches[i] = allSuggestionsIterator.next();
-            }
-            return matches;
-        }
-        PriorityQueue<MatchedSuggestion> matchedSuggestions = getJaroWinklerMatchedSuggestions(allSuggestions, input, MIN_JAROWINKLER);
-        if (limit > matchedSuggestions.size()) {
-            limit = matchedSuggestions.size();
+            return suggestionIndex.getValues(limit);
         }
-        String[] results = new String[limit];
-        for (int i = 0; i < limit; i++) {
-            results[i] = matchedSuggestions.poll().value;
+        List<MatchedSuggestion> matchedSuggestions = suggestionIndex.match(input, MIN_JAROWINKLER, limit);
+        String[] results = new String[matchedSuggestions.size()];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = matchedSuggestions.get(i).value;
         }
         return results;
     }
@@ -0,0 +1,46 @@
+package alien4cloud.topology;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.alien4cloud.tosca.editor.operations.AbstractEditorOperation;
+import org.alien4cloud.tosca.model.templates.NodeTemplate;
+import org.alien4cloud.tosca.model.types.CapabilityType;
+import org.alien4cloud.tosca.model.types.DataType;
+import org.alien4cloud.tosca.model.types.NodeType;
+import org.alien4cloud.tosca.model.types.RelationshipType;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import alien4cloud.utils.TreeNode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Changes of a {@link TopologyDTO} after the processing of an editor operation. The delta applies on the dto of the topology at the previous operation, a
+ * client that doesn't have this version must reload the full topology dto.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class TopologyDeltaDTO {
+    /** Id of the operation on which the delta applies (null if it applies on the saved topology). */
+    private String previousOperationId;
+    /** The operation that has been processed, to be added to the operations after the previous operation. */
+    private AbstractEditorOperation operation;
+    private int lastOperationIndex;
+    /** New values of the topology properties (other than node templates) that have changed, a null value means that the property has been removed. */
+    private Map<String, JsonNode> topologyChanges;
+    /** Node templates that have been added or updated by name. */
+    private Map<String, NodeTemplate> nodeTemplates;
+    /** Names of the node templates that have been removed. */
+    private Set<String> removedNodeTemplates;
+    /** Types that are referenced by the topology and were not before the operation. */
+    private Map<String, NodeType> nodeTypes;
+    private Map<String, RelationshipType> relationshipTypes;
+    private Map<String, CapabilityType> capabilityTypes;
+    private Map<String, DataType> dataTypes;
+    /** The archive content tree if it has changed or null. */
+    private TreeNode archiveContentTree;
+}
@@ -51,7 +51,17 @@ public abstract class AbstractArchivePostProcessor {
      * @param parsedArchive The archive to post process
      */
     public ParsingResult<ArchiveRoot> process(Path archive, ParsingResult<ArchiveRoot> parsedArchive, String workspace) {
-        String hash = FileUtil.deepSHA1(archive);
+        return process(archive, FileUtil.deepSHA1(archive), parsedArchive, workspace);
+    }
+
+    /**
+     * Post process the archive when the hash of its content has already been computed (see {@link FileUtil#deepSHA1(Path)}).
+     *
+     * @param archive The path of the archive.
+     * @param hash The hash of the archive content.
+     * @param parsedArchive The archive to post process
+     */
+    public ParsingResult<ArchiveRoot> process(Path archive, String hash, ParsingResult<ArchiveRoot> parsedArchive, String workspace) {
         parsedArchive.getResult().getArchive().setHash(hash);
         parsedArchive.getResult().getArchive().setWorkspace(workspace);
 
@@ -37,6 +37,18 @@ public class ArchiveParser {
         return postProcessor.process(archiveFile, toscaArchiveParser.parseWithExistingContext(archiveFile), workspace);
     }
 
+    /**
+     * Parse a TOSCA archive and reuse an existing TOSCA Context when the hash of the archive content has already been computed.
+     *
+     * @param archiveFile The archive file to parse.
+     * @param hash The hash of the archive content (see {@link alien4cloud.utils.FileUtil#deepSHA1(Path)}).
+     * @return A parsing result that contains the Archive Root and eventual errors and/or warnings.
+     * @throws ParsingException In case of a severe issue while parsing (incorrect yaml, no tosca file etc.)
+     */
+    public ParsingResult<ArchiveRoot> parseWithExistingContext(Path archiveFile, String hash, String workspace) throws ParsingException {
+        return postProcessor.process(archiveFile, hash, toscaArchiveParser.parseWithExistingContext(archiveFile), workspace);
+    }
+
     /**
      * Parse an archive file from a zip.
      *
@@ -48,6 +60,18 @@ public class ArchiveParser {
         return postProcessor.process(archiveFile, toscaArchiveParser.parse(archiveFile), workspace);
     }
 
+    /**
+     * Parse an archive file from a zip when the hash of the archive content has already been computed.
+     *
+     * @param archiveFile The archive file currently zipped.
+     * @param hash The hash of the archive content (see {@link alien4cloud.utils.FileUtil#deepSHA1(Path)}).
+     * @return A parsing result that contains the Archive Root and eventual errors and/or warnings.
+     * @throws ParsingException In case of a severe issue while parsing (incorrect yaml, no tosca file etc.)
+     */
+    public ParsingResult<ArchiveRoot> parse(Path archiveFile, String hash, String workspace) throws ParsingException {
+        return postProcessor.process(archiveFile, hash, toscaArchiveParser.parse(archiveFile), workspace);
+    }
+
     /**
      * Parse an archive from a directory, it's very convenient for internal use and test
      *
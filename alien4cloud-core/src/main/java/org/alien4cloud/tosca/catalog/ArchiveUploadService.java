@@ -1,30 +1,44 @@
 package org.alien4cloud.tosca.catalog;
 
 import java.nio.file.Path;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
+import javax.annotation.Resource;
 import javax.inject.Inject;
 
 import org.alien4cloud.tosca.catalog.index.ArchiveIndexer;
 import org.alien4cloud.tosca.model.CSARDependency;
 import org.alien4cloud.tosca.model.Csar;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
 import org.springframework.stereotype.Component;
 
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 import alien4cloud.common.AlienConstants;
 import alien4cloud.component.repository.exception.CSARUsedInActiveDeployment;
 import alien4cloud.model.components.CSARSource;
 import alien4cloud.model.git.CsarDependenciesBean;
 import alien4cloud.suggestions.services.SuggestionService;
+import alien4cloud.tosca.context.ToscaContext;
 import alien4cloud.tosca.context.ToscaContextual;
 import alien4cloud.tosca.model.ArchiveRoot;
 import alien4cloud.tosca.parser.ParsingContext;
 import alien4cloud.tosca.parser.ParsingErrorLevel;
 import alien4cloud.tosca.parser.ParsingException;
 import alien4cloud.tosca.parser.ParsingResult;
+import alien4cloud.utils.FileUtil;
+import lombok.AllArgsConstructor;
+import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
 @Component
@@ -36,6 +50,10 @@ public class ArchiveUploadService {
     private ArchiveIndexer archiveIndexer;
     @Inject
     private SuggestionService suggestionService;
+    @Inject
+    private ParsedArchiveCache parsedArchiveCache;
+    @Resource(name = "archive-import-executor")
+    private AsyncTaskExecutor importExecutor;
 
     /**
      * Upload a TOSCA archive and index its components.
@@ -48,8 +66,22 @@ public class ArchiveUploadService {
      */
     @ToscaContextual
     public ParsingResult<Csar> upload(Path path, CSARSource csarSource, String workspace) throws ParsingException, CSARUsedInActiveDeployment {
+        return upload(path, FileUtil.deepSHA1(path), csarSource, workspace);
+    }
+
+    private ParsingResult<Csar> upload(Path path, String hash, CSARSource csarSource, String workspace) throws ParsingException, CSARUsedInActiveDeployment {
+        // skip parsing if the exact same content has already been imported.
+        ArchiveRoot previousImport = parsedArchiveCache.get(workspace, hash);
+        if (previousImport != null) {
+            ParsingContext context = new ParsingContext(path.getFileName().toString());
+            if (archiveIndexer.isAlreadyIndexed(previousImport, context.getParsingErrors())) {
+                return new ParsingResult<>(previousImport.getArchive(), context);
+            }
+            parsedArchiveCache.invalidate(workspace, hash);
+        }
+
         // parse the archive.
-        ParsingResult<ArchiveRoot> parsingResult = parser.parseWithExistingContext(path, workspace);
+        ParsingResult<ArchiveRoot> parsingResult = parser.parseWithExistingContext(path, hash, workspace);
 
         final ArchiveRoot archiveRoot = parsingResult.getResult();
 
@@ -60,6 +92,9 @@ public class ArchiveUploadService {
         }
 
         archiveIndexer.importArchive(archiveRoot, csarSource, path, parsingResult.getContext().getParsingErrors());
+        if (!parsingResult.hasError(ParsingErrorLevel.ERROR)) {
+            parsedArchiveCache.put(archiveRoot);
+        }
         try {
             suggestionService.postProcessSuggestionFromArchive(parsingResult);
             suggestionService.setAllSuggestionIdOnPropertyDefinition();
@@ -69,18 +104,91 @@ public class ArchiveUploadService {
         return toSimpleResult(parsingResult);
     }
 
-    @ToscaContextual
+    /**
+     * Upload archives that don't depend on each other. Archives are parsed and imported concurrently if archive.import.parallelism is greater than 1, each
+     * import having its own TOSCA and parsing context.
+     *
+     * @param paths The paths of the archives to upload.
+     * @param csarSource The source of the upload.
+     * @param workspace The workspace in which to upload the archives.
+     * @return The parsing results in the order of the given paths.
+     * @throws ParsingException
+     * @throws CSARUsedInActiveDeployment
+     */
+    public List<ParsingResult<Csar>> upload(List<Path> paths, CSARSource csarSource, String workspace) throws ParsingException, CSARUsedInActiveDeployment {
+        return upload(paths, Collections.emptyMap(), csarSource, workspace);
+    }
+
+    /**
+     * Upload archives that don't depend on each other when the hash of their content may already have been computed.
+     *
+     * @param paths The paths of the archives to upload.
+     * @param hashes The hash of the content of the archives by path, the hash of the archives that are not in the map is computed before their upload.
+     * @param csarSource The source of the upload.
+     * @param workspace The workspace in which to upload the archives.
+     * @return The parsing results in the order of the given paths.
+     * @throws ParsingException
+     * @throws CSARUsedInActiveDeployment
+     */
+    public List<ParsingResult<Csar>> upload(List<Path> paths, Map<Path, String> hashes, CSARSource csarSource, String workspace)
+            throws ParsingException, CSARUsedInActiveDeployment {
+        List<Callable<ParsingResult<Csar>>> tasks = Lists.newArrayList();
+        for (Path path : paths) {
+            tasks.add(() -> upload(path, hashes.containsKey(path) ? hashes.get(path) : FileUtil.deepSHA1(path), csarSource, workspace));
+        }
+        List<Future<ParsingResult<Csar>>> futures = submit(tasks);
+        List<ParsingResult<Csar>> results = Lists.newArrayList();
+        Exception error = null;
+        for (Future<ParsingResult<Csar>> future : futures) {
+            // wait for all imports to complete before reporting the first error.
+            try {
+                results.add(get(future));
+            } catch (Exception e) {
+                if (error == null) {
+                    error = e;
+                }
+            }
+        }
+        if (error != null) {
+            Throwables.propagateIfInstanceOf(error, ParsingException.class);
+            Throwables.propagateIfInstanceOf(error, CSARUsedInActiveDeployment.class);
+            throw Throwables.propagate(error);
+        }
+        return results;
+    }
+
     public Map<CSARDependency, CsarDependenciesBean> preParsing(Set<Path> paths, List<ParsingResult<Csar>> parsingResults) {
+        return preParsing(paths, Collections.emptyMap(), parsingResults);
+    }
+
+    /**
+     * Get the definition of archives when the hash of their content may already have been computed.
+     *
+     * @param paths The paths of the archives.
+     * @param hashes The hash of the content of the archives by path, the hash of the archives that are not in the map is computed.
+     * @param parsingResults The list in which to add the result of the archives that cannot be parsed.
+     * @return The archives definitions and dependencies by archive.
+     */
+    public Map<CSARDependency, CsarDependenciesBean> preParsing(Set<Path> paths, Map<Path, String> hashes, List<ParsingResult<Csar>> parsingResults) {
+        List<Path> pathList = Lists.newArrayList(paths);
+        List<Callable<PreParsedArchive>> tasks = Lists.newArrayList();
+        for (Path path : pathList) {
+            tasks.add(() -> preParse(path, hashes.containsKey(path) ? hashes.get(path) : FileUtil.deepSHA1(path)));
+        }
+        List<Future<PreParsedArchive>> futures = submit(tasks);
+
         Map<CSARDependency, CsarDependenciesBean> csarDependenciesBeans = Maps.newHashMap();
-        for (Path path : paths) {
+        for (int i = 0; i < pathList.size(); i++) {
+            Path path = pathList.get(i);
             try {
-                // FIXME cleanup git import archives
-                ParsingResult<ArchiveRoot> parsingResult = parser.parse(path, AlienConstants.GLOBAL_WORKSPACE_ID);
+                PreParsedArchive preParsedArchive = get(futures.get(i));
+                Csar archive = preParsedArchive.archive;
                 CsarDependenciesBean csarDepContainer = new CsarDependenciesBean();
                 csarDepContainer.setPath(path);
-                csarDepContainer
-                        .setSelf(new CSARDependency(parsingResult.getResult().getArchive().getName(), parsingResult.getResult().getArchive().getVersion()));
-                csarDepContainer.setDependencies(parsingResult.getResult().getArchive().getDependencies());
+                csarDepContainer.setHash(preParsedArchive.hash);
+                csarDepContainer.setSelf(new CSARDependency(archive.getName(), archive.getVersion()));
+                // dependencies are modified by the sort so we don't want to alter the cached archive.
+                csarDepContainer.setDependencies(archive.getDependencies() == null ? null : Sets.newHashSet(archive.getDependencies()));
                 csarDependenciesBeans.put(csarDepContainer.getSelf(), csarDepContainer);
             } catch (ParsingException e) {
                 ParsingResult<Csar> failedResult = new ParsingResult<>();
@@ -88,11 +196,53 @@ public class ArchiveUploadService {
                 failedResult.getContext().setParsingErrors(e.getParsingErrors());
                 parsingResults.add(failedResult);
                 log.debug("Not able to parse archive, ignoring it", e);
+            } catch (Exception e) {
+                throw Throwables.propagate(e);
             }
         }
         return csarDependenciesBeans;
     }
 
+    /**
+     * Get the archive definition (name, version and dependencies) from an archive, parsing is skipped if the archive content has already been imported.
+     */
+    private PreParsedArchive preParse(Path path, String hash) throws ParsingException {
+        ArchiveRoot previousImport = parsedArchiveCache.get(AlienConstants.GLOBAL_WORKSPACE_ID, hash);
+        if (previousImport != null) {
+            return new PreParsedArchive(previousImport.getArchive(), hash);
+        }
+        // FIXME cleanup git import archives
+        return new PreParsedArchive(parser.parse(path, hash, AlienConstants.GLOBAL_WORKSPACE_ID).getResult().getArchive(), hash);
+    }
+
+    /**
+     * Submit tasks to the import executor, each task is executed in its own TOSCA context and with the security context of the current user.
+     */
+    private <T> List<Future<T>> submit(List<Callable<T>> tasks) {
+        List<Future<T>> futures = Lists.newArrayList();
+        for (Callable<T> task : tasks) {
+            futures.add(importExecutor.submit(new DelegatingSecurityContextCallable<T>(() -> {
+                ToscaContext.init(Sets.newHashSet());
+                try {
+                    return task.call();
+                } finally {
+                    ToscaContext.destroy();
+                }
+            })));
+        }
+        return futures;
+    }
+
+    @SneakyThrows(InterruptedException.class)
+    private <T> T get(Future<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwables.propagateIfInstanceOf(e.getCause(), Exception.class);
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
     /**
      * Create a simple result without all the parsed data but just the {@link Csar} object as well as the eventual errors.
      * 
@@ -109,4 +259,11 @@ public class ArchiveUploadService {
         context.getParsingErrors().addAll(result.getContext().getParsingErrors());
         return new ParsingResult<T>(null, context);
     }
+
+    /** The definition of a pre-parsed archive and the hash of its content. */
+    @AllArgsConstructor(suppressConstructorProperties = true)
+    private static class PreParsedArchive {
+        private final Csar archive;
+        private final String hash;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,93 @@
+package org.alien4cloud.tosca.catalog;
+
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+
+import org.alien4cloud.tosca.catalog.events.BeforeArchiveDeleted;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import alien4cloud.tosca.model.ArchiveRoot;
+
+/**
+ * Keeps the result of the latest successful imports by archive content hash (see {@link alien4cloud.utils.FileUtil#deepSHA1(java.nio.file.Path)}) so that
+ * uploading again an archive that has not changed doesn't require to parse it.
+ *
+ * Cached archive roots are only used to identify the archive and check import authorizations, they must not be indexed again. As archive roots keep all the
+ * parsed types and templates, the cache is bounded by the number of TOSCA elements it contains rather than by the number of archives.
+ */
+@Component
+public class ParsedArchiveCache {
+    @Value("${archive.parsing_cache.max_weight:10000}")
+    private long maximumWeight;
+
+    private Cache<String, ArchiveRoot> cache;
+
+    @PostConstruct
+    public void setup() {
+        cache = CacheBuilder.newBuilder().maximumWeight(maximumWeight).weigher((String key, ArchiveRoot archiveRoot) -> weigh(archiveRoot)).build();
+    }
+
+    /**
+     * Weigh an archive root by the number of types and templates it contains (an empty archive weighs 1).
+     */
+    static int weigh(ArchiveRoot archiveRoot) {
+        int weight = 1 + size(archiveRoot.getDataTypes()) + size(archiveRoot.getArtifactTypes()) + size(archiveRoot.getCapabilityTypes())
+                + size(archiveRoot.getRelationshipTypes()) + size(archiveRoot.getNodeTypes());
+        if (archiveRoot.getTopology() != null) {
+            weight += size(archiveRoot.getTopology().getNodeTemplates());
+        }
+        return weight;
+    }
+
+    private static int size(Map<?, ?> elements) {
+        return elements == null ? 0 : elements.size();
+    }
+
+    /**
+     * Get the result of a previous import of an archive with the given content hash in the given workspace.
+     *
+     * @param workspace The workspace in which the archive is imported.
+     * @param hash The hash of the archive content.
+     * @return The archive root of the previous import or null if no archive with the given hash has been imported.
+     */
+    public ArchiveRoot get(String workspace, String hash) {
+        return cache.getIfPresent(getKey(workspace, hash));
+    }
+
+    /**
+     * Register an archive that has been successfully imported.
+     *
+     * @param archiveRoot The archive root out of the parsing.
+     */
+    public void put(ArchiveRoot archiveRoot) {
+        if (archiveRoot.getArchive().getHash() == null) {
+            return;
+        }
+        cache.put(getKey(archiveRoot.getArchive().getWorkspace(), archiveRoot.getArchive().getHash()), archiveRoot);
+    }
+
+    /**
+     * Remove the cached import for the given workspace and hash.
+     *
+     * @param workspace The workspace in which the archive is imported.
+     * @param hash The hash of the archive content.
+     */
+    public void invalidate(String workspace, String hash) {
+        cache.invalidate(getKey(workspace, hash));
+    }
+
+    @EventListener
+    public void handleArchiveDeleted(BeforeArchiveDeleted event) {
+        cache.asMap().values().removeIf(archiveRoot -> archiveRoot.getArchive().getId().equals(event.getArchiveId()));
+    }
+
+    private String getKey(String workspace, String hash) {
+        return workspace + ":" + hash;
+    }
+}
@@ -0,0 +1,97 @@
+package org.alien4cloud.tosca.catalog.index;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Inject;
+
+import org.alien4cloud.tosca.catalog.events.AfterArchiveDeleted;
+import org.alien4cloud.tosca.catalog.events.AfterArchiveIndexed;
+import org.alien4cloud.tosca.catalog.events.BeforeArchiveDeleted;
+import org.alien4cloud.tosca.model.Csar;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In memory registry of the hash of the archives in the catalog. Hashes are loaded from the catalog on first lookup and then kept up to date from the archive
+ * indexing and deletion events so that checking if a dependency has changed doesn't require any query.
+ */
+@Slf4j
+@Component
+public class ArchiveHashRegistry {
+    @Inject
+    private ICsarService csarService;
+
+    /** Hash of the archives by archive id, empty if the archive doesn't have a hash. */
+    private final Map<String, Optional<String>> hashes = new ConcurrentHashMap<>();
+    /** Incremented on every update so that a lookup started before an update doesn't register a stale hash. */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * Get the hash of an archive.
+     *
+     * @param name The name of the archive.
+     * @param version The version of the archive.
+     * @return The hash of the archive or null if the archive doesn't have a hash.
+     * @throws alien4cloud.exception.NotFoundException if the archive doesn't exist.
+     */
+    public String getHash(String name, String version) {
+        String archiveId = new Csar(name, version).getId();
+        Optional<String> hash = hashes.get(archiveId);
+        if (hash != null) {
+            hitCount.incrementAndGet();
+            return hash.orElse(null);
+        }
+        missCount.incrementAndGet();
+        long loadGeneration = generation.get();
+        hash = Optional.ofNullable(csarService.getOrFail(name, version).getHash());
+        if (loadGeneration == generation.get()) {
+            hashes.put(archiveId, hash);
+        }
+        return hash.orElse(null);
+    }
+
+    @EventListener
+    public void handleArchiveIndexed(AfterArchiveIndexed event) {
+        Csar archive = event.getArchiveRoot().getArchive();
+        generation.incrementAndGet();
+        hashes.put(archive.getId(), Optional.ofNullable(archive.getHash()));
+        log.debug("Hash of archive {} updated", archive.getId());
+    }
+
+    @EventListener
+    public void handleArchiveDeleting(BeforeArchiveDeleted event) {
+        remove(event.getArchiveId());
+    }
+
+    @EventListener
+    public void handleArchiveDeleted(AfterArchiveDeleted event) {
+        remove(event.getArchiveId());
+    }
+
+    private void remove(String archiveId) {
+        generation.incrementAndGet();
+        hashes.remove(archiveId);
+    }
+
+    /**
+     * @return The number of lookups served from the registry.
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * @return The number of lookups that required a query to the catalog.
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+}
@@ -23,6 +23,7 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 import alien4cloud.component.repository.exception.CSARUsedInActiveDeployment;
+import alien4cloud.dao.model.BulkWriteResult;
 import alien4cloud.deployment.DeploymentService;
 import alien4cloud.exception.AlreadyExistException;
 import alien4cloud.model.components.CSARSource;
@@ -152,9 +153,7 @@ public class ArchiveIndexer {
             if (Objects.equals(currentIndexedArchive.getWorkspace(), archiveRoot.getArchive().getWorkspace())) {
                 if (currentIndexedArchive.getHash() != null && currentIndexedArchive.getHash().equals(archiveRoot.getArchive().getHash())) {
                     // if the archive has not changed do nothing.
-                    parsingErrors.add(new ParsingError(ParsingErrorLevel.INFO, ErrorCode.CSAR_ALREADY_INDEXED, "", null,
-                            "The archive already exists in alien4cloud with an identical content (SHA-1 on archive content excluding hidden files is identical).",
-                            null, archiveName));
+                    parsingErrors.add(alreadyIndexedInfo(archiveName));
                     return;
                 }
             } else {
@@ -188,12 +187,43 @@ public class ArchiveIndexer {
         imageLoader.importImages(archivePath, archiveRoot, parsingErrors);
 
         // index the archive content in elastic-search
-        indexArchiveTypes(archiveName, archiveVersion, archiveRoot.getArchive().getWorkspace(), archiveRoot, currentIndexedArchive);
+        if (!indexArchiveTypes(archiveName, archiveVersion, archiveRoot.getArchive().getWorkspace(), archiveRoot, currentIndexedArchive, parsingErrors)) {
+            // do not keep an archive with a partial set of types, it would be considered as indexed and skipped by the next import of the same content.
+            log.warn("Some types of archive {} could not be indexed, the archive is removed from the catalog.", archiveRoot.getArchive().getId());
+            csarService.deleteCsar(archiveRoot.getArchive());
+            return;
+        }
         indexTopology(archiveRoot, parsingErrors, archiveName, archiveVersion);
 
         publisher.publishEvent(new AfterArchiveIndexed(this, archiveRoot));
     }
 
+    /**
+     * Check if an archive is already indexed with the same content as a previous parsing result. This allows to skip parsing of archives that have not changed
+     * since their last import.
+     *
+     * @param archiveRoot The result of a previous parsing of an archive with the same content hash.
+     * @param parsingErrors The non-null list of parsing errors in which to add the already indexed information.
+     * @return true if the archive is indexed with an identical content, false if the archive has to be parsed and imported.
+     */
+    public boolean isAlreadyIndexed(ArchiveRoot archiveRoot, List<ParsingError> parsingErrors) {
+        archiveIndexerAuthorizationFilter.checkAuthorization(archiveRoot);
+        Csar archive = archiveRoot.getArchive();
+        Csar currentIndexedArchive = csarService.get(archive.getName(), archive.getVersion());
+        if (currentIndexedArchive == null || !Objects.equals(currentIndexedArchive.getWorkspace(), archive.getWorkspace())
+                || currentIndexedArchive.getHash() == null || !currentIndexedArchive.getHash().equals(archive.getHash())) {
+            return false;
+        }
+        parsingErrors.add(alreadyIndexedInfo(archive.getName()));
+        return true;
+    }
+
+    private ParsingError alreadyIndexedInfo(String archiveName) {
+        return new ParsingError(ParsingErrorLevel.INFO, ErrorCode.CSAR_ALREADY_INDEXED, "", null,
+                "The archive already exists in alien4cloud with an identical content (SHA-1 on archive content excluding hidden files is identical).", null,
+                archiveName);
+    }
+
     private void indexTopology(final ArchiveRoot archiveRoot, List<ParsingError> parsingErrors, String archiveName, String archiveVersion) {
         Topology topology = archiveRoot.getTopology();
         if (topology == null || topology.isEmpty()) {
@@ -252,8 +282,11 @@ public class ArchiveIndexer {
      * @param archiveVersion The version of the archive.
      * @param root The archive root.
      * @param archive The previous archive that must be replaced if any.
+     * @param parsingErrors The list of parsing errors in which to add indexing failures.
+     * @return true if all types of the archive have been indexed, false if some types failed to be indexed.
      */
-    private void indexArchiveTypes(String archiveName, String archiveVersion, String workspace, ArchiveRoot root, Csar archive) {
+    private boolean indexArchiveTypes(String archiveName, String archiveVersion, String workspace, ArchiveRoot root, Csar archive,
+            List<ParsingError> parsingErrors) {
         if (archive != null) {
             // get element from the archive so we get the creation date.
             Map<String, AbstractToscaType> previousElements = indexerService.getArchiveElements(archiveName, archiveVersion);
@@ -263,7 +296,7 @@ public class ArchiveIndexer {
             csarService.deleteCsarContent(archive);
         }
 
-        performIndexing(root);
+        return performIndexing(root, parsingErrors);
     }
 
     private void prepareForUpdate(ArchiveRoot root, Map<String, AbstractToscaType> previousElements) {
@@ -292,17 +325,13 @@ public class ArchiveIndexer {
         }
     }
 
-    private void performIndexing(ArchiveRoot root) {
-        indexerService.indexInheritableElements(root.getArtifactTypes(), root.getArchive().getDependencies());
-        indexerService.indexInheritableElements(root.getCapabilityTypes(), root.getArchive().getDependencies());
-        indexerService.indexInheritableElements(root.getNodeTypes(), root.getArchive().getDependencies());
-        indexerService.indexInheritableElements(root.getRelationshipTypes(), root.getArchive().getDependencies());
-        indexerService.indexInheritableElements(root.getDataTypes(), root.getArchive().getDependencies());
-
-        if (root.getLocalImports() != null) {
-            for (ArchiveRoot child : root.getLocalImports()) {
-                performIndexing(child);
-            }
+    private boolean performIndexing(ArchiveRoot root, List<ParsingError> parsingErrors) {
+        // all types of the archive and its local imports are indexed using bulk requests.
+        BulkWriteResult result = indexerService.indexArchiveTypes(root);
+        for (BulkWriteResult.ItemFailure failure : result.getFailures()) {
+            parsingErrors.add(new ParsingError(ParsingErrorLevel.ERROR, ErrorCode.INDEXING_FAILED, "", null, failure.getMessage(), null,
+                    failure.getId()));
         }
+        return result.isSuccess();
     }
 }
\ No newline at end of file
@@ -7,6 +7,9 @@ import org.alien4cloud.tosca.model.CSARDependency;
 import org.alien4cloud.tosca.model.types.AbstractInheritableToscaType;
 import org.alien4cloud.tosca.model.types.AbstractToscaType;
 
+import alien4cloud.dao.model.BulkWriteResult;
+import alien4cloud.tosca.model.ArchiveRoot;
+
 /**
  * Service responsible for indexing TOSCA elements.
  */
@@ -48,6 +51,14 @@ public interface IToscaTypeIndexerService {
     void indexInheritableElements(Map<String, ? extends AbstractInheritableToscaType> archiveElements,
             Collection<CSARDependency> dependencies);
 
+    /**
+     * Index all the types of an archive (including the types of its local imports) using size-bounded bulk requests and a single final refresh.
+     *
+     * @param root The archive root that contains the types to index.
+     * @return The result of the bulk indexing including the elements that failed to be indexed.
+     */
+    BulkWriteResult indexArchiveTypes(ArchiveRoot root);
+
     /**
      * Index a single element into the repository.
      * 
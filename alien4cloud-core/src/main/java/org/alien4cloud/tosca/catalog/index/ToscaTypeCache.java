@@ -0,0 +1,177 @@
+package org.alien4cloud.tosca.catalog.index;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+
+import org.alien4cloud.tosca.catalog.events.AfterArchiveDeleted;
+import org.alien4cloud.tosca.catalog.events.AfterArchiveIndexed;
+import org.alien4cloud.tosca.catalog.events.BeforeArchiveDeleted;
+import org.alien4cloud.tosca.catalog.events.BeforeArchiveIndexed;
+import org.alien4cloud.tosca.model.CSARDependency;
+import org.alien4cloud.tosca.model.types.AbstractToscaType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import alien4cloud.dao.ElasticSearchMapper;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Application wide cache of TOSCA types resolved from a set of dependencies. Archives content is immutable for a given name, version and hash so lookups of a
+ * type in the same dependencies always resolve the same element until one of the dependencies is re-indexed or deleted.
+ *
+ * Lookups in dependencies that don't define a hash are not cached as their content cannot be identified. Elements are cached in their serialized form and every
+ * lookup returns a new instance so callers may modify the elements they get without affecting other callers.
+ */
+@Slf4j
+@Component
+public class ToscaTypeCache {
+    @Value("${components.cache.max_size:10000}")
+    private long maximumSize;
+
+    private static final ObjectMapper MAPPER = ElasticSearchMapper.getInstance();
+
+    /** Serialized elements by lookup, empty if the element doesn't exist. */
+    private Cache<TypeKey, Optional<byte[]>> cache;
+    /** Incremented on every invalidation so that a lookup started before an invalidation doesn't put stale data in the cache. */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    @PostConstruct
+    public void setup() {
+        cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    /**
+     * Get an element from the cache or resolve it using the given loader.
+     *
+     * @param elementClass The class of the element.
+     * @param elementId The id of the element.
+     * @param dependencies The dependencies in which to look for the element.
+     * @param loader The loader to use in case the element is not in the cache.
+     * @param <T> The type of the element.
+     * @return The element or null if the element doesn't exist in the dependencies.
+     */
+    public <T extends AbstractToscaType> T get(Class<T> elementClass, String elementId, Set<CSARDependency> dependencies, Supplier<T> loader) {
+        if (dependencies.stream().anyMatch(dependency -> dependency.getHash() == null)) {
+            return loader.get();
+        }
+        TypeKey key = new TypeKey(elementClass, elementId, dependencies);
+        Optional<byte[]> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            try {
+                T element = cached.isPresent() ? MAPPER.readValue(cached.get(), elementClass) : null;
+                hitCount.incrementAndGet();
+                return element;
+            } catch (IOException e) {
+                log.warn("Unable to read cached element {}, element is loaded again", elementId, e);
+                cache.invalidate(key);
+            }
+        }
+        missCount.incrementAndGet();
+        long loadGeneration = generation.get();
+        T element = loader.get();
+        try {
+            Optional<byte[]> serialized = element == null ? Optional.empty() : Optional.of(MAPPER.writeValueAsBytes(element));
+            if (loadGeneration == generation.get()) {
+                cache.put(key, serialized);
+            }
+        } catch (IOException e) {
+            log.warn("Unable to cache element {}", elementId, e);
+        }
+        return element;
+    }
+
+    @EventListener
+    public void handleArchiveIndexing(BeforeArchiveIndexed event) {
+        invalidate(event.getArchiveRoot().getArchive().getId());
+    }
+
+    @EventListener
+    public void handleArchiveIndexed(AfterArchiveIndexed event) {
+        invalidate(event.getArchiveRoot().getArchive().getId());
+    }
+
+    @EventListener
+    public void handleArchiveDeleting(BeforeArchiveDeleted event) {
+        invalidate(event.getArchiveId());
+    }
+
+    @EventListener
+    public void handleArchiveDeleted(AfterArchiveDeleted event) {
+        invalidate(event.getArchiveId());
+    }
+
+    /**
+     * Remove from the cache all elements resolved from a set of dependencies that contains the given archive.
+     *
+     * @param archiveId The id of the archive that has changed.
+     */
+    public void invalidate(String archiveId) {
+        generation.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> key.archiveIds.contains(archiveId));
+        log.debug("Tosca types cache invalidated for archive {}", archiveId);
+    }
+
+    /**
+     * Invalidate all cached elements.
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    /**
+     * @return The number of lookups served from the cache.
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * @return The number of lookups that required a query to the catalog.
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * @return The number of elements currently in the cache.
+     */
+    public long getSize() {
+        return cache.size();
+    }
+
+    @EqualsAndHashCode(of = { "elementClass", "elementId", "dependencies" })
+    private static class TypeKey {
+        private final String elementClass;
+        private final String elementId;
+        /** Sorted name:version:hash of every dependency so that the key doesn't depend on the set ordering. */
+        private final SortedSet<String> dependencies = new TreeSet<>();
+        private final Set<String> archiveIds = new TreeSet<>();
+
+        private TypeKey(Class<?> elementClass, String elementId, Set<CSARDependency> dependencies) {
+            this.elementClass = elementClass.getName();
+            this.elementId = elementId;
+            for (CSARDependency dependency : dependencies) {
+                String archiveId = dependency.getName() + ":" + dependency.getVersion();
+                this.dependencies.add(archiveId + ":" + dependency.getHash());
+                this.archiveIds.add(archiveId);
+            }
+        }
+    }
+}
@@ -4,7 +4,7 @@ import static alien4cloud.dao.FilterUtil.fromKeyValueCouples;
 import static alien4cloud.utils.AlienUtils.safe;
 
 import java.util.Collection;
-import java.util.Date;
+import java.util.List;
 import java.util.Map;
 
 import javax.annotation.Resource;
@@ -14,13 +14,19 @@ import org.alien4cloud.tosca.model.CSARDependency;
 import org.alien4cloud.tosca.model.types.AbstractInheritableToscaType;
 import org.alien4cloud.tosca.model.types.AbstractToscaType;
 import org.apache.commons.collections4.CollectionUtils;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.mapping.ElasticSearchClient;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
 import alien4cloud.dao.ElasticSearchDAO;
 import alien4cloud.dao.IGenericSearchDAO;
+import alien4cloud.dao.RefreshPolicy;
+import alien4cloud.dao.model.BulkWriteResult;
 import alien4cloud.dao.model.FetchContext;
 import alien4cloud.dao.model.GetMultipleDataResult;
 import alien4cloud.images.IImageDAO;
@@ -28,11 +34,14 @@ import alien4cloud.model.common.Tag;
 import alien4cloud.model.components.IndexedModelUtils;
 import alien4cloud.tosca.context.ToscaContext;
 import alien4cloud.tosca.context.ToscaContextual;
+import alien4cloud.tosca.model.ArchiveRoot;
 import alien4cloud.tosca.normative.ToscaType;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * This service is responsible for indexing and searching tosca types.
  */
+@Slf4j
 @Service
 public class ToscaTypeIndexerService implements IToscaTypeIndexerService {
     @Resource(name = "alien-es-dao")
@@ -43,6 +52,9 @@ public class ToscaTypeIndexerService implements IToscaTypeIndexerService {
     private IImageDAO imageDAO;
     @Inject
     private IToscaTypeSearchService searchService;
+    /** Maximum number of types to send in a single bulk request when indexing an archive. */
+    @Value("${components.indexing.bulk_size:500}")
+    private int indexingBulkSize;
 
     private void refreshIndexForSearching() {
         elasticSearchClient.getClient().admin().indices().prepareRefresh(ElasticSearchDAO.TOSCA_ELEMENT_INDEX).execute().actionGet();
@@ -71,26 +83,59 @@ public class ToscaTypeIndexerService implements IToscaTypeIndexerService {
 
     @Override
     public void deleteElements(String name, String version) {
-        GetMultipleDataResult<AbstractToscaType> result = alienDAO.buildQuery(AbstractToscaType.class)
-                .setFilters(fromKeyValueCouples("archiveName", name, "archiveVersion", version)).prepareSearch().setFetchContext(FetchContext.SUMMARY)
-                .search(0, Integer.MAX_VALUE);
+        QueryBuilder archiveQuery = QueryBuilders.boolQuery().must(QueryBuilders.termQuery("archiveName", name))
+                .must(QueryBuilders.termQuery("archiveVersion", version));
 
-        AbstractToscaType[] elements = result.getData();
+        // elements are deleted page by page using bulk requests, icons of every page are deleted in batch before the elements.
+        BulkWriteResult result = alienDAO.delete(AbstractToscaType.class, archiveQuery, FetchContext.SUMMARY, this::deleteIcons, RefreshPolicy.IMMEDIATE);
+        log.debug("Deleted {} types of archive {}:{} in {} ms.", result.getItemCount(), name, version, result.getDuration());
+    }
 
-        // we need to delete each element
+    private void deleteIcons(List<AbstractToscaType> elements) {
+        List<String> iconIds = Lists.newArrayList();
         for (AbstractToscaType element : elements) {
-            deleteElement(element);
+            Tag iconTag = ArchiveImageLoader.getIconTag(element.getTags());
+            if (iconTag != null) {
+                iconIds.add(iconTag.getValue());
+            }
         }
+        imageDAO.delete(iconIds);
     }
 
     @Override
     public void indexInheritableElements(Map<String, ? extends AbstractInheritableToscaType> archiveElements, Collection<CSARDependency> dependencies) {
         for (AbstractInheritableToscaType element : safe(archiveElements).values()) {
-            alienDAO.save(element);
+            alienDAO.save(element, RefreshPolicy.BATCH);
         }
         refreshIndexForSearching();
     }
 
+    @Override
+    public BulkWriteResult indexArchiveTypes(ArchiveRoot root) {
+        List<AbstractInheritableToscaType> elements = Lists.newArrayList();
+        collectArchiveTypes(root, elements);
+
+        BulkWriteResult result = alienDAO.bulkSave(elements, indexingBulkSize, RefreshPolicy.IMMEDIATE);
+        log.info("Indexed {} types of archive {}:{} in {} bulk requests and {} ms ({} types/s), {} failures.", result.getItemCount(),
+                root.getArchive().getName(), root.getArchive().getVersion(), result.getRequestCount(), result.getDuration(), (long) result.getThroughput(),
+                result.getFailures().size());
+        return result;
+    }
+
+    private void collectArchiveTypes(ArchiveRoot root, List<AbstractInheritableToscaType> elements) {
+        elements.addAll(safe(root.getArtifactTypes()).values());
+        elements.addAll(safe(root.getCapabilityTypes()).values());
+        elements.addAll(safe(root.getNodeTypes()).values());
+        elements.addAll(safe(root.getRelationshipTypes()).values());
+        elements.addAll(safe(root.getDataTypes()).values());
+
+        if (root.getLocalImports() != null) {
+            for (ArchiveRoot child : root.getLocalImports()) {
+                collectArchiveTypes(child, elements);
+            }
+        }
+    }
+
     @Override
     @ToscaContextual
     public void indexInheritableElement(String archiveName, String archiveVersion, AbstractInheritableToscaType element,
@@ -112,14 +157,6 @@ public class ToscaTypeIndexerService implements IToscaTypeIndexerService {
         refreshIndexForSearching();
     }
 
-    private void deleteElement(AbstractToscaType element) {
-        Tag iconTag = ArchiveImageLoader.getIconTag(element.getTags());
-        if (iconTag != null) {
-            imageDAO.delete(iconTag.getValue());
-        }
-        alienDAO.delete(element.getClass(), element.getId());
-    }
-
     @Override
     public void deleteElements(Collection<AbstractToscaType> elements) {
         for (AbstractToscaType element : elements) {
@@ -3,10 +3,12 @@ package org.alien4cloud.tosca.catalog.index;
 import static alien4cloud.dao.FilterUtil.fromKeyValueCouples;
 import static alien4cloud.dao.FilterUtil.singleKeyFilter;
 
+import java.lang.reflect.Array;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import javax.annotation.Resource;
 
@@ -34,6 +36,8 @@ import lombok.extern.slf4j.Slf4j;
 public class ToscaTypeSearchService extends AbstractToscaIndexSearchService<AbstractToscaType> implements IToscaTypeSearchService {
     @Resource(name = "alien-es-dao")
     private IGenericSearchDAO searchDAO;
+    @Resource
+    private ToscaTypeCache toscaTypeCache;
 
     @Override
     public Csar getArchive(String archiveName, String archiveVersion) {
@@ -48,8 +52,10 @@ public class ToscaTypeSearchService extends AbstractToscaIndexSearchService<Abst
 
     @Override
     public AbstractToscaType[] getArchiveTypes(String archiveName, String archiveVersion) {
-        return searchDAO.buildQuery(AbstractToscaType.class).setFilters(fromKeyValueCouples("archiveName", archiveName, "archiveVersion", archiveVersion))
-                .prepareSearch().search(0, Integer.MAX_VALUE).getData();
+        try (Stream<AbstractToscaType> types = searchDAO.stream(AbstractToscaType.class,
+                fromKeyValueCouples("archiveName", archiveName, "archiveVersion", archiveVersion))) {
+            return types.toArray(AbstractToscaType[]::new);
+        }
     }
 
     @Override
@@ -69,8 +75,11 @@ public class ToscaTypeSearchService extends AbstractToscaIndexSearchService<Abst
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <T extends AbstractToscaType> T[] findAll(Class<T> elementType, String elementId) {
-        return searchDAO.buildQuery(elementType).setFilters(singleKeyFilter("rawElementId", elementId)).prepareSearch().search(0, Integer.MAX_VALUE).getData();
+        try (Stream<T> types = searchDAO.stream(elementType, singleKeyFilter("rawElementId", elementId))) {
+            return types.toArray(size -> (T[]) Array.newInstance(elementType, size));
+        }
     }
 
     /**
@@ -99,10 +108,7 @@ public class ToscaTypeSearchService extends AbstractToscaIndexSearchService<Abst
     @Override
     public boolean isElementExistInDependencies(@NonNull Class<? extends AbstractToscaType> elementClass, @NonNull String elementId,
             Set<CSARDependency> dependencies) {
-        if (dependencies == null || dependencies.isEmpty()) {
-            return false;
-        }
-        return searchDAO.count(elementClass, getDependencyQuery(dependencies, "rawElementId", elementId)) > 0;
+        return getElementInDependencies(elementClass, elementId, dependencies) != null;
     }
 
     private <T extends AbstractToscaType> T getLatestVersionOfElement(Class<T> elementClass, QueryBuilder queryBuilder) {
@@ -130,8 +136,8 @@ public class ToscaTypeSearchService extends AbstractToscaIndexSearchService<Abst
         if (dependencies == null || dependencies.isEmpty()) {
             return null;
         }
-        BoolQueryBuilder boolQueryBuilder = getDependencyQuery(dependencies, "rawElementId", elementId);
-        return getLatestVersionOfElement(elementClass, boolQueryBuilder);
+        return toscaTypeCache.get(elementClass, elementId, dependencies,
+                () -> getLatestVersionOfElement(elementClass, getDependencyQuery(dependencies, "rawElementId", elementId)));
     }
 
     @Override
@@ -2,24 +2,33 @@ package org.alien4cloud.tosca.editor;
 
 import org.alien4cloud.tosca.model.Csar;
 import org.alien4cloud.tosca.model.templates.Topology;
+import alien4cloud.dao.ElasticSearchMapper;
 import alien4cloud.tosca.context.ToscaContext;
 import alien4cloud.utils.DirectoryJSonWalker;
 import alien4cloud.utils.TreeNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.Lists;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.alien4cloud.tosca.editor.exception.EditorIOException;
 import org.alien4cloud.tosca.editor.operations.AbstractEditorOperation;
 import org.alien4cloud.tosca.editor.operations.RecoverTopologyOperation;
 
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Topology edition context is related to a specific topology that is currently under edition.
  * 
  * Edition context is closed automatically when no users are currently editing it or when inactive after 5 minutes.
+ *
+ * The context keeps in memory snapshots of the topology and of the archive content tree so that undo and redo only have to replay the operations
+ * following the closest snapshot.
  */
 @Getter
 @Setter
@@ -49,6 +58,14 @@ public class EditionContext {
     private TreeNode archiveContentTree;
     /** List of the operations generated to recover the topology */
     private RecoverTopologyOperation recoveryOperation;
+    /** Fingerprint of the last topology dto delta sent to clients. */
+    private TopologyDTOFingerprint dtoFingerprint;
+    /** Index of the first operation that can be undone through its processor, previous operations have been replayed from a snapshot. */
+    private int undoableFromIndex = 0;
+    /** Snapshots of the edition by index of the last operation applied (-1 is the saved state). */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private TreeMap<Integer, Snapshot> snapshots = new TreeMap<>();
 
     /**
      * Create a new instance of a topology edition context from an existing topology.
@@ -64,6 +81,7 @@ public class EditionContext {
         this.localGitPath = localGitPath;
         // initialize the file tree based on the git repository location
         this.archiveContentTree = DirectoryJSonWalker.getDirectoryTree(this.localGitPath);
+        resetSnapshots();
     }
 
     /**
@@ -77,4 +95,106 @@ public class EditionContext {
         this.toscaContext = new ToscaContext.Context(topology.getDependencies());
         this.archiveContentTree = DirectoryJSonWalker.getDirectoryTree(this.localGitPath);
     }
-}
\ No newline at end of file
+
+    /**
+     * Drop all snapshots and take a snapshot of the current state as the saved state (index -1).
+     */
+    public void resetSnapshots() {
+        snapshots.clear();
+        snapshots.put(-1, new Snapshot(topology, archiveContentTree));
+        undoableFromIndex = 0;
+    }
+
+    /**
+     * Take a snapshot of the current state of the edition. The oldest snapshots are dropped to keep at most the given number of snapshots in addition to
+     * the saved state, operations preceding a dropped snapshot are replayed from an older snapshot.
+     *
+     * @param operationIndex The index of the last operation applied to the topology.
+     * @param maxSnapshots The maximum number of snapshots to keep in addition to the snapshot of the saved state.
+     */
+    public void snapshot(int operationIndex, int maxSnapshots) {
+        if (maxSnapshots <= 0) {
+            return;
+        }
+        snapshots.put(operationIndex, new Snapshot(topology, archiveContentTree));
+        while (snapshots.size() > maxSnapshots + 1) {
+            // the saved state (-1) is always kept
+            snapshots.remove(snapshots.higherKey(-1));
+        }
+    }
+
+    /**
+     * @return The number of snapshots currently kept, including the snapshot of the saved state.
+     */
+    public int getSnapshotCount() {
+        return snapshots.size();
+    }
+
+    /**
+     * @param operationIndex The index of an operation.
+     * @return True if there is a snapshot of the state after the given operation.
+     */
+    public boolean hasSnapshot(int operationIndex) {
+        return snapshots.containsKey(operationIndex);
+    }
+
+    /**
+     * Drop the snapshots taken after the given operation (when operations to redo are cleared).
+     *
+     * @param operationIndex The index of the last operation that is kept.
+     */
+    public void clearSnapshotsAfter(int operationIndex) {
+        snapshots.tailMap(operationIndex, false).clear();
+    }
+
+    /**
+     * Restore the closest snapshot taken at or before the given operation. The tosca context is replaced by one that reuses the types of the current one.
+     *
+     * @param operationIndex The index of the operation up to which to restore the state.
+     * @return The index of the last operation applied to the restored topology (operations following it have to be replayed) or null if there is no
+     *         snapshot to restore.
+     */
+    public Integer restoreSnapshot(int operationIndex) {
+        Map.Entry<Integer, Snapshot> entry = snapshots.floorEntry(operationIndex);
+        if (entry == null) {
+            return null;
+        }
+        this.topology = entry.getValue().getTopology();
+        this.toscaContext = new ToscaContext.Context(topology.getDependencies(), toscaContext);
+        this.archiveContentTree = entry.getValue().getArchiveContentTree();
+        this.undoableFromIndex = entry.getKey() + 1;
+        return entry.getKey();
+    }
+
+    /**
+     * Immutable copy of the state of the edition.
+     */
+    private static class Snapshot {
+        private static final ObjectMapper MAPPER = ElasticSearchMapper.getInstance();
+
+        /** The topology serialized the way it is stored in elastic search so it can be restored as many times as required. */
+        private final byte[] topology;
+        private final TreeNode archiveContentTree;
+
+        private Snapshot(Topology topology, TreeNode archiveContentTree) {
+            try {
+                this.topology = MAPPER.writeValueAsBytes(topology);
+            } catch (IOException e) {
+                throw new EditorIOException("Unable to serialize topology <" + topology.getId() + "> for edition snapshot.", e);
+            }
+            this.archiveContentTree = archiveContentTree == null ? null : archiveContentTree.copy(null);
+        }
+
+        private Topology getTopology() {
+            try {
+                return MAPPER.readValue(topology, Topology.class);
+            } catch (IOException e) {
+                throw new EditorIOException("Unable to deserialize edition snapshot.", e);
+            }
+        }
+
+        private TreeNode getArchiveContentTree() {
+            return archiveContentTree == null ? null : archiveContentTree.copy(null);
+        }
+    }
+}
@@ -2,7 +2,13 @@ package org.alien4cloud.tosca.editor;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
@@ -10,10 +16,12 @@ import javax.inject.Inject;
 import org.alien4cloud.tosca.catalog.events.BeforeArchiveDeleted;
 import org.alien4cloud.tosca.catalog.events.BeforeArchiveIndexed;
 import org.alien4cloud.tosca.catalog.index.ICsarService;
+import org.alien4cloud.tosca.editor.exception.EditionConcurrencyException;
 import org.alien4cloud.tosca.editor.operations.AbstractEditorOperation;
 import org.alien4cloud.tosca.editor.operations.UpdateFileOperation;
 import org.alien4cloud.tosca.model.Csar;
 import org.alien4cloud.tosca.model.templates.Topology;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
@@ -32,12 +40,17 @@ import lombok.extern.slf4j.Slf4j;
 
 /**
  * The topology edition context manager is responsible to manage the caching and lifecycle of TopologyEditionContexts.
+ *
+ * Every topology has an execution lane: a thread holds the lane of the topology from {@link #init(String)} to {@link #destroy()} so requests on the same
+ * topology are processed one after the other in arrival order while requests on different topologies are processed in parallel.
  */
 @Slf4j
 @Component
 public class EditionContextManager {
     /** Holds the topology context */
     private final static ThreadLocal<EditionContext> contextThreadLocal = new ThreadLocal<>();
+    /** Holds the lanes acquired by the thread. */
+    private final static ThreadLocal<Deque<TopologyLane>> laneThreadLocal = ThreadLocal.withInitial(ArrayDeque::new);
 
     @Inject
     private ICsarService csarService;
@@ -50,8 +63,17 @@ public class EditionContextManager {
     @Inject
     private IFileRepository artifactRepository;
 
+    /** Maximum time to wait for the lane of a topology before failing with an {@link EditionConcurrencyException}. */
+    @Value("${editor.lane_timeout_ms:30000}")
+    private long laneTimeoutMs;
+
     // TODO make cache management time a parameter
     private LoadingCache<String, EditionContext> contextCache;
+    /** Lanes of the topologies currently used or waited for, removed once unused. */
+    private final Map<String, TopologyLane> lanes = new ConcurrentHashMap<>();
+    private final AtomicLong laneAcquisitionCount = new AtomicLong();
+    private final AtomicLong totalLaneWaitTimeMs = new AtomicLong();
+    private final AtomicLong maxLaneWaitTimeMs = new AtomicLong();
 
     @PostConstruct
     public void setup() {
@@ -85,16 +107,53 @@ public class EditionContextManager {
     }
 
     /**
-     * Initialize thread local contexts for the topology.
+     * Acquire the lane of the topology and initialize thread local contexts for the topology. {@link #destroy()} must be called to release the lane.
      * 
      * @param topologyId The id of the topology.
      */
     @SneakyThrows
-    public synchronized void init(String topologyId) {
-        contextThreadLocal.set(contextCache.get(topologyId));
+    public void init(String topologyId) {
+        acquireLane(topologyId);
+        try {
+            contextThreadLocal.set(contextCache.get(topologyId));
+        } catch (Exception e) {
+            // the caller cannot destroy a context that failed to load, release the lane so other requests on the topology can proceed.
+            releaseLane();
+            throw e;
+        }
         ToscaContext.set(contextThreadLocal.get().getToscaContext());
     }
 
+    private void acquireLane(String topologyId) throws InterruptedException {
+        TopologyLane lane = lanes.compute(topologyId, (id, existing) -> {
+            TopologyLane result = existing == null ? new TopologyLane(id) : existing;
+            result.users++;
+            return result;
+        });
+        long start = System.currentTimeMillis();
+        boolean acquired = false;
+        try {
+            acquired = lane.lock.tryLock(laneTimeoutMs, TimeUnit.MILLISECONDS);
+        } finally {
+            if (!acquired) {
+                releaseLaneUser(lane);
+            }
+        }
+        if (!acquired) {
+            log.warn("Timeout while waiting for the edition lane of topology {}", topologyId);
+            throw new EditionConcurrencyException();
+        }
+        long waitTime = System.currentTimeMillis() - start;
+        laneAcquisitionCount.incrementAndGet();
+        totalLaneWaitTimeMs.addAndGet(waitTime);
+        maxLaneWaitTimeMs.accumulateAndGet(waitTime, Math::max);
+        laneThreadLocal.get().push(lane);
+    }
+
+    private void releaseLaneUser(TopologyLane lane) {
+        lanes.computeIfPresent(lane.topologyId, (id, existing) -> --existing.users == 0 ? null : existing);
+    }
+
     /**
      * Reset the state of the topology context to it's initial state.
      * 
@@ -139,6 +198,18 @@ public class EditionContextManager {
     public void destroy() {
         contextThreadLocal.remove();
         ToscaContext.destroy();
+        releaseLane();
+    }
+
+    /**
+     * Release the last lane acquired by the thread.
+     */
+    private void releaseLane() {
+        TopologyLane lane = laneThreadLocal.get().poll();
+        if (lane != null) {
+            lane.lock.unlock();
+            releaseLaneUser(lane);
+        }
     }
 
     @EventListener
@@ -157,4 +228,49 @@ public class EditionContextManager {
     public void clearCache() {
         contextCache.invalidateAll();
     }
+
+    /**
+     * @return The number of requests waiting for the lane of the given topology.
+     */
+    public int getQueueDepth(String topologyId) {
+        TopologyLane lane = lanes.get(topologyId);
+        return lane == null ? 0 : lane.lock.getQueueLength();
+    }
+
+    /**
+     * @return The number of requests waiting for the lane of any topology.
+     */
+    public int getQueueDepth() {
+        return lanes.values().stream().mapToInt(lane -> lane.lock.getQueueLength()).sum();
+    }
+
+    /**
+     * @return The average time in milliseconds spent waiting for a topology lane.
+     */
+    public long getAverageLaneWaitTimeMs() {
+        long count = laneAcquisitionCount.get();
+        return count == 0 ? 0 : totalLaneWaitTimeMs.get() / count;
+    }
+
+    /**
+     * @return The maximum time in milliseconds spent waiting for a topology lane.
+     */
+    public long getMaxLaneWaitTimeMs() {
+        return maxLaneWaitTimeMs.get();
+    }
+
+    /**
+     * Execution lane of a topology.
+     */
+    private static class TopologyLane {
+        private final String topologyId;
+        /** Fair lock so that requests are processed in arrival order. */
+        private final ReentrantLock lock = new ReentrantLock(true);
+        /** Number of threads holding or waiting for the lane, guarded by the lanes map compute operations. */
+        private int users = 0;
+
+        private TopologyLane(String topologyId) {
+            this.topologyId = topologyId;
+        }
+    }
 }
\ No newline at end of file
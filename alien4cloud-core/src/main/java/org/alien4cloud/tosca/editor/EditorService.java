@@ -25,6 +25,7 @@ import org.alien4cloud.tosca.editor.operations.RecoverTopologyOperation;
 import org.alien4cloud.tosca.editor.operations.ResetTopologyOperation;
 import org.alien4cloud.tosca.editor.processors.IEditorCommitableProcessor;
 import org.alien4cloud.tosca.editor.processors.IEditorOperationProcessor;
+import org.alien4cloud.tosca.editor.processors.IEditorUndoableProcessor;
 import org.alien4cloud.tosca.editor.services.EditorTopologyRecoveryHelperService;
 import org.alien4cloud.tosca.editor.services.EditorTopologyUploadService;
 import org.alien4cloud.tosca.editor.services.TopologySubstitutionService;
@@ -43,6 +44,7 @@ import com.google.common.collect.Maps;
 import alien4cloud.exception.NotFoundException;
 import alien4cloud.git.SimpleGitHistoryEntry;
 import alien4cloud.security.AuthorizationUtil;
+import alien4cloud.tosca.context.ToscaContext;
 import alien4cloud.utils.CollectionUtils;
 import alien4cloud.utils.FileUtil;
 import alien4cloud.utils.ReflectionUtil;
@@ -77,6 +79,12 @@ public class EditorService {
 
     @Value("${directories.alien}/${directories.upload_temp}")
     private String tempUploadDir;
+    /** Number of operations between two in memory snapshots of the topology under edition, used to undo and redo operations. */
+    @Value("${editor.undo_snapshot_interval:10}")
+    private int undoSnapshotInterval;
+    /** Maximum number of in memory snapshots kept for a topology under edition in addition to the snapshot of the saved topology. */
+    @Value("${editor.undo_max_snapshots:5}")
+    private int undoMaxSnapshots;
 
     /** Processors map by type. */
     private Map<Class<?>, IEditorOperationProcessor<? extends AbstractEditorOperation>> processorMap = Maps.newHashMap();
@@ -140,11 +148,22 @@ public class EditorService {
     }
 
     /**
-     * Ensure that the request is synchronized with the current state of the edition.
+     * Release the edition context of a request that processes an operation. The context is not set if its initialization failed.
+     */
+    private void destroyContext() {
+        if (EditionContextManager.get() != null) {
+            EditionContextManager.get().setCurrentOperation(null);
+        }
+        editionContextManager.destroy();
+    }
+
+    /**
+     * Ensure that the request is synchronized with the current state of the edition. Requests on a topology are serialized by the topology edition lane
+     * (see {@link EditionContextManager#init(String)}).
      *
      * @param operation, The operation under evaluation.
      */
-    private synchronized void checkSynchronization(AbstractEditorOperation operation) {
+    private void checkSynchronization(AbstractEditorOperation operation) {
         // there is an operation being processed so just fail (nobody could get the notification)
         if (EditionContextManager.get().getCurrentOperation() != null) {
             throw new EditionConcurrencyException();
@@ -178,8 +197,31 @@ public class EditorService {
             // return the topology context
             return dtoBuilder.buildTopologyDTO(EditionContextManager.get());
         } finally {
-            EditionContextManager.get().setCurrentOperation(null);
-            editionContextManager.destroy();
+            destroyContext();
+        }
+    }
+
+    /**
+     * Execute an operation and return the changes of the topology dto rather than the full dto.
+     *
+     * @param topologyId The id of the topology under edition.
+     * @param operation The operation to execute, its previous operation id is the version of the topology dto known by the client.
+     * @return The changes to apply to the topology dto of the previous operation.
+     */
+    public <T extends AbstractEditorOperation> TopologyDeltaDTO executeDelta(String topologyId, T operation) {
+        try {
+            initContext(topologyId, operation);
+
+            checkTopologyRecovery();
+
+            // the synchronization check ensures that the current state is the one known by the client.
+            TopologyDTOFingerprint previous = dtoBuilder.getFingerprint(EditionContextManager.get());
+
+            doExecute(operation);
+
+            return dtoBuilder.buildTopologyDeltaDTO(EditionContextManager.get(), previous);
+        } finally {
+            destroyContext();
         }
     }
 
@@ -193,11 +235,24 @@ public class EditorService {
         if (EditionContextManager.get().getLastOperationIndex() != operations.size() - 1 &&  !operations.contains(operation)) {
             // Clear the operations to 'redo'.
             CollectionUtils.clearFrom(operations, EditionContextManager.get().getLastOperationIndex() + 1);
+            EditionContextManager.get().clearSnapshotsAfter(EditionContextManager.get().getLastOperationIndex());
         }
 
         // update the last operation and index
         EditionContextManager.get().getOperations().add(operation);
         EditionContextManager.get().setLastOperationIndex(EditionContextManager.get().getOperations().size() - 1);
+        snapshotIfRequired(EditionContextManager.get().getLastOperationIndex());
+    }
+
+    /**
+     * Take a snapshot of the topology under edition if the given operation index is on the snapshot interval.
+     *
+     * @param operationIndex The index of the last operation applied to the topology.
+     */
+    private void snapshotIfRequired(int operationIndex) {
+        if ((operationIndex + 1) % undoSnapshotInterval == 0 && !EditionContextManager.get().hasSnapshot(operationIndex)) {
+            EditionContextManager.get().snapshot(operationIndex, undoMaxSnapshots);
+        }
     }
 
     /**
@@ -235,13 +290,25 @@ public class EditorService {
                 return dtoBuilder.buildTopologyDTO(EditionContextManager.get());
             }
 
-            // TODO Improve this by avoiding dao query for (deep) cloning topology and keeping cache for TOSCA types that are required.
-            editionContextManager.reset();
-
-            for (int i = 0; i < at + 1; i++) {
-                AbstractEditorOperation operation = EditionContextManager.get().getOperations().get(i);
-                IEditorOperationProcessor processor = processorMap.get(operation.getClass());
-                processor.process(operation);
+            EditionContext context = EditionContextManager.get();
+            if (at > context.getLastOperationIndex()) {
+                // redo operations from the current state
+                replay(context.getLastOperationIndex() + 1, at);
+            } else if (canUndo(at)) {
+                for (int i = context.getLastOperationIndex(); i > at; i--) {
+                    AbstractEditorOperation operation = context.getOperations().get(i);
+                    ((IEditorUndoableProcessor) processorMap.get(operation.getClass())).undo(operation);
+                }
+            } else {
+                // restore the closest snapshot and replay the operations that follows it.
+                Integer snapshotIndex = context.restoreSnapshot(at);
+                if (snapshotIndex == null) {
+                    editionContextManager.reset();
+                    context.resetSnapshots();
+                    snapshotIndex = -1;
+                }
+                ToscaContext.set(context.getToscaContext());
+                replay(snapshotIndex + 1, at);
             }
 
             EditionContextManager.get().setLastOperationIndex(at);
@@ -251,8 +318,32 @@ public class EditorService {
             // FIXME undo should be fail-safe...
             return null;
         } finally {
-            EditionContextManager.get().setCurrentOperation(null);
-            editionContextManager.destroy();
+            destroyContext();
+        }
+    }
+
+    /**
+     * Check if the operations from the last applied operation (included) back to the given index (excluded) can be undone through their processors.
+     */
+    private boolean canUndo(int at) {
+        EditionContext context = EditionContextManager.get();
+        for (int i = context.getLastOperationIndex(); i > at; i--) {
+            if (i < context.getUndoableFromIndex() || !(processorMap.get(context.getOperations().get(i).getClass()) instanceof IEditorUndoableProcessor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Process the operations between the given indexes (included) against the topology under edition.
+     */
+    private void replay(int from, int to) {
+        for (int i = from; i <= to; i++) {
+            AbstractEditorOperation operation = EditionContextManager.get().getOperations().get(i);
+            IEditorOperationProcessor processor = processorMap.get(operation.getClass());
+            processor.process(operation);
+            snapshotIfRequired(i);
         }
     }
 
@@ -274,8 +365,7 @@ public class EditorService {
             // FIXME git revert to put back the local files state in the initial state.
             throw new EditorIOException("Error while saving files state in local repository", e);
         } finally {
-            EditionContextManager.get().setCurrentOperation(null);
-            editionContextManager.destroy();
+            destroyContext();
         }
     }
 
@@ -310,6 +400,7 @@ public class EditorService {
         // TODO add support for undo even after save, this require ability to rollback files to git state, we need file rollback support for that..
         context.setOperations(Lists.newArrayList(context.getOperations().subList(context.getLastOperationIndex() + 1, context.getOperations().size())));
         context.setLastOperationIndex(-1);
+        context.resetSnapshots();
     }
 
     private void saveYamlFile() throws IOException {
@@ -438,9 +529,9 @@ public class EditorService {
 
             // Local git commit
             repositoryService.commit(EditionContextManager.get().getCsar(), commitMessage);
+            EditionContextManager.get().resetSnapshots();
         } finally {
-            EditionContextManager.get().setCurrentOperation(null);
-            editionContextManager.destroy();
+            destroyContext();
         }
     }
 
@@ -480,8 +571,7 @@ public class EditorService {
             // FIXME git revert to put back the local files state in the initial state.
             throw new EditorIOException("Error while saving files state in local repository", e);
         } finally {
-            EditionContextManager.get().setCurrentOperation(null);
-            editionContextManager.destroy();
+            destroyContext();
         }
 
     }
@@ -1,7 +1,16 @@
 package org.alien4cloud.tosca.editor;
 
+import static alien4cloud.utils.AlienUtils.safe;
+
 import java.util.Map;
+import java.util.Set;
 
+import org.alien4cloud.tosca.editor.exception.EditorIOException;
+import org.alien4cloud.tosca.editor.operations.AbstractEditorOperation;
+import org.alien4cloud.tosca.editor.operations.nodetemplate.AbstractNodeOperation;
+import org.alien4cloud.tosca.editor.operations.nodetemplate.DeleteNodeOperation;
+import org.alien4cloud.tosca.editor.operations.nodetemplate.RenameNodeOperation;
+import org.alien4cloud.tosca.editor.operations.workflow.AbstractWorkflowOperation;
 import org.alien4cloud.tosca.model.definitions.CapabilityDefinition;
 import org.alien4cloud.tosca.model.definitions.PropertyDefinition;
 import org.alien4cloud.tosca.model.definitions.RequirementDefinition;
@@ -9,6 +18,7 @@ import org.alien4cloud.tosca.model.templates.AbstractTemplate;
 import org.alien4cloud.tosca.model.templates.NodeTemplate;
 import org.alien4cloud.tosca.model.templates.Topology;
 import org.alien4cloud.tosca.model.types.AbstractInheritableToscaType;
+import org.alien4cloud.tosca.model.types.AbstractToscaType;
 import org.alien4cloud.tosca.model.types.CapabilityType;
 import org.alien4cloud.tosca.model.types.DataType;
 import org.alien4cloud.tosca.model.types.NodeType;
@@ -16,10 +26,20 @@ import org.alien4cloud.tosca.model.types.PrimitiveDataType;
 import org.alien4cloud.tosca.model.types.RelationshipType;
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 
+import alien4cloud.rest.utils.RestMapper;
 import alien4cloud.topology.AbstractTopologyDTO;
 import alien4cloud.topology.TopologyDTO;
+import alien4cloud.topology.TopologyDeltaDTO;
 import alien4cloud.tosca.context.ToscaContext;
 import alien4cloud.tosca.context.ToscaContextual;
 import alien4cloud.tosca.normative.ToscaType;
@@ -29,6 +49,12 @@ import alien4cloud.tosca.normative.ToscaType;
  */
 @Service
 public class TopologyDTOBuilder {
+    /** Mapper used to compare the json representation of the topology dto sent to clients, node templates are compared one by one. */
+    private static final ObjectMapper FINGERPRINT_MAPPER = new RestMapper().addMixIn(Topology.class, TopologyPropertiesMixin.class);
+    /** Operations on a node template that may also change other node templates. */
+    private static final Set<Class<? extends AbstractNodeOperation>> MULTI_NODE_OPERATIONS = Sets.newHashSet(DeleteNodeOperation.class,
+            RenameNodeOperation.class);
+
     /**
      * Build a topology dto (topology and all used types) out of a topology.
      * 
@@ -46,6 +72,158 @@ public class TopologyDTOBuilder {
         return topologyDTO;
     }
 
+    /**
+     * Get the fingerprint of the dto of the topology in its current state.
+     *
+     * @param context The edition context from which to build the fingerprint.
+     * @return The fingerprint of the topology dto.
+     */
+    @ToscaContextual
+    public TopologyDTOFingerprint getFingerprint(EditionContext context) {
+        TopologyDTOFingerprint fingerprint = context.getDtoFingerprint();
+        String operationId = getLastOperationId(context);
+        if (fingerprint != null && operationId != null && operationId.equals(fingerprint.getOperationId())) {
+            return fingerprint;
+        }
+        AbstractTopologyDTO<Topology> topologyDTO = new AbstractTopologyDTO<>();
+        buildAbstractTopologyDTO(context.getTopology(), topologyDTO);
+        Map<String, HashCode> nodeTemplates = Maps.newHashMap();
+        for (Map.Entry<String, NodeTemplate> nodeTemplate : safe(context.getTopology().getNodeTemplates()).entrySet()) {
+            nodeTemplates.put(nodeTemplate.getKey(), hash(nodeTemplate.getValue()));
+        }
+        return new TopologyDTOFingerprint(operationId, hashValues(getTopologyProperties(context.getTopology())), nodeTemplates,
+                hash(context.getArchiveContentTree()), Sets.newHashSet(topologyDTO.getNodeTypes().keySet()),
+                Sets.newHashSet(topologyDTO.getRelationshipTypes().keySet()), Sets.newHashSet(topologyDTO.getCapabilityTypes().keySet()),
+                Sets.newHashSet(topologyDTO.getDataTypes().keySet()));
+    }
+
+    /**
+     * Build the changes of the topology dto since the given fingerprint. Only the node templates that the last operation may have changed are compared and
+     * only the types of the changed node templates are resolved.
+     *
+     * @param context The edition context from which to build the delta.
+     * @param previous The fingerprint of the topology dto known by the client.
+     * @return The delta to apply on the topology dto known by the client.
+     */
+    @ToscaContextual
+    public TopologyDeltaDTO buildTopologyDeltaDTO(EditionContext context, TopologyDTOFingerprint previous) {
+        Topology topology = context.getTopology();
+        Map<String, NodeTemplate> currentNodeTemplates = safe(topology.getNodeTemplates());
+
+        TopologyDeltaDTO deltaDTO = new TopologyDeltaDTO();
+        AbstractEditorOperation operation = context.getOperations().get(context.getLastOperationIndex());
+        deltaDTO.setPreviousOperationId(operation.getPreviousOperationId());
+        deltaDTO.setOperation(operation);
+        deltaDTO.setLastOperationIndex(context.getLastOperationIndex());
+
+        Map<String, JsonNode> topologyProperties = getTopologyProperties(topology);
+        Map<String, HashCode> topologyPropertyHashes = hashValues(topologyProperties);
+        Map<String, JsonNode> topologyChanges = Maps.newHashMap();
+        for (Map.Entry<String, HashCode> property : topologyPropertyHashes.entrySet()) {
+            if (!property.getValue().equals(previous.getTopologyProperties().get(property.getKey()))) {
+                topologyChanges.put(property.getKey(), topologyProperties.get(property.getKey()));
+            }
+        }
+        for (String removedProperty : Sets.difference(previous.getTopologyProperties().keySet(), topologyPropertyHashes.keySet())) {
+            topologyChanges.put(removedProperty, null);
+        }
+        deltaDTO.setTopologyChanges(topologyChanges);
+
+        Map<String, HashCode> nodeTemplateHashes = Maps.newHashMap(Maps.filterKeys(previous.getNodeTemplates(), currentNodeTemplates::containsKey));
+        Map<String, NodeTemplate> nodeTemplates = Maps.newHashMap();
+        for (String dirtyNodeTemplate : getDirtyNodeTemplates(operation, currentNodeTemplates.keySet(), previous)) {
+            NodeTemplate nodeTemplate = currentNodeTemplates.get(dirtyNodeTemplate);
+            HashCode nodeTemplateHash = hash(nodeTemplate);
+            if (!nodeTemplateHash.equals(nodeTemplateHashes.put(dirtyNodeTemplate, nodeTemplateHash))) {
+                nodeTemplates.put(dirtyNodeTemplate, nodeTemplate);
+            }
+        }
+        deltaDTO.setNodeTemplates(nodeTemplates);
+        deltaDTO.setRemovedNodeTemplates(Sets.newHashSet(Sets.difference(previous.getNodeTemplates().keySet(), currentNodeTemplates.keySet())));
+
+        // only the changed node templates may reference types that the client doesn't know yet.
+        Topology changedTopology = new Topology();
+        changedTopology.setNodeTemplates(nodeTemplates);
+        AbstractTopologyDTO<Topology> changedTopologyDTO = new AbstractTopologyDTO<>();
+        buildAbstractTopologyDTO(changedTopology, changedTopologyDTO);
+        deltaDTO.setNodeTypes(getNewTypes(changedTopologyDTO.getNodeTypes(), previous.getNodeTypes()));
+        deltaDTO.setRelationshipTypes(getNewTypes(changedTopologyDTO.getRelationshipTypes(), previous.getRelationshipTypes()));
+        deltaDTO.setCapabilityTypes(getNewTypes(changedTopologyDTO.getCapabilityTypes(), previous.getCapabilityTypes()));
+        deltaDTO.setDataTypes(getNewTypes(changedTopologyDTO.getDataTypes(), previous.getDataTypes()));
+
+        HashCode archiveContentTreeHash = hash(context.getArchiveContentTree());
+        if (!archiveContentTreeHash.equals(previous.getArchiveContentTree())) {
+            deltaDTO.setArchiveContentTree(context.getArchiveContentTree());
+        }
+
+        context.setDtoFingerprint(new TopologyDTOFingerprint(getLastOperationId(context), topologyPropertyHashes, nodeTemplateHashes, archiveContentTreeHash,
+                Sets.newHashSet(Sets.union(previous.getNodeTypes(), deltaDTO.getNodeTypes().keySet())),
+                Sets.newHashSet(Sets.union(previous.getRelationshipTypes(), deltaDTO.getRelationshipTypes().keySet())),
+                Sets.newHashSet(Sets.union(previous.getCapabilityTypes(), deltaDTO.getCapabilityTypes().keySet())),
+                Sets.newHashSet(Sets.union(previous.getDataTypes(), deltaDTO.getDataTypes().keySet()))));
+        return deltaDTO;
+    }
+
+    /**
+     * Get the names of the node templates that may have been changed by an operation.
+     *
+     * @param operation The operation that has been processed.
+     * @param nodeTemplates The names of the node templates of the topology after the operation.
+     * @param previous The fingerprint of the topology dto before the operation.
+     * @return The names of the node templates to compare with their previous fingerprint.
+     */
+    private Set<String> getDirtyNodeTemplates(AbstractEditorOperation operation, Set<String> nodeTemplates, TopologyDTOFingerprint previous) {
+        Set<String> dirtyNodeTemplates;
+        if (operation instanceof AbstractWorkflowOperation) {
+            dirtyNodeTemplates = Sets.newHashSet();
+        } else if (operation instanceof AbstractNodeOperation && !MULTI_NODE_OPERATIONS.contains(operation.getClass())) {
+            dirtyNodeTemplates = Sets.newHashSet(((AbstractNodeOperation) operation).getNodeName());
+        } else {
+            // other operations may change any node template (inputs, files, groups etc.)
+            return Sets.newHashSet(nodeTemplates);
+        }
+        dirtyNodeTemplates.addAll(Sets.difference(nodeTemplates, previous.getNodeTemplates().keySet()));
+        dirtyNodeTemplates.retainAll(nodeTemplates);
+        return dirtyNodeTemplates;
+    }
+
+    private <T extends AbstractToscaType> Map<String, T> getNewTypes(Map<String, T> types, Set<String> knownTypes) {
+        return Maps.newHashMap(Maps.filterKeys(types, type -> !knownTypes.contains(type)));
+    }
+
+    /**
+     * Get the json values of the topology properties other than node templates.
+     */
+    private Map<String, JsonNode> getTopologyProperties(Topology topology) {
+        ObjectNode topologyNode = FINGERPRINT_MAPPER.valueToTree(topology);
+        Map<String, JsonNode> topologyProperties = Maps.newHashMap();
+        topologyNode.fields().forEachRemaining(property -> topologyProperties.put(property.getKey(), property.getValue()));
+        return topologyProperties;
+    }
+
+    private Map<String, HashCode> hashValues(Map<String, JsonNode> values) {
+        Map<String, HashCode> hashes = Maps.newHashMap();
+        for (Map.Entry<String, JsonNode> value : values.entrySet()) {
+            hashes.put(value.getKey(), hash(value.getValue()));
+        }
+        return hashes;
+    }
+
+    /**
+     * Hash the json representation of a value.
+     */
+    private HashCode hash(Object value) {
+        try {
+            return Hashing.murmur3_128().hashBytes(FINGERPRINT_MAPPER.writeValueAsBytes(value));
+        } catch (JsonProcessingException e) {
+            throw new EditorIOException("Unable to serialize the topology dto fingerprint.", e);
+        }
+    }
+
+    private String getLastOperationId(EditionContext context) {
+        return context.getLastOperationIndex() < 0 ? null : context.getOperations().get(context.getLastOperationIndex()).getId();
+    }
+
     private <T extends Topology> void buildAbstractTopologyDTO(T topology, AbstractTopologyDTO<T> topologyDTO) {
         topologyDTO.setTopology(topology);
         topologyDTO.setNodeTypes(getNodeTypes(topology));
@@ -138,4 +316,8 @@ public class TopologyDTOBuilder {
         }
         return indexedDataTypes;
     }
-}
\ No newline at end of file
+
+    @JsonIgnoreProperties(value = "nodeTemplates", ignoreUnknown = true)
+    private abstract static class TopologyPropertiesMixin {
+    }
+}
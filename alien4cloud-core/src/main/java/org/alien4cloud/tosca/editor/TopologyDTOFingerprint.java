@@ -0,0 +1,29 @@
+package org.alien4cloud.tosca.editor;
+
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.hash.HashCode;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Hashes of the json representation of the topology dto sent to editor clients after an operation, used to compute the delta to send after the next
+ * operation.
+ */
+@Getter
+@AllArgsConstructor(suppressConstructorProperties = true)
+public class TopologyDTOFingerprint {
+    /** Id of the last operation applied to the topology when the fingerprint has been computed. */
+    private final String operationId;
+    /** Hashes of the json values of the topology properties other than node templates by property name. */
+    private final Map<String, HashCode> topologyProperties;
+    /** Hashes of the json values of the node templates by name. */
+    private final Map<String, HashCode> nodeTemplates;
+    private final HashCode archiveContentTree;
+    private final Set<String> nodeTypes;
+    private final Set<String> relationshipTypes;
+    private final Set<String> capabilityTypes;
+    private final Set<String> dataTypes;
+}
@@ -1,5 +1,9 @@
 package org.alien4cloud.tosca.editor.operations.nodetemplate;
 
+import org.alien4cloud.tosca.model.definitions.AbstractPropertyValue;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import lombok.Getter;
 import lombok.Setter;
 
@@ -11,6 +15,12 @@ import lombok.Setter;
 public class UpdateNodePropertyValueOperation extends AbstractNodeOperation {
     private String propertyName;
     private Object propertyValue;
+    /** True if the property was defined before the operation has been processed, used to undo the operation. */
+    @JsonIgnore
+    private boolean previousValueDefined;
+    /** Value of the property before the operation has been processed, used to undo the operation. */
+    @JsonIgnore
+    private AbstractPropertyValue previousValue;
 
     @Override
     public String commitMessage() {
@@ -0,0 +1,16 @@
+package org.alien4cloud.tosca.editor.processors;
+
+import org.alien4cloud.tosca.editor.operations.AbstractEditorOperation;
+
+/**
+ * Interface to implement if an operation can be undone without replaying the previous operations. The processor is responsible to keep in the operation
+ * the state required to revert it when it is processed.
+ */
+public interface IEditorUndoableProcessor<T extends AbstractEditorOperation> extends IEditorOperationProcessor<T> {
+    /**
+     * Revert the changes of the operation on the topology. This method is called only if the operation is the last one applied to the topology.
+     *
+     * @param operation The operation to revert (same operation that has been processed against the in memory topology).
+     */
+    void undo(T operation);
+}
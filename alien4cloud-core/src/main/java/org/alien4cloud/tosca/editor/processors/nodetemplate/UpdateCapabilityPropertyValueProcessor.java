@@ -7,7 +7,7 @@ import javax.annotation.Resource;
 import org.alien4cloud.tosca.editor.EditionContextManager;
 import org.alien4cloud.tosca.editor.exception.PropertyValueException;
 import org.alien4cloud.tosca.editor.operations.nodetemplate.UpdateCapabilityPropertyValueOperation;
-import org.alien4cloud.tosca.editor.processors.IEditorOperationProcessor;
+import org.alien4cloud.tosca.editor.processors.IEditorUndoableProcessor;
 import org.springframework.stereotype.Component;
 
 import alien4cloud.exception.NotFoundException;
@@ -27,7 +27,7 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 @Component
-public class UpdateCapabilityPropertyValueProcessor implements IEditorOperationProcessor<UpdateCapabilityPropertyValueOperation> {
+public class UpdateCapabilityPropertyValueProcessor implements IEditorUndoableProcessor<UpdateCapabilityPropertyValueOperation> {
     @Resource
     private PropertyService propertyService;
 
@@ -53,9 +53,23 @@ public class UpdateCapabilityPropertyValueProcessor implements IEditorOperationP
                 propertyName, capability.getType(), operation.getNodeName(), topology.getId(), capabilityType.getProperties().get(propertyName), propertyValue);
 
         try {
+            operation.setPreviousValueDefined(capability.getProperties() != null && capability.getProperties().containsKey(propertyName));
+            operation.setPreviousValue(operation.isPreviousValueDefined() ? capability.getProperties().get(propertyName) : null);
             propertyService.setCapabilityPropertyValue(capability, capabilityType.getProperties().get(propertyName), propertyName, propertyValue);
         } catch (ConstraintFunctionalException e) {
             throw new PropertyValueException("Error when setting node " + operation.getNodeName() + " property.", e, propertyName, propertyValue);
         }
     }
+
+    @Override
+    public void undo(UpdateCapabilityPropertyValueOperation operation) {
+        Topology topology = EditionContextManager.getTopology();
+        NodeTemplate nodeTemplate = TopologyServiceCore.getNodeTemplate(topology.getId(), operation.getNodeName(), TopologyServiceCore.getNodeTemplates(topology));
+        Capability capability = nodeTemplate.getCapabilities().get(operation.getCapabilityName());
+        if (operation.isPreviousValueDefined()) {
+            capability.getProperties().put(operation.getPropertyName(), operation.getPreviousValue());
+        } else {
+            capability.getProperties().remove(operation.getPropertyName());
+        }
+    }
 }
@@ -7,7 +7,7 @@ import javax.annotation.Resource;
 import org.alien4cloud.tosca.editor.EditionContextManager;
 import org.alien4cloud.tosca.editor.exception.PropertyValueException;
 import org.alien4cloud.tosca.editor.operations.nodetemplate.UpdateNodePropertyValueOperation;
-import org.alien4cloud.tosca.editor.processors.IEditorOperationProcessor;
+import org.alien4cloud.tosca.editor.processors.IEditorUndoableProcessor;
 import org.springframework.stereotype.Component;
 
 import alien4cloud.exception.NotFoundException;
@@ -26,7 +26,7 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 @Component
-public class UpdateNodePropertyValueProcessor implements IEditorOperationProcessor<UpdateNodePropertyValueOperation> {
+public class UpdateNodePropertyValueProcessor implements IEditorUndoableProcessor<UpdateNodePropertyValueOperation> {
     @Resource
     private PropertyService propertyService;
 
@@ -51,9 +51,22 @@ public class UpdateNodePropertyValueProcessor implements IEditorOperationProcess
                 operation.getNodeName(), topology.getId(), nodeTemp.getProperties().get(propertyName), propertyValue);
 
         try {
+            operation.setPreviousValueDefined(nodeTemp.getProperties() != null && nodeTemp.getProperties().containsKey(propertyName));
+            operation.setPreviousValue(operation.isPreviousValueDefined() ? nodeTemp.getProperties().get(propertyName) : null);
             propertyService.setPropertyValue(nodeTemp, propertyDefinition, propertyName, propertyValue);
         } catch (ConstraintFunctionalException e) {
             throw new PropertyValueException("Error when setting node " + operation.getNodeName() + " property.", e, propertyName, propertyValue);
         }
     }
+
+    @Override
+    public void undo(UpdateNodePropertyValueOperation operation) {
+        Topology topology = EditionContextManager.getTopology();
+        NodeTemplate nodeTemp = TopologyServiceCore.getNodeTemplate(topology.getId(), operation.getNodeName(), TopologyServiceCore.getNodeTemplates(topology));
+        if (operation.isPreviousValueDefined()) {
+            nodeTemp.getProperties().put(operation.getPropertyName(), operation.getPreviousValue());
+        } else {
+            nodeTemp.getProperties().remove(operation.getPropertyName());
+        }
+    }
 }
\ No newline at end of file
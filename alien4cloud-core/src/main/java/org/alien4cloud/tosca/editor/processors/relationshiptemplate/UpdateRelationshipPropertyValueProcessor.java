@@ -7,7 +7,7 @@ import javax.annotation.Resource;
 import org.alien4cloud.tosca.editor.EditionContextManager;
 import org.alien4cloud.tosca.editor.exception.PropertyValueException;
 import org.alien4cloud.tosca.editor.operations.relationshiptemplate.UpdateRelationshipPropertyValueOperation;
-import org.alien4cloud.tosca.editor.processors.IEditorOperationProcessor;
+import org.alien4cloud.tosca.editor.processors.IEditorUndoableProcessor;
 import org.springframework.stereotype.Component;
 
 import alien4cloud.exception.NotFoundException;
@@ -26,7 +26,7 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 @Component
-public class UpdateRelationshipPropertyValueProcessor implements IEditorOperationProcessor<UpdateRelationshipPropertyValueOperation> {
+public class UpdateRelationshipPropertyValueProcessor implements IEditorUndoableProcessor<UpdateRelationshipPropertyValueOperation> {
     @Resource
     private PropertyService propertyService;
 
@@ -51,6 +51,8 @@ public class UpdateRelationshipPropertyValueProcessor implements IEditorOperatio
         log.debug("Updating property <{}> of the relationship <{}> for the Node template <{}> from the topology <{}>: changing value from [{}] to [{}].",
                 propertyName, relationshipType, operation.getNodeName(), topology.getId(), relationshipType.getProperties().get(propertyName), propertyValue);
         try {
+            operation.setPreviousValueDefined(relationshipTemplate.getProperties().containsKey(propertyName));
+            operation.setPreviousValue(relationshipTemplate.getProperties().get(propertyName));
             propertyService.setPropertyValue(relationshipTemplate.getProperties(), relationshipType.getProperties().get(propertyName), propertyName,
                     propertyValue);
         } catch (ConstraintFunctionalException e) {
@@ -59,4 +61,16 @@ public class UpdateRelationshipPropertyValueProcessor implements IEditorOperatio
                     propertyValue);
         }
     }
+
+    @Override
+    public void undo(UpdateRelationshipPropertyValueOperation operation) {
+        Topology topology = EditionContextManager.getTopology();
+        NodeTemplate nodeTemplate = TopologyServiceCore.getNodeTemplate(topology.getId(), operation.getNodeName(), TopologyServiceCore.getNodeTemplates(topology));
+        RelationshipTemplate relationshipTemplate = nodeTemplate.getRelationships().get(operation.getRelationshipName());
+        if (operation.isPreviousValueDefined()) {
+            relationshipTemplate.getProperties().put(operation.getPropertyName(), operation.getPreviousValue());
+        } else {
+            relationshipTemplate.getProperties().remove(operation.getPropertyName());
+        }
+    }
 }
@@ -8,7 +8,7 @@ import java.util.Set;
 
 import javax.inject.Inject;
 
-import org.alien4cloud.tosca.catalog.index.ICsarService;
+import org.alien4cloud.tosca.catalog.index.ArchiveHashRegistry;
 import org.alien4cloud.tosca.editor.EditionContextManager;
 import org.alien4cloud.tosca.editor.EditorService;
 import org.alien4cloud.tosca.editor.operations.AbstractEditorOperation;
@@ -18,7 +18,6 @@ import org.alien4cloud.tosca.editor.operations.nodetemplate.RebuildNodeOperation
 import org.alien4cloud.tosca.editor.operations.relationshiptemplate.DeleteRelationshipOperation;
 import org.alien4cloud.tosca.editor.operations.relationshiptemplate.RebuildRelationshipOperation;
 import org.alien4cloud.tosca.model.CSARDependency;
-import org.alien4cloud.tosca.model.Csar;
 import org.alien4cloud.tosca.model.definitions.CapabilityDefinition;
 import org.alien4cloud.tosca.model.definitions.RequirementDefinition;
 import org.alien4cloud.tosca.model.templates.NodeTemplate;
@@ -48,7 +47,7 @@ import lombok.extern.slf4j.Slf4j;
 public class EditorTopologyRecoveryHelperService {
 
     @Inject
-    private ICsarService csarService;
+    private ArchiveHashRegistry archiveHashRegistry;
     @Inject
     private EditionContextManager editionContextManager;
 
@@ -274,10 +273,10 @@ public class EditorTopologyRecoveryHelperService {
      */
     private CSARDependency getUpdatedDependencyIfNeeded(CSARDependency initialDependency) {
         CSARDependency updatedDependency = null;
-        Csar csar = csarService.getOrFail(initialDependency.getName(), initialDependency.getVersion());
-        if ((StringUtils.isNotBlank(initialDependency.getHash()) || StringUtils.isNotBlank(csar.getHash()))
-                && !Objects.equals(initialDependency.getHash(), csar.getHash())) {
-            updatedDependency = new CSARDependency(csar.getName(), csar.getVersion(), csar.getHash());
+        // hashes are kept in memory, no query is required unless the archive has not been looked up yet.
+        String hash = archiveHashRegistry.getHash(initialDependency.getName(), initialDependency.getVersion());
+        if ((StringUtils.isNotBlank(initialDependency.getHash()) || StringUtils.isNotBlank(hash)) && !Objects.equals(initialDependency.getHash(), hash)) {
+            updatedDependency = new CSARDependency(initialDependency.getName(), initialDependency.getVersion(), hash);
         }
         return updatedDependency;
     }
@@ -0,0 +1,103 @@
+package alien4cloud.component.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.annotation.Resource;
+
+import org.alien4cloud.tosca.model.types.NodeType;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.search.sort.SortBuilders;
+import org.elasticsearch.search.sort.SortOrder;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import com.google.common.collect.Lists;
+
+import alien4cloud.dao.IGenericSearchDAO;
+import alien4cloud.dao.RefreshPolicy;
+import alien4cloud.dao.model.BulkWriteResult;
+import alien4cloud.dao.model.FetchContext;
+
+/**
+ * Test bulk writes, scroll based streaming and scroll based deletion in the elastic search dao.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("classpath:application-context-test.xml")
+public class EsDaoStreamTest extends AbstractDAOTest {
+    private static final int ELEMENT_COUNT = 1234;
+
+    @Resource(name = "alien-es-dao")
+    private IGenericSearchDAO dao;
+
+    private void saveNodeTypes(String archiveName, int count) {
+        List<NodeType> nodeTypes = Lists.newArrayList();
+        for (int i = 0; i < count; i++) {
+            NodeType nodeType = new NodeType();
+            nodeType.setElementId(String.format("%s.Type%05d", archiveName, i));
+            nodeType.setArchiveName(archiveName);
+            nodeType.setArchiveVersion("1.0.0");
+            nodeTypes.add(nodeType);
+        }
+        BulkWriteResult result = dao.bulkSave(nodeTypes, 100, RefreshPolicy.IMMEDIATE);
+        assertTrue(result.isSuccess());
+        assertEquals(count, result.getItemCount());
+        assertEquals((count + 99) / 100, result.getRequestCount());
+    }
+
+    @Test
+    public void streamShouldIterateOverAllPages() {
+        saveNodeTypes("stream-archive", ELEMENT_COUNT);
+
+        try (Stream<NodeType> nodeTypes = dao.stream(NodeType.class, QueryBuilders.matchAllQuery())) {
+            Set<String> ids = nodeTypes.map(NodeType::getId).collect(Collectors.toSet());
+            assertEquals(ELEMENT_COUNT, ids.size());
+        }
+    }
+
+    @Test
+    public void sortedStreamShouldKeepOrder() {
+        saveNodeTypes("stream-archive", ELEMENT_COUNT);
+
+        try (Stream<NodeType> nodeTypes = dao.stream(NodeType.class, null, SortBuilders.fieldSort("rawElementId").order(SortOrder.DESC))) {
+            List<String> elementIds = nodeTypes.map(NodeType::getElementId).collect(Collectors.toList());
+            assertEquals(ELEMENT_COUNT, elementIds.size());
+            assertEquals(String.format("stream-archive.Type%05d", ELEMENT_COUNT - 1), elementIds.get(0));
+            assertEquals("stream-archive.Type00000", elementIds.get(ELEMENT_COUNT - 1));
+        }
+    }
+
+    @Test
+    public void partiallyConsumedStreamShouldBeClosable() {
+        saveNodeTypes("stream-archive", ELEMENT_COUNT);
+
+        try (Stream<NodeType> nodeTypes = dao.buildQuery(NodeType.class).prepareSearch().stream()) {
+            assertEquals(10, nodeTypes.limit(10).count());
+        }
+    }
+
+    @Test
+    public void deleteByQueryShouldDeleteAllPages() {
+        saveNodeTypes("deleted-archive", ELEMENT_COUNT);
+        saveNodeTypes("kept-archive", 10);
+
+        AtomicInteger consumed = new AtomicInteger();
+        BulkWriteResult result = dao.delete(NodeType.class, QueryBuilders.termQuery("archiveName", "deleted-archive"), FetchContext.SUMMARY,
+                page -> consumed.addAndGet(page.size()), RefreshPolicy.IMMEDIATE);
+
+        assertTrue(result.isSuccess());
+        assertEquals(ELEMENT_COUNT, result.getItemCount());
+        assertEquals(ELEMENT_COUNT, consumed.get());
+        assertEquals(10, dao.count(NodeType.class, QueryBuilders.matchAllQuery()));
+        assertNull(dao.customFindAll(NodeType.class, QueryBuilders.termQuery("archiveName", "deleted-archive")));
+    }
+}
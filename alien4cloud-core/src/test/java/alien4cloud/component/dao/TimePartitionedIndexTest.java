@@ -0,0 +1,40 @@
+package alien4cloud.component.dao;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+import alien4cloud.dao.TimePartitionedIndex;
+
+public class TimePartitionedIndexTest {
+    private static long time(int year, int month, int day, int hour) {
+        return LocalDateTime.of(year, month, day, hour, 0).toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    @Test
+    public void partitionShouldDependOnPeriod() {
+        TimePartitionedIndex daily = new TimePartitionedIndex("events", TimePartitionedIndex.Period.DAILY);
+        Assert.assertEquals("events-2016.10.19", daily.getPartition(time(2016, 10, 19, 23)));
+        Assert.assertEquals(time(2016, 10, 20, 0), daily.getPartitionEnd("events-2016.10.19"));
+
+        // weekly partitions start on monday
+        TimePartitionedIndex weekly = new TimePartitionedIndex("events", TimePartitionedIndex.Period.WEEKLY);
+        Assert.assertEquals("events-2016.10.17", weekly.getPartition(time(2016, 10, 19, 12)));
+        Assert.assertEquals("events-2016.10.17", weekly.getPartition(time(2016, 10, 23, 23)));
+        Assert.assertEquals(time(2016, 10, 24, 0), weekly.getPartitionEnd("events-2016.10.17"));
+    }
+
+    @Test
+    public void partitionsShouldBeFilteredByTime() {
+        TimePartitionedIndex daily = new TimePartitionedIndex("events", TimePartitionedIndex.Period.DAILY);
+        List<String> partitions = Lists.newArrayList("events-2016.10.19", "events-2016.10.17", "events-2016.10.18", "other-2016.10.10", "events");
+
+        Assert.assertEquals(Lists.newArrayList("events-2016.10.18", "events-2016.10.19"), daily.getPartitionsSince(partitions, time(2016, 10, 18, 10)));
+        Assert.assertEquals(Lists.newArrayList("events-2016.10.17"), daily.getPartitionsBefore(partitions, time(2016, 10, 18, 10)));
+    }
+}
@@ -0,0 +1,73 @@
+package alien4cloud.csar.services;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+
+import alien4cloud.utils.FileHashIndex;
+import alien4cloud.utils.FileUtil;
+
+public class CsarFinderServiceTest {
+    private CsarFinderService csarFinderService = new CsarFinderService();
+    private Path tempDir;
+    private Path gitRoot;
+    private Path zipRoot;
+    private Path hashIndexRoot;
+
+    @Before
+    public void setup() throws IOException {
+        tempDir = Files.createTempDirectory("a4c-finder-test");
+        gitRoot = tempDir.resolve("git");
+        zipRoot = tempDir.resolve("zips");
+        hashIndexRoot = tempDir.resolve("hashes");
+        write(gitRoot.resolve("types/types.yml"), "tosca_definitions_version: alien_dsl_1_3_0");
+        write(gitRoot.resolve("types/scripts/create.sh"), "echo create");
+        write(gitRoot.resolve("topology/topology.yml"), "tosca_definitions_version: alien_dsl_1_3_0");
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        FileUtil.delete(tempDir);
+    }
+
+    private void write(Path path, String content) throws IOException {
+        Files.createDirectories(path.getParent());
+        Files.write(path, content.getBytes(Charsets.UTF_8));
+    }
+
+    @Test
+    public void archivesHashShouldBeTheHashOfTheZippedArchives() {
+        Map<Path, String> archives = csarFinderService.prepare(gitRoot, zipRoot, null, null);
+        Assert.assertEquals(2, archives.size());
+        for (Map.Entry<Path, String> archive : archives.entrySet()) {
+            Assert.assertEquals(FileUtil.deepSHA1(archive.getKey()), archive.getValue());
+        }
+        Assert.assertFalse(Files.exists(hashIndexRoot));
+    }
+
+    @Test
+    public void filesHashIndexShouldBeKeptBetweenImports() throws IOException {
+        Map<Path, String> archives = csarFinderService.prepare(gitRoot, zipRoot, hashIndexRoot, null);
+        Path indexPath = hashIndexRoot.resolve("types").resolve("archive.idx");
+        Assert.assertEquals(2, FileHashIndex.load(indexPath).size());
+
+        // the hash of an unchanged file is read from the index
+        Path script = gitRoot.resolve("types/scripts/create.sh");
+        FileHashIndex index = FileHashIndex.load(indexPath);
+        index.put("scripts/create.sh", Files.size(script), Files.getLastModifiedTime(script).toMillis(), "FAKE");
+        index.save(indexPath);
+        Map<Path, String> nextArchives = csarFinderService.prepare(gitRoot, zipRoot, hashIndexRoot, null);
+        Path typesZip = zipRoot.resolve("types").resolve("archive.zip");
+        Assert.assertNotEquals(archives.get(typesZip), nextArchives.get(typesZip));
+        Path topologyZip = zipRoot.resolve("topology").resolve("archive.zip");
+        Assert.assertEquals(archives.get(topologyZip), nextArchives.get(topologyZip));
+    }
+}
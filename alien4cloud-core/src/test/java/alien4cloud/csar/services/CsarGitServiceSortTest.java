@@ -0,0 +1,67 @@
+package alien4cloud.csar.services;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.alien4cloud.tosca.model.CSARDependency;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import alien4cloud.model.git.CsarDependenciesBean;
+
+/**
+ * Check the sort of the archives of a git repository by dependency levels.
+ */
+public class CsarGitServiceSortTest {
+    private CsarGitService csarGitService = new CsarGitService();
+
+    private static CsarDependenciesBean archive(Map<CSARDependency, CsarDependenciesBean> archives, String name, String... dependencies) {
+        CsarDependenciesBean archive = new CsarDependenciesBean();
+        archive.setSelf(new CSARDependency(name, "1.0.0"));
+        if (dependencies.length > 0) {
+            archive.setDependencies(Sets.newHashSet());
+            for (String dependency : dependencies) {
+                archive.getDependencies().add(new CSARDependency(dependency, "1.0.0"));
+            }
+        }
+        archives.put(archive.getSelf(), archive);
+        return archive;
+    }
+
+    private static List<Set<String>> names(List<List<CsarDependenciesBean>> levels) {
+        return levels.stream().map(level -> level.stream().map(archive -> archive.getSelf().getName()).collect(Collectors.toSet()))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void diamondDependenciesShouldBeSortedInThreeLevels() {
+        Map<CSARDependency, CsarDependenciesBean> archives = Maps.newHashMap();
+        archive(archives, "base");
+        archive(archives, "left", "base");
+        // a dependency that is not in the repository is expected to be in the catalog
+        archive(archives, "right", "base", "catalog");
+        archive(archives, "top", "left", "right");
+
+        List<List<CsarDependenciesBean>> levels = csarGitService.sort(archives);
+
+        Assert.assertEquals(Lists.newArrayList(Sets.newHashSet("base"), Sets.newHashSet("left", "right"), Sets.newHashSet("top")), names(levels));
+    }
+
+    @Test
+    public void archivesWithoutDependenciesShouldBeInTheFirstLevel() {
+        Map<CSARDependency, CsarDependenciesBean> archives = Maps.newHashMap();
+        archive(archives, "first");
+        archive(archives, "second");
+        archive(archives, "third", "catalog");
+
+        List<List<CsarDependenciesBean>> levels = csarGitService.sort(archives);
+
+        Assert.assertEquals(Lists.newArrayList(Sets.newHashSet("first", "second", "third")), names(levels));
+    }
+}
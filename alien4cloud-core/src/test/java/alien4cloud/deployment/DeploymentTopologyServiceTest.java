@@ -0,0 +1,169 @@
+package alien4cloud.deployment;
+
+import static org.junit.Assert.assertSame;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+
+import org.alien4cloud.tosca.model.templates.AbstractPolicy;
+import org.alien4cloud.tosca.model.templates.LocationPlacementPolicy;
+import org.alien4cloud.tosca.model.templates.NodeGroup;
+import org.alien4cloud.tosca.model.templates.NodeTemplate;
+import org.alien4cloud.tosca.model.templates.Topology;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import alien4cloud.application.ApplicationEnvironmentService;
+import alien4cloud.application.ApplicationVersionService;
+import alien4cloud.application.TopologyCompositionService;
+import alien4cloud.dao.IGenericSearchDAO;
+import alien4cloud.model.application.ApplicationEnvironment;
+import alien4cloud.model.application.ApplicationVersion;
+import alien4cloud.model.deployment.DeploymentTopology;
+import alien4cloud.model.orchestrators.locations.Location;
+import alien4cloud.orchestrators.locations.services.LocationService;
+import alien4cloud.topology.TopologyServiceCore;
+
+/**
+ * Check the generation stages processed when the deployment topology is requested after a change of the initial topology or of the location.
+ */
+public class DeploymentTopologyServiceTest {
+    private static final long NOW = System.currentTimeMillis();
+
+    private DeploymentTopologyService deploymentTopologyService;
+    private IGenericSearchDAO alienDAO;
+    private LocationService locationService;
+    private TopologyCompositionService topologyCompositionService;
+    private DeploymentInputService deploymentInputService;
+    private InputsPreProcessorService inputsPreProcessorService;
+    private IDeploymentNodeSubstitutionService deploymentNodeSubstitutionService;
+
+    private DeploymentTopology deploymentTopology;
+    private Topology topology;
+    private Location location;
+    private NodeTemplate originalNode;
+
+    @Before
+    public void setup() {
+        deploymentTopologyService = new DeploymentTopologyService();
+        alienDAO = Mockito.mock(IGenericSearchDAO.class);
+        locationService = Mockito.mock(LocationService.class);
+        topologyCompositionService = Mockito.mock(TopologyCompositionService.class);
+        deploymentInputService = Mockito.mock(DeploymentInputService.class);
+        inputsPreProcessorService = Mockito.mock(InputsPreProcessorService.class);
+        deploymentNodeSubstitutionService = Mockito.mock(IDeploymentNodeSubstitutionService.class);
+        ApplicationEnvironmentService environmentService = Mockito.mock(ApplicationEnvironmentService.class);
+        ApplicationVersionService versionService = Mockito.mock(ApplicationVersionService.class);
+        TopologyServiceCore topologyServiceCore = Mockito.mock(TopologyServiceCore.class);
+        ReflectionTestUtils.setField(deploymentTopologyService, "alienDAO", alienDAO);
+        ReflectionTestUtils.setField(deploymentTopologyService, "locationService", locationService);
+        ReflectionTestUtils.setField(deploymentTopologyService, "topologyCompositionService", topologyCompositionService);
+        ReflectionTestUtils.setField(deploymentTopologyService, "deploymentInputService", deploymentInputService);
+        ReflectionTestUtils.setField(deploymentTopologyService, "inputsPreProcessorService", inputsPreProcessorService);
+        ReflectionTestUtils.setField(deploymentTopologyService, "deploymentNodeSubstitutionService", deploymentNodeSubstitutionService);
+        ReflectionTestUtils.setField(deploymentTopologyService, "appEnvironmentServices", environmentService);
+        ReflectionTestUtils.setField(deploymentTopologyService, "applicationVersionService", versionService);
+        ReflectionTestUtils.setField(deploymentTopologyService, "topologyServiceCore", topologyServiceCore);
+
+        ApplicationEnvironment environment = new ApplicationEnvironment();
+        environment.setId("env");
+        environment.setCurrentVersionId("version");
+        Mockito.when(environmentService.getOrFail("env")).thenReturn(environment);
+        ApplicationVersion version = new ApplicationVersion();
+        version.setId("version");
+        Mockito.when(versionService.getOrFail("version")).thenReturn(version);
+
+        topology = new Topology();
+        topology.setLastUpdateDate(new Date(NOW - 10000));
+        Mockito.when(topologyServiceCore.getOrFail("version")).thenReturn(topology);
+
+        location = new Location();
+        location.setId("location");
+        location.setLastUpdateDate(new Date(NOW - 10000));
+        Map<String, Location> locations = Maps.newHashMap();
+        locations.put("location", location);
+        Mockito.when(locationService.getMultiple(Mockito.<Collection<String>> any())).thenReturn(locations);
+
+        // a deployment topology with a node substituted by a location resource
+        deploymentTopology = new DeploymentTopology();
+        deploymentTopology.setId(DeploymentTopology.generateId("version", "env"));
+        deploymentTopology.setEnvironmentId("env");
+        deploymentTopology.setInitialTopologyId("version");
+        deploymentTopology.setLastDeploymentTopologyUpdateDate(new Date(NOW - 5000));
+        NodeGroup locationGroup = new NodeGroup();
+        locationGroup.setName("_A4C_ALL");
+        locationGroup.setPolicies(Lists.<AbstractPolicy> newArrayList(new LocationPlacementPolicy("location")));
+        deploymentTopology.getLocationGroups().put("_A4C_ALL", locationGroup);
+        originalNode = new NodeTemplate();
+        originalNode.setType("tosca.nodes.Compute");
+        NodeTemplate substitutedNode = new NodeTemplate();
+        substitutedNode.setType("my.nodes.Compute");
+        Map<String, NodeTemplate> nodeTemplates = Maps.newHashMap();
+        nodeTemplates.put("compute", substitutedNode);
+        deploymentTopology.setNodeTemplates(nodeTemplates);
+        deploymentTopology.getOriginalNodes().put("compute", originalNode);
+        deploymentTopology.getSubstitutedNodes().put("compute", "resource");
+        Mockito.when(alienDAO.findById(DeploymentTopology.class, deploymentTopology.getId())).thenReturn(deploymentTopology);
+    }
+
+    @Test
+    public void unchangedDeploymentTopologyShouldNotBeProcessed() {
+        deploymentTopologyService.getDeploymentTopology("env");
+
+        Mockito.verifyZeroInteractions(topologyCompositionService, inputsPreProcessorService, deploymentNodeSubstitutionService);
+        Mockito.verify(alienDAO, Mockito.never()).save(deploymentTopology);
+    }
+
+    @Test
+    public void topologyChangeShouldProcessAllStages() {
+        topology.setLastUpdateDate(new Date(NOW));
+
+        deploymentTopologyService.getDeploymentTopology("env");
+
+        Mockito.verify(topologyCompositionService).processTopologyComposition(deploymentTopology);
+        Mockito.verify(inputsPreProcessorService).processGetInput(Mockito.eq(deploymentTopology), Mockito.any(ApplicationEnvironment.class),
+                Mockito.eq(topology));
+        Mockito.verify(deploymentNodeSubstitutionService).processNodesSubstitution(Mockito.eq(deploymentTopology), Mockito.anyMap());
+        Mockito.verify(alienDAO).save(deploymentTopology);
+    }
+
+    @Test
+    public void locationResourcesChangeShouldMatchNodesAgainWithoutMergingTheTopology() {
+        location.setLastUpdateDate(new Date(NOW));
+
+        deploymentTopologyService.getDeploymentTopology("env");
+
+        Mockito.verify(topologyCompositionService, Mockito.never()).processTopologyComposition(deploymentTopology);
+        Mockito.verify(deploymentNodeSubstitutionService).processNodesSubstitution(Mockito.eq(deploymentTopology), Mockito.anyMap());
+        // the substitution starts from the original node
+        assertSame(originalNode, deploymentTopology.getNodeTemplates().get("compute"));
+        Mockito.verify(alienDAO).save(deploymentTopology);
+    }
+
+    @Test
+    public void locationMetaPropertiesChangeShouldProcessInputsOnOriginalNodes() {
+        location.setMetaProperties(Maps.newHashMap());
+        location.getMetaProperties().put("meta", "new value");
+        location.setLastUpdateDate(new Date(NOW));
+        Mockito.doAnswer(invocation -> {
+            // inputs are processed on the original nodes, not on the previous substitutes
+            assertSame(originalNode, deploymentTopology.getNodeTemplates().get("compute"));
+            return null;
+        }).when(inputsPreProcessorService).processGetInput(Mockito.eq(deploymentTopology), Mockito.any(ApplicationEnvironment.class), Mockito.eq(topology));
+
+        deploymentTopologyService.getDeploymentTopology("env");
+
+        InOrder inOrder = Mockito.inOrder(inputsPreProcessorService, deploymentNodeSubstitutionService);
+        inOrder.verify(inputsPreProcessorService).processGetInput(Mockito.eq(deploymentTopology), Mockito.any(ApplicationEnvironment.class),
+                Mockito.eq(topology));
+        inOrder.verify(deploymentNodeSubstitutionService).processNodesSubstitution(Mockito.eq(deploymentTopology), Mockito.anyMap());
+        Mockito.verify(topologyCompositionService, Mockito.never()).processTopologyComposition(deploymentTopology);
+    }
+}
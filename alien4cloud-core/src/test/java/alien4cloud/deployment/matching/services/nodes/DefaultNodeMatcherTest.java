@@ -0,0 +1,110 @@
+package alien4cloud.deployment.matching.services.nodes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.alien4cloud.tosca.model.templates.NodeTemplate;
+import org.alien4cloud.tosca.model.types.NodeType;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import alien4cloud.model.deployment.matching.MatchingConfiguration;
+import alien4cloud.model.orchestrators.locations.LocationResourceTemplate;
+import alien4cloud.model.orchestrators.locations.LocationResources;
+
+/**
+ * Matching of nodes against a location with a large generated catalog (for example flavors x images x networks).
+ */
+public class DefaultNodeMatcherTest {
+    private static final String COMPUTE = "tosca.nodes.Compute";
+    private static final String NETWORK = "tosca.nodes.Network";
+    private static final int TYPE_COUNT = 10;
+    private static final int RESOURCES_PER_TYPE = 1000;
+
+    private DefaultNodeMatcher nodeMatcher;
+    private LocationResources locationResources;
+    private Map<String, MatchingConfiguration> matchingConfigurations;
+
+    @Before
+    public void prepare() {
+        nodeMatcher = new DefaultNodeMatcher();
+        locationResources = new LocationResources();
+        matchingConfigurations = Maps.newHashMap();
+        // 10 types of 1000 resources, even types are computes, odd types are networks
+        for (int i = 0; i < TYPE_COUNT; i++) {
+            String typeName = "my.nodes.Type" + i;
+            locationResources.getNodeTypes().put(typeName, nodeType(typeName, i % 2 == 0 ? COMPUTE : NETWORK, "tosca.nodes.Root"));
+            for (int j = 0; j < RESOURCES_PER_TYPE; j++) {
+                LocationResourceTemplate resource = new LocationResourceTemplate();
+                resource.setId(typeName + "_" + j);
+                resource.setTemplate(nodeTemplate(typeName));
+                locationResources.getNodeTemplates().add(resource);
+            }
+        }
+    }
+
+    private static NodeType nodeType(String elementId, String... parents) {
+        NodeType nodeType = new NodeType();
+        nodeType.setElementId(elementId);
+        nodeType.setDerivedFrom(Lists.newArrayList(parents));
+        return nodeType;
+    }
+
+    private static NodeTemplate nodeTemplate(String type) {
+        NodeTemplate nodeTemplate = new NodeTemplate();
+        nodeTemplate.setType(type);
+        return nodeTemplate;
+    }
+
+    @Test
+    public void shouldMatchResourcesOfTypeAndDerivedTypes() {
+        List<LocationResourceTemplate> matches = nodeMatcher.matchNode(nodeTemplate(COMPUTE), nodeType(COMPUTE), locationResources, matchingConfigurations);
+        assertEquals(TYPE_COUNT / 2 * RESOURCES_PER_TYPE, matches.size());
+        // order of the location resources is kept
+        assertEquals("my.nodes.Type0_0", matches.get(0).getId());
+
+        matches = nodeMatcher.matchNode(nodeTemplate("my.nodes.Type3"), nodeType("my.nodes.Type3"), locationResources, matchingConfigurations);
+        assertEquals(RESOURCES_PER_TYPE, matches.size());
+        for (LocationResourceTemplate match : matches) {
+            assertEquals("my.nodes.Type3", match.getTemplate().getType());
+        }
+
+        matches = nodeMatcher.matchNode(nodeTemplate("my.nodes.Unknown"), nodeType("my.nodes.Unknown"), locationResources, matchingConfigurations);
+        assertTrue(matches.isEmpty());
+    }
+
+    @Test
+    public void shouldNotMatchWhenOrchestratorIsDisabled() {
+        assertEquals(Collections.emptyList(), nodeMatcher.matchNode(nodeTemplate(COMPUTE), nodeType(COMPUTE), locationResources, null));
+    }
+
+    @Test
+    public void matchingManyNodesAgainstLargeLocationShouldNotScanAllResources() {
+        Map<String, NodeType> nodeTypes = Mockito.spy(locationResources.getNodeTypes());
+        locationResources.setNodeTypes(nodeTypes);
+        Map<String, MatchingConfiguration> spiedConfigurations = Mockito.spy(matchingConfigurations);
+        int nodeCount = 10 * TYPE_COUNT;
+        for (int i = 0; i < nodeCount; i++) {
+            String typeName = "my.nodes.Type" + (i % TYPE_COUNT);
+            List<LocationResourceTemplate> matches = nodeMatcher.matchNode(nodeTemplate(typeName), nodeType(typeName), locationResources,
+                    spiedConfigurations);
+            assertEquals(RESOURCES_PER_TYPE, matches.size());
+        }
+
+        // only the resources of the node type are evaluated as candidates
+        for (int i = 0; i < TYPE_COUNT; i++) {
+            Mockito.verify(spiedConfigurations, Mockito.times(nodeCount / TYPE_COUNT * RESOURCES_PER_TYPE)).get("my.nodes.Type" + i);
+        }
+        Mockito.verify(spiedConfigurations, Mockito.times(nodeCount * RESOURCES_PER_TYPE)).get(Mockito.anyString());
+        // the type of every resource is looked up once to index the resources, then once per evaluated candidate
+        Mockito.verify(nodeTypes, Mockito.times(TYPE_COUNT * RESOURCES_PER_TYPE + nodeCount * RESOURCES_PER_TYPE)).get(Mockito.anyString());
+    }
+}
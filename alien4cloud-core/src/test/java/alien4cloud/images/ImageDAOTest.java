@@ -0,0 +1,67 @@
+package alien4cloud.images;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.common.cache.CacheBuilder;
+
+import alien4cloud.exception.NotFoundException;
+import alien4cloud.utils.ImageQuality;
+
+public class ImageDAOTest {
+    @Rule
+    public TemporaryFolder imagesFolder = new TemporaryFolder();
+
+    private ImageDAO imageDAO;
+
+    @Before
+    public void setup() throws IOException {
+        imageDAO = Mockito.spy(new ImageDAO());
+        imageDAO.setRootPath(imagesFolder.getRoot().getAbsolutePath());
+        ReflectionTestUtils.setField(imageDAO, "imageFiles", CacheBuilder.newBuilder().concurrencyLevel(1).maximumSize(2).build());
+        ReflectionTestUtils.setField(imageDAO, "contentCache", CacheBuilder.newBuilder().concurrencyLevel(1).maximumSize(2).build());
+    }
+
+    private void assertNotFound(String id) {
+        try {
+            imageDAO.getImageFile(id, ImageQuality.QUALITY_BEST);
+            fail("Image " + id + " should not be found");
+        } catch (NotFoundException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void unknownImageShouldBeLookedUpOnce() {
+        Mockito.doReturn(null).when(imageDAO).findById(ImageData.class, "missing");
+        assertNotFound("missing");
+        assertNotFound("missing");
+        Mockito.verify(imageDAO, Mockito.times(1)).findById(ImageData.class, "missing");
+    }
+
+    @Test
+    public void imageFilesShouldBeBounded() throws IOException {
+        for (String id : new String[] { "first", "second", "third" }) {
+            ImageData imageData = new ImageData();
+            imageData.setId(id);
+            imageData.setMime("image/png");
+            Files.write(imagesFolder.getRoot().toPath().resolve(id + ".png"), id.getBytes());
+            Mockito.doReturn(imageData).when(imageDAO).findById(ImageData.class, id);
+            imageDAO.getImageFile(id, ImageQuality.QUALITY_BEST);
+        }
+        // the first image has been evicted and is loaded again
+        imageDAO.getImageFile("first", ImageQuality.QUALITY_BEST);
+        Mockito.verify(imageDAO, Mockito.times(2)).findById(ImageData.class, "first");
+        assertArrayEquals("first".getBytes(), Files.readAllBytes(imageDAO.getImageFile("first", ImageQuality.QUALITY_BEST).getPath()));
+    }
+}
@@ -1,5 +1,6 @@
 package alien4cloud.orchestrators.services;
 
+import java.util.Date;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,8 +17,10 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import alien4cloud.dao.IGenericSearchDAO;
 import alien4cloud.model.orchestrators.locations.Location;
 import alien4cloud.model.orchestrators.locations.LocationResourceTemplate;
+import alien4cloud.model.orchestrators.locations.LocationResources;
 import org.alien4cloud.tosca.model.templates.NodeTemplate;
 import alien4cloud.orchestrators.locations.services.ILocationResourceService;
+import alien4cloud.orchestrators.locations.services.LocationResourceService;
 import alien4cloud.orchestrators.plugin.ILocationResourceAccessor;
 
 import com.google.common.collect.Lists;
@@ -107,4 +110,26 @@ public class LocationResourceServiceTest {
         List<LocationResourceTemplate> resources = accessor.getResources(CONFIGURED_TYPE);
         Assert.assertEquals(0, resources.size());
     }
+
+    @Test
+    public void locationResourcesShouldBeComputedOnlyWhenLocationChanges() {
+        LocationResourceService service = (LocationResourceService) locationResourceService;
+        Location location = alienDAO.findById(Location.class, UNCONFIGURED_LOCATION_ID);
+        long misses = service.getCacheMissCount();
+        long hits = service.getCacheHitCount();
+
+        LocationResources locationResources = locationResourceService.getLocationResources(location);
+        Assert.assertSame(locationResources, locationResourceService.getLocationResources(location));
+        Assert.assertEquals(misses + 1, service.getCacheMissCount());
+        Assert.assertEquals(hits + 1, service.getCacheHitCount());
+
+        // any update of the location changes its last update date
+        location.setLastUpdateDate(new Date(location.getLastUpdateDate().getTime() + 1000));
+        Assert.assertNotSame(locationResources, locationResourceService.getLocationResources(location));
+        Assert.assertEquals(misses + 2, service.getCacheMissCount());
+
+        locationResourceService.invalidateLocationResources(UNCONFIGURED_LOCATION_ID);
+        locationResourceService.getLocationResources(location);
+        Assert.assertEquals(misses + 3, service.getCacheMissCount());
+    }
 }
@@ -0,0 +1,60 @@
+package alien4cloud.paas;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AdaptivePollingPolicyTest {
+
+    @Test
+    public void idlePollsShouldBackOffUpToMaxInterval() {
+        AdaptivePollingPolicy policy = new AdaptivePollingPolicy(100, 1000, 5000, 0);
+        policy.onDeploymentFound();
+        Assert.assertEquals(AdaptivePollingPolicy.State.IDLE, policy.getState());
+        Assert.assertEquals(1000, policy.getNextDelayMs());
+        policy.onEmptyPoll();
+        Assert.assertEquals(2000, policy.getNextDelayMs());
+        policy.onEmptyPoll();
+        Assert.assertEquals(4000, policy.getNextDelayMs());
+        policy.onEmptyPoll();
+        Assert.assertEquals(5000, policy.getNextDelayMs());
+    }
+
+    @Test
+    public void wakeUpShouldPollOnActiveIntervalDuringActivePeriod() {
+        AdaptivePollingPolicy policy = new AdaptivePollingPolicy(100, 1000, 5000, 60000);
+        policy.onNoDeployment();
+        policy.onNoDeployment();
+        Assert.assertEquals(AdaptivePollingPolicy.State.NO_DEPLOYMENT, policy.getState());
+        Assert.assertEquals(4000, policy.getNextDelayMs());
+
+        policy.wakeUp();
+        Assert.assertEquals(AdaptivePollingPolicy.State.ACTIVE, policy.getState());
+        Assert.assertEquals(100, policy.getNextDelayMs());
+        // empty polls don't end the active period
+        policy.onEmptyPoll();
+        Assert.assertEquals(100, policy.getNextDelayMs());
+    }
+
+    @Test
+    public void eventsShouldResetBackOff() {
+        AdaptivePollingPolicy policy = new AdaptivePollingPolicy(100, 1000, 5000, 0);
+        policy.onDeploymentFound();
+        policy.onEmptyPoll();
+        policy.onEmptyPoll();
+        policy.onEvents();
+        Assert.assertEquals(AdaptivePollingPolicy.State.ACTIVE, policy.getState());
+        policy.onEmptyPoll();
+        Assert.assertEquals(AdaptivePollingPolicy.State.IDLE, policy.getState());
+        Assert.assertEquals(1000, policy.getNextDelayMs());
+    }
+
+    @Test
+    public void pushingOrchestratorShouldNotBePolled() {
+        AdaptivePollingPolicy policy = new AdaptivePollingPolicy(100, 1000, 5000, 0);
+        policy.onPush(true);
+        policy.wakeUp();
+        Assert.assertEquals(AdaptivePollingPolicy.State.PUSH, policy.getState());
+        policy.onPush(false);
+        Assert.assertEquals(AdaptivePollingPolicy.State.ACTIVE, policy.getState());
+    }
+}
@@ -0,0 +1,221 @@
+package alien4cloud.paas;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import alien4cloud.dao.IGenericSearchDAO;
+import alien4cloud.paas.model.AbstractMonitorEvent;
+import alien4cloud.paas.model.PaaSDeploymentStatusMonitorEvent;
+
+@SuppressWarnings("rawtypes")
+public class PaaSEventsDispatcherTest {
+    private IGenericSearchDAO monitorDAO;
+    private List<IPaasEventListener> listeners;
+    private PaaSEventsDispatcher dispatcher;
+
+    private List<AbstractMonitorEvent> synchronouslyProcessed;
+
+    @Before
+    public void setup() {
+        monitorDAO = mock(IGenericSearchDAO.class);
+        listeners = Collections.synchronizedList(new ArrayList<IPaasEventListener>());
+        synchronouslyProcessed = Collections.synchronizedList(new ArrayList<AbstractMonitorEvent>());
+        dispatcher = new PaaSEventsDispatcher(monitorDAO, new TestListener(synchronouslyProcessed::add), listeners, 10, 10);
+    }
+
+    @After
+    public void cleanup() {
+        dispatcher.shutdown();
+    }
+
+    private AbstractMonitorEvent[] events(int count) {
+        AbstractMonitorEvent[] events = new AbstractMonitorEvent[count];
+        for (int i = 0; i < count; i++) {
+            events[i] = new PaaSDeploymentStatusMonitorEvent();
+            events[i].setDate(System.currentTimeMillis());
+        }
+        return events;
+    }
+
+    @Test
+    public void slowListenerShouldNotDelayOtherListeners() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch received = new CountDownLatch(5);
+        listeners.add(new TestListener(event -> release.await()));
+        listeners.add(new TestListener(event -> received.countDown()));
+
+        dispatcher.publish(events(5));
+        Assert.assertTrue(received.await(5, TimeUnit.SECONDS));
+        verify(monitorDAO, timeout(5000)).save(any(AbstractMonitorEvent[].class));
+        release.countDown();
+    }
+
+    @Test
+    public void failedDispatchShouldBeRetried() throws InterruptedException {
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch received = new CountDownLatch(1);
+        listeners.add(new TestListener(event -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IllegalStateException("failure");
+            }
+            received.countDown();
+        }));
+
+        dispatcher.publish(events(1));
+        Assert.assertTrue(received.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(3, attempts.get());
+        Assert.assertEquals(0, dispatcher.getFailedCount());
+    }
+
+    @Test
+    public void synchronousListenerShouldProcessEventsBeforeOtherListeners() throws InterruptedException {
+        CountDownLatch received = new CountDownLatch(5);
+        AtomicInteger notYetProcessed = new AtomicInteger();
+        listeners.add(new TestListener(event -> {
+            if (synchronouslyProcessed.stream().noneMatch(processed -> processed == event)) {
+                notYetProcessed.incrementAndGet();
+            }
+            received.countDown();
+        }));
+
+        dispatcher.publish(events(5));
+        Assert.assertTrue(received.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(0, notYetProcessed.get());
+    }
+
+    @Test
+    public void failedSaveShouldBeRetriedAndEventsDispatched() throws InterruptedException {
+        doThrow(new IllegalStateException("failure")).doThrow(new IllegalStateException("failure")).doNothing().when(monitorDAO)
+                .save(any(AbstractMonitorEvent[].class));
+        CountDownLatch received = new CountDownLatch(1);
+        listeners.add(new TestListener(event -> received.countDown()));
+
+        dispatcher.publish(events(1));
+        Assert.assertTrue(received.await(5, TimeUnit.SECONDS));
+        verify(monitorDAO, times(3)).save(any(AbstractMonitorEvent[].class));
+        Assert.assertEquals(0, dispatcher.getUnsavedCount());
+    }
+
+    @Test
+    public void eventsShouldBeDispatchedWhenSaveKeepsFailing() throws InterruptedException {
+        doThrow(new IllegalStateException("failure")).when(monitorDAO).save(any(AbstractMonitorEvent[].class));
+        CountDownLatch received = new CountDownLatch(1);
+        listeners.add(new TestListener(event -> received.countDown()));
+
+        dispatcher.publish(events(1));
+        Assert.assertTrue(received.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(1, dispatcher.getUnsavedCount());
+    }
+
+    @Test
+    public void fullListenerLaneShouldSlowDownIngestionWithoutSkippingEvents() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger slowReceived = new AtomicInteger();
+        AtomicInteger fastReceived = new AtomicInteger();
+        listeners.add(new TestListener(event -> {
+            release.await();
+            slowReceived.incrementAndGet();
+        }));
+        listeners.add(new TestListener(event -> fastReceived.incrementAndGet()));
+
+        // the ingestion queue and the listener lane can hold 10 events each, the publisher waits for the slow listener
+        CountDownLatch published = new CountDownLatch(1);
+        Thread publisher = new Thread(() -> {
+            try {
+                dispatcher.publish(events(50));
+                published.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        publisher.start();
+        Assert.assertFalse(published.await(500, TimeUnit.MILLISECONDS));
+        Assert.assertTrue(synchronouslyProcessed.size() < 50);
+
+        release.countDown();
+        Assert.assertTrue(published.await(5, TimeUnit.SECONDS));
+        long deadline = System.currentTimeMillis() + 5000;
+        while ((slowReceived.get() < 50 || fastReceived.get() < 50) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(50, slowReceived.get());
+        Assert.assertEquals(50, fastReceived.get());
+        Assert.assertEquals(0, dispatcher.getSkippedCount());
+        Assert.assertTrue(dispatcher.getBackpressureTimeMs() > 0);
+    }
+
+    @Test
+    public void removedListenerShouldNotReceiveNextEvents() throws InterruptedException {
+        AtomicInteger removedReceived = new AtomicInteger();
+        CountDownLatch firstReceived = new CountDownLatch(1);
+        CountDownLatch received = new CountDownLatch(2);
+        TestListener removed = new TestListener(event -> {
+            removedReceived.incrementAndGet();
+            firstReceived.countDown();
+        });
+        listeners.add(removed);
+        listeners.add(new TestListener(event -> received.countDown()));
+
+        dispatcher.publish(events(1));
+        Assert.assertTrue(firstReceived.await(5, TimeUnit.SECONDS));
+        listeners.remove(removed);
+        dispatcher.publish(events(1));
+        Assert.assertTrue(received.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(1, removedReceived.get());
+    }
+
+    @Test
+    public void shutdownShouldDispatchQueuedEvents() throws InterruptedException {
+        AtomicInteger received = new AtomicInteger();
+        listeners.add(new TestListener(event -> received.incrementAndGet()));
+
+        dispatcher.publish(events(10));
+        dispatcher.shutdown();
+        Assert.assertEquals(10, received.get());
+        Assert.assertEquals(10, synchronouslyProcessed.size());
+    }
+
+    private interface EventHandler {
+        void handle(AbstractMonitorEvent event) throws Exception;
+    }
+
+    private static class TestListener implements IPaasEventListener<AbstractMonitorEvent> {
+        private final EventHandler handler;
+
+        private TestListener(EventHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void eventHappened(AbstractMonitorEvent event) {
+            try {
+                handler.handle(event);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public boolean canHandle(AbstractMonitorEvent event) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package alien4cloud.paas.wf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import alien4cloud.paas.plan.ToscaNodeLifecycleConstants;
+import alien4cloud.paas.wf.util.WorkflowUtils;
+import alien4cloud.paas.wf.validation.AbstractWorkflowError;
+import alien4cloud.paas.wf.validation.BadStateSequenceError;
+import alien4cloud.paas.wf.validation.CycleDetection;
+import alien4cloud.paas.wf.validation.ParallelSetStatesError;
+import alien4cloud.paas.wf.validation.StateSequenceValidation;
+
+/**
+ * Validation of workflows with a lot of parallel branches: the number of paths grows exponentially with the number of forks so the validation must not
+ * enumerate them.
+ */
+public class WideWorkflowValidationTest {
+    /** 2^40 paths in the workflow. */
+    private static final int DIAMOND_COUNT = 40;
+
+    private Workflow wf;
+
+    @Before
+    public void prepare() {
+        wf = new Workflow();
+        wf.setName(Workflow.INSTALL_WF);
+        wf.setStandard(true);
+    }
+
+    /**
+     * <pre>
+     *          -- b_0 --          -- b_1 --
+     *         /         \        /         \
+     * a_ini --           -- j_0 --           -- j_1 ... -- a_sta
+     *         \         /        \         /
+     *          -- c_0 --          -- c_1 --
+     * </pre>
+     */
+    private AbstractStep[] buildDiamonds() {
+        AbstractStep first = buildStateStep("nodeA", ToscaNodeLifecycleConstants.INITIAL);
+        AbstractStep last = first;
+        for (int i = 0; i < DIAMOND_COUNT; i++) {
+            SimpleStep b = wf.addStep(new SimpleStep("b_" + i));
+            SimpleStep c = wf.addStep(new SimpleStep("c_" + i));
+            SimpleStep join = wf.addStep(new SimpleStep("j_" + i));
+            WorkflowUtils.linkSteps(last, b);
+            WorkflowUtils.linkSteps(last, c);
+            WorkflowUtils.linkSteps(b, join);
+            WorkflowUtils.linkSteps(c, join);
+            last = join;
+        }
+        return new AbstractStep[] { first, last };
+    }
+
+    @Test(timeout = 5000)
+    public void wideWorkflowShouldBeValid() {
+        AbstractStep[] bounds = buildDiamonds();
+        WorkflowUtils.linkSteps(bounds[1], buildStateStep("nodeA", ToscaNodeLifecycleConstants.STARTED));
+        assertTrue(new CycleDetection().validate(null, wf).isEmpty());
+        assertTrue(new StateSequenceValidation().validate(null, wf).isEmpty());
+    }
+
+    @Test(timeout = 5000)
+    public void wideWorkflowWithBadSequenceShouldFail() {
+        AbstractStep[] bounds = buildDiamonds();
+        AbstractStep created = buildStateStep("nodeA", ToscaNodeLifecycleConstants.CREATED);
+        WorkflowUtils.linkSteps(bounds[1], created);
+        WorkflowUtils.linkSteps(created, buildStateStep("nodeA", ToscaNodeLifecycleConstants.INITIAL));
+        List<AbstractWorkflowError> errors = new StateSequenceValidation().validate(null, wf);
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0) instanceof BadStateSequenceError);
+    }
+
+    @Test(timeout = 5000)
+    public void wideWorkflowWithParallelStatesShouldFail() {
+        buildDiamonds();
+        // the state step of a node is put in one branch of the first diamond
+        WorkflowUtils.linkSteps(wf.getSteps().get("b_0"), buildStateStep("nodeA", ToscaNodeLifecycleConstants.CREATED));
+        WorkflowUtils.linkSteps(wf.getSteps().get("c_0"), buildStateStep("nodeA", ToscaNodeLifecycleConstants.CONFIGURED));
+        List<AbstractWorkflowError> errors = new StateSequenceValidation().validate(null, wf);
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0) instanceof ParallelSetStatesError);
+    }
+
+    @Test(timeout = 5000)
+    public void wideWorkflowWithCycleShouldFail() {
+        AbstractStep[] bounds = buildDiamonds();
+        WorkflowUtils.linkSteps(bounds[1], wf.getSteps().get("b_0"));
+        List<AbstractWorkflowError> errors = new CycleDetection().validate(null, wf);
+        assertEquals(1, errors.size());
+        // state sequence is not checked on cyclic workflows
+        assertTrue(new StateSequenceValidation().validate(null, wf).isEmpty());
+    }
+
+    private NodeActivityStep buildStateStep(String nodeId, String stateName) {
+        NodeActivityStep step = new NodeActivityStep();
+        step.setNodeId(nodeId);
+        SetStateActivity activity = new SetStateActivity();
+        activity.setNodeId(nodeId);
+        activity.setStateName(stateName);
+        step.setActivity(activity);
+        step.setName(WorkflowUtils.buildStepName(wf, step, 0));
+        return wf.addStep(step);
+    }
+}
@@ -2,6 +2,10 @@ package alien4cloud.suggestions.services;
 
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
 
 import alien4cloud.model.common.AbstractSuggestionEntry;
 import lombok.extern.slf4j.Slf4j;
@@ -59,4 +63,54 @@ public class SuggestionServicesTest {
         log.info("Matches for blank: {}", Arrays.asList(matches));
         Assert.assertEquals(5, matches.length);
     }
+
+    @Test
+    public void suggestionIndexShouldBeLoadedOnceAndUpdatedWithNewValues() {
+        SuggestionService suggestionService = new SuggestionService();
+        IGenericSearchDAO alienDAO = Mockito.mock(IGenericSearchDAO.class);
+        suggestionService.setAlienDAO(alienDAO);
+        SuggestionEntry suggestionEntry = new SuggestionEntry();
+        suggestionEntry.setSuggestions(new HashSet<>(Arrays.asList("ubuntu", "debian")));
+        Mockito.when(alienDAO.findById(AbstractSuggestionEntry.class, "")).thenReturn(suggestionEntry);
+
+        Assert.assertEquals("debian", suggestionService.getJaroWinklerMatchedSuggestions("", "debain", 1)[0]);
+        suggestionService.addSuggestionValueToSuggestionEntry("", "centos");
+        Assert.assertEquals("centos", suggestionService.getJaroWinklerMatchedSuggestions("", "cent os", 1)[0]);
+        // value already in the index, the entry is not loaded nor saved again
+        suggestionService.addSuggestionValueToSuggestionEntry("", "centos");
+
+        Mockito.verify(alienDAO, Mockito.times(2)).findById(AbstractSuggestionEntry.class, "");
+        Mockito.verify(alienDAO, Mockito.times(1)).save(suggestionEntry);
+    }
+
+    @Test
+    public void suggestionIndexShouldMatchLikeAFullScan() {
+        Random random = new Random(42);
+        Set<String> values = new HashSet<>();
+        for (int i = 0; i < 2000; i++) {
+            values.add(randomValue(random));
+        }
+        SuggestionIndex suggestionIndex = new SuggestionIndex(values);
+        SuggestionService suggestionService = new SuggestionService();
+        for (int i = 0; i < 200; i++) {
+            String input = randomValue(random);
+            for (double minJaroWinkler : new double[] { 0.0, 0.8 }) {
+                PriorityQueue<SuggestionService.MatchedSuggestion> expected = suggestionService.getJaroWinklerMatchedSuggestions(values, input, minJaroWinkler);
+                List<SuggestionService.MatchedSuggestion> matches = suggestionIndex.match(input, minJaroWinkler, 5);
+                Assert.assertEquals(Math.min(5, expected.size()), matches.size());
+                for (SuggestionService.MatchedSuggestion match : matches) {
+                    Assert.assertEquals(expected.poll().getPriority(), match.getPriority());
+                }
+            }
+        }
+    }
+
+    private static String randomValue(Random random) {
+        StringBuilder value = new StringBuilder();
+        int length = 3 + random.nextInt(10);
+        for (int i = 0; i < length; i++) {
+            value.append(random.nextInt(8) == 0 ? ' ' : (char) ('a' + random.nextInt(26)));
+        }
+        return value.toString();
+    }
 }
@@ -2,12 +2,14 @@ package alien4cloud.utils.services;
 
 import java.util.ArrayList;
 
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
 import org.alien4cloud.tosca.model.definitions.PropertyConstraint;
 import org.alien4cloud.tosca.model.definitions.PropertyDefinition;
 import org.alien4cloud.tosca.model.definitions.constraints.LengthConstraint;
+import alien4cloud.tosca.normative.IPropertyType;
 import alien4cloud.tosca.properties.constraints.exception.ConstraintValueDoNotMatchPropertyTypeException;
 import alien4cloud.tosca.properties.constraints.exception.ConstraintViolationException;
 
@@ -132,4 +134,34 @@ public class ConstraintPropertyServiceTest {
         constraintPropertyService.checkSimplePropertyConstraint("test", "aaa", propertyDefinition);
     }
 
+    @Test
+    public void constraintShouldBeInitializedOnce() throws Exception {
+        PropertyDefinition propertyDefinition = new PropertyDefinition();
+        propertyDefinition.setType("string");
+        propertyDefinition.setConstraints(new ArrayList<PropertyConstraint>());
+        CountingLengthConstraint lengthConstraint = new CountingLengthConstraint();
+        lengthConstraint.setLength(3);
+        propertyDefinition.getConstraints().add(lengthConstraint);
+
+        constraintPropertyService.checkSimplePropertyConstraint("test", "val", propertyDefinition);
+        constraintPropertyService.checkSimplePropertyConstraint("test", "abc", propertyDefinition);
+        try {
+            constraintPropertyService.checkSimplePropertyConstraint("test", "value", propertyDefinition);
+            Assert.fail("Length constraint should be violated");
+        } catch (ConstraintViolationException e) {
+            Assert.assertEquals("length", e.getConstraintInformation().getName());
+            Assert.assertEquals("test.constraints[length]", e.getConstraintInformation().getPath());
+        }
+        Assert.assertEquals(1, lengthConstraint.initializationCount);
+    }
+
+    private static class CountingLengthConstraint extends LengthConstraint {
+        private int initializationCount = 0;
+
+        @Override
+        public void initialize(IPropertyType<?> propertyType) throws ConstraintValueDoNotMatchPropertyTypeException {
+            initializationCount++;
+            super.initialize(propertyType);
+        }
+    }
 }
@@ -0,0 +1,104 @@
+package org.alien4cloud.tosca.catalog;
+
+import static org.junit.Assert.assertSame;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.alien4cloud.tosca.catalog.index.ArchiveIndexer;
+import org.alien4cloud.tosca.model.Csar;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import alien4cloud.common.AlienConstants;
+import alien4cloud.model.components.CSARSource;
+import alien4cloud.suggestions.services.SuggestionService;
+import alien4cloud.tosca.model.ArchiveRoot;
+import alien4cloud.tosca.parser.ParsingContext;
+import alien4cloud.tosca.parser.ParsingError;
+import alien4cloud.tosca.parser.ParsingResult;
+import alien4cloud.utils.FileUtil;
+
+/**
+ * Check that the parsing of an archive is skipped when the same content has already been imported.
+ */
+public class ArchiveUploadServiceTest {
+    private static final String WORKSPACE = AlienConstants.GLOBAL_WORKSPACE_ID;
+
+    @Rule
+    public TemporaryFolder archiveFolder = new TemporaryFolder();
+
+    private ArchiveUploadService archiveUploadService = new ArchiveUploadService();
+    private ArchiveParser parser;
+    private ArchiveIndexer archiveIndexer;
+    private ParsedArchiveCache parsedArchiveCache;
+    private Path archivePath;
+    private ArchiveRoot archiveRoot;
+
+    @Before
+    public void setup() throws Exception {
+        parser = Mockito.mock(ArchiveParser.class);
+        archiveIndexer = Mockito.mock(ArchiveIndexer.class);
+        parsedArchiveCache = new ParsedArchiveCache();
+        ReflectionTestUtils.setField(parsedArchiveCache, "maximumWeight", 100L);
+        parsedArchiveCache.setup();
+        ReflectionTestUtils.setField(archiveUploadService, "parser", parser);
+        ReflectionTestUtils.setField(archiveUploadService, "archiveIndexer", archiveIndexer);
+        ReflectionTestUtils.setField(archiveUploadService, "suggestionService", Mockito.mock(SuggestionService.class));
+        ReflectionTestUtils.setField(archiveUploadService, "parsedArchiveCache", parsedArchiveCache);
+
+        archivePath = archiveFolder.newFolder("archive").toPath();
+        Files.write(archivePath.resolve("types.yml"), "tosca_definitions_version: alien_dsl_1_3_0".getBytes());
+        String hash = FileUtil.deepSHA1(archivePath);
+        archiveRoot = new ArchiveRoot();
+        archiveRoot.getArchive().setName("archive");
+        archiveRoot.getArchive().setVersion("1.0.0");
+        archiveRoot.getArchive().setWorkspace(WORKSPACE);
+        archiveRoot.getArchive().setHash(hash);
+        Mockito.when(parser.parseWithExistingContext(archivePath, hash, WORKSPACE)).thenReturn(new ParsingResult<ArchiveRoot>(archiveRoot, new ParsingContext("archive")));
+    }
+
+    @Test
+    public void alreadyIndexedArchiveShouldNotBeParsedAgain() throws Exception {
+        archiveUploadService.upload(archivePath, CSARSource.UPLOAD, WORKSPACE);
+        Mockito.when(archiveIndexer.isAlreadyIndexed(Mockito.eq(archiveRoot), Mockito.<List<ParsingError>> any())).thenReturn(true);
+
+        ParsingResult<Csar> result = archiveUploadService.upload(archivePath, CSARSource.UPLOAD, WORKSPACE);
+
+        assertSame(archiveRoot.getArchive(), result.getResult());
+        Mockito.verify(parser, Mockito.times(1)).parseWithExistingContext(Mockito.any(Path.class), Mockito.anyString(), Mockito.anyString());
+        Mockito.verify(archiveIndexer, Mockito.times(1)).importArchive(Mockito.eq(archiveRoot), Mockito.eq(CSARSource.UPLOAD), Mockito.eq(archivePath),
+                Mockito.<List<ParsingError>> any());
+    }
+
+    @Test
+    public void archiveNoLongerIndexedShouldBeParsedAgain() throws Exception {
+        archiveUploadService.upload(archivePath, CSARSource.UPLOAD, WORKSPACE);
+        Mockito.when(archiveIndexer.isAlreadyIndexed(Mockito.eq(archiveRoot), Mockito.<List<ParsingError>> any())).thenReturn(false);
+
+        archiveUploadService.upload(archivePath, CSARSource.UPLOAD, WORKSPACE);
+
+        Mockito.verify(parser, Mockito.times(2)).parseWithExistingContext(Mockito.any(Path.class), Mockito.anyString(), Mockito.anyString());
+        Mockito.verify(archiveIndexer, Mockito.times(2)).importArchive(Mockito.eq(archiveRoot), Mockito.eq(CSARSource.UPLOAD), Mockito.eq(archivePath),
+                Mockito.<List<ParsingError>> any());
+    }
+
+    @Test
+    public void changedArchiveShouldBeParsed() throws Exception {
+        archiveUploadService.upload(archivePath, CSARSource.UPLOAD, WORKSPACE);
+        Files.write(archivePath.resolve("types.yml"), "tosca_definitions_version: alien_dsl_1_4_0".getBytes());
+        Mockito.when(archiveIndexer.isAlreadyIndexed(Mockito.any(ArchiveRoot.class), Mockito.<List<ParsingError>> any())).thenReturn(true);
+        Mockito.when(parser.parseWithExistingContext(Mockito.eq(archivePath), Mockito.anyString(), Mockito.eq(WORKSPACE)))
+                .thenReturn(new ParsingResult<ArchiveRoot>(archiveRoot, new ParsingContext("archive")));
+
+        archiveUploadService.upload(archivePath, CSARSource.UPLOAD, WORKSPACE);
+
+        Mockito.verify(parser, Mockito.times(2)).parseWithExistingContext(Mockito.any(Path.class), Mockito.anyString(), Mockito.anyString());
+        Mockito.verify(archiveIndexer, Mockito.never()).isAlreadyIndexed(Mockito.any(ArchiveRoot.class), Mockito.<List<ParsingError>> any());
+    }
+}
@@ -0,0 +1,103 @@
+package org.alien4cloud.tosca.catalog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.alien4cloud.tosca.catalog.events.BeforeArchiveDeleted;
+import org.alien4cloud.tosca.model.templates.NodeTemplate;
+import org.alien4cloud.tosca.model.templates.Topology;
+import org.alien4cloud.tosca.model.types.NodeType;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.common.collect.Maps;
+
+import alien4cloud.tosca.model.ArchiveRoot;
+
+public class ParsedArchiveCacheTest {
+    private static final String WORKSPACE = "ALIEN_GLOBAL_WORKSPACE";
+
+    private ParsedArchiveCache parsedArchiveCache;
+
+    @Before
+    public void setup() {
+        parsedArchiveCache = new ParsedArchiveCache();
+        ReflectionTestUtils.setField(parsedArchiveCache, "maximumWeight", 40L);
+        parsedArchiveCache.setup();
+    }
+
+    private static ArchiveRoot archiveRoot(String name, String hash, int typeCount) {
+        ArchiveRoot archiveRoot = new ArchiveRoot();
+        archiveRoot.getArchive().setName(name);
+        archiveRoot.getArchive().setVersion("1.0.0");
+        archiveRoot.getArchive().setWorkspace(WORKSPACE);
+        archiveRoot.getArchive().setHash(hash);
+        for (int i = 0; i < typeCount; i++) {
+            archiveRoot.getNodeTypes().put("type" + i, new NodeType());
+        }
+        return archiveRoot;
+    }
+
+    @Test
+    public void importedArchiveShouldBeFoundByWorkspaceAndHash() {
+        ArchiveRoot archiveRoot = archiveRoot("archive", "hash", 1);
+        parsedArchiveCache.put(archiveRoot);
+
+        assertSame(archiveRoot, parsedArchiveCache.get(WORKSPACE, "hash"));
+        assertNull(parsedArchiveCache.get(WORKSPACE, "other-hash"));
+        assertNull(parsedArchiveCache.get("other-workspace", "hash"));
+
+        parsedArchiveCache.invalidate(WORKSPACE, "hash");
+        assertNull(parsedArchiveCache.get(WORKSPACE, "hash"));
+    }
+
+    @Test
+    public void archiveWithoutHashShouldNotBeCached() {
+        parsedArchiveCache.put(archiveRoot("archive", null, 1));
+        assertNull(parsedArchiveCache.get(WORKSPACE, null));
+    }
+
+    @Test
+    public void deletedArchiveShouldBeRemoved() {
+        ArchiveRoot archiveRoot = archiveRoot("archive", "hash", 1);
+        parsedArchiveCache.put(archiveRoot);
+        parsedArchiveCache.handleArchiveDeleted(new BeforeArchiveDeleted(this, archiveRoot.getArchive().getId()));
+        assertNull(parsedArchiveCache.get(WORKSPACE, "hash"));
+    }
+
+    @Test
+    public void weightShouldCountTypesAndNodeTemplates() {
+        ArchiveRoot archiveRoot = archiveRoot("archive", "hash", 3);
+        archiveRoot.getCapabilityTypes().put("capability", null);
+        archiveRoot.setTopology(new Topology());
+        archiveRoot.getTopology().setNodeTemplates(Maps.newHashMap());
+        archiveRoot.getTopology().getNodeTemplates().put("node", new NodeTemplate());
+        assertEquals(6, ParsedArchiveCache.weigh(archiveRoot));
+        assertEquals(1, ParsedArchiveCache.weigh(new ArchiveRoot()));
+    }
+
+    @Test
+    public void archivesShouldBeEvictedWhenTheCacheIsTooHeavy() {
+        // an archive heavier than the whole cache is never kept
+        parsedArchiveCache.put(archiveRoot("heavy", "heavy-hash", 50));
+        assertNull(parsedArchiveCache.get(WORKSPACE, "heavy-hash"));
+
+        int cached = 0;
+        for (int i = 0; i < 20; i++) {
+            parsedArchiveCache.put(archiveRoot("archive" + i, "hash" + i, 3));
+        }
+        for (int i = 0; i < 20; i++) {
+            if (parsedArchiveCache.get(WORKSPACE, "hash" + i) != null) {
+                cached++;
+            }
+        }
+        // every archive weighs 4
+        assertTrue(cached > 0);
+        assertTrue(cached <= 10);
+        // the latest import is kept
+        assertEquals("archive19", parsedArchiveCache.get(WORKSPACE, "hash19").getArchive().getName());
+    }
+}
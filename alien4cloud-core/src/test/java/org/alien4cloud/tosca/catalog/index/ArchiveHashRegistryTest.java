@@ -0,0 +1,57 @@
+package org.alien4cloud.tosca.catalog.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.alien4cloud.tosca.catalog.events.AfterArchiveIndexed;
+import org.alien4cloud.tosca.catalog.events.BeforeArchiveDeleted;
+import org.alien4cloud.tosca.model.Csar;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import alien4cloud.tosca.model.ArchiveRoot;
+
+public class ArchiveHashRegistryTest {
+    private ArchiveHashRegistry registry;
+    private ICsarService csarService;
+
+    @Before
+    public void setup() {
+        registry = new ArchiveHashRegistry();
+        csarService = Mockito.mock(ICsarService.class);
+        ReflectionTestUtils.setField(registry, "csarService", csarService);
+    }
+
+    private static Csar csar(String hash) {
+        Csar csar = new Csar("my-types", "1.0.0");
+        csar.setHash(hash);
+        return csar;
+    }
+
+    @Test
+    public void hashShouldBeLoadedOnlyOnce() {
+        Mockito.when(csarService.getOrFail("my-types", "1.0.0")).thenReturn(csar(null));
+        assertNull(registry.getHash("my-types", "1.0.0"));
+        assertNull(registry.getHash("my-types", "1.0.0"));
+        Mockito.verify(csarService, Mockito.times(1)).getOrFail("my-types", "1.0.0");
+        assertEquals(1, registry.getHitCount());
+        assertEquals(1, registry.getMissCount());
+    }
+
+    @Test
+    public void hashShouldBeUpdatedFromEvents() {
+        Mockito.when(csarService.getOrFail("my-types", "1.0.0")).thenReturn(csar("hash"), csar("reloaded-hash"));
+        assertEquals("hash", registry.getHash("my-types", "1.0.0"));
+
+        ArchiveRoot archiveRoot = new ArchiveRoot();
+        archiveRoot.setArchive(csar("new-hash"));
+        registry.handleArchiveIndexed(new AfterArchiveIndexed(this, archiveRoot));
+        assertEquals("new-hash", registry.getHash("my-types", "1.0.0"));
+        Mockito.verify(csarService, Mockito.times(1)).getOrFail("my-types", "1.0.0");
+
+        registry.handleArchiveDeleting(new BeforeArchiveDeleted(this, archiveRoot.getArchive().getId()));
+        assertEquals("reloaded-hash", registry.getHash("my-types", "1.0.0"));
+    }
+}
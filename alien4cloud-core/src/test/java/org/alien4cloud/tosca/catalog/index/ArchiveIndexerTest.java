@@ -0,0 +1,88 @@
+package org.alien4cloud.tosca.catalog.index;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.alien4cloud.tosca.catalog.events.AfterArchiveIndexed;
+import org.alien4cloud.tosca.catalog.repository.ICsarRepositry;
+import org.alien4cloud.tosca.model.types.NodeType;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.common.collect.Lists;
+
+import alien4cloud.dao.model.BulkWriteResult;
+import alien4cloud.model.components.CSARSource;
+import alien4cloud.tosca.model.ArchiveRoot;
+import alien4cloud.tosca.parser.ParsingError;
+import alien4cloud.tosca.parser.ParsingErrorLevel;
+import alien4cloud.tosca.parser.impl.ErrorCode;
+
+/**
+ * Check that an archive whose types cannot all be indexed is not kept in the catalog.
+ */
+public class ArchiveIndexerTest {
+    private ArchiveIndexer archiveIndexer;
+    private ApplicationEventPublisher publisher;
+    private ICsarService csarService;
+    private IToscaTypeIndexerService indexerService;
+    private ArchiveRoot archiveRoot;
+
+    @Before
+    public void setup() {
+        publisher = Mockito.mock(ApplicationEventPublisher.class);
+        csarService = Mockito.mock(ICsarService.class);
+        indexerService = Mockito.mock(IToscaTypeIndexerService.class);
+        archiveIndexer = new ArchiveIndexer();
+        ReflectionTestUtils.setField(archiveIndexer, "publisher", publisher);
+        ReflectionTestUtils.setField(archiveIndexer, "csarService", csarService);
+        ReflectionTestUtils.setField(archiveIndexer, "indexerService", indexerService);
+        ReflectionTestUtils.setField(archiveIndexer, "imageLoader", Mockito.mock(ArchiveImageLoader.class));
+        ReflectionTestUtils.setField(archiveIndexer, "archiveRepositry", Mockito.mock(ICsarRepositry.class));
+        ReflectionTestUtils.setField(archiveIndexer, "archiveIndexerAuthorizationFilter", Mockito.mock(IArchiveIndexerAuthorizationFilter.class));
+
+        archiveRoot = new ArchiveRoot();
+        archiveRoot.getArchive().setName("archive");
+        archiveRoot.getArchive().setVersion("1.0.0-SNAPSHOT");
+        archiveRoot.getArchive().setHash("hash");
+        NodeType nodeType = new NodeType();
+        nodeType.setElementId("org.test.Node");
+        nodeType.setArchiveVersion("1.0.0-SNAPSHOT");
+        archiveRoot.getNodeTypes().put(nodeType.getElementId(), nodeType);
+    }
+
+    @Test
+    public void archiveWithIndexingFailuresShouldBeRemoved() throws Exception {
+        BulkWriteResult result = new BulkWriteResult();
+        result.getFailures().add(new BulkWriteResult.ItemFailure("nodetype", "org.test.Node:1.0.0-SNAPSHOT", "mapper_parsing_exception"));
+        Mockito.when(indexerService.indexArchiveTypes(archiveRoot)).thenReturn(result);
+        List<ParsingError> parsingErrors = Lists.newArrayList();
+        Path archivePath = Paths.get("archive");
+
+        archiveIndexer.importArchive(archiveRoot, CSARSource.UPLOAD, archivePath, parsingErrors);
+
+        assertEquals(1, parsingErrors.size());
+        assertEquals(ParsingErrorLevel.ERROR, parsingErrors.get(0).getErrorLevel());
+        assertEquals(ErrorCode.INDEXING_FAILED, parsingErrors.get(0).getErrorCode());
+        Mockito.verify(csarService).save(archiveRoot.getArchive());
+        Mockito.verify(csarService).deleteCsar(archiveRoot.getArchive());
+        // listeners must not cache a partial set of types
+        Mockito.verify(publisher, Mockito.never()).publishEvent(Mockito.isA(AfterArchiveIndexed.class));
+    }
+
+    @Test
+    public void indexedArchiveShouldBePublished() throws Exception {
+        Mockito.when(indexerService.indexArchiveTypes(archiveRoot)).thenReturn(new BulkWriteResult());
+
+        archiveIndexer.importArchive(archiveRoot, CSARSource.UPLOAD, Paths.get("archive"), Lists.newArrayList());
+
+        Mockito.verify(csarService, Mockito.never()).deleteCsar(archiveRoot.getArchive());
+        Mockito.verify(publisher).publishEvent(Mockito.isA(AfterArchiveIndexed.class));
+    }
+}
@@ -0,0 +1,98 @@
+package org.alien4cloud.tosca.catalog.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.alien4cloud.tosca.catalog.events.BeforeArchiveDeleted;
+import org.alien4cloud.tosca.model.CSARDependency;
+import org.alien4cloud.tosca.model.types.NodeType;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+public class ToscaTypeCacheTest {
+    private ToscaTypeCache cache;
+    private AtomicInteger loadCount;
+
+    @Before
+    public void setup() {
+        cache = new ToscaTypeCache();
+        ReflectionTestUtils.setField(cache, "maximumSize", 100L);
+        cache.setup();
+        loadCount = new AtomicInteger();
+    }
+
+    private Set<CSARDependency> dependencies(String hash) {
+        return Sets.newHashSet(new CSARDependency("tosca-normative-types", "1.0.0", hash), new CSARDependency("my-types", "2.0.0", "my-hash"));
+    }
+
+    private NodeType load(NodeType nodeType) {
+        loadCount.incrementAndGet();
+        return nodeType;
+    }
+
+    @Test
+    public void lookupsInSameDependenciesShouldHitCache() {
+        NodeType nodeType = new NodeType();
+        nodeType.setElementId("tosca.nodes.Root");
+        assertSame(nodeType, cache.get(NodeType.class, "tosca.nodes.Root", dependencies("hash"), () -> load(nodeType)));
+        NodeType cached = cache.get(NodeType.class, "tosca.nodes.Root", dependencies("hash"), () -> load(new NodeType()));
+        assertNotSame(nodeType, cached);
+        assertEquals("tosca.nodes.Root", cached.getElementId());
+        assertEquals(1, loadCount.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        // a different hash means a different content
+        cache.get(NodeType.class, "tosca.nodes.Root", dependencies("other-hash"), () -> load(nodeType));
+        assertEquals(2, loadCount.get());
+    }
+
+    @Test
+    public void missingElementShouldBeCached() {
+        assertNull(cache.get(NodeType.class, "tosca.nodes.Missing", dependencies("hash"), () -> load(null)));
+        assertNull(cache.get(NodeType.class, "tosca.nodes.Missing", dependencies("hash"), () -> load(null)));
+        assertEquals(1, loadCount.get());
+    }
+
+    @Test
+    public void dependenciesWithoutHashShouldNotBeCached() {
+        cache.get(NodeType.class, "tosca.nodes.Root", dependencies(null), () -> load(new NodeType()));
+        cache.get(NodeType.class, "tosca.nodes.Root", dependencies(null), () -> load(new NodeType()));
+        assertEquals(2, loadCount.get());
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void archiveDeletionShouldInvalidateDependentEntries() {
+        cache.get(NodeType.class, "tosca.nodes.Root", dependencies("hash"), () -> load(new NodeType()));
+        cache.get(NodeType.class, "tosca.nodes.Root", Sets.newHashSet(new CSARDependency("other-types", "1.0.0", "hash")), () -> load(new NodeType()));
+        assertEquals(2, cache.getSize());
+
+        cache.handleArchiveDeleting(new BeforeArchiveDeleted(this, "my-types:2.0.0"));
+        assertEquals(1, cache.getSize());
+
+        cache.get(NodeType.class, "tosca.nodes.Root", dependencies("hash"), () -> load(new NodeType()));
+        assertEquals(3, loadCount.get());
+    }
+
+    @Test
+    public void changesToAReturnedElementShouldNotAffectTheCache() {
+        NodeType nodeType = new NodeType();
+        nodeType.setDerivedFrom(Lists.newArrayList("tosca.nodes.Root"));
+        cache.get(NodeType.class, "tosca.nodes.Compute", dependencies("hash"), () -> load(nodeType)).getDerivedFrom().add(0, "tosca.nodes.Compute");
+        NodeType cached = cache.get(NodeType.class, "tosca.nodes.Compute", dependencies("hash"), () -> load(new NodeType()));
+        cached.getDerivedFrom().add(0, "tosca.nodes.Compute");
+
+        assertEquals(Lists.newArrayList("tosca.nodes.Root"),
+                cache.get(NodeType.class, "tosca.nodes.Compute", dependencies("hash"), () -> load(new NodeType())).getDerivedFrom());
+    }
+}
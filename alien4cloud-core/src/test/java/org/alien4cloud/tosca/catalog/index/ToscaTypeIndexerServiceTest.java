@@ -0,0 +1,113 @@
+package org.alien4cloud.tosca.catalog.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+
+import javax.annotation.Resource;
+
+import org.alien4cloud.tosca.model.types.AbstractInheritableToscaType;
+import org.alien4cloud.tosca.model.types.CapabilityType;
+import org.alien4cloud.tosca.model.types.NodeType;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.common.collect.Lists;
+
+import alien4cloud.component.dao.AbstractDAOTest;
+import alien4cloud.dao.IGenericSearchDAO;
+import alien4cloud.dao.RefreshPolicy;
+import alien4cloud.dao.model.BulkWriteResult;
+import alien4cloud.tosca.model.ArchiveRoot;
+
+/**
+ * Check the bulk indexing of the types of an archive and of its local imports.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("classpath:application-context-test.xml")
+public class ToscaTypeIndexerServiceTest extends AbstractDAOTest {
+    private static final String ARCHIVE_NAME = "indexed-archive";
+    private static final String ARCHIVE_VERSION = "1.0.0";
+    private static final int BULK_SIZE = 3;
+
+    @Resource(name = "alien-es-dao")
+    private IGenericSearchDAO dao;
+
+    private ToscaTypeIndexerService indexerService;
+
+    @Before
+    public void setup() {
+        indexerService = new ToscaTypeIndexerService();
+        ReflectionTestUtils.setField(indexerService, "alienDAO", dao);
+        ReflectionTestUtils.setField(indexerService, "indexingBulkSize", BULK_SIZE);
+    }
+
+    private static <T extends AbstractInheritableToscaType> T type(T type, String elementId) {
+        type.setElementId(elementId);
+        type.setArchiveName(ARCHIVE_NAME);
+        type.setArchiveVersion(ARCHIVE_VERSION);
+        return type;
+    }
+
+    /**
+     * @return An archive with 3 node types and a capability type that locally imports a definition with 3 more node types.
+     */
+    private static ArchiveRoot archiveWithLocalImport() {
+        ArchiveRoot root = new ArchiveRoot();
+        root.getArchive().setName(ARCHIVE_NAME);
+        root.getArchive().setVersion(ARCHIVE_VERSION);
+        for (int i = 0; i < 3; i++) {
+            root.getNodeTypes().put("org.test.Root" + i, type(new NodeType(), "org.test.Root" + i));
+        }
+        root.getCapabilityTypes().put("org.test.Capability", type(new CapabilityType(), "org.test.Capability"));
+
+        ArchiveRoot localImport = new ArchiveRoot();
+        for (int i = 0; i < 3; i++) {
+            localImport.getNodeTypes().put("org.test.Imported" + i, type(new NodeType(), "org.test.Imported" + i));
+        }
+        root.setLocalImports(Lists.newArrayList(localImport));
+        return root;
+    }
+
+    @Test
+    public void typesShouldBeIndexedInBulksOfTheConfiguredSize() {
+        BulkWriteResult result = indexerService.indexArchiveTypes(archiveWithLocalImport());
+
+        assertTrue(result.isSuccess());
+        assertEquals(7, result.getItemCount());
+        assertEquals(3, result.getRequestCount());
+        assertEquals(6, dao.count(NodeType.class, QueryBuilders.termQuery("archiveName", ARCHIVE_NAME)));
+        assertNotNull(dao.findById(NodeType.class, "org.test.Imported2:" + ARCHIVE_VERSION));
+        assertNotNull(dao.findById(CapabilityType.class, "org.test.Capability:" + ARCHIVE_VERSION));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void bulkFailuresShouldBeReported() {
+        IGenericSearchDAO failingDAO = Mockito.mock(IGenericSearchDAO.class);
+        BulkWriteResult failedResult = new BulkWriteResult();
+        failedResult.setItemCount(7);
+        failedResult.setRequestCount(3);
+        failedResult.getFailures().add(new BulkWriteResult.ItemFailure("nodetype", "org.test.Imported2:" + ARCHIVE_VERSION, "mapper_parsing_exception"));
+        Mockito.when(failingDAO.bulkSave(Mockito.anyCollection(), Mockito.anyInt(), Mockito.any(RefreshPolicy.class))).thenReturn(failedResult);
+        ReflectionTestUtils.setField(indexerService, "alienDAO", failingDAO);
+
+        BulkWriteResult result = indexerService.indexArchiveTypes(archiveWithLocalImport());
+
+        assertFalse(result.isSuccess());
+        assertEquals("org.test.Imported2:" + ARCHIVE_VERSION, result.getFailures().get(0).getId());
+        ArgumentCaptor<Collection> types = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(failingDAO).bulkSave(types.capture(), Mockito.eq(BULK_SIZE), Mockito.eq(RefreshPolicy.IMMEDIATE));
+        assertEquals(7, types.getValue().size());
+    }
+}
@@ -0,0 +1,51 @@
+package org.alien4cloud.tosca.catalog.index;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Set;
+
+import org.alien4cloud.tosca.model.CSARDependency;
+import org.alien4cloud.tosca.model.types.NodeType;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import alien4cloud.dao.IGenericSearchDAO;
+
+public class ToscaTypeSearchServiceTest {
+    private ToscaTypeSearchService searchService;
+    private IGenericSearchDAO searchDAO;
+
+    @Before
+    public void setup() {
+        ToscaTypeCache toscaTypeCache = new ToscaTypeCache();
+        ReflectionTestUtils.setField(toscaTypeCache, "maximumSize", 100L);
+        toscaTypeCache.setup();
+        searchDAO = Mockito.mock(IGenericSearchDAO.class);
+        searchService = new ToscaTypeSearchService();
+        ReflectionTestUtils.setField(searchService, "searchDAO", searchDAO);
+        ReflectionTestUtils.setField(searchService, "toscaTypeCache", toscaTypeCache);
+    }
+
+    @Test
+    public void modifyingAResolvedTypeShouldNotChangeLaterLookups() {
+        NodeType compute = new NodeType();
+        compute.setElementId("tosca.nodes.Compute");
+        compute.setArchiveVersion("1.0.0");
+        compute.setDerivedFrom(Lists.newArrayList("tosca.nodes.Root"));
+        Mockito.when(searchDAO.customFindAll(Mockito.eq(NodeType.class), Mockito.any(QueryBuilder.class))).thenReturn(Lists.newArrayList(compute));
+        Set<CSARDependency> dependencies = Sets.newHashSet(new CSARDependency("tosca-normative-types", "1.0.0", "hash"));
+
+        NodeType first = searchService.getRequiredElementInDependencies(NodeType.class, "tosca.nodes.Compute", dependencies);
+        first.getDerivedFrom().add(0, first.getElementId());
+        NodeType second = searchService.getRequiredElementInDependencies(NodeType.class, "tosca.nodes.Compute", dependencies);
+
+        assertEquals(Lists.newArrayList("tosca.nodes.Root"), second.getDerivedFrom());
+        Mockito.verify(searchDAO, Mockito.times(1)).customFindAll(Mockito.eq(NodeType.class), Mockito.any(QueryBuilder.class));
+    }
+}
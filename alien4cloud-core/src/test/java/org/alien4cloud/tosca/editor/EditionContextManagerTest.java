@@ -0,0 +1,120 @@
+package org.alien4cloud.tosca.editor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.alien4cloud.tosca.catalog.index.ICsarService;
+import org.alien4cloud.tosca.editor.operations.AbstractEditorOperation;
+import org.alien4cloud.tosca.model.Csar;
+import org.alien4cloud.tosca.model.templates.Topology;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.common.base.Throwables;
+
+import alien4cloud.exception.NotFoundException;
+import alien4cloud.topology.TopologyServiceCore;
+
+/**
+ * Check that the edition lane of a topology is released when the edition context of the topology cannot be loaded.
+ */
+public class EditionContextManagerTest {
+    private static final String TOPOLOGY_ID = "topology:1.0.0-SNAPSHOT";
+
+    @Rule
+    public TemporaryFolder gitFolder = new TemporaryFolder();
+
+    private EditionContextManager editionContextManager;
+    private ICsarService csarService;
+    private ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @Before
+    public void setup() throws IOException {
+        csarService = Mockito.mock(ICsarService.class);
+        TopologyServiceCore topologyServiceCore = Mockito.mock(TopologyServiceCore.class);
+        EditorRepositoryService repositoryService = Mockito.mock(EditorRepositoryService.class);
+        // the first load of the context fails
+        Mockito.when(csarService.getOrFail(TOPOLOGY_ID)).thenThrow(new NotFoundException("Csar not found")).thenReturn(new Csar("topology", "1.0.0-SNAPSHOT"));
+        Mockito.when(topologyServiceCore.getOrFail(TOPOLOGY_ID)).thenReturn(new Topology());
+        Mockito.when(repositoryService.createGitDirectory(Mockito.any(Csar.class))).thenReturn(gitFolder.getRoot().toPath());
+
+        editionContextManager = new EditionContextManager();
+        ReflectionTestUtils.setField(editionContextManager, "csarService", csarService);
+        ReflectionTestUtils.setField(editionContextManager, "topologyServiceCore", topologyServiceCore);
+        ReflectionTestUtils.setField(editionContextManager, "repositoryService", repositoryService);
+        ReflectionTestUtils.setField(editionContextManager, "laneTimeoutMs", 1000L);
+        editionContextManager.setup();
+    }
+
+    @After
+    public void cleanup() {
+        executor.shutdownNow();
+    }
+
+    private void assertLoadFailure(Runnable initialization) {
+        try {
+            initialization.run();
+            fail("The edition context should not be loaded");
+        } catch (Exception e) {
+            assertTrue(Throwables.getRootCause(e) instanceof NotFoundException);
+        }
+    }
+
+    @Test
+    public void laneShouldBeReleasedWhenTheContextCannotBeLoaded() throws Exception {
+        assertLoadFailure(() -> {
+            try {
+                editionContextManager.init(TOPOLOGY_ID);
+            } finally {
+                editionContextManager.destroy();
+            }
+        });
+
+        // another thread can edit the topology
+        Future<Csar> csar = executor.submit(() -> {
+            editionContextManager.init(TOPOLOGY_ID);
+            try {
+                return EditionContextManager.getCsar();
+            } finally {
+                editionContextManager.destroy();
+            }
+        });
+        assertEquals("topology", csar.get(5, TimeUnit.SECONDS).getName());
+        assertEquals(0, editionContextManager.getQueueDepth(TOPOLOGY_ID));
+    }
+
+    @Test
+    public void editorShouldReportTheLoadFailureAndReleaseTheLane() throws Exception {
+        EditorService editorService = new EditorService();
+        ReflectionTestUtils.setField(editorService, "editionContextManager", editionContextManager);
+        AbstractEditorOperation operation = new AbstractEditorOperation() {
+            @Override
+            public String commitMessage() {
+                return "noop";
+            }
+        };
+
+        // the load error is not hidden by the release of the context
+        assertLoadFailure(() -> editorService.execute(TOPOLOGY_ID, operation));
+
+        Future<Object> lane = executor.submit(() -> {
+            editionContextManager.init(TOPOLOGY_ID);
+            editionContextManager.destroy();
+            return null;
+        });
+        lane.get(5, TimeUnit.SECONDS);
+        Mockito.verify(csarService, Mockito.times(2)).getOrFail(TOPOLOGY_ID);
+    }
+}
@@ -0,0 +1,231 @@
+package org.alien4cloud.tosca.editor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.alien4cloud.tosca.catalog.index.ICsarService;
+import org.alien4cloud.tosca.editor.operations.AbstractEditorOperation;
+import org.alien4cloud.tosca.editor.processors.IEditorOperationProcessor;
+import org.alien4cloud.tosca.editor.processors.IEditorUndoableProcessor;
+import org.alien4cloud.tosca.editor.services.EditorTopologyRecoveryHelperService;
+import org.alien4cloud.tosca.model.Csar;
+import org.alien4cloud.tosca.model.templates.NodeTemplate;
+import org.alien4cloud.tosca.model.templates.Topology;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import alien4cloud.dao.ElasticSearchMapper;
+import alien4cloud.security.model.User;
+import alien4cloud.topology.TopologyDTO;
+import alien4cloud.topology.TopologyService;
+import alien4cloud.topology.TopologyServiceCore;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Undo and redo operations through the undo processors and through the restore of snapshots followed by the replay of operations.
+ */
+public class EditorServiceUndoRedoTest {
+    private static final String TOPOLOGY_ID = "topology:1.0.0-SNAPSHOT";
+    private static final int OPERATION_COUNT = 12;
+
+    @Rule
+    public TemporaryFolder gitFolder = new TemporaryFolder();
+
+    private EditorService editorService;
+    private UpdateDescriptionProcessor updateDescriptionProcessor = new UpdateDescriptionProcessor();
+    private AddNodeProcessor addNodeProcessor = new AddNodeProcessor();
+    /** The edition context of the topology as passed to the dto builder. */
+    private EditionContext editionContext;
+    /** The id of the last operation applied to the topology under edition. */
+    private String lastOperationId;
+
+    @Before
+    public void setup() throws IOException {
+        ICsarService csarService = Mockito.mock(ICsarService.class);
+        TopologyServiceCore topologyServiceCore = Mockito.mock(TopologyServiceCore.class);
+        EditorRepositoryService repositoryService = Mockito.mock(EditorRepositoryService.class);
+        Mockito.when(csarService.getOrFail(TOPOLOGY_ID)).thenReturn(new Csar("topology", "1.0.0-SNAPSHOT"));
+        // the saved topology is loaded again when the edition is reset
+        Mockito.when(topologyServiceCore.getOrFail(TOPOLOGY_ID)).thenAnswer(invocation -> {
+            Topology topology = new Topology();
+            topology.setArchiveName("topology");
+            topology.setArchiveVersion("1.0.0-SNAPSHOT");
+            topology.setDescription("saved");
+            return topology;
+        });
+        Mockito.when(repositoryService.createGitDirectory(Mockito.any(Csar.class))).thenReturn(gitFolder.getRoot().toPath());
+
+        EditionContextManager editionContextManager = new EditionContextManager();
+        ReflectionTestUtils.setField(editionContextManager, "csarService", csarService);
+        ReflectionTestUtils.setField(editionContextManager, "topologyServiceCore", topologyServiceCore);
+        ReflectionTestUtils.setField(editionContextManager, "repositoryService", repositoryService);
+        editionContextManager.setup();
+
+        EditorTopologyRecoveryHelperService recoveryHelperService = Mockito.mock(EditorTopologyRecoveryHelperService.class);
+        TopologyDTOBuilder dtoBuilder = Mockito.mock(TopologyDTOBuilder.class);
+        Mockito.when(dtoBuilder.buildTopologyDTO(Mockito.any(EditionContext.class))).thenAnswer(invocation -> {
+            editionContext = (EditionContext) invocation.getArguments()[0];
+            return new TopologyDTO();
+        });
+
+        editorService = new EditorService();
+        ReflectionTestUtils.setField(editorService, "editionContextManager", editionContextManager);
+        ReflectionTestUtils.setField(editorService, "topologyService", Mockito.mock(TopologyService.class));
+        ReflectionTestUtils.setField(editorService, "topologyServiceCore", topologyServiceCore);
+        ReflectionTestUtils.setField(editorService, "recoveryHelperService", recoveryHelperService);
+        ReflectionTestUtils.setField(editorService, "dtoBuilder", dtoBuilder);
+        ReflectionTestUtils.setField(editorService, "undoSnapshotInterval", 3);
+        ReflectionTestUtils.setField(editorService, "undoMaxSnapshots", 2);
+        Map<Class<?>, IEditorOperationProcessor<?>> processorMap = (Map<Class<?>, IEditorOperationProcessor<?>>) ReflectionTestUtils.getField(editorService,
+                "processorMap");
+        processorMap.put(UpdateDescriptionOperation.class, updateDescriptionProcessor);
+        processorMap.put(AddNodeOperation.class, addNodeProcessor);
+
+        User user = new User();
+        user.setUsername("editor");
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null, Collections.emptyList()));
+    }
+
+    @After
+    public void cleanup() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void undoAndRedoShouldRestoreTheTopologyOfEveryOperation() throws IOException {
+        // expected topologies by operation index + 1 (0 is the saved topology)
+        List<JsonNode> expectedTopologies = Lists.newArrayList();
+        editorService.undoRedo(TOPOLOGY_ID, -1, null);
+        expectedTopologies.add(toJson(editionContext.getTopology()));
+        for (int i = 0; i < OPERATION_COUNT; i++) {
+            // every fourth operation cannot be undone through its processor
+            AbstractEditorOperation operation = i % 4 == 1 ? new AddNodeOperation("node_" + i) : new UpdateDescriptionOperation("description " + i, null);
+            operation.setPreviousOperationId(lastOperationId);
+            editorService.execute(TOPOLOGY_ID, operation);
+            lastOperationId = operation.getId();
+            expectedTopologies.add(toJson(editionContext.getTopology()));
+        }
+        assertTrue("Snapshots should be bounded", editionContext.getSnapshotCount() <= 3);
+
+        for (int at = OPERATION_COUNT - 2; at >= -1; at--) {
+            undoRedo(OPERATION_COUNT - 1);
+            undoRedo(at);
+            assertEquals("Undo to operation " + at, expectedTopologies.get(at + 1), toJson(editionContext.getTopology()));
+            undoRedo(OPERATION_COUNT - 1);
+            assertEquals("Redo from operation " + at, expectedTopologies.get(OPERATION_COUNT), toJson(editionContext.getTopology()));
+            assertTrue("Snapshots should be bounded", editionContext.getSnapshotCount() <= 3);
+        }
+
+        // both the undo processors and the snapshots have been used to undo operations
+        assertTrue(updateDescriptionProcessor.undoCount > 0);
+        assertTrue(addNodeProcessor.processCount > OPERATION_COUNT / 4);
+    }
+
+    @Test
+    public void undoStepByStepShouldRestoreTheTopologyOfEveryOperation() throws IOException {
+        List<JsonNode> expectedTopologies = Lists.newArrayList();
+        editorService.undoRedo(TOPOLOGY_ID, -1, null);
+        expectedTopologies.add(toJson(editionContext.getTopology()));
+        for (int i = 0; i < OPERATION_COUNT; i++) {
+            AbstractEditorOperation operation = i % 4 == 1 ? new AddNodeOperation("node_" + i) : new UpdateDescriptionOperation("description " + i, null);
+            operation.setPreviousOperationId(lastOperationId);
+            editorService.execute(TOPOLOGY_ID, operation);
+            lastOperationId = operation.getId();
+            expectedTopologies.add(toJson(editionContext.getTopology()));
+        }
+
+        for (int at = OPERATION_COUNT - 2; at >= -1; at--) {
+            undoRedo(at);
+            assertEquals("Undo to operation " + at, expectedTopologies.get(at + 1), toJson(editionContext.getTopology()));
+        }
+        for (int at = 0; at < OPERATION_COUNT; at++) {
+            undoRedo(at);
+            assertEquals("Redo to operation " + at, expectedTopologies.get(at + 1), toJson(editionContext.getTopology()));
+        }
+    }
+
+    private void undoRedo(int at) {
+        editorService.undoRedo(TOPOLOGY_ID, at, lastOperationId);
+        lastOperationId = at == -1 ? null : editionContext.getOperations().get(at).getId();
+    }
+
+    private JsonNode toJson(Topology topology) throws IOException {
+        return ElasticSearchMapper.getInstance().readTree(ElasticSearchMapper.getInstance().writeValueAsBytes(topology));
+    }
+
+    @Getter
+    @Setter
+    @AllArgsConstructor(suppressConstructorProperties = true)
+    private static class UpdateDescriptionOperation extends AbstractEditorOperation {
+        private String description;
+        private String previousDescription;
+
+        @Override
+        public String commitMessage() {
+            return "update description";
+        }
+    }
+
+    @Getter
+    @Setter
+    @AllArgsConstructor(suppressConstructorProperties = true)
+    private static class AddNodeOperation extends AbstractEditorOperation {
+        private String nodeName;
+
+        @Override
+        public String commitMessage() {
+            return "add node " + nodeName;
+        }
+    }
+
+    private static class UpdateDescriptionProcessor implements IEditorUndoableProcessor<UpdateDescriptionOperation> {
+        private int undoCount;
+
+        @Override
+        public void process(UpdateDescriptionOperation operation) {
+            operation.setPreviousDescription(EditionContextManager.getTopology().getDescription());
+            EditionContextManager.getTopology().setDescription(operation.getDescription());
+        }
+
+        @Override
+        public void undo(UpdateDescriptionOperation operation) {
+            undoCount++;
+            EditionContextManager.getTopology().setDescription(operation.getPreviousDescription());
+        }
+    }
+
+    private static class AddNodeProcessor implements IEditorOperationProcessor<AddNodeOperation> {
+        private int processCount;
+
+        @Override
+        public void process(AddNodeOperation operation) {
+            processCount++;
+            Topology topology = EditionContextManager.getTopology();
+            if (topology.getNodeTemplates() == null) {
+                topology.setNodeTemplates(Maps.newLinkedHashMap());
+            }
+            NodeTemplate nodeTemplate = new NodeTemplate();
+            nodeTemplate.setName(operation.getNodeName());
+            nodeTemplate.setType("tosca.nodes.Root");
+            topology.getNodeTemplates().put(operation.getNodeName(), nodeTemplate);
+        }
+    }
+}
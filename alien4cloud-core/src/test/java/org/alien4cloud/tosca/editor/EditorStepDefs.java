@@ -18,6 +18,7 @@ import javax.inject.Inject;
 import org.alien4cloud.tosca.catalog.ArchiveUploadService;
 import org.alien4cloud.tosca.catalog.index.ICsarService;
 import org.alien4cloud.tosca.catalog.index.ITopologyCatalogService;
+import org.alien4cloud.tosca.catalog.index.ToscaTypeCache;
 import org.alien4cloud.tosca.editor.operations.AbstractEditorOperation;
 import org.alien4cloud.tosca.editor.operations.UpdateFileOperation;
 import org.alien4cloud.tosca.model.Csar;
@@ -88,6 +89,8 @@ public class EditorStepDefs {
     @Inject
     private EditionContextManager editionContextManager;
     @Inject
+    private ToscaTypeCache toscaTypeCache;
+    @Inject
     private ICsarService csarService;
     @Inject
     private ITopologyCatalogService catalogService;
@@ -248,6 +251,7 @@ public class EditorStepDefs {
         for (Class<?> type : typesToClean) {
             alienDAO.delete(type, QueryBuilders.matchAllQuery());
         }
+        toscaTypeCache.clear();
     }
 
     // // @When("^I get the topology related to the template with name \"(.*?)\"$")
@@ -0,0 +1,207 @@
+package org.alien4cloud.tosca.editor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.alien4cloud.tosca.editor.operations.AbstractEditorOperation;
+import org.alien4cloud.tosca.editor.operations.nodetemplate.AddNodeOperation;
+import org.alien4cloud.tosca.editor.operations.nodetemplate.DeleteNodeOperation;
+import org.alien4cloud.tosca.editor.operations.nodetemplate.RenameNodeOperation;
+import org.alien4cloud.tosca.editor.operations.nodetemplate.UpdateNodePropertyValueOperation;
+import org.alien4cloud.tosca.editor.operations.workflow.RenameWorkflowOperation;
+import org.alien4cloud.tosca.model.Csar;
+import org.alien4cloud.tosca.model.definitions.CapabilityDefinition;
+import org.alien4cloud.tosca.model.definitions.ScalarPropertyValue;
+import org.alien4cloud.tosca.model.templates.NodeTemplate;
+import org.alien4cloud.tosca.model.templates.RelationshipTemplate;
+import org.alien4cloud.tosca.model.templates.Topology;
+import org.alien4cloud.tosca.model.types.AbstractToscaType;
+import org.alien4cloud.tosca.model.types.CapabilityType;
+import org.alien4cloud.tosca.model.types.NodeType;
+import org.alien4cloud.tosca.model.types.RelationshipType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import alien4cloud.topology.TopologyDeltaDTO;
+import alien4cloud.tosca.context.ToscaContext;
+import alien4cloud.tosca.model.ArchiveRoot;
+
+/**
+ * Check the changes of the topology dto sent to editor clients after an operation.
+ */
+public class TopologyDTOBuilderTest {
+    private TopologyDTOBuilder dtoBuilder = new TopologyDTOBuilder();
+    private EditionContext context;
+    private Topology topology;
+
+    @Before
+    public void setup() {
+        ArchiveRoot archiveRoot = new ArchiveRoot();
+        archiveRoot.getArchive().setName("test-types");
+        archiveRoot.getArchive().setVersion("1.0.0");
+        NodeType computeType = type(new NodeType(), "test.nodes.Compute");
+        computeType.setCapabilities(Lists.newArrayList());
+        computeType.setRequirements(Lists.newArrayList());
+        archiveRoot.getNodeTypes().put(computeType.getElementId(), computeType);
+        NodeType databaseType = type(new NodeType(), "test.nodes.Database");
+        databaseType.setCapabilities(Lists.newArrayList(new CapabilityDefinition("database_endpoint", "test.capabilities.Endpoint", 1)));
+        databaseType.setRequirements(Lists.newArrayList());
+        archiveRoot.getNodeTypes().put(databaseType.getElementId(), databaseType);
+        archiveRoot.getCapabilityTypes().put("test.capabilities.Endpoint", type(new CapabilityType(), "test.capabilities.Endpoint"));
+        archiveRoot.getRelationshipTypes().put("test.relationships.HostedOn", type(new RelationshipType(), "test.relationships.HostedOn"));
+        ToscaContext.init(Sets.newHashSet());
+        ToscaContext.get().register(archiveRoot);
+
+        topology = new Topology();
+        topology.setArchiveName("topology");
+        topology.setArchiveVersion("1.0.0-SNAPSHOT");
+        Map<String, NodeTemplate> nodeTemplates = Maps.newHashMap();
+        nodeTemplates.put("compute", nodeTemplate("compute", "test.nodes.Compute"));
+        nodeTemplates.put("other_compute", nodeTemplate("other_compute", "test.nodes.Compute"));
+        NodeTemplate software = nodeTemplate("software", "test.nodes.Compute");
+        RelationshipTemplate hostedOn = new RelationshipTemplate();
+        hostedOn.setName("hostedOn");
+        hostedOn.setType("test.relationships.HostedOn");
+        hostedOn.setTarget("compute");
+        software.setRelationships(Maps.newHashMap());
+        software.getRelationships().put("hostedOn", hostedOn);
+        nodeTemplates.put("software", software);
+        topology.setNodeTemplates(nodeTemplates);
+
+        context = new EditionContext();
+        context.setCsar(new Csar("topology", "1.0.0-SNAPSHOT"));
+        context.setTopology(topology);
+    }
+
+    @After
+    public void cleanup() {
+        ToscaContext.destroy();
+    }
+
+    @Test
+    public void changedNodeTemplateShouldBeTheOnlyNodeTemplateOfTheDelta() {
+        TopologyDTOFingerprint previous = dtoBuilder.getFingerprint(context);
+        topology.getNodeTemplates().get("compute").getProperties().put("size", new ScalarPropertyValue("large"));
+        UpdateNodePropertyValueOperation operation = new UpdateNodePropertyValueOperation();
+        operation.setNodeName("compute");
+
+        TopologyDeltaDTO delta = buildDelta(operation, previous);
+
+        assertEquals(Sets.newHashSet("compute"), delta.getNodeTemplates().keySet());
+        assertTrue(delta.getRemovedNodeTemplates().isEmpty());
+        assertTrue(delta.getTopologyChanges().isEmpty());
+        assertTrue(delta.getNodeTypes().isEmpty());
+        assertNull(delta.getArchiveContentTree());
+    }
+
+    @Test
+    public void unchangedNodeTemplateShouldNotBePartOfTheDelta() {
+        TopologyDTOFingerprint previous = dtoBuilder.getFingerprint(context);
+        UpdateNodePropertyValueOperation operation = new UpdateNodePropertyValueOperation();
+        operation.setNodeName("compute");
+
+        TopologyDeltaDTO delta = buildDelta(operation, previous);
+
+        assertTrue(delta.getNodeTemplates().isEmpty());
+    }
+
+    @Test
+    public void removedNodeTemplateShouldBePartOfTheDelta() {
+        TopologyDTOFingerprint previous = dtoBuilder.getFingerprint(context);
+        topology.getNodeTemplates().remove("other_compute");
+        DeleteNodeOperation operation = new DeleteNodeOperation();
+        operation.setNodeName("other_compute");
+
+        TopologyDeltaDTO delta = buildDelta(operation, previous);
+
+        assertTrue(delta.getNodeTemplates().isEmpty());
+        assertEquals(Sets.newHashSet("other_compute"), delta.getRemovedNodeTemplates());
+    }
+
+    @Test
+    public void addedNodeTemplateShouldBePartOfTheDeltaWithItsNewTypes() {
+        TopologyDTOFingerprint previous = dtoBuilder.getFingerprint(context);
+        topology.getNodeTemplates().put("database", nodeTemplate("database", "test.nodes.Database"));
+        topology.getNodeTemplates().put("compute_2", nodeTemplate("compute_2", "test.nodes.Compute"));
+        AddNodeOperation operation = new AddNodeOperation();
+        operation.setNodeName("database");
+
+        TopologyDeltaDTO delta = buildDelta(operation, previous);
+
+        assertEquals(Sets.newHashSet("database", "compute_2"), delta.getNodeTemplates().keySet());
+        // types already known by the client are not sent again
+        assertEquals(Sets.newHashSet("test.nodes.Database"), delta.getNodeTypes().keySet());
+        assertEquals(Sets.newHashSet("test.capabilities.Endpoint"), delta.getCapabilityTypes().keySet());
+        assertTrue(delta.getRelationshipTypes().isEmpty());
+
+        // the new types are known after the delta
+        topology.getNodeTemplates().get("database").getProperties().put("port", new ScalarPropertyValue("3306"));
+        UpdateNodePropertyValueOperation nextOperation = new UpdateNodePropertyValueOperation();
+        nextOperation.setNodeName("database");
+        TopologyDeltaDTO nextDelta = buildDelta(nextOperation, context.getDtoFingerprint());
+        assertEquals(Sets.newHashSet("database"), nextDelta.getNodeTemplates().keySet());
+        assertTrue(nextDelta.getNodeTypes().isEmpty());
+        assertTrue(nextDelta.getCapabilityTypes().isEmpty());
+    }
+
+    @Test
+    public void nodeTemplatesChangedByAMultiNodeOperationShouldBePartOfTheDelta() {
+        TopologyDTOFingerprint previous = dtoBuilder.getFingerprint(context);
+        NodeTemplate compute = topology.getNodeTemplates().remove("compute");
+        compute.setName("server");
+        topology.getNodeTemplates().put("server", compute);
+        topology.getNodeTemplates().get("software").getRelationships().get("hostedOn").setTarget("server");
+        RenameNodeOperation operation = new RenameNodeOperation();
+        operation.setNodeName("compute");
+        operation.setNewName("server");
+
+        TopologyDeltaDTO delta = buildDelta(operation, previous);
+
+        assertEquals(Sets.newHashSet("server", "software"), delta.getNodeTemplates().keySet());
+        assertEquals(Sets.newHashSet("compute"), delta.getRemovedNodeTemplates());
+        assertTrue(delta.getRelationshipTypes().isEmpty());
+    }
+
+    @Test
+    public void topologyPropertiesChangesShouldBePartOfTheDelta() {
+        TopologyDTOFingerprint previous = dtoBuilder.getFingerprint(context);
+        topology.setDescription("new description");
+        RenameWorkflowOperation operation = new RenameWorkflowOperation();
+
+        TopologyDeltaDTO delta = buildDelta(operation, previous);
+
+        assertEquals(Sets.newHashSet("description"), delta.getTopologyChanges().keySet());
+        assertEquals("new description", delta.getTopologyChanges().get("description").asText());
+        assertTrue(delta.getNodeTemplates().isEmpty());
+    }
+
+    private TopologyDeltaDTO buildDelta(AbstractEditorOperation operation, TopologyDTOFingerprint previous) {
+        operation.setId("operation-" + context.getOperations().size());
+        context.getOperations().add(operation);
+        context.setLastOperationIndex(context.getOperations().size() - 1);
+        return dtoBuilder.buildTopologyDeltaDTO(context, previous);
+    }
+
+    private static NodeTemplate nodeTemplate(String name, String type) {
+        NodeTemplate nodeTemplate = new NodeTemplate();
+        nodeTemplate.setName(name);
+        nodeTemplate.setType(type);
+        nodeTemplate.setProperties(Maps.newHashMap());
+        return nodeTemplate;
+    }
+
+    private static <T extends AbstractToscaType> T type(T type, String elementId) {
+        type.setElementId(elementId);
+        type.setArchiveName("test-types");
+        type.setArchiveVersion("1.0.0");
+        return type;
+    }
+}
@@ -4,18 +4,30 @@ import java.io.IOException;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.elasticsearch.action.bulk.BulkItemResponse;
 import org.elasticsearch.action.bulk.BulkRequestBuilder;
+import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.get.GetResponse;
 import org.elasticsearch.action.get.MultiGetItemResponse;
 import org.elasticsearch.action.get.MultiGetResponse;
 import org.elasticsearch.common.collect.Lists;
 import org.elasticsearch.mapping.MappingBuilder;
+import org.springframework.beans.factory.annotation.Value;
 
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import alien4cloud.dao.model.BulkWriteResult;
 import alien4cloud.exception.IndexingServiceException;
 import alien4cloud.model.common.IUpdatedDate;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.SneakyThrows;
 
 /**
@@ -24,6 +36,36 @@ import lombok.SneakyThrows;
  * @author luc boutier
  */
 public abstract class ESGenericIdDAO extends ESIndexMapper implements IGenericIdDAO {
+    /** Refresh policy used for classes that don't have a specific policy configured. */
+    @Getter
+    @Setter
+    private RefreshPolicy defaultRefreshPolicy = RefreshPolicy.IMMEDIATE;
+    private final Map<Class<?>, RefreshPolicy> refreshPolicies = Maps.newConcurrentMap();
+    @Getter
+    private final IndexRefreshCoalescer refreshCoalescer = new IndexRefreshCoalescer(this);
+
+    @Value("${elasticSearch.refresh_coalescing_window_ms:1000}")
+    public void setRefreshCoalescingWindowMs(long refreshCoalescingWindowMs) {
+        refreshCoalescer.setCoalescingWindowMs(refreshCoalescingWindowMs);
+    }
+
+    /**
+     * Configure the refresh policy to use when saving or deleting instances of the given classes without explicit refresh policy.
+     *
+     * @param refreshPolicy The refresh policy to use.
+     * @param classes The classes for which to use the given refresh policy.
+     */
+    protected void setRefreshPolicy(RefreshPolicy refreshPolicy, Class<?>... classes) {
+        for (Class<?> clazz : classes) {
+            refreshPolicies.put(clazz, refreshPolicy);
+        }
+    }
+
+    @Override
+    public RefreshPolicy getRefreshPolicy(Class<?> clazz) {
+        RefreshPolicy refreshPolicy = refreshPolicies.get(clazz);
+        return refreshPolicy == null ? defaultRefreshPolicy : refreshPolicy;
+    }
 
     @Override
     public <T> boolean exist(Class<T> clazz, String id) {
@@ -48,32 +90,154 @@ public abstract class ESGenericIdDAO extends ESIndexMapper implements IGenericId
     }
 
     @Override
-    @SneakyThrows({ IOException.class })
     public <T> void save(T data) {
-        String indexName = getIndexForType(data.getClass());
+        save(data, getRefreshPolicy(data.getClass()));
+    }
+
+    @Override
+    @SneakyThrows({ IOException.class })
+    public <T> void save(T data, RefreshPolicy refreshPolicy) {
+        String indexName = getWriteIndexForType(data.getClass());
         String typeName = MappingBuilder.indexTypeFromClass(data.getClass());
 
         updateDate(data);
         String json = getJsonMapper().writeValueAsString(data);
-        getClient().prepareIndex(indexName, typeName).setOperationThreaded(false).setSource(json).setRefresh(true).execute().actionGet();
+        boolean refresh = refreshCoalescer.onWrite(indexName, refreshPolicy);
+        getClient().prepareIndex(indexName, typeName).setOperationThreaded(false).setSource(json).setRefresh(refresh).execute().actionGet();
     }
 
     @Override
-    @SneakyThrows({ IOException.class })
     public <T> void save(T[] entities) {
         if (entities == null || entities.length == 0) {
             return;
         }
-        BulkRequestBuilder bulkRequestBuilder = getClient().prepareBulk().setRefresh(true);
+        // use the most restrictive policy of the saved entities.
+        RefreshPolicy refreshPolicy = RefreshPolicy.DEFERRED;
         for (T data : entities) {
-            String indexName = getIndexForType(data.getClass());
+            RefreshPolicy entityPolicy = getRefreshPolicy(data.getClass());
+            if (entityPolicy.ordinal() < refreshPolicy.ordinal()) {
+                refreshPolicy = entityPolicy;
+            }
+        }
+        save(entities, refreshPolicy);
+    }
+
+    @Override
+    @SneakyThrows({ IOException.class })
+    public <T> void save(T[] entities, RefreshPolicy refreshPolicy) {
+        if (entities == null || entities.length == 0) {
+            return;
+        }
+        BulkRequestBuilder bulkRequestBuilder = getClient().prepareBulk();
+        Set<String> indices = Sets.newHashSet();
+        for (T data : entities) {
+            String indexName = getWriteIndexForType(data.getClass());
             String typeName = MappingBuilder.indexTypeFromClass(data.getClass());
 
             updateDate(data);
             String json = getJsonMapper().writeValueAsString(data);
             bulkRequestBuilder.add(getClient().prepareIndex(indexName, typeName).setSource(json));
+            indices.add(indexName);
+        }
+        boolean refresh = false;
+        for (String indexName : indices) {
+            refresh = refreshCoalescer.onWrite(indexName, refreshPolicy) || refresh;
+        }
+        bulkRequestBuilder.setRefresh(refresh).execute().actionGet();
+    }
+
+    @Override
+    @SneakyThrows({ IOException.class })
+    public <T> BulkWriteResult bulkSave(Collection<T> entities, int bulkSize, RefreshPolicy refreshPolicy) {
+        BulkWriteResult result = new BulkWriteResult();
+        if (entities == null || entities.isEmpty()) {
+            return result;
+        }
+        long start = System.currentTimeMillis();
+        Set<String> indices = Sets.newHashSet();
+        BulkRequestBuilder bulkRequestBuilder = getClient().prepareBulk();
+        for (T data : entities) {
+            String indexName = getWriteIndexForType(data.getClass());
+            String typeName = MappingBuilder.indexTypeFromClass(data.getClass());
+
+            updateDate(data);
+            String json = getJsonMapper().writeValueAsString(data);
+            bulkRequestBuilder.add(getClient().prepareIndex(indexName, typeName).setSource(json));
+            indices.add(indexName);
+            if (bulkRequestBuilder.numberOfActions() >= bulkSize) {
+                executeBulk(bulkRequestBuilder, result);
+                bulkRequestBuilder = getClient().prepareBulk();
+            }
+        }
+        if (bulkRequestBuilder.numberOfActions() > 0) {
+            executeBulk(bulkRequestBuilder, result);
+        }
+        refreshAfterBulk(indices, refreshPolicy);
+        result.setDuration(System.currentTimeMillis() - start);
+        return result;
+    }
+
+    @Override
+    public BulkWriteResult bulkUpdate(Class<?> clazz, Map<String, Map<String, Object>> partialDocuments, int bulkSize, RefreshPolicy refreshPolicy) {
+        BulkWriteResult result = new BulkWriteResult();
+        if (partialDocuments == null || partialDocuments.isEmpty()) {
+            return result;
+        }
+        long start = System.currentTimeMillis();
+        String indexName = getWriteIndexForType(clazz);
+        String typeName = MappingBuilder.indexTypeFromClass(clazz);
+        BulkRequestBuilder bulkRequestBuilder = getClient().prepareBulk();
+        for (Map.Entry<String, Map<String, Object>> partialDocument : partialDocuments.entrySet()) {
+            assertIdNotNullFor(partialDocument.getKey(), "bulkUpdate");
+            bulkRequestBuilder.add(getClient().prepareUpdate(indexName, typeName, partialDocument.getKey()).setDoc(partialDocument.getValue()));
+            if (bulkRequestBuilder.numberOfActions() >= bulkSize) {
+                executeBulk(bulkRequestBuilder, result);
+                bulkRequestBuilder = getClient().prepareBulk();
+            }
+        }
+        if (bulkRequestBuilder.numberOfActions() > 0) {
+            executeBulk(bulkRequestBuilder, result);
+        }
+        refreshAfterBulk(Sets.newHashSet(indexName), refreshPolicy);
+        result.setDuration(System.currentTimeMillis() - start);
+        return result;
+    }
+
+    /**
+     * Execute a bulk request (without refresh) and add the item failures to the given result.
+     *
+     * @param bulkRequestBuilder The bulk request to execute.
+     * @param result The result in which to register the failures.
+     */
+    protected void executeBulk(BulkRequestBuilder bulkRequestBuilder, BulkWriteResult result) {
+        result.setItemCount(result.getItemCount() + bulkRequestBuilder.numberOfActions());
+        result.setRequestCount(result.getRequestCount() + 1);
+        BulkResponse bulkResponse = bulkRequestBuilder.setRefresh(false).execute().actionGet();
+        if (bulkResponse.hasFailures()) {
+            for (BulkItemResponse itemResponse : bulkResponse.getItems()) {
+                if (itemResponse.isFailed()) {
+                    ESIndexMapper.getLog().warn("Failed to write <{}> with id <{}> in bulk request: {}", itemResponse.getType(), itemResponse.getId(),
+                            itemResponse.getFailureMessage());
+                    result.getFailures().add(new BulkWriteResult.ItemFailure(itemResponse.getType(), itemResponse.getId(), itemResponse.getFailureMessage()));
+                }
+            }
         }
-        bulkRequestBuilder.execute().actionGet();
+    }
+
+    /**
+     * Apply the refresh policy once all the bulk requests of a bulk operation have been executed.
+     *
+     * @param indices The indices that have been written.
+     * @param refreshPolicy The refresh policy to apply.
+     */
+    protected void refreshAfterBulk(Set<String> indices, RefreshPolicy refreshPolicy) {
+        Set<String> indicesToRefresh = Sets.newHashSet();
+        for (String indexName : indices) {
+            if (refreshCoalescer.onWrite(indexName, refreshPolicy)) {
+                indicesToRefresh.add(indexName);
+            }
+        }
+        refreshCoalescer.refresh(indicesToRefresh.toArray(new String[indicesToRefresh.size()]));
     }
 
     @SuppressWarnings("unchecked")
@@ -124,10 +288,55 @@ public abstract class ESGenericIdDAO extends ESIndexMapper implements IGenericId
 
     @Override
     public void delete(Class<?> clazz, String id) {
+        delete(clazz, id, getRefreshPolicy(clazz));
+    }
+
+    @Override
+    public void delete(Class<?> clazz, String id, RefreshPolicy refreshPolicy) {
         assertIdNotNullFor(id, "delete");
         String indexName = getIndexForType(clazz);
         String typeName = MappingBuilder.indexTypeFromClass(clazz);
-        getClient().prepareDelete(indexName, typeName, id).setRefresh(true).execute().actionGet();
+        boolean refresh = refreshCoalescer.onWrite(indexName, refreshPolicy);
+        getClient().prepareDelete(indexName, typeName, id).setRefresh(refresh).execute().actionGet();
+    }
+
+    @Override
+    public BulkWriteResult bulkDelete(Class<?> clazz, Collection<String> ids, int bulkSize, RefreshPolicy refreshPolicy) {
+        BulkWriteResult result = new BulkWriteResult();
+        if (ids == null || ids.isEmpty()) {
+            return result;
+        }
+        long start = System.currentTimeMillis();
+        String indexName = getIndexForType(clazz);
+        String typeName = MappingBuilder.indexTypeFromClass(clazz);
+        BulkRequestBuilder bulkRequestBuilder = getClient().prepareBulk();
+        for (String id : ids) {
+            assertIdNotNullFor(id, "bulkDelete");
+            bulkRequestBuilder.add(getClient().prepareDelete(indexName, typeName, id));
+            if (bulkRequestBuilder.numberOfActions() >= bulkSize) {
+                executeBulk(bulkRequestBuilder, result);
+                bulkRequestBuilder = getClient().prepareBulk();
+            }
+        }
+        if (bulkRequestBuilder.numberOfActions() > 0) {
+            executeBulk(bulkRequestBuilder, result);
+        }
+        refreshAfterBulk(Sets.newHashSet(indexName), refreshPolicy);
+        result.setDuration(System.currentTimeMillis() - start);
+        return result;
+    }
+
+    @Override
+    public void refresh(Class<?>... classes) {
+        if (classes == null || classes.length == 0) {
+            refreshCoalescer.refresh(getAllIndexes());
+            return;
+        }
+        Set<String> indices = Sets.newHashSet();
+        for (Class<?> clazz : classes) {
+            indices.add(getIndexForType(clazz));
+        }
+        refreshCoalescer.refresh(indices.toArray(new String[indices.size()]));
     }
 
     private void assertIdNotNullFor(String id, String operation) {
@@ -4,9 +4,18 @@ import java.io.IOException;
 import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.annotation.Resource;
 
@@ -16,11 +25,13 @@ import org.elasticsearch.action.search.SearchRequestBuilder;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.action.search.SearchType;
 import org.elasticsearch.common.lucene.search.function.CombineFunction;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.index.query.FilterBuilder;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.index.query.functionscore.ScoreFunctionBuilders;
 import org.elasticsearch.mapping.*;
+import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.aggregations.Aggregation;
 import org.elasticsearch.search.aggregations.bucket.terms.InternalTerms;
 import org.elasticsearch.search.aggregations.bucket.terms.Terms;
@@ -31,7 +42,9 @@ import org.elasticsearch.search.sort.SortOrder;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
+import alien4cloud.dao.model.BulkWriteResult;
 import alien4cloud.dao.model.FacetedSearchFacet;
 import alien4cloud.dao.model.FacetedSearchResult;
 import alien4cloud.dao.model.GetMultipleDataResult;
@@ -48,6 +61,11 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public abstract class ESGenericSearchDAO extends ESGenericIdDAO implements IGenericSearchDAO {
+    /** Default number of elements fetched per scroll request. */
+    protected static final int DEFAULT_PAGE_SIZE = 500;
+    /** Duration for which elastic search keeps the scroll context alive between two page requests. */
+    protected static final TimeValue SCROLL_KEEP_ALIVE = TimeValue.timeValueMinutes(1);
+
     @Resource
     private ElasticSearchClient esClient;
     @Resource
@@ -71,31 +89,103 @@ public abstract class ESGenericSearchDAO extends ESGenericIdDAO implements IGene
 
     @Override
     public void delete(Class<?> clazz, QueryBuilder query) {
-        String indexName = getIndexForType(clazz);
-        String typeName = MappingBuilder.indexTypeFromClass(clazz);
+        delete(clazz, query, getRefreshPolicy(clazz));
+    }
 
-        // get all elements and then use a bulk delete to remove data.
-        SearchRequestBuilder searchRequestBuilder = getClient().prepareSearch(indexName).setTypes(getTypesFromClass(clazz)).setQuery(query).setNoFields()
-                .setFetchSource(false);
-        searchRequestBuilder.setFrom(0).setSize(1000);
-        SearchResponse response = searchRequestBuilder.execute().actionGet();
+    @Override
+    public BulkWriteResult delete(Class<?> clazz, QueryBuilder query, RefreshPolicy refreshPolicy) {
+        return delete(clazz, query, null, null, refreshPolicy);
+    }
 
-        while (somethingFound(response)) {
-            BulkRequestBuilder bulkRequestBuilder = getClient().prepareBulk().setRefresh(true);
+    @Override
+    public <T> BulkWriteResult delete(Class<T> clazz, QueryBuilder query, String fetchContext, Consumer<List<T>> pageConsumer,
+            RefreshPolicy refreshPolicy) {
+        long start = System.currentTimeMillis();
+        String indexName = getIndexForType(clazz);
+        BulkWriteResult result = new BulkWriteResult();
 
-            for (int i = 0; i < response.getHits().hits().length; i++) {
-                String id = response.getHits().hits()[i].getId();
-                bulkRequestBuilder.add(getClient().prepareDelete(indexName, typeName, id));
+        SearchRequestBuilder searchRequestBuilder = getClient().prepareSearch(indexName).setTypes(getTypesFromClass(clazz)).setQuery(query);
+        if (pageConsumer == null) {
+            searchRequestBuilder.setNoFields().setFetchSource(false);
+        } else {
+            setFetchSource(searchRequestBuilder, clazz, fetchContext);
+        }
+
+        // scroll is based on a snapshot of the index so it is safe to delete the elements while iterating the pages.
+        scroll(searchRequestBuilder, SearchType.SCAN, DEFAULT_PAGE_SIZE, hits -> {
+            if (pageConsumer != null) {
+                pageConsumer.accept(toList(hits));
+            }
+            BulkRequestBuilder bulkRequestBuilder = getClient().prepareBulk();
+            for (SearchHit hit : hits) {
+                bulkRequestBuilder.add(getClient().prepareDelete(hit.getIndex(), hit.getType(), hit.getId()));
             }
+            executeBulk(bulkRequestBuilder, result);
+        });
 
-            bulkRequestBuilder.execute().actionGet();
+        refreshAfterBulk(Sets.newHashSet(indexName), refreshPolicy);
+        result.setDuration(System.currentTimeMillis() - start);
+        return result;
+    }
 
-            if (response.getHits().totalHits() == response.getHits().hits().length) {
-                response = null;
-            } else {
-                response = searchRequestBuilder.execute().actionGet();
+    /**
+     * Iterate over all the results of a search request page by page using elastic search scroll.
+     *
+     * @param searchRequestBuilder The search request (query, types, fetch source) to scroll over.
+     * @param searchType The type of the search, {@link SearchType#SCAN} if results order doesn't matter.
+     * @param pageSize The number of elements per page (per shard in case of {@link SearchType#SCAN}).
+     * @param pageConsumer The consumer that receives every non-empty page of hits.
+     */
+    protected void scroll(SearchRequestBuilder searchRequestBuilder, SearchType searchType, int pageSize, Consumer<SearchHit[]> pageConsumer) {
+        SearchResponse response = searchRequestBuilder.setSearchType(searchType).setScroll(SCROLL_KEEP_ALIVE).setSize(pageSize).execute().actionGet();
+        String scrollId = response.getScrollId();
+        try {
+            // scan search type returns no hits on the first request.
+            if (searchType != SearchType.SCAN && somethingFound(response)) {
+                pageConsumer.accept(response.getHits().getHits());
+            }
+            while (true) {
+                response = getClient().prepareSearchScroll(scrollId).setScroll(SCROLL_KEEP_ALIVE).execute().actionGet();
+                scrollId = response.getScrollId();
+                if (!somethingFound(response)) {
+                    break;
+                }
+                pageConsumer.accept(response.getHits().getHits());
             }
+        } finally {
+            if (scrollId != null) {
+                getClient().prepareClearScroll().addScrollId(scrollId).execute().actionGet();
+            }
+        }
+    }
+
+    /**
+     * Apply the source filtering of a fetch context to a search request.
+     */
+    private void setFetchSource(SearchRequestBuilder searchRequestBuilder, Class<?> clazz, String fetchContext) {
+        if (fetchContext == null) {
+            return;
+        }
+        SourceFetchContext sourceFetchContext = getMappingBuilder().getFetchSource(clazz.getName(), fetchContext);
+        if (sourceFetchContext == null) {
+            getLog().warn("Unable to find fetch context <" + fetchContext + "> for class <" + clazz.getName() + ">. It will be ignored.");
+            return;
         }
+        String[] inc = sourceFetchContext.getIncludes().isEmpty() ? null
+                : sourceFetchContext.getIncludes().toArray(new String[sourceFetchContext.getIncludes().size()]);
+        String[] exc = sourceFetchContext.getExcludes().isEmpty() ? null
+                : sourceFetchContext.getExcludes().toArray(new String[sourceFetchContext.getExcludes().size()]);
+        searchRequestBuilder.setFetchSource(inc, exc);
+    }
+
+    @SuppressWarnings("unchecked")
+    @SneakyThrows({ IOException.class })
+    private <T> List<T> toList(SearchHit[] hits) {
+        List<T> result = Lists.newArrayListWithCapacity(hits.length);
+        for (SearchHit hit : hits) {
+            result.add((T) getJsonMapper().readValue(hit.getSourceAsString(), getClassFromType(hit.getType())));
+        }
+        return result;
     }
 
     @SneakyThrows({ IOException.class })
@@ -121,6 +211,40 @@ public abstract class ESGenericSearchDAO extends ESGenericIdDAO implements IGene
         }
     }
 
+    @Override
+    public <T> Stream<T> stream(Class<T> clazz, QueryBuilder query) {
+        return stream(clazz, query, null);
+    }
+
+    @Override
+    public <T> Stream<T> stream(Class<T> clazz, QueryBuilder query, SortBuilder sortBuilder) {
+        SearchRequestBuilder searchRequestBuilder = getClient().prepareSearch(getIndexForType(clazz)).setTypes(getTypesFromClass(clazz));
+        if (query != null) {
+            searchRequestBuilder.setQuery(query);
+        }
+        if (sortBuilder != null) {
+            searchRequestBuilder.addSort(sortBuilder);
+        }
+        return stream(() -> searchRequestBuilder.setScroll(SCROLL_KEEP_ALIVE).setSize(DEFAULT_PAGE_SIZE).execute().actionGet());
+    }
+
+    @Override
+    public <T> Stream<T> stream(Class<T> clazz, Map<String, String[]> filters) {
+        return buildQuery(clazz).setFilters(filters).prepareSearch().stream();
+    }
+
+    /**
+     * Create a stream that lazily iterates over the pages of a scroll.
+     *
+     * @param firstPageSupplier Supplier that executes the initial search request (with scroll enabled) and returns the first page.
+     * @return A stream over the de-serialized hits of all the pages.
+     */
+    private <T> Stream<T> stream(Supplier<SearchResponse> firstPageSupplier) {
+        ScrollIterator<T> iterator = new ScrollIterator<>(firstPageSupplier);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(iterator::close);
+    }
+
     @Override
     public <T> T customFind(Class<T> clazz, QueryBuilder query) {
         return customFind(clazz, query, null);
@@ -143,7 +267,11 @@ public abstract class ESGenericSearchDAO extends ESGenericIdDAO implements IGene
 
     @Override
     public <T> List<T> customFindAll(Class<T> clazz, QueryBuilder query, SortBuilder sortBuilder) {
-        return doCustomFind(clazz, query, sortBuilder, Integer.MAX_VALUE);
+        List<T> results;
+        try (Stream<T> stream = stream(clazz, query, sortBuilder)) {
+            results = stream.collect(Collectors.toList());
+        }
+        return results.isEmpty() ? null : results;
     }
 
     @Override
@@ -477,6 +605,71 @@ public abstract class ESGenericSearchDAO extends ESGenericIdDAO implements IGene
         return new EsQueryBuilderHelper((QueryHelper.QueryBuilderHelper) queryHelper.buildQuery(prefixField, searchQuery), clazz);
     }
 
+    /**
+     * Iterator over the hits of a scroll that fetches and de-serializes pages lazily. The scroll context is released once all pages have been consumed or when
+     * the iterator is closed.
+     */
+    private class ScrollIterator<T> implements Iterator<T>, AutoCloseable {
+        private final Supplier<SearchResponse> firstPageSupplier;
+        private String scrollId;
+        private SearchHit[] page;
+        private int pageIndex;
+        private boolean started = false;
+        private boolean exhausted = false;
+
+        private ScrollIterator(Supplier<SearchResponse> firstPageSupplier) {
+            this.firstPageSupplier = firstPageSupplier;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (exhausted) {
+                return false;
+            }
+            if (page != null && pageIndex < page.length) {
+                return true;
+            }
+            SearchResponse response;
+            if (started) {
+                response = getClient().prepareSearchScroll(scrollId).setScroll(SCROLL_KEEP_ALIVE).execute().actionGet();
+            } else {
+                started = true;
+                response = firstPageSupplier.get();
+            }
+            scrollId = response.getScrollId();
+            if (!somethingFound(response)) {
+                close();
+                return false;
+            }
+            page = response.getHits().getHits();
+            pageIndex = 0;
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        @SneakyThrows({ IOException.class })
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            SearchHit hit = page[pageIndex];
+            // release the reference to the hit so it can be garbage collected while iterating over the page.
+            page[pageIndex++] = null;
+            return (T) getJsonMapper().readValue(hit.getSourceAsString(), getClassFromType(hit.getType()));
+        }
+
+        @Override
+        public void close() {
+            exhausted = true;
+            page = null;
+            if (scrollId != null) {
+                getClient().prepareClearScroll().addScrollId(scrollId).execute().actionGet();
+                scrollId = null;
+            }
+        }
+    }
+
     /**
      * Extends the QueryBuilderHelper to provide class based indices and types.
      */
@@ -525,6 +718,14 @@ public abstract class ESGenericSearchDAO extends ESGenericIdDAO implements IGene
             return toGetMultipleDataResult(clazz, super.execute(from, size), from);
         }
 
+        @Override
+        public Stream<T> stream() {
+            return ESGenericSearchDAO.this.stream(() -> {
+                searchRequestBuilder.setScroll(SCROLL_KEEP_ALIVE);
+                return super.execute(0, DEFAULT_PAGE_SIZE);
+            });
+        }
+
         @Override
         public FacetedSearchResult facetedSearch(int from, int size) {
             super.facets();
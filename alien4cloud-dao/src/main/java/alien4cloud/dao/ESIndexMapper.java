@@ -4,6 +4,7 @@ import java.beans.IntrospectionException;
 import java.io.IOException;
 import java.lang.reflect.Modifier;
 import java.util.Collection;
+import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -78,37 +79,46 @@ public abstract class ESIndexMapper {
      * @param indexName The index to initialize
      * @param classes An array of classes to map to this index.
      */
-    @SneakyThrows({ IOException.class, IntrospectionException.class })
     public void initIndices(String indexName, String ttl, Class<?>... classes) {
-        if (indexExist(indexName)) {
-            addToMappedClasses(indexName, classes);
-        } else {
-            // create the index and add the mapping
-            CreateIndexRequestBuilder createIndexRequestBuilder = esClient.getClient().admin().indices().prepareCreate(indexName);
-            for (Class<?> clazz : classes) {
-                String typeName = addToMappedClasses(indexName, clazz);
-
-                if (Modifier.isAbstract(clazz.getModifiers())) {
-                    continue; // no mapping to register for abstract classes.
-                }
-                String typeMapping = mappingBuilder.getMapping(clazz);
-                Map<String, Object> typesMap = JsonUtil.toMap(typeMapping);
-
-                addAlienScore(typesMap);
-                addTTL(typesMap, ttl);
-
-                String mapping = jsonMapper.writeValueAsString(typesMap);
-                createIndexRequestBuilder.addMapping(typeName, mapping);
+        addToMappedClasses(indexName, classes);
+        if (!indexExist(indexName)) {
+            createIndex(indexName, ttl, classes);
+        }
+    }
+
+    /**
+     * Create an index with the mappings of the given classes. Classes are not registered as mapped classes (see {@link #initIndices(String, String, Class[])}).
+     *
+     * @param indexName The index to create.
+     * @param ttl The TTL of the documents of the index (ESearch TTL notation) or null if documents should not expire.
+     * @param classes An array of classes for which to add a mapping in the index.
+     */
+    @SneakyThrows({ IOException.class, IntrospectionException.class })
+    protected void createIndex(String indexName, String ttl, Class<?>... classes) {
+        // create the index and add the mapping
+        CreateIndexRequestBuilder createIndexRequestBuilder = esClient.getClient().admin().indices().prepareCreate(indexName);
+        for (Class<?> clazz : classes) {
+            if (Modifier.isAbstract(clazz.getModifiers())) {
+                continue; // no mapping to register for abstract classes.
             }
-            // TODO: fixme !!!
-            try {
-                final CreateIndexResponse createResponse = createIndexRequestBuilder.execute().actionGet();
-                if (!createResponse.isAcknowledged()) {
-                    throw new IndexingServiceException("Failed to create index <" + indexName + ">");
-                }
-            } catch (Exception e) {
-                log.warn("Not able to init indice for index {}, maybe it has been created elsewhere", indexName);
+            String typeName = MappingBuilder.indexTypeFromClass(clazz);
+            String typeMapping = mappingBuilder.getMapping(clazz);
+            Map<String, Object> typesMap = JsonUtil.toMap(typeMapping);
+
+            addAlienScore(typesMap);
+            addTTL(typesMap, ttl);
+
+            String mapping = jsonMapper.writeValueAsString(typesMap);
+            createIndexRequestBuilder.addMapping(typeName, mapping);
+        }
+        // TODO: fixme !!!
+        try {
+            final CreateIndexResponse createResponse = createIndexRequestBuilder.execute().actionGet();
+            if (!createResponse.isAcknowledged()) {
+                throw new IndexingServiceException("Failed to create index <" + indexName + ">");
             }
+        } catch (Exception e) {
+            log.warn("Not able to init indice for index {}, maybe it has been created elsewhere", indexName);
         }
     }
 
@@ -148,7 +158,7 @@ public abstract class ESIndexMapper {
     }
 
     @SneakyThrows({ ExecutionException.class, InterruptedException.class })
-    private boolean indexExist(String indexName) {
+    protected boolean indexExist(String indexName) {
         // check if existing before
         final ActionFuture<IndicesExistsResponse> indexExistFuture = esClient.getClient().admin().indices().exists(new IndicesExistsRequest(indexName));
         IndicesExistsResponse response;
@@ -156,7 +166,7 @@ public abstract class ESIndexMapper {
         return response.isExists();
     }
 
-    private void addToMappedClasses(String indexName, Class<?>[] classes) {
+    protected void addToMappedClasses(String indexName, Class<?>[] classes) {
         for (Class<?> clazz : classes) {
             addToMappedClasses(indexName, clazz);
         }
@@ -186,6 +196,28 @@ public abstract class ESIndexMapper {
         return index;
     }
 
+    /**
+     * Get the index in which new instances of the given type must be written. This is the index in which the type lies unless the dao partitions it.
+     *
+     * @param clazz The type for which to get the write index.
+     * @return The index in which to write new instances of the given type.
+     */
+    public String getWriteIndexForType(Class<?> clazz) {
+        return getIndexForType(clazz);
+    }
+
+    /**
+     * Get the indices that may contain instances of the given type written since the given date. This is the index in which the type lies unless the dao
+     * partitions it by time.
+     *
+     * @param clazz The type for which to get the indices.
+     * @param since The date since which instances must be searched.
+     * @return The indices to search.
+     */
+    public String[] getIndicesForType(Class<?> clazz, Date since) {
+        return new String[] { getIndexForType(clazz) };
+    }
+
     /**
      * Return a class from the given elastic search type.
      *
@@ -1,6 +1,7 @@
 package alien4cloud.dao;
 
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.elasticsearch.action.search.SearchRequestBuilder;
 import org.elasticsearch.index.query.FilterBuilder;
@@ -34,6 +35,14 @@ public interface IESSearchQueryBuilderHelper<T> extends IESQueryBuilderHelper<T>
      */
     GetMultipleDataResult<T> search(int from, int size);
 
+    /**
+     * Get a stream over all the results of the search. Results are fetched page by page using an elastic search scroll and de-serialized lazily. The stream
+     * should be closed if not fully consumed in order to release the scroll context.
+     *
+     * @return A stream over all the results of the search.
+     */
+    Stream<T> stream();
+
     /**
      * Execute a search query using the defined query with facets (aggregations).
      *
@@ -1,6 +1,10 @@
 package alien4cloud.dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+
+import alien4cloud.dao.model.BulkWriteResult;
 
 /**
  * A DAO that allows accessing data by Id or / and multiple Ids.
@@ -15,6 +19,14 @@ public interface IGenericIdDAO {
      */
     <T> void save(T entity);
 
+    /**
+     * Saves an entity into the repository
+     *
+     * @param entity the entity to save
+     * @param refreshPolicy Defines when the index should be refreshed so the entity is visible to searches.
+     */
+    <T> void save(T entity, RefreshPolicy refreshPolicy);
+
     /**
      * Bulk save multiple entities into the repository
      * 
@@ -22,6 +34,36 @@ public interface IGenericIdDAO {
      */
     <T> void save(T[] entities);
 
+    /**
+     * Bulk save multiple entities into the repository
+     *
+     * @param entities The entities to save.
+     * @param refreshPolicy Defines when the index should be refreshed so the entities are visible to searches.
+     */
+    <T> void save(T[] entities, RefreshPolicy refreshPolicy);
+
+    /**
+     * Save multiple entities using size-bounded bulk requests. Failures of single items do not stop the process and are reported in the result.
+     *
+     * @param entities The entities to save.
+     * @param bulkSize The maximum number of entities to send in a single bulk request.
+     * @param refreshPolicy Defines when the index should be refreshed. Refresh is never performed per bulk request but once all entities have been sent.
+     * @return The result of the bulk operation including per-item failures.
+     */
+    <T> BulkWriteResult bulkSave(Collection<T> entities, int bulkSize, RefreshPolicy refreshPolicy);
+
+    /**
+     * Partially update multiple instances of the given class using size-bounded bulk requests. Only the given fields are sent and merged with the stored
+     * documents. Failures of single items do not stop the process and are reported in the result.
+     *
+     * @param clazz The class of the objects to update.
+     * @param partialDocuments The fields to update (field name to value) by id of the object to update.
+     * @param bulkSize The maximum number of updates to send in a single bulk request.
+     * @param refreshPolicy Defines when the index should be refreshed. Refresh is never performed per bulk request but once all updates have been sent.
+     * @return The result of the bulk operation including per-item failures.
+     */
+    BulkWriteResult bulkUpdate(Class<?> clazz, Map<String, Map<String, Object>> partialDocuments, int bulkSize, RefreshPolicy refreshPolicy);
+
     /**
      * Find an instance from the given class.
      * 
@@ -57,4 +99,41 @@ public interface IGenericIdDAO {
      * @param id The id of the object to delete.
      */
     void delete(Class<?> clazz, String id);
+
+    /**
+     * Delete an instance from the given class.
+     *
+     * @param clazz The class of the object to delete.
+     * @param id The id of the object to delete.
+     * @param refreshPolicy Defines when the index should be refreshed so the deletion is visible to searches.
+     */
+    void delete(Class<?> clazz, String id, RefreshPolicy refreshPolicy);
+
+    /**
+     * Delete multiple instances of the given class using size-bounded bulk requests. Failures of single items do not stop the process and are reported in the
+     * result.
+     *
+     * @param clazz The class of the objects to delete.
+     * @param ids The ids of the objects to delete.
+     * @param bulkSize The maximum number of deletions to send in a single bulk request.
+     * @param refreshPolicy Defines when the index should be refreshed. Refresh is never performed per bulk request but once all deletions have been sent.
+     * @return The result of the bulk operation including per-item failures.
+     */
+    BulkWriteResult bulkDelete(Class<?> clazz, Collection<String> ids, int bulkSize, RefreshPolicy refreshPolicy);
+
+    /**
+     * Refresh the indices in which the given classes are stored so that previous writes performed with {@link RefreshPolicy#BATCH} or
+     * {@link RefreshPolicy#DEFERRED} policies are visible to searches.
+     *
+     * @param classes The classes for which to refresh the indices.
+     */
+    void refresh(Class<?>... classes);
+
+    /**
+     * Get the refresh policy used for write operations that do not specify one explicitly.
+     *
+     * @param clazz The class of the object to write.
+     * @return The default refresh policy for the given class.
+     */
+    RefreshPolicy getRefreshPolicy(Class<?> clazz);
 }
\ No newline at end of file
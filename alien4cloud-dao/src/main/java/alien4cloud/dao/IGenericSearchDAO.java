@@ -1,7 +1,10 @@
 package alien4cloud.dao;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.elasticsearch.index.query.FilterBuilder;
 import org.elasticsearch.index.query.QueryBuilder;
@@ -11,6 +14,7 @@ import org.elasticsearch.search.aggregations.AggregationBuilder;
 import org.elasticsearch.search.sort.SortBuilder;
 import org.elasticsearch.search.sort.SortOrder;
 
+import alien4cloud.dao.model.BulkWriteResult;
 import alien4cloud.dao.model.FacetedSearchResult;
 import alien4cloud.dao.model.GetMultipleDataResult;
 
@@ -34,6 +38,16 @@ public interface IGenericSearchDAO extends IGenericIdDAO {
      */
     String getIndexForType(Class<?> clazz);
 
+    /**
+     * Get the indices that may contain instances of a class written since the given date. DAOs that partition indices by time only return the partitions
+     * written since the date, other DAOs return the index in which the class lies.
+     *
+     * @param clazz The class for which to get the indices.
+     * @param since The date since which instances must be searched.
+     * @return The names of the indices to search.
+     */
+    String[] getIndicesForType(Class<?> clazz, Date since);
+
     /**
      * Count the number of objects in the index in which a given class lies. The result is not limited to the actual given type.
      *
@@ -62,6 +76,31 @@ public interface IGenericSearchDAO extends IGenericIdDAO {
      */
     void delete(Class<?> clazz, QueryBuilder query);
 
+    /**
+     * Delete all elements matching the given query. Ids are fetched page by page using a scroll and deleted using bulk requests, refresh is performed once
+     * all elements have been deleted based on the given refresh policy.
+     *
+     * @param clazz The class of the elements to delete.
+     * @param query The query that matches the elements to delete.
+     * @param refreshPolicy Defines when the index should be refreshed.
+     * @return The result of the bulk delete including per-item failures.
+     */
+    BulkWriteResult delete(Class<?> clazz, QueryBuilder query, RefreshPolicy refreshPolicy);
+
+    /**
+     * Delete all elements matching the given query. Elements are fetched page by page using a scroll, every page is given to the page consumer (so related data
+     * can be cleaned-up in batch) and then deleted using a bulk request. Refresh is performed once all elements have been deleted based on the given refresh
+     * policy.
+     *
+     * @param clazz The class of the elements to delete.
+     * @param query The query that matches the elements to delete.
+     * @param fetchContext The fetch context to use to retrieve the elements given to the page consumer.
+     * @param pageConsumer The consumer that receives every page of elements before their deletion.
+     * @param refreshPolicy Defines when the index should be refreshed.
+     * @return The result of the bulk delete including per-item failures.
+     */
+    <T> BulkWriteResult delete(Class<T> clazz, QueryBuilder query, String fetchContext, Consumer<List<T>> pageConsumer, RefreshPolicy refreshPolicy);
+
     /**
      * Run a custom query on elastic search for the given class.
      *
@@ -100,6 +139,38 @@ public interface IGenericSearchDAO extends IGenericIdDAO {
      */
     <T> List<T> customFindAll(Class<T> clazz, QueryBuilder query, SortBuilder sortBuilder);
 
+    /**
+     * Get a stream over all elements of the given class that matches the given query. Elements are fetched page by page using an elastic search scroll and
+     * de-serialized lazily so memory usage is bounded by the page size whatever the number of results.
+     * <p>
+     * The stream should be closed (try-with-resources) if not fully consumed in order to release the scroll context.
+     * </p>
+     *
+     * @param clazz The type of data to query.
+     * @param query The query to execute (null to match all).
+     * @return A stream over all matching elements.
+     */
+    <T> Stream<T> stream(Class<T> clazz, QueryBuilder query);
+
+    /**
+     * Same as {@link IGenericSearchDAO#stream(Class, QueryBuilder)} with ordered results.
+     *
+     * @param clazz The type of data to query.
+     * @param query The query to execute (null to match all).
+     * @param sortBuilder The sort configuration.
+     * @return A stream over all matching elements.
+     */
+    <T> Stream<T> stream(Class<T> clazz, QueryBuilder query, SortBuilder sortBuilder);
+
+    /**
+     * Same as {@link IGenericSearchDAO#stream(Class, QueryBuilder)} but based on a filter map.
+     *
+     * @param clazz The type of data to query.
+     * @param filters The filters for the search or null if no filters.
+     * @return A stream over all matching elements.
+     */
+    <T> Stream<T> stream(Class<T> clazz, Map<String, String[]> filters);
+
     /**
      * Run a query build from a {@link QueryHelper.ISearchQueryBuilderHelper}.
      *
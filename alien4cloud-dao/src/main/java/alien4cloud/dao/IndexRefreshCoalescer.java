@@ -0,0 +1,187 @@
+package alien4cloud.dao;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.elasticsearch.client.Client;
+
+import com.google.common.collect.Lists;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps track of the indices that have been written with a {@link RefreshPolicy#DEFERRED} policy and refreshes them asynchronously so that multiple writes in
+ * the coalescing window trigger a single refresh request. Also keeps counters on refreshes that have been performed and saved.
+ */
+@Slf4j
+public class IndexRefreshCoalescer {
+    /** Single daemon thread shared by all daos to perform deferred refreshes. */
+    private static final ScheduledExecutorService REFRESH_EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "es-index-refresher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ESIndexMapper indexMapper;
+    private final Set<String> dirtyIndices = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    /** Number of consecutive deferred refreshes that failed, used to back off the retries. */
+    private final AtomicInteger failedFlushCount = new AtomicInteger();
+
+    /** Maximum duration in milliseconds between a deferred write and the refresh of its index. */
+    @Getter
+    @Setter
+    private volatile long coalescingWindowMs = 1000;
+    /** Maximum duration in milliseconds between two retries of a failed deferred refresh. */
+    @Getter
+    @Setter
+    private volatile long maxRetryDelayMs = 30000;
+
+    /** Number of write requests that did not trigger a refresh (deferred or batch). */
+    private final AtomicLong skippedRefreshCount = new AtomicLong();
+    /** Number of write requests that triggered an immediate refresh. */
+    private final AtomicLong immediateRefreshCount = new AtomicLong();
+    /** Number of refresh requests actually sent to elastic search for deferred or batch writes. */
+    private final AtomicLong executedRefreshCount = new AtomicLong();
+
+    public IndexRefreshCoalescer(ESIndexMapper indexMapper) {
+        this.indexMapper = indexMapper;
+    }
+
+    /**
+     * Register a write operation for the given index with the given refresh policy.
+     *
+     * @param indexName The name of the index that has been written.
+     * @param refreshPolicy The refresh policy of the write operation.
+     * @return true if the write request should refresh the index itself, false if not.
+     */
+    public boolean onWrite(String indexName, RefreshPolicy refreshPolicy) {
+        switch (refreshPolicy) {
+        case DEFERRED:
+            skippedRefreshCount.incrementAndGet();
+            dirtyIndices.add(indexName);
+            scheduleFlush(coalescingWindowMs);
+            return false;
+        case BATCH:
+            skippedRefreshCount.incrementAndGet();
+            return false;
+        default:
+            immediateRefreshCount.incrementAndGet();
+            // data is going to be refreshed so pending deferred refresh is not required anymore for this index.
+            dirtyIndices.remove(indexName);
+            return true;
+        }
+    }
+
+    /**
+     * Refresh the given indices now.
+     *
+     * @param indices The indices to refresh.
+     */
+    public void refresh(String... indices) {
+        if (indices == null || indices.length == 0) {
+            return;
+        }
+        for (String index : indices) {
+            dirtyIndices.remove(index);
+        }
+        doRefresh(indices);
+    }
+
+    /**
+     * Refresh all indices that have been marked as dirty.
+     */
+    public void flush() {
+        flushScheduled.set(false);
+        List<String> indices = Lists.newArrayList();
+        Iterator<String> iterator = dirtyIndices.iterator();
+        while (iterator.hasNext()) {
+            indices.add(iterator.next());
+            iterator.remove();
+        }
+        if (indices.isEmpty()) {
+            return;
+        }
+        try {
+            doRefresh(indices.toArray(new String[indices.size()]));
+            failedFlushCount.set(0);
+        } catch (Exception e) {
+            long retryDelayMs = getRetryDelayMs(failedFlushCount.incrementAndGet());
+            log.warn("Failed to refresh indices {}, refresh will be retried in {} ms.", indices, retryDelayMs, e);
+            dirtyIndices.addAll(indices);
+            scheduleFlush(retryDelayMs);
+        }
+    }
+
+    private void scheduleFlush(long delayMs) {
+        if (flushScheduled.compareAndSet(false, true)) {
+            REFRESH_EXECUTOR.schedule(this::flush, delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Double the coalescing window for every consecutive failure, up to the maximum retry delay.
+     */
+    private long getRetryDelayMs(int failures) {
+        long delayMs = Math.max(1, coalescingWindowMs);
+        for (int i = 0; i < failures && delayMs < maxRetryDelayMs; i++) {
+            delayMs *= 2;
+        }
+        return Math.min(delayMs, maxRetryDelayMs);
+    }
+
+    private void doRefresh(String[] indices) {
+        refreshIndices(indices);
+        executedRefreshCount.incrementAndGet();
+    }
+
+    void refreshIndices(String[] indices) {
+        Client client = indexMapper.getClient();
+        client.admin().indices().prepareRefresh(indices).execute().actionGet();
+    }
+
+    /**
+     * @return The number of write requests that did not trigger an immediate refresh.
+     */
+    public long getSkippedRefreshCount() {
+        return skippedRefreshCount.get();
+    }
+
+    /**
+     * @return The number of write requests that triggered an immediate refresh.
+     */
+    public long getImmediateRefreshCount() {
+        return immediateRefreshCount.get();
+    }
+
+    /**
+     * @return The number of refresh requests sent to elastic search for deferred or batch writes.
+     */
+    public long getExecutedRefreshCount() {
+        return executedRefreshCount.get();
+    }
+
+    /**
+     * @return The number of refresh requests that have been saved compared to a refresh on every write.
+     */
+    public long getSavedRefreshCount() {
+        return Math.max(0, skippedRefreshCount.get() - executedRefreshCount.get());
+    }
+
+    /**
+     * @return The number of indices currently waiting for a deferred refresh.
+     */
+    public int getPendingIndicesCount() {
+        return dirtyIndices.size();
+    }
+}
@@ -0,0 +1,15 @@
+package alien4cloud.dao;
+
+/**
+ * Defines when an elastic search index has to be refreshed after a write (save or delete) operation so the written data becomes visible to searches.
+ *
+ * Note that get operations (findById, findByIds, exist) are real-time in elastic search and are not impacted by the refresh policy.
+ */
+public enum RefreshPolicy {
+    /** The index is refreshed as part of the write request, data is searchable as soon as the call returns (read-your-writes). */
+    IMMEDIATE,
+    /** The index is not refreshed, the caller is responsible for calling {@link IGenericIdDAO#refresh(Class[])} once its batch of writes is done. */
+    BATCH,
+    /** The index is not refreshed by the request but marked as dirty, it will be refreshed asynchronously within the configured coalescing window. */
+    DEFERRED
+}
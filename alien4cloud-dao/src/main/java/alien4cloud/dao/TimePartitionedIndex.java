@@ -0,0 +1,111 @@
+package alien4cloud.dao;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import lombok.Getter;
+
+/**
+ * An index partitioned by time. Documents are written in the partition of the period in which they are written and are read through an alias that has the
+ * name of the index and references all partitions. Partitions are named after the index and the first day (UTC) of their period, for example
+ * deploymentmonitorevents-2016.10.17.
+ *
+ * As a document is written after its date, a partition only contains documents dated before the end of its period. This allows to drop whole partitions once
+ * their period is older than the retention and to search only the partitions that ended after the start of a time-bounded query.
+ */
+@Getter
+public class TimePartitionedIndex {
+    private static final DateTimeFormatter SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyy.MM.dd");
+
+    public enum Period {
+        DAILY(1), WEEKLY(7);
+
+        private final int days;
+
+        Period(int days) {
+            this.days = days;
+        }
+    }
+
+    private final String alias;
+    private final Period period;
+    private final Class<?>[] classes;
+
+    /**
+     * Create a new time partitioned index.
+     *
+     * @param alias The name of the alias through which the partitions are read.
+     * @param period The period covered by every partition.
+     * @param classes The classes stored in the index.
+     */
+    public TimePartitionedIndex(String alias, Period period, Class<?>... classes) {
+        this.alias = alias;
+        this.period = period;
+        this.classes = classes;
+    }
+
+    /**
+     * Get the name of the partition in which documents written at the given time must be stored.
+     *
+     * @param time The time in milliseconds.
+     * @return The name of the partition.
+     */
+    public String getPartition(long time) {
+        LocalDate day = LocalDate.ofEpochDay(TimeUnit.MILLISECONDS.toDays(time));
+        if (period == Period.WEEKLY) {
+            day = day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+        return alias + "-" + SUFFIX_FORMAT.format(day);
+    }
+
+    /**
+     * Get the end of the period of a partition.
+     *
+     * @param partition The name of the partition.
+     * @return The end (exclusive) of the period in milliseconds or -1 if the given index is not a partition of this index.
+     */
+    public long getPartitionEnd(String partition) {
+        if (!partition.startsWith(alias + "-")) {
+            return -1;
+        }
+        try {
+            LocalDate start = LocalDate.parse(partition.substring(alias.length() + 1), SUFFIX_FORMAT);
+            return start.plusDays(period.days).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Filter the partitions that may contain documents dated after the given time.
+     *
+     * @param partitions The partitions to filter.
+     * @param since The time in milliseconds.
+     * @return The partitions whose period ends after the given time.
+     */
+    public List<String> getPartitionsSince(Collection<String> partitions, long since) {
+        return partitions.stream().filter(partition -> getPartitionEnd(partition) > since).sorted().collect(Collectors.toList());
+    }
+
+    /**
+     * Filter the partitions that only contain documents dated before the given time.
+     *
+     * @param partitions The partitions to filter.
+     * @param before The time in milliseconds.
+     * @return The partitions whose period ended before the given time.
+     */
+    public List<String> getPartitionsBefore(Collection<String> partitions, long before) {
+        return partitions.stream().filter(partition -> {
+            long end = getPartitionEnd(partition);
+            return end >= 0 && end <= before;
+        }).sorted().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,69 @@
+package alien4cloud.dao.model;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Result of a bulk write (index or delete) operation that may have been split into multiple elastic search bulk requests.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class BulkWriteResult {
+    /** Number of items sent to elastic search. */
+    private int itemCount;
+    /** Number of bulk requests sent to elastic search. */
+    private int requestCount;
+    /** Duration of the whole operation in milliseconds (including final refresh if any). */
+    private long duration;
+    /** Items that failed to be written. */
+    private List<ItemFailure> failures = Lists.newArrayList();
+
+    /**
+     * @return true if all items have been written successfully.
+     */
+    public boolean isSuccess() {
+        return failures.isEmpty();
+    }
+
+    /**
+     * @return The number of items written per second.
+     */
+    public double getThroughput() {
+        if (duration <= 0) {
+            return itemCount;
+        }
+        return itemCount * 1000d / duration;
+    }
+
+    /**
+     * Merge another bulk result into this one.
+     *
+     * @param other The result to merge.
+     */
+    public void merge(BulkWriteResult other) {
+        itemCount += other.itemCount;
+        requestCount += other.requestCount;
+        duration += other.duration;
+        failures.addAll(other.failures);
+    }
+
+    /**
+     * Failure of a single item of a bulk request.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor(suppressConstructorProperties = true)
+    public static class ItemFailure {
+        private String type;
+        private String id;
+        private String message;
+    }
+}
@@ -0,0 +1,95 @@
+package alien4cloud.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+/**
+ * Check that deferred writes are coalesced into a single refresh of their indices.
+ */
+public class IndexRefreshCoalescerTest {
+    private static final long TIMEOUT_MS = 5000;
+
+    /** Records the refresh requests instead of sending them to elastic search and fails the first requests on demand. */
+    private static class RecordingCoalescer extends IndexRefreshCoalescer {
+        private final List<List<String>> refreshes = new CopyOnWriteArrayList<>();
+        private final AtomicInteger failuresToSimulate = new AtomicInteger();
+
+        RecordingCoalescer(long coalescingWindowMs) {
+            super(null);
+            setCoalescingWindowMs(coalescingWindowMs);
+        }
+
+        @Override
+        void refreshIndices(String[] indices) {
+            refreshes.add(Arrays.asList(indices));
+            if (failuresToSimulate.getAndDecrement() > 0) {
+                throw new IllegalStateException("Simulated refresh failure");
+            }
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!condition.getAsBoolean()) {
+            assertTrue("Condition not reached in " + TIMEOUT_MS + " ms", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void deferredWritesShouldBeCoalescedInASingleRefresh() throws InterruptedException {
+        RecordingCoalescer coalescer = new RecordingCoalescer(200);
+        for (int i = 0; i < 5; i++) {
+            assertFalse(coalescer.onWrite("first", RefreshPolicy.DEFERRED));
+            assertFalse(coalescer.onWrite("second", RefreshPolicy.DEFERRED));
+        }
+        assertEquals(2, coalescer.getPendingIndicesCount());
+
+        waitFor(() -> coalescer.getPendingIndicesCount() == 0 && coalescer.getExecutedRefreshCount() == 1);
+        assertEquals(1, coalescer.refreshes.size());
+        assertEquals(Sets.newHashSet("first", "second"), Sets.newHashSet(coalescer.refreshes.get(0)));
+        assertEquals(10, coalescer.getSkippedRefreshCount());
+        assertEquals(9, coalescer.getSavedRefreshCount());
+    }
+
+    @Test
+    public void immediateWriteShouldClearThePendingRefresh() throws InterruptedException {
+        RecordingCoalescer coalescer = new RecordingCoalescer(50);
+        coalescer.onWrite("first", RefreshPolicy.DEFERRED);
+        assertTrue(coalescer.onWrite("first", RefreshPolicy.IMMEDIATE));
+        assertEquals(0, coalescer.getPendingIndicesCount());
+        assertEquals(1, coalescer.getImmediateRefreshCount());
+
+        // the scheduled flush has nothing left to refresh
+        coalescer.onWrite("second", RefreshPolicy.DEFERRED);
+        waitFor(() -> coalescer.getExecutedRefreshCount() == 1);
+        assertEquals(1, coalescer.refreshes.size());
+        assertEquals(Arrays.asList("second"), coalescer.refreshes.get(0));
+    }
+
+    @Test
+    public void failedRefreshShouldBeRetried() throws InterruptedException {
+        RecordingCoalescer coalescer = new RecordingCoalescer(20);
+        coalescer.failuresToSimulate.set(2);
+        coalescer.onWrite("first", RefreshPolicy.DEFERRED);
+
+        // no other write is needed to retry the refresh
+        waitFor(() -> coalescer.getExecutedRefreshCount() == 1);
+        assertEquals(3, coalescer.refreshes.size());
+        for (List<String> refresh : coalescer.refreshes) {
+            assertEquals(Arrays.asList("first"), refresh);
+        }
+        assertEquals(0, coalescer.getPendingIndicesCount());
+    }
+}
@@ -2,6 +2,11 @@ package alien4cloud.servlet;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
 
 import javax.servlet.ServletConfig;
 import javax.servlet.ServletException;
@@ -10,16 +15,21 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.support.WebApplicationContextUtils;
 
+import alien4cloud.exception.NotFoundException;
 import alien4cloud.images.IImageDAO;
-import alien4cloud.images.ImageData;
+import alien4cloud.images.ImageFile;
 import alien4cloud.utils.ImageQuality;
 
 /**
  * A servlet that query an image by id and return's it.
+ * <p>
+ * Images never change once written so the servlet uses their content hash as entity tag and answers conditional requests with a 304 (not modified).
+ * Images are streamed from disk using file channel transfer unless their content is already in memory.
  * 
  * @author luc boutier
  */
@@ -47,22 +57,63 @@ public class ImageServlet extends HttpServlet {
             imageQuality = ImageQuality.valueOf(quality);
         }
 
-        final ImageData imageData = this.imageDAO.readImage(imageId, imageQuality);
-        if (imageData != null) {
-            // Set content type
-            resp.setContentType(imageData.getMime());
-            // Set content size
-            resp.setContentLength(imageData.getData().length);
-
-            // Open the file and output streams
-            final OutputStream out = resp.getOutputStream();
-            try {
-                out.write(imageData.getData());
-            } finally {
-                out.close();
+        final ImageFile imageFile;
+        try {
+            imageFile = this.imageDAO.getImageFile(imageId, imageQuality);
+        } catch (NotFoundException e) {
+            resp.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        final String eTag = "\"" + imageFile.getHash() + "\"";
+        resp.setHeader(HttpHeaders.ETAG, eTag);
+        if (matches(req.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+            resp.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+        // Set content type
+        resp.setContentType(imageFile.getMime());
+        if (imageFile.getContent() != null) {
+            resp.setContentLength(imageFile.getContent().length);
+            try (OutputStream out = resp.getOutputStream()) {
+                out.write(imageFile.getContent());
             }
-        } else {
+            return;
+        }
+        try (FileChannel fileChannel = FileChannel.open(imageFile.getPath(), StandardOpenOption.READ)) {
+            long size = fileChannel.size();
+            resp.setContentLengthLong(size);
+            try (WritableByteChannel out = Channels.newChannel(resp.getOutputStream())) {
+                long position = 0;
+                while (position < size) {
+                    position += fileChannel.transferTo(position, size - position, out);
+                }
+            }
+        } catch (NoSuchFileException e) {
             resp.setStatus(HttpStatus.NOT_FOUND.value());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Check if an If-None-Match header matches an entity tag.
+     *
+     * @param ifNoneMatch The value of the If-None-Match header, may be null.
+     * @param eTag The entity tag of the image.
+     * @return true if the header contains the entity tag (weak or strong) or the * wildcard.
+     */
+    static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            // If-None-Match uses the weak comparison
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            if ("*".equals(trimmed) || eTag.equals(trimmed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
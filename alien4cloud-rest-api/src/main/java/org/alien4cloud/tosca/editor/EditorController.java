@@ -23,6 +23,7 @@ import alien4cloud.git.SimpleGitHistoryEntry;
 import alien4cloud.rest.model.RestResponse;
 import alien4cloud.rest.model.RestResponseBuilder;
 import alien4cloud.topology.TopologyDTO;
+import alien4cloud.topology.TopologyDeltaDTO;
 import alien4cloud.topology.TopologyValidationResult;
 import io.swagger.annotations.ApiOperation;
 import springfox.documentation.annotations.ApiIgnore;
@@ -57,6 +58,21 @@ public class EditorController {
         return RestResponseBuilder.<TopologyDTO> builder().data(topologyDTO).build();
     }
 
+    /**
+     * Execute an operation on a topology and get the changes of the topology rather than the full topology. If the client topology is not the one of the
+     * operation's previous operation id the request fails with a concurrency error and the client has to reload the full topology.
+     *
+     * @param topologyId The id of the topology/archive under edition.
+     * @param operation The operation to execute
+     */
+    @ApiIgnore
+    @RequestMapping(value = "/{topologyId:.+}/execute/delta", method = RequestMethod.POST, produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public RestResponse<TopologyDeltaDTO> executeDelta(@PathVariable String topologyId, @RequestBody @Valid AbstractEditorOperation operation) {
+        TopologyDeltaDTO topologyDeltaDTO = editorService.executeDelta(topologyId, operation);
+        return RestResponseBuilder.<TopologyDeltaDTO> builder().data(topologyDeltaDTO).build();
+    }
+
     /**
      * Undo or redo operations.
      * 
@@ -0,0 +1,94 @@
+package alien4cloud.servlet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.servlet.ServletException;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import alien4cloud.exception.NotFoundException;
+import alien4cloud.images.IImageDAO;
+import alien4cloud.images.ImageFile;
+import alien4cloud.utils.ImageQuality;
+
+public class ImageServletTest {
+    private static final byte[] CONTENT = "not really a png".getBytes();
+
+    @Rule
+    public TemporaryFolder imagesFolder = new TemporaryFolder();
+
+    private ImageServlet imageServlet = new ImageServlet();
+    private IImageDAO imageDAO;
+
+    @Before
+    public void setup() throws IOException {
+        imageDAO = Mockito.mock(IImageDAO.class);
+        ReflectionTestUtils.setField(imageServlet, "imageDAO", imageDAO);
+        Path imagePath = imagesFolder.newFile("image.png").toPath();
+        Files.write(imagePath, CONTENT);
+        Mockito.when(imageDAO.getImageFile("image", ImageQuality.QUALITY_BEST))
+                .thenReturn(new ImageFile("image", "image/png", imagePath, CONTENT.length, "hash", null));
+        Mockito.when(imageDAO.getImageFile("missing", ImageQuality.QUALITY_BEST)).thenThrow(new NotFoundException("Unable to find image."));
+    }
+
+    private MockHttpServletResponse get(String id, String ifNoneMatch) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/img");
+        request.setParameter("id", id);
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        imageServlet.doGet(request, response);
+        return response;
+    }
+
+    @Test
+    public void imageShouldBeServedFromItsFile() throws ServletException, IOException {
+        MockHttpServletResponse response = get("image", null);
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals("\"hash\"", response.getHeader(HttpHeaders.ETAG));
+        assertEquals("image/png", response.getContentType());
+        assertEquals(CONTENT.length, response.getContentLength());
+        assertArrayEquals(CONTENT, response.getContentAsByteArray());
+    }
+
+    @Test
+    public void matchingEntityTagShouldReturnNotModified() throws ServletException, IOException {
+        MockHttpServletResponse response = get("image", "\"other\", W/\"hash\"");
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), response.getStatus());
+        assertEquals("\"hash\"", response.getHeader(HttpHeaders.ETAG));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    public void otherEntityTagShouldReturnTheImage() throws ServletException, IOException {
+        MockHttpServletResponse response = get("image", "\"other\"");
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertArrayEquals(CONTENT, response.getContentAsByteArray());
+    }
+
+    @Test
+    public void missingImageShouldReturnNotFound() throws ServletException, IOException {
+        assertEquals(HttpStatus.NOT_FOUND.value(), get("missing", null).getStatus());
+    }
+
+    @Test
+    public void imageMissingOnDiskShouldReturnNotFound() throws ServletException, IOException {
+        Files.delete(imagesFolder.getRoot().toPath().resolve("image.png"));
+        assertEquals(HttpStatus.NOT_FOUND.value(), get("image", null).getStatus());
+    }
+}
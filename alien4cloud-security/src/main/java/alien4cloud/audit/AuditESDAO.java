@@ -11,6 +11,7 @@ import org.springframework.stereotype.Component;
 import alien4cloud.audit.model.AuditConfiguration;
 import alien4cloud.audit.model.AuditTrace;
 import alien4cloud.dao.ESGenericSearchDAO;
+import alien4cloud.dao.RefreshPolicy;
 import alien4cloud.exception.IndexingServiceException;
 
 @Component("alien-audit-dao")
@@ -30,6 +31,7 @@ public class AuditESDAO extends ESGenericSearchDAO {
         }
         // Audit trace index
         initIndices(ALIEN_AUDIT_INDEX, auditTtl, AuditTrace.class, AuditConfiguration.class);
+        setRefreshPolicy(RefreshPolicy.DEFERRED, AuditTrace.class);
         initCompleted();
     }
 
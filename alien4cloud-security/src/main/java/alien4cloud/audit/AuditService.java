@@ -8,6 +8,7 @@ import javax.annotation.Resource;
 
 import org.apache.commons.lang3.StringUtils;
 import org.elasticsearch.index.query.FilterBuilder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -32,22 +33,33 @@ public class AuditService {
 
     @Resource(name = "alien-audit-dao")
     private IGenericSearchDAO alienDAO;
+    @Resource
+    private AuditTraceWriter auditTraceWriter;
+    /** Maximum duration in milliseconds a search waits for the latest audit traces to be written. */
+    @Value("${audit.search_flush_timeout_ms:200}")
+    private long searchFlushTimeoutMs = 200;
 
     /**
-     * Cache the instance of audit configuration bad idea ?
+     * Cache the instance of audit configuration, read on every request by the audit filter without locking.
      */
-    private AuditConfiguration auditConfiguration;
+    private volatile AuditConfiguration auditConfiguration;
 
     /**
      * Get the audit configuration, this method will cache the configuration in memory
      * 
      * @return the audit configuration
      */
-    public synchronized AuditConfiguration getAuditConfiguration() {
-        if (this.auditConfiguration == null) {
-            this.auditConfiguration = alienDAO.findById(AuditConfiguration.class, AuditConfiguration.ID);
+    public AuditConfiguration getAuditConfiguration() {
+        AuditConfiguration configuration = this.auditConfiguration;
+        if (configuration == null) {
+            synchronized (this) {
+                if (this.auditConfiguration == null) {
+                    this.auditConfiguration = alienDAO.findById(AuditConfiguration.class, AuditConfiguration.ID);
+                }
+                configuration = this.auditConfiguration;
+            }
         }
-        return this.auditConfiguration;
+        return configuration;
     }
 
     public synchronized void saveAuditConfiguration(AuditConfiguration auditConfiguration) {
@@ -55,8 +67,14 @@ public class AuditService {
         this.auditConfiguration = auditConfiguration;
     }
 
-    public void saveAuditTrace(AuditTrace auditTrace) {
-        alienDAO.save(auditTrace);
+    /**
+     * Save an audit trace asynchronously.
+     *
+     * @param auditTrace The trace to save.
+     * @return true if the trace will be saved, false if it has been dropped as too many traces are waiting to be saved.
+     */
+    public boolean saveAuditTrace(AuditTrace auditTrace) {
+        return auditTraceWriter.submit(auditTrace);
     }
 
     public AuditConfiguration getMandatoryAuditConfiguration() {
@@ -69,6 +87,9 @@ public class AuditService {
 
     public FacetedSearchResult searchAuditTrace(String query, Map<String, String[]> filters, int from, int size) {
         FilterBuilder authorizationFilter = AuthorizationUtil.getResourceAuthorizationFilters();
+        // audit traces are saved asynchronously with a deferred refresh, give a short time to the latest ones to be visible to the search.
+        auditTraceWriter.flush(searchFlushTimeoutMs);
+        alienDAO.refresh(AuditTrace.class);
         return alienDAO.facetedSearch(AuditTrace.class, query, filters, authorizationFilter, null, from, size, "timestamp", true);
     }
 
@@ -0,0 +1,276 @@
+package alien4cloud.audit;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.collect.Lists;
+
+import alien4cloud.audit.model.AuditTrace;
+import alien4cloud.dao.IGenericSearchDAO;
+import alien4cloud.dao.RefreshPolicy;
+import alien4cloud.dao.model.BulkWriteResult;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes audit traces asynchronously so that auditing doesn't add latency to the audited requests. Traces are kept in an in-memory queue bounded both by
+ * the number of traces and by their estimated size, and written by a single thread using bulk requests.
+ * <p>
+ * When the queue is full, traces are either dropped or the request thread waits for some room in the queue for a limited time, depending on the configured
+ * {@link OverflowPolicy}.
+ */
+@Slf4j
+@Component
+public class AuditTraceWriter {
+    /** Estimated size in bytes of a trace without its request body. */
+    private static final int TRACE_BASE_SIZE = 1024;
+
+    /** Behavior when the queue of traces to write is full. */
+    public enum OverflowPolicy {
+        /** The trace is dropped. */
+        DROP,
+        /** The request thread waits for some room in the queue up to the configured timeout, the trace is dropped if there is still no room. */
+        BLOCK
+    }
+
+    @Resource(name = "alien-audit-dao")
+    private IGenericSearchDAO alienDAO;
+
+    /** Maximum number of traces waiting to be written. */
+    @Value("${audit.writer.queue_size:10000}")
+    private int queueSize = 10000;
+    /** Maximum estimated size in bytes of the traces waiting to be written (or under writing). */
+    @Value("${audit.writer.max_queued_bytes:16777216}")
+    private int maxQueuedBytes = 16777216;
+    /** Maximum number of traces to write in a single bulk request. */
+    @Value("${audit.writer.bulk_size:500}")
+    private int bulkSize = 500;
+    /** Maximum duration in milliseconds to wait for more traces before writing a bulk request that is not full. */
+    @Value("${audit.writer.linger_ms:200}")
+    private long lingerMs = 200;
+    @Value("${audit.writer.overflow_policy:DROP}")
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+    /** Maximum duration in milliseconds a request waits for room in the queue with the {@link OverflowPolicy#BLOCK} policy. */
+    @Value("${audit.writer.block_timeout_ms:1000}")
+    private long blockTimeoutMs = 1000;
+
+    private BlockingQueue<AuditTrace> queue;
+    /** One permit per byte of the estimated size of the traces waiting to be written. */
+    private Semaphore queuedBytes;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    private final AtomicLong acceptedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong bulkRequestCount = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueSize);
+        queuedBytes = new Semaphore(maxQueuedBytes);
+        running = true;
+        writerThread = new Thread(this::writeLoop, "audit-trace-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Audit traces are written asynchronously with a queue of {} traces or {} bytes and {} overflow policy", queueSize, maxQueuedBytes,
+                overflowPolicy);
+    }
+
+    /**
+     * Stop the writer once all the traces of the queue have been written.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        // write traces that may have been added while stopping
+        writeAll();
+    }
+
+    /**
+     * Add a trace to the queue of traces to write.
+     *
+     * @param auditTrace The trace to write.
+     * @return true if the trace has been added to the queue, false if it has been dropped.
+     */
+    public boolean submit(AuditTrace auditTrace) {
+        int size = estimateSize(auditTrace);
+        boolean accepted;
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            try {
+                long deadline = System.currentTimeMillis() + blockTimeoutMs;
+                accepted = queuedBytes.tryAcquire(size, blockTimeoutMs, TimeUnit.MILLISECONDS);
+                if (accepted && !queue.offer(auditTrace, Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS)) {
+                    queuedBytes.release(size);
+                    accepted = false;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                accepted = false;
+            }
+        } else {
+            accepted = queuedBytes.tryAcquire(size);
+            if (accepted && !queue.offer(auditTrace)) {
+                queuedBytes.release(size);
+                accepted = false;
+            }
+        }
+        if (accepted) {
+            acceptedCount.incrementAndGet();
+        } else if (droppedCount.incrementAndGet() % 1000 == 1) {
+            log.warn("Audit trace queue is full, {} traces have been dropped", droppedCount.get());
+        }
+        return accepted;
+    }
+
+    /**
+     * Wait for the writer thread to write the traces that have been submitted before the call, so that they are available to searches once the index is
+     * refreshed.
+     *
+     * @param timeoutMs Maximum duration in milliseconds to wait for the traces to be written.
+     * @return true if the traces have been written, false if the timeout has been reached before.
+     */
+    public boolean flush(long timeoutMs) {
+        long expected = acceptedCount.get();
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (writtenCount.get() + failedCount.get() < expected) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Estimate the memory used by a trace, dominated by its request body.
+     */
+    private int estimateSize(AuditTrace auditTrace) {
+        long size = TRACE_BASE_SIZE + (auditTrace.getRequestBody() == null ? 0 : 2L * auditTrace.getRequestBody().length());
+        // a trace bigger than the whole budget is accepted once the queue is empty
+        return (int) Math.min(size, maxQueuedBytes);
+    }
+
+    private void writeLoop() {
+        while (running) {
+            try {
+                AuditTrace first = queue.poll(1, TimeUnit.SECONDS);
+                if (first != null) {
+                    List<AuditTrace> batch = Lists.newArrayListWithCapacity(bulkSize);
+                    batch.add(first);
+                    fillBatch(batch);
+                    write(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Unexpected error in audit trace writer", e);
+            }
+        }
+    }
+
+    /**
+     * Add traces from the queue to the batch until it is full or no trace has been added during the linger duration.
+     */
+    private void fillBatch(List<AuditTrace> batch) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + lingerMs;
+        while (batch.size() < bulkSize) {
+            queue.drainTo(batch, bulkSize - batch.size());
+            long remaining = deadline - System.currentTimeMillis();
+            if (batch.size() >= bulkSize || remaining <= 0) {
+                return;
+            }
+            AuditTrace next = queue.poll(remaining, TimeUnit.MILLISECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void writeAll() {
+        List<AuditTrace> batch = Lists.newArrayList();
+        while (queue.drainTo(batch, bulkSize) > 0) {
+            write(batch);
+            batch = Lists.newArrayList();
+        }
+    }
+
+    private void write(List<AuditTrace> batch) {
+        int size = 0;
+        for (AuditTrace auditTrace : batch) {
+            size += estimateSize(auditTrace);
+        }
+        try {
+            BulkWriteResult result = alienDAO.bulkSave(batch, bulkSize, RefreshPolicy.DEFERRED);
+            bulkRequestCount.addAndGet(result.getRequestCount());
+            failedCount.addAndGet(result.getFailures().size());
+            writtenCount.addAndGet(batch.size() - result.getFailures().size());
+        } catch (Exception e) {
+            log.warn("Unable to save {} audit traces", batch.size(), e);
+            failedCount.addAndGet(batch.size());
+        } finally {
+            queuedBytes.release(size);
+        }
+    }
+
+    /**
+     * @return The number of traces that have been added to the queue.
+     */
+    public long getAcceptedCount() {
+        return acceptedCount.get();
+    }
+
+    /**
+     * @return The number of traces that have been dropped because the queue was full.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return The number of traces that have been written.
+     */
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    /**
+     * @return The number of traces that could not be written.
+     */
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * @return The number of bulk requests sent to write traces.
+     */
+    public long getBulkRequestCount() {
+        return bulkRequestCount.get();
+    }
+
+    /**
+     * @return The number of traces waiting to be written.
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+}
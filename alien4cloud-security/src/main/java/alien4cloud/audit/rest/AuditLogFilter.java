@@ -15,11 +15,11 @@ import javax.servlet.http.HttpServletResponse;
 
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.Ordered;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StreamUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerExecutionChain;
@@ -32,7 +32,6 @@ import alien4cloud.audit.model.AuditTrace;
 import alien4cloud.security.AuthorizationUtil;
 import alien4cloud.security.model.User;
 
-import com.google.common.base.Charsets;
 import com.google.common.base.Strings;
 
 /**
@@ -54,6 +53,10 @@ public class AuditLogFilter extends OncePerRequestFilter implements Ordered {
     @Resource
     private AuditService auditService;
 
+    /** Maximum size in bytes of the request body kept in the audit trace. */
+    @Value("${audit.max_body_size:65536}")
+    private int maxBodySize = 65536;
+
     @Resource
     private List<HandlerMapping> handlerMappings;
 
@@ -104,8 +107,7 @@ public class AuditLogFilter extends OncePerRequestFilter implements Ordered {
         return Ordered.LOWEST_PRECEDENCE - 10;
     }
 
-    private AuditTrace getAuditTrace(HttpServletRequest request, HttpServletResponse response, HandlerMethod method, User user, boolean requestContainsJson)
-            throws IOException {
+    private AuditTrace getAuditTrace(HttpServletRequest request, HttpServletResponse response, HandlerMethod method, User user) throws IOException {
         Audit audit = auditService.getAuditAnnotation(method);
         // trace user info only when he is logged
         AuditTrace auditTrace = new AuditTrace();
@@ -129,8 +131,8 @@ public class AuditLogFilter extends OncePerRequestFilter implements Ordered {
         auditTrace.setRequestParameters(request.getParameterMap());
         auditTrace.setSourceIp(request.getRemoteAddr());
         // request body
-        if (requestContainsJson) {
-            auditTrace.setRequestBody(StreamUtils.copyToString(request.getInputStream(), Charsets.UTF_8));
+        if (request instanceof BodyCapturingHttpServletRequest) {
+            auditTrace.setRequestBody(((BodyCapturingHttpServletRequest) request).getCapturedBody());
         }
         // response details
         auditTrace.setResponseStatus(response.getStatus());
@@ -167,16 +169,15 @@ public class AuditLogFilter extends OncePerRequestFilter implements Ordered {
             filterChain.doFilter(request, response);
             return;
         }
-        boolean requestContainsJson = isRequestContainingJson(request);
-        if (requestContainsJson) {
-            request = new MultiReadHttpServletRequest(request);
+        if (isRequestContainingJson(request)) {
+            request = new BodyCapturingHttpServletRequest(request, maxBodySize);
         }
         try {
             filterChain.doFilter(request, response);
         } finally {
             AuditTrace auditTrace = null;
             try {
-                auditTrace = getAuditTrace(request, response, method, user, requestContainsJson);
+                auditTrace = getAuditTrace(request, response, method, user);
             } catch (Exception e) {
                 logger.warn("Unable to construct audit trace", e);
             }
@@ -184,10 +185,8 @@ public class AuditLogFilter extends OncePerRequestFilter implements Ordered {
                 if (logger.isDebugEnabled()) {
                     logger.debug(auditTrace.toString());
                 }
-                try {
-                    auditService.saveAuditTrace(auditTrace);
-                } catch (Exception e) {
-                    logger.warn("Unable to save audit trace " + auditTrace, e);
+                if (!auditService.saveAuditTrace(auditTrace) && logger.isDebugEnabled()) {
+                    logger.debug("Audit trace dropped " + auditTrace);
                 }
             }
         }
@@ -0,0 +1,134 @@
+package alien4cloud.audit.rest;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+
+import com.google.common.base.Charsets;
+
+/**
+ * Request wrapper that keeps a copy of the first bytes of the request body while it is read by the application so that it can be added to the audit trace
+ * without buffering the whole body before processing the request.
+ */
+public class BodyCapturingHttpServletRequest extends HttpServletRequestWrapper {
+    private final int maxCapturedBytes;
+    private final ByteArrayOutputStream capturedBytes;
+    private boolean truncated = false;
+    private CapturingServletInputStream inputStream;
+
+    /**
+     * @param request The request to wrap.
+     * @param maxCapturedBytes The maximum number of bytes of the body to keep.
+     */
+    public BodyCapturingHttpServletRequest(HttpServletRequest request, int maxCapturedBytes) {
+        super(request);
+        this.maxCapturedBytes = maxCapturedBytes;
+        this.capturedBytes = new ByteArrayOutputStream(Math.min(maxCapturedBytes, 1024));
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (inputStream == null) {
+            inputStream = new CapturingServletInputStream(super.getInputStream());
+        }
+        return inputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        return new BufferedReader(new InputStreamReader(getInputStream(), getCharset()));
+    }
+
+    /**
+     * Get the captured body. If the application didn't read the whole body, the remaining bytes (up to the capture limit) are read from the request.
+     *
+     * @return The captured body, truncated to the maximum number of bytes to capture.
+     * @throws IOException In case the remaining body cannot be read.
+     */
+    public String getCapturedBody() throws IOException {
+        ServletInputStream stream = getInputStream();
+        byte[] buffer = new byte[1024];
+        while (!truncated && !stream.isFinished() && stream.read(buffer) >= 0) {
+            // the capturing stream keeps the bytes
+        }
+        return new String(capturedBytes.toByteArray(), getCharset());
+    }
+
+    /**
+     * @return True if the body is bigger than the maximum number of bytes to capture.
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    private Charset getCharset() {
+        String encoding = getCharacterEncoding();
+        return encoding == null ? Charsets.UTF_8 : Charset.forName(encoding);
+    }
+
+    private void capture(byte[] bytes, int offset, int length) {
+        int capturable = Math.min(length, maxCapturedBytes - capturedBytes.size());
+        if (capturable > 0) {
+            capturedBytes.write(bytes, offset, capturable);
+        }
+        if (capturable < length) {
+            truncated = true;
+        }
+    }
+
+    /* An input stream that copies the bytes read from the request body */
+    private class CapturingServletInputStream extends ServletInputStream {
+        private final ServletInputStream delegate;
+        private boolean finished = false;
+
+        private CapturingServletInputStream(ServletInputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = delegate.read();
+            if (read < 0) {
+                finished = true;
+            } else if (capturedBytes.size() < maxCapturedBytes) {
+                capturedBytes.write(read);
+            } else {
+                truncated = true;
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int read = delegate.read(bytes, offset, length);
+            if (read < 0) {
+                finished = true;
+            } else {
+                capture(bytes, offset, read);
+            }
+            return read;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished || delegate.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            delegate.setReadListener(readListener);
+        }
+    }
+}
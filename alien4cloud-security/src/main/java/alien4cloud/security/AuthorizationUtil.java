@@ -1,11 +1,16 @@
 package alien4cloud.security;
 
+import java.util.Collections;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.elasticsearch.index.query.FilterBuilder;
 import org.elasticsearch.index.query.FilterBuilders;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -18,6 +23,8 @@ import org.springframework.stereotype.Component;
 import com.google.common.collect.Sets;
 
 import alien4cloud.Constants;
+import alien4cloud.security.event.GroupChangedEvent;
+import alien4cloud.security.event.UserChangedEvent;
 import alien4cloud.security.groups.IAlienGroupDao;
 import alien4cloud.security.model.*;
 import alien4cloud.security.spring.Alien4CloudAccessDeniedHandler;
@@ -26,6 +33,9 @@ import lombok.extern.slf4j.Slf4j;
 
 /**
  * Applications and topologies concerns
+ * <p>
+ * The groups of a user (including the default all users group) and the resource authorization filters are resolved once per user and kept in memory until
+ * the user or a group changes (see {@link UserChangedEvent} and {@link GroupChangedEvent}).
  */
 @Slf4j
 @Component
@@ -34,6 +44,13 @@ public final class AuthorizationUtil {
     private static IAlienGroupDao alienGroupDao;
     private static Alien4CloudAccessDeniedHandler accessDeniedHandler;
 
+    /** Default all users group, empty if the group doesn't exist, null if not loaded yet. */
+    private static volatile Optional<Group> allUsersGroup;
+    /** Authorization snapshot of the users by username. */
+    private static final Map<String, AuthorizationSnapshot> snapshots = new ConcurrentHashMap<>();
+    /** Incremented on every invalidation so that a snapshot resolved before an invalidation is not cached. */
+    private static final AtomicLong generation = new AtomicLong();
+
     @Autowired
     public void setAlienGroupDao(IAlienGroupDao alienGroupDao) {
         AuthorizationUtil.alienGroupDao = alienGroupDao;
@@ -47,6 +64,27 @@ public final class AuthorizationUtil {
     private AuthorizationUtil() {
     }
 
+    @EventListener
+    public void handleGroupChanged(GroupChangedEvent event) {
+        // the all users group may have changed and the groups of any user may have changed.
+        invalidateAll();
+    }
+
+    @EventListener
+    public void handleUserChanged(UserChangedEvent event) {
+        generation.incrementAndGet();
+        snapshots.remove(event.getUsername());
+    }
+
+    /**
+     * Remove all the cached authorization data.
+     */
+    public static void invalidateAll() {
+        generation.incrementAndGet();
+        allUsersGroup = null;
+        snapshots.clear();
+    }
+
     /**
      * Check that the user has one of the requested rights for the given application
      *
@@ -166,18 +204,20 @@ public final class AuthorizationUtil {
             return null;
         }
 
+        return getSnapshot((User) auth.getPrincipal()).authorizationFilter;
+    }
+
+    private static FilterBuilder buildResourceAuthorizationFilters(String username, Set<String> userGroups, Group allUsersGroup) {
         FilterBuilder filterBuilder;
-        User user = (User) auth.getPrincipal();
-        if (user.getGroups() != null && !user.getGroups().isEmpty()) {
+        if (userGroups != null && !userGroups.isEmpty()) {
             filterBuilder = FilterBuilders.boolFilter()
-                    .should(FilterBuilders.nestedFilter("userRoles", FilterBuilders.termFilter("userRoles.key", auth.getName())))
-                    .should(FilterBuilders.nestedFilter("groupRoles", FilterBuilders.inFilter("groupRoles.key", user.getGroups().toArray())));
+                    .should(FilterBuilders.nestedFilter("userRoles", FilterBuilders.termFilter("userRoles.key", username)))
+                    .should(FilterBuilders.nestedFilter("groupRoles", FilterBuilders.inFilter("groupRoles.key", userGroups.toArray())));
         } else {
-            filterBuilder = FilterBuilders.nestedFilter("userRoles", FilterBuilders.termFilter("userRoles.key", auth.getName()));
+            filterBuilder = FilterBuilders.nestedFilter("userRoles", FilterBuilders.termFilter("userRoles.key", username));
         }
-        Group group = getAllUsersGroup();
-        if (group != null) {
-            String groupId = group.getId();
+        if (allUsersGroup != null) {
+            String groupId = allUsersGroup.getId();
             // add ALL_USERS group as OR filter
             filterBuilder = FilterBuilders.orFilter(filterBuilder,
                     FilterBuilders.nestedFilter("groupRoles", FilterBuilders.inFilter("groupRoles.key", groupId)));
@@ -185,6 +225,25 @@ public final class AuthorizationUtil {
         return filterBuilder;
     }
 
+    /**
+     * Get the authorization snapshot of a user, resolving it if not cached or if the groups of the user have changed since it has been resolved.
+     *
+     * @param user The user.
+     * @return The authorization snapshot of the user.
+     */
+    private static AuthorizationSnapshot getSnapshot(User user) {
+        AuthorizationSnapshot snapshot = snapshots.get(user.getUsername());
+        if (snapshot != null && snapshot.isValidFor(user)) {
+            return snapshot;
+        }
+        long snapshotGeneration = generation.get();
+        snapshot = new AuthorizationSnapshot(user, getAllUsersGroup());
+        if (snapshotGeneration == generation.get()) {
+            snapshots.put(user.getUsername(), snapshot);
+        }
+        return snapshot;
+    }
+
     /**
      * Get current logged in user
      *
@@ -213,14 +272,7 @@ public final class AuthorizationUtil {
                 allRoles.addAll(userRoles);
             }
         }
-        Set<String> groups = user.getGroups();
-        if (groups == null) {
-            groups = Sets.newHashSet();
-        }
-        Group allUserGroup = getAllUsersGroup();
-        if (allUserGroup != null) {
-            groups.add(allUserGroup.getId());
-        }
+        Set<String> groups = getSnapshot(user).groups;
         Map<String, Set<String>> groupRolesMap = resource.getGroupRoles();
         if (groupRolesMap != null && !groupRolesMap.isEmpty()) {
             for (String group : groups) {
@@ -326,12 +378,19 @@ public final class AuthorizationUtil {
      * @return
      */
     private static Group getAllUsersGroup() {
-        Group group = alienGroupDao.findByName(Constants.GROUP_NAME_ALL_USERS);
+        Optional<Group> group = allUsersGroup;
         if (group == null) {
+            long groupGeneration = generation.get();
+            group = Optional.ofNullable(alienGroupDao.findByName(Constants.GROUP_NAME_ALL_USERS));
+            if (groupGeneration == generation.get()) {
+                allUsersGroup = group;
+            }
+        }
+        if (!group.isPresent()) {
             log.warn("Default all users group <{}> not found", Constants.GROUP_NAME_ALL_USERS);
             return null;
         }
-        return group;
+        return group.get();
     }
 
     /**
@@ -424,4 +483,29 @@ public final class AuthorizationUtil {
 
         httpSecurity.csrf().disable();
     }
+
+    /**
+     * Authorization data of a user that doesn't depend on the secured resources.
+     */
+    private static class AuthorizationSnapshot {
+        /** Groups of the user when the snapshot has been resolved, to detect a new authentication with different groups. */
+        private final Set<String> userGroups;
+        /** Groups of the user including the default all users group. */
+        private final Set<String> groups;
+        private final FilterBuilder authorizationFilter;
+
+        private AuthorizationSnapshot(User user, Group allUsersGroup) {
+            this.userGroups = user.getGroups() == null ? Collections.<String> emptySet() : Sets.newHashSet(user.getGroups());
+            Set<String> allGroups = Sets.newHashSet(userGroups);
+            if (allUsersGroup != null) {
+                allGroups.add(allUsersGroup.getId());
+            }
+            this.groups = Collections.unmodifiableSet(allGroups);
+            this.authorizationFilter = buildResourceAuthorizationFilters(user.getUsername(), userGroups, allUsersGroup);
+        }
+
+        private boolean isValidFor(User user) {
+            return user.getGroups() == null || user.getGroups().isEmpty() ? userGroups.isEmpty() : userGroups.equals(user.getGroups());
+        }
+    }
 }
@@ -0,0 +1,18 @@
+package alien4cloud.security.event;
+
+import alien4cloud.events.AlienEvent;
+import lombok.Getter;
+
+/**
+ * Event published when a group is created, updated (name, roles or users) or deleted.
+ */
+@Getter
+public class GroupChangedEvent extends AlienEvent {
+    /** Id of the group that has changed. */
+    private final String groupId;
+
+    public GroupChangedEvent(Object source, String groupId) {
+        super(source);
+        this.groupId = groupId;
+    }
+}
@@ -0,0 +1,18 @@
+package alien4cloud.security.event;
+
+import alien4cloud.events.AlienEvent;
+import lombok.Getter;
+
+/**
+ * Event published when a user is created, updated (roles or groups) or deleted.
+ */
+@Getter
+public class UserChangedEvent extends AlienEvent {
+    /** Name of the user that has changed. */
+    private final String username;
+
+    public UserChangedEvent(Object source, String username) {
+        super(source);
+        this.username = username;
+    }
+}
@@ -12,11 +12,13 @@ import alien4cloud.security.model.Group;
 import lombok.extern.slf4j.Slf4j;
 
 import org.apache.commons.collections4.CollectionUtils;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import alien4cloud.exception.AlreadyExistException;
 import alien4cloud.exception.InvalidArgumentException;
 import alien4cloud.exception.NotFoundException;
+import alien4cloud.security.event.GroupChangedEvent;
 import alien4cloud.security.model.Role;
 import alien4cloud.security.model.User;
 import alien4cloud.security.users.UserService;
@@ -34,6 +36,8 @@ public class GroupService {
 
     @Resource
     private UserService userService;
+    @Resource
+    private ApplicationEventPublisher publisher;
 
     public void updateGroup(String groupId, UpdateGroupRequest groupUpdateRequest) {
         Group group = retrieveGroup(groupId);
@@ -47,7 +51,7 @@ public class GroupService {
             // If group name has changed, must check unicity
             checkGroupNameUnicity(group.getName());
         }
-        alienGroupDao.save(group);
+        saveGroup(group);
     }
 
     public void deleteGroup(String groupId) {
@@ -58,6 +62,7 @@ public class GroupService {
             }
         }
         alienGroupDao.delete(groupId);
+        publisher.publishEvent(new GroupChangedEvent(this, groupId));
     }
 
     public User addUserToGroup(String username, String groupId) {
@@ -68,7 +73,7 @@ public class GroupService {
         users.add(user.getUsername());
         group.setUsers(users);
 
-        alienGroupDao.save(group);
+        saveGroup(group);
 
         // update groupRoles in the user
         userService.addGroupToUser(group, user);
@@ -84,7 +89,7 @@ public class GroupService {
         User user = userService.retrieveUser(username);
 
         group.getUsers().remove(user.getUsername());
-        alienGroupDao.save(group);
+        saveGroup(group);
 
         // update groupRoles in users objects
         userService.removeGroupFromUser(user, group);
@@ -128,7 +133,7 @@ public class GroupService {
             group.setUsers(usersSet);
         }
 
-        alienGroupDao.save(group);
+        saveGroup(group);
 
         if (CollectionUtils.isNotEmpty(usersList)) {
             for (User user : usersList) {
@@ -146,7 +151,7 @@ public class GroupService {
         rolesSet.add(Role.getStringFormatedRole(role));
         group.setRoles(rolesSet);
 
-        alienGroupDao.save(group);
+        saveGroup(group);
 
         // update groupRoles in users objects
         if (CollectionUtils.isNotEmpty(group.getUsers())) {
@@ -171,7 +176,7 @@ public class GroupService {
         }
 
         group.getRoles().remove(Role.getStringFormatedRole(role));
-        alienGroupDao.save(group);
+        saveGroup(group);
 
         // update groupRoles in users objects
         if (CollectionUtils.isNotEmpty(group.getUsers())) {
@@ -182,6 +187,11 @@ public class GroupService {
 
     }
 
+    private void saveGroup(Group group) {
+        alienGroupDao.save(group);
+        publisher.publishEvent(new GroupChangedEvent(this, group.getId()));
+    }
+
     /**
      * check if the given groupId is unique in the system
      * 
@@ -12,12 +12,14 @@ import javax.annotation.Resource;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.bcrypt.BCrypt;
 import org.springframework.stereotype.Component;
 
 import alien4cloud.dao.model.GetMultipleDataResult;
 import alien4cloud.exception.AlreadyExistException;
 import alien4cloud.exception.NotFoundException;
+import alien4cloud.security.event.UserChangedEvent;
 import alien4cloud.security.groups.IAlienGroupDao;
 import alien4cloud.security.model.Group;
 import alien4cloud.security.model.Role;
@@ -34,6 +36,8 @@ public class UserService {
     private IAlienUserDao alienUserDao;
     @Resource
     private IAlienGroupDao alienGroupDao;
+    @Resource
+    private ApplicationEventPublisher publisher;
 
     @Value("${alien_security.admin.ensure}")
     private boolean ensure;
@@ -102,7 +106,7 @@ public class UserService {
         user.setAccountNonExpired(true);
         user.setAccountNonLocked(true);
         user.setCredentialsNonExpired(true);
-        alienUserDao.save(user);
+        saveUser(user);
     }
 
     /**
@@ -117,7 +121,7 @@ public class UserService {
         if (userUpdateRequest.getPassword() != null) {
             user.setPassword(BCrypt.hashpw(userUpdateRequest.getPassword(), BCrypt.gensalt()));
         }
-        alienUserDao.save(user);
+        saveUser(user);
     }
 
     /**
@@ -150,7 +154,7 @@ public class UserService {
             user.setGroupRoles(groupRolesSet);
         }
 
-        alienUserDao.save(user);
+        saveUser(user);
 
     }
 
@@ -176,11 +180,27 @@ public class UserService {
         groupRolesSet.add(Role.getStringFormatedRole(role));
         user.setGroupRoles(groupRolesSet);
 
-        alienUserDao.save(user);
+        saveUser(user);
     }
 
+    /**
+     * Save a user and notify that the user has changed.
+     *
+     * @param user The user to save.
+     */
     public void saveUser(User user) {
         alienUserDao.save(user);
+        publisher.publishEvent(new UserChangedEvent(this, user.getUsername()));
+    }
+
+    /**
+     * Delete a user and notify that the user has changed.
+     *
+     * @param username The username of the user to delete.
+     */
+    public void deleteUser(String username) {
+        alienUserDao.delete(username);
+        publisher.publishEvent(new UserChangedEvent(this, username));
     }
 
     /**
@@ -205,7 +225,7 @@ public class UserService {
             }
             user.setGroupRoles(groupRolesSet);
         }
-        alienUserDao.save(user);
+        saveUser(user);
     }
 
     /**
@@ -243,7 +263,7 @@ public class UserService {
         if (CollectionUtils.isNotEmpty(group.getRoles())) {
             updateUserGroupRoles(user);
         } else {
-            alienUserDao.save(user);
+            saveUser(user);
         }
     }
 
@@ -0,0 +1,138 @@
+package alien4cloud.audit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import alien4cloud.audit.model.AuditTrace;
+import alien4cloud.dao.IGenericSearchDAO;
+import alien4cloud.dao.RefreshPolicy;
+import alien4cloud.dao.model.BulkWriteResult;
+
+public class AuditTraceWriterTest {
+    private AuditTraceWriter writer;
+    private IGenericSearchDAO alienDAO;
+
+    @Before
+    public void setup() {
+        writer = new AuditTraceWriter();
+        alienDAO = Mockito.mock(IGenericSearchDAO.class);
+        ReflectionTestUtils.setField(writer, "alienDAO", alienDAO);
+        ReflectionTestUtils.setField(writer, "queueSize", 2);
+        ReflectionTestUtils.setField(writer, "lingerMs", 0L);
+    }
+
+    @After
+    public void cleanup() throws InterruptedException {
+        writer.stop();
+    }
+
+    private static BulkWriteResult result(int itemCount) {
+        BulkWriteResult result = new BulkWriteResult();
+        result.setItemCount(itemCount);
+        result.setRequestCount(1);
+        return result;
+    }
+
+    @Test
+    public void submittedTracesShouldBeWrittenOnFlush() {
+        Mockito.when(alienDAO.bulkSave(Mockito.any(Collection.class), Mockito.anyInt(), Mockito.eq(RefreshPolicy.DEFERRED)))
+                .thenAnswer(invocation -> result(((Collection<?>) invocation.getArguments()[0]).size()));
+        writer.start();
+
+        assertTrue(writer.submit(new AuditTrace()));
+        assertTrue(writer.submit(new AuditTrace()));
+        assertTrue(writer.flush(5000));
+
+        assertEquals(2, writer.getAcceptedCount());
+        assertEquals(2, writer.getWrittenCount());
+        assertEquals(0, writer.getPendingCount());
+    }
+
+    @Test
+    public void tracesShouldBeDroppedWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(alienDAO.bulkSave(Mockito.any(Collection.class), Mockito.anyInt(), Mockito.eq(RefreshPolicy.DEFERRED))).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return result(((Collection<?>) invocation.getArguments()[0]).size());
+        });
+        writer.start();
+
+        // first trace is taken by the writer thread which is then blocked
+        assertTrue(writer.submit(new AuditTrace()));
+        writing.await();
+        assertTrue(writer.submit(new AuditTrace()));
+        assertTrue(writer.submit(new AuditTrace()));
+        assertFalse(writer.submit(new AuditTrace()));
+        assertEquals(1, writer.getDroppedCount());
+
+        release.countDown();
+        assertTrue(writer.flush(5000));
+        assertEquals(3, writer.getWrittenCount());
+    }
+
+    @Test
+    public void tracesShouldBeDroppedWhenQueuedBodiesAreTooBig() throws InterruptedException {
+        ReflectionTestUtils.setField(writer, "queueSize", 100);
+        ReflectionTestUtils.setField(writer, "maxQueuedBytes", 12000);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(alienDAO.bulkSave(Mockito.any(Collection.class), Mockito.anyInt(), Mockito.eq(RefreshPolicy.DEFERRED))).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return result(((Collection<?>) invocation.getArguments()[0]).size());
+        });
+        writer.start();
+
+        // the trace under writing still counts in the queued bytes
+        assertTrue(writer.submit(trace(2000)));
+        writing.await();
+        assertTrue(writer.submit(trace(2000)));
+        assertFalse(writer.submit(trace(2000)));
+        assertTrue(writer.submit(new AuditTrace()));
+        assertEquals(1, writer.getDroppedCount());
+
+        release.countDown();
+        assertTrue(writer.flush(5000));
+        assertEquals(3, writer.getWrittenCount());
+        // room is available again once traces are written
+        assertTrue(writer.submit(trace(2000)));
+    }
+
+    @Test
+    public void flushShouldNotWaitLongerThanTheTimeout() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(alienDAO.bulkSave(Mockito.any(Collection.class), Mockito.anyInt(), Mockito.eq(RefreshPolicy.DEFERRED))).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return result(((Collection<?>) invocation.getArguments()[0]).size());
+        });
+        writer.start();
+        assertTrue(writer.submit(new AuditTrace()));
+        writing.await();
+
+        long start = System.currentTimeMillis();
+        assertFalse(writer.flush(100));
+        assertTrue(System.currentTimeMillis() - start < 1000);
+        release.countDown();
+    }
+
+    private static AuditTrace trace(int bodyLength) {
+        AuditTrace auditTrace = new AuditTrace();
+        auditTrace.setRequestBody(StringUtils.repeat('a', bodyLength));
+        return auditTrace;
+    }
+}
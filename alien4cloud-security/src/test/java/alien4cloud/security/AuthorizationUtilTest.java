@@ -0,0 +1,103 @@
+package alien4cloud.security;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import org.elasticsearch.index.query.FilterBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.BeanUtils;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import alien4cloud.Constants;
+import alien4cloud.security.event.GroupChangedEvent;
+import alien4cloud.security.event.UserChangedEvent;
+import alien4cloud.security.groups.IAlienGroupDao;
+import alien4cloud.security.model.Group;
+import alien4cloud.security.model.User;
+
+public class AuthorizationUtilTest {
+    private AuthorizationUtil authorizationUtil;
+    private IAlienGroupDao alienGroupDao;
+    private User user;
+
+    @Before
+    public void setup() {
+        authorizationUtil = BeanUtils.instantiateClass(AuthorizationUtil.class);
+        alienGroupDao = Mockito.mock(IAlienGroupDao.class);
+        authorizationUtil.setAlienGroupDao(alienGroupDao);
+        AuthorizationUtil.invalidateAll();
+
+        Group allUsers = new Group(Constants.GROUP_NAME_ALL_USERS);
+        allUsers.setId("all-users-id");
+        Mockito.when(alienGroupDao.findByName(Constants.GROUP_NAME_ALL_USERS)).thenReturn(allUsers);
+
+        user = new User();
+        user.setUsername("guy");
+        user.setGroups(Sets.newHashSet("group-id"));
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null, Collections.emptyList()));
+    }
+
+    @After
+    public void cleanup() {
+        SecurityContextHolder.clearContext();
+        AuthorizationUtil.invalidateAll();
+    }
+
+    @Test
+    public void resourceAuthorizationFiltersShouldBeResolvedOnce() {
+        FilterBuilder filter = AuthorizationUtil.getResourceAuthorizationFilters();
+        for (int i = 0; i < 10; i++) {
+            assertSame(filter, AuthorizationUtil.getResourceAuthorizationFilters());
+        }
+        Mockito.verify(alienGroupDao, Mockito.times(1)).findByName(Constants.GROUP_NAME_ALL_USERS);
+    }
+
+    @Test
+    public void resourceAuthorizationFiltersShouldBeResolvedAgainWhenAGroupChanges() {
+        FilterBuilder filter = AuthorizationUtil.getResourceAuthorizationFilters();
+        authorizationUtil.handleGroupChanged(new GroupChangedEvent(this, "group-id"));
+        assertNotSame(filter, AuthorizationUtil.getResourceAuthorizationFilters());
+        Mockito.verify(alienGroupDao, Mockito.times(2)).findByName(Constants.GROUP_NAME_ALL_USERS);
+    }
+
+    @Test
+    public void resourceAuthorizationFiltersShouldBeResolvedAgainWhenTheUserChanges() {
+        FilterBuilder filter = AuthorizationUtil.getResourceAuthorizationFilters();
+        authorizationUtil.handleUserChanged(new UserChangedEvent(this, "other-guy"));
+        assertSame(filter, AuthorizationUtil.getResourceAuthorizationFilters());
+        authorizationUtil.handleUserChanged(new UserChangedEvent(this, "guy"));
+        assertNotSame(filter, AuthorizationUtil.getResourceAuthorizationFilters());
+        // the all users group is still cached
+        Mockito.verify(alienGroupDao, Mockito.times(1)).findByName(Constants.GROUP_NAME_ALL_USERS);
+    }
+
+    @Test
+    public void resourceAuthorizationFiltersShouldBeResolvedAgainWhenTheGroupsOfThePrincipalChange() {
+        FilterBuilder filter = AuthorizationUtil.getResourceAuthorizationFilters();
+        user.getGroups().add("other-group-id");
+        assertNotSame(filter, AuthorizationUtil.getResourceAuthorizationFilters());
+    }
+
+    @Test
+    public void getRolesForResourceShouldNotChangeTheUserGroups() {
+        ISecuredResource resource = Mockito.mock(ISecuredResource.class);
+        Map<String, Set<String>> groupRoles = Maps.newHashMap();
+        groupRoles.put("all-users-id", Sets.newHashSet("APPLICATION_USER"));
+        Mockito.when(resource.getGroupRoles()).thenReturn(groupRoles);
+
+        assertEquals(Sets.newHashSet("APPLICATION_USER"), AuthorizationUtil.getRolesForResource(user, resource));
+        assertEquals(Sets.newHashSet("group-id"), user.getGroups());
+    }
+}
@@ -0,0 +1,220 @@
+package alien4cloud.paas.wf.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import alien4cloud.paas.wf.AbstractStep;
+import alien4cloud.paas.wf.Workflow;
+import alien4cloud.paas.wf.exception.InconsistentWorkflowException;
+
+/**
+ * Indexed view of the steps graph of a workflow that allows to analyse the graph (cycles, topological order, reachability) in a time linear to the number of
+ * steps and links rather than enumerating all the paths of the graph (see {@link WorkflowGraphUtils#getWorkflowGraphPaths(Workflow)}), which number grows
+ * exponentially with the parallel branches.
+ */
+public class WorkflowGraph {
+    private static final byte WHITE = 0;
+    private static final byte GREY = 1;
+    private static final byte BLACK = 2;
+
+    private final AbstractStep[] steps;
+    /** Indexes of the following steps of every step. */
+    private final int[][] followers;
+    /** Indexes of the steps in topological order or null if the graph has cycles, computed on first use. */
+    private int[] topologicalOrder;
+    /** Position of every step in the topological order. */
+    private int[] topologicalPositions;
+    private boolean topologicalOrderComputed = false;
+
+    /**
+     * Build the graph of a workflow.
+     *
+     * @param workflow The workflow.
+     * @throws InconsistentWorkflowException if a step is linked to a step that doesn't exist in the workflow.
+     */
+    public WorkflowGraph(Workflow workflow) {
+        Map<String, Integer> indexes = Maps.newHashMap();
+        steps = new AbstractStep[workflow.getSteps().size()];
+        for (Map.Entry<String, AbstractStep> step : workflow.getSteps().entrySet()) {
+            indexes.put(step.getKey(), indexes.size());
+            steps[indexes.size() - 1] = step.getValue();
+        }
+        followers = new int[steps.length][];
+        for (int i = 0; i < steps.length; i++) {
+            if (steps[i].getFollowingSteps() == null) {
+                followers[i] = new int[0];
+                continue;
+            }
+            followers[i] = new int[steps[i].getFollowingSteps().size()];
+            int j = 0;
+            for (String followingId : steps[i].getFollowingSteps()) {
+                Integer index = indexes.get(followingId);
+                if (index == null) {
+                    throw new InconsistentWorkflowException(String.format("The workflow doesn't contains the expected step <%s> !", followingId));
+                }
+                followers[i][j++] = index;
+            }
+        }
+    }
+
+    /**
+     * @return The number of steps in the graph.
+     */
+    public int size() {
+        return steps.length;
+    }
+
+    /**
+     * @param index The index of a step.
+     * @return The step at the given index.
+     */
+    public AbstractStep getStep(int index) {
+        return steps[index];
+    }
+
+    /**
+     * Find the cycles of the graph using a depth first search from the entry steps (steps without predecessors) and then from the steps not connected to
+     * them. A cycle is reported for every link to a step that is being explored.
+     *
+     * @return The cycles as ordered lists of step names, the first step being repeated at the end (for example [A, B, C, A]).
+     */
+    public List<List<String>> getCycles() {
+        List<List<String>> cycles = Lists.newArrayList();
+        byte[] colors = new byte[steps.length];
+        // explicit stack to support deep graphs
+        int[] path = new int[steps.length];
+        int[] pathPositions = new int[steps.length];
+        int[] nextFollowers = new int[steps.length];
+        for (int start : getExplorationOrder()) {
+            if (colors[start] != WHITE) {
+                continue;
+            }
+            int depth = 0;
+            path[0] = start;
+            pathPositions[start] = 0;
+            colors[start] = GREY;
+            while (depth >= 0) {
+                int current = path[depth];
+                if (nextFollowers[current] < followers[current].length) {
+                    int next = followers[current][nextFollowers[current]++];
+                    if (colors[next] == WHITE) {
+                        colors[next] = GREY;
+                        path[++depth] = next;
+                        pathPositions[next] = depth;
+                    } else if (colors[next] == GREY) {
+                        List<String> cycle = new ArrayList<>(depth - pathPositions[next] + 2);
+                        for (int i = pathPositions[next]; i <= depth; i++) {
+                            cycle.add(steps[path[i]].getName());
+                        }
+                        cycle.add(steps[next].getName());
+                        cycles.add(cycle);
+                    }
+                } else {
+                    colors[current] = BLACK;
+                    depth--;
+                }
+            }
+        }
+        return cycles;
+    }
+
+    private List<Integer> getExplorationOrder() {
+        List<Integer> entries = Lists.newArrayList();
+        List<Integer> others = Lists.newArrayList();
+        for (int i = 0; i < steps.length; i++) {
+            if (steps[i].getPrecedingSteps() == null || steps[i].getPrecedingSteps().isEmpty()) {
+                entries.add(i);
+            } else {
+                others.add(i);
+            }
+        }
+        entries.addAll(others);
+        return entries;
+    }
+
+    /**
+     * @return The indexes of the steps in a topological order (every step is before its following steps) or null if the graph has cycles.
+     */
+    public int[] getTopologicalOrder() {
+        if (!topologicalOrderComputed) {
+            topologicalOrderComputed = true;
+            int[] inDegrees = new int[steps.length];
+            for (int[] stepFollowers : followers) {
+                for (int follower : stepFollowers) {
+                    inDegrees[follower]++;
+                }
+            }
+            int[] order = new int[steps.length];
+            int head = 0;
+            int tail = 0;
+            for (int i = 0; i < steps.length; i++) {
+                if (inDegrees[i] == 0) {
+                    order[tail++] = i;
+                }
+            }
+            while (head < tail) {
+                for (int follower : followers[order[head++]]) {
+                    if (--inDegrees[follower] == 0) {
+                        order[tail++] = follower;
+                    }
+                }
+            }
+            if (tail == steps.length) {
+                topologicalOrder = order;
+                topologicalPositions = new int[steps.length];
+                for (int i = 0; i < order.length; i++) {
+                    topologicalPositions[order[i]] = i;
+                }
+            }
+        }
+        return topologicalOrder;
+    }
+
+    /**
+     * Check if some steps are on a same path of the graph, that is if every step can be reached from the previous one. The check goes through the steps
+     * between the first and the last given steps once.
+     *
+     * @param chain The indexes of the steps to check sorted in topological order.
+     * @return True if the steps are on a same path, false if some of them are in parallel branches.
+     * @throws InconsistentWorkflowException if the graph has cycles.
+     */
+    public boolean isOnSamePath(List<Integer> chain) {
+        if (chain.size() < 2) {
+            return true;
+        }
+        if (getTopologicalOrder() == null) {
+            throw new InconsistentWorkflowException("Paths cannot be analysed on a workflow with cycles");
+        }
+        int[] chainPositions = new int[steps.length];
+        Arrays.fill(chainPositions, -1);
+        for (int i = 0; i < chain.size(); i++) {
+            chainPositions[chain.get(i)] = i;
+        }
+        // reached[step] is the position in the chain of the last chain step from which the step can be reached (or -1)
+        int[] reached = new int[steps.length];
+        Arrays.fill(reached, -1);
+        int from = topologicalPositions[chain.get(0)];
+        int to = topologicalPositions[chain.get(chain.size() - 1)];
+        for (int position = from; position <= to; position++) {
+            int step = topologicalOrder[position];
+            int chainPosition = chainPositions[step];
+            if (chainPosition >= 0) {
+                if (chainPosition > 0 && reached[step] != chainPosition - 1) {
+                    return false;
+                }
+                reached[step] = chainPosition;
+            }
+            if (reached[step] >= 0) {
+                for (int follower : followers[step]) {
+                    reached[follower] = Math.max(reached[follower], reached[step]);
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -1,27 +1,23 @@
 package alien4cloud.paas.wf.validation;
 
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Set;
 
 import lombok.extern.slf4j.Slf4j;
 
 import org.elasticsearch.common.collect.Lists;
-import org.elasticsearch.common.collect.Maps;
-import org.elasticsearch.common.collect.Sets;
 
 import alien4cloud.paas.plan.ToscaNodeLifecycleConstants;
 import alien4cloud.paas.wf.AbstractStep;
 import alien4cloud.paas.wf.NodeActivityStep;
-import alien4cloud.paas.wf.Path;
 import alien4cloud.paas.wf.SetStateActivity;
 import alien4cloud.paas.wf.Workflow;
 import alien4cloud.paas.wf.WorkflowsBuilderService.TopologyContext;
 import alien4cloud.paas.wf.exception.WorkflowException;
-import alien4cloud.paas.wf.util.WorkflowGraphUtils;
+import alien4cloud.paas.wf.util.WorkflowGraph;
 
 /**
  * This rule will check that for a given node, the 'set state' operations are done in the
@@ -39,14 +35,15 @@ import alien4cloud.paas.wf.util.WorkflowGraphUtils;
  * <p>
  * Actually the rule is: for each node, all set state steps must be <b>at least on a same path</b> and they should be in the <b>correct order</b> on this path.
  * <p>
- * To achieve such check, for each node we:
+ * To achieve such check without enumerating the paths of the workflow (which number grows exponentially with the parallel branches), we:
  * <ul>
- * <li>list the state step states and the paths they are found on (a step can be on several paths).
- * <li>get the intersection of all these path : this way we should have at least 1 path containing all steps.
- * <li>check the order on these paths.
+ * <li>sort the steps of the workflow in topological order and list the set state steps of each node in this order.
+ * <li>for each node, check in a single pass on the graph that every set state step can be reached from the previous one : this way all steps are on a same
+ * path.
+ * <li>check the order of the states following the topological order.
  * </ul>
  * <p>
- * Maybe a more efficient algo can be found (1 pass ?) ... Feel free to have fun !
+ * Workflows with cycles are not checked as the cycles are already reported by {@link CycleDetection}.
  */
 @Slf4j
 public class StateSequenceValidation implements Rule {
@@ -83,111 +80,70 @@ public class StateSequenceValidation implements Rule {
             return null;
         }
         List<AbstractWorkflowError> errors = Lists.newArrayList();
-        List<Path> paths = WorkflowGraphUtils.getWorkflowGraphPaths(workflow);
-        Map<String, Map<NodeActivityStep, Set<Path>>> pathsPerNodePerStepMap = getPathsPerNodePerStepMap(paths);
-        Map<String, Set<Path>> pathsPerNodeMap = getPathsPerNodeIntersectionMap(pathsPerNodePerStepMap);
-        // now we have to ensure that for the remaining paths, the order is correct between steps
-        for (Entry<String, Set<Path>> pathSetEntry : pathsPerNodeMap.entrySet()) {
-            String nodeId = pathSetEntry.getKey();
-            if (pathSetEntry.getValue().isEmpty()) {
-                // the intersection is empty : this means that step are in parallel
+        WorkflowGraph graph = new WorkflowGraph(workflow);
+        int[] topologicalOrder = graph.getTopologicalOrder();
+        if (topologicalOrder == null) {
+            // the workflow has cycles, they are reported by the cycle detection rule
+            log.debug("Workflow <{}> has cycles, state sequences are not checked", workflow.getName());
+            return errors;
+        }
+        Map<String, List<Integer>> stateStepsPerNode = getStateStepsPerNode(graph, topologicalOrder);
+        for (Entry<String, List<Integer>> stateStepsEntry : stateStepsPerNode.entrySet()) {
+            String nodeId = stateStepsEntry.getKey();
+            if (!graph.isOnSamePath(stateStepsEntry.getValue())) {
+                // steps are in parallel
                 // TODO: which one ?
                 errors.add(new ParallelSetStatesError(nodeId));
-            }
-            for (Path path : pathSetEntry.getValue()) {
-                ensureOrderIsCorrect(nodeId, path, stateSequence, errors);
+            } else {
+                ensureOrderIsCorrect(graph, stateStepsEntry.getValue(), stateSequence, errors);
             }
         }
         return errors;
     }
 
-    private void ensureOrderIsCorrect(String nodeId, Path path, Map<String, Integer> stateSequence, List<AbstractWorkflowError> errors) {
-        Iterator<AbstractStep> steps = path.iterator();
-        NodeActivityStep lastDetectedStep = null;
-        while (steps.hasNext()) {
-            AbstractStep step = steps.next();
-            if (step instanceof NodeActivityStep && ((NodeActivityStep) step).getNodeId().equals(nodeId)
-                    && ((NodeActivityStep) step).getActivity() instanceof SetStateActivity) {
-                String stateName = ((SetStateActivity)((NodeActivityStep) step).getActivity()).getStateName();
-                Integer stateIdx = stateSequence.get(stateName);
-                if (stateIdx == null) {
-                 // if the state is null, it can be a custom state, we don't care about it
-                    continue;
-                }
-                if (lastDetectedStep == null) {
-                    lastDetectedStep = (NodeActivityStep) step;
-                } else {
-                    String lastDetectedState = ((SetStateActivity) ((NodeActivityStep) lastDetectedStep).getActivity()).getStateName();
-                    Integer lastDetectedStateIdx = stateSequence.get(lastDetectedState);
-                    Integer currentDetectedStateIdx = stateSequence.get(stateName);
-                    if (lastDetectedStateIdx.compareTo(currentDetectedStateIdx) > 0) {
-                        errors.add(new BadStateSequenceError(lastDetectedStep.getName(), step.getName()));
-                        // throw new BadStateOrderException(String.format("Issue in the state sequence for node '%s': '%s' can not be set after the state '%s'",
-                        // nodeId, stateName,
-                        // lastDetectedState));
-                    } else {
-                        lastDetectedStep = (NodeActivityStep) step;
-                    }
-                }
+    private void ensureOrderIsCorrect(WorkflowGraph graph, List<Integer> stateSteps, Map<String, Integer> stateSequence, List<AbstractWorkflowError> errors) {
+        AbstractStep lastDetectedStep = null;
+        Integer lastDetectedStateIdx = null;
+        for (Integer stepIndex : stateSteps) {
+            AbstractStep step = graph.getStep(stepIndex);
+            Integer stateIdx = stateSequence.get(getStateName(step));
+            if (stateIdx == null) {
+                // if the state is null, it can be a custom state, we don't care about it
+                continue;
             }
-        }
-    }
-
-    /**
-     * Per node, just keep the intersection between all the {@link Path} sets.
-     */
-    private Map<String, Set<Path>> getPathsPerNodeIntersectionMap(Map<String, Map<NodeActivityStep, Set<Path>>> pathsPerNodePerStepMap) {
-        Map<String, Set<Path>> pathsPerNodeIntersectionMap = Maps.newHashMap();
-        for (Entry<String, Map<NodeActivityStep, Set<Path>>> entry : pathsPerNodePerStepMap.entrySet()) {
-            String nodeId = entry.getKey();
-            Map<NodeActivityStep, Set<Path>> pathsPerStep = entry.getValue();
-            Iterator<Set<Path>> paths = pathsPerStep.values().iterator();
-            if (pathsPerStep.size() == 1) {
-                pathsPerNodeIntersectionMap.put(nodeId, paths.next());
-                paths.remove();
+            if (lastDetectedStep != null && lastDetectedStateIdx.compareTo(stateIdx) > 0) {
+                errors.add(new BadStateSequenceError(lastDetectedStep.getName(), step.getName()));
             } else {
-                Set<Path> lastPaths = paths.next();
-                paths.remove();
-                while (paths.hasNext()) {
-                    Set<Path> intersection = Sets.intersection(lastPaths, paths.next());
-                    paths.remove();
-                    lastPaths = intersection;
-                }
-                pathsPerNodeIntersectionMap.put(nodeId, lastPaths);
+                lastDetectedStep = step;
+                lastDetectedStateIdx = stateIdx;
             }
         }
-        return pathsPerNodeIntersectionMap;
     }
 
     /**
-     * For each node / step, constitute a set containing all the paths in which this node has steps of type 'set state'.
-     * 
-     * @return a map using nodeId as key and the list of concerned {@link Path}s as value.
+     * For each node, list the steps of type 'set state' in topological order.
+     *
+     * @return a map using nodeId as key and the indexes of the 'set state' steps in the graph as value.
      */
-    private Map<String, Map<NodeActivityStep, Set<Path>>> getPathsPerNodePerStepMap(List<Path> paths) {
-        Map<String, Map<NodeActivityStep, Set<Path>>> pathsPerNodePerStepMap = Maps.newHashMap();
-        for (Path path : paths) {
-            Iterator<AbstractStep> steps = path.iterator();
-            while (steps.hasNext()) {
-                AbstractStep step = steps.next();
-                if (step instanceof NodeActivityStep && ((NodeActivityStep) step).getActivity() instanceof SetStateActivity) {
-                    NodeActivityStep nodeActivityStep = (NodeActivityStep) step;
-                    String node = nodeActivityStep.getNodeId();
-                    Map<NodeActivityStep, Set<Path>> pathsPerStepMap = pathsPerNodePerStepMap.get(node);
-                    if (pathsPerStepMap == null) {
-                        pathsPerStepMap = Maps.newHashMap();
-                        pathsPerNodePerStepMap.put(node, pathsPerStepMap);
-                    }
-                    Set<Path> pathsPerStep = pathsPerStepMap.get(nodeActivityStep);
-                    if (pathsPerStep == null) {
-                        pathsPerStep = Sets.newHashSet();
-                        pathsPerStepMap.put(nodeActivityStep, pathsPerStep);
-                    }
-                    pathsPerStep.add(path);
+    private Map<String, List<Integer>> getStateStepsPerNode(WorkflowGraph graph, int[] topologicalOrder) {
+        Map<String, List<Integer>> stateStepsPerNode = new LinkedHashMap<>();
+        for (int stepIndex : topologicalOrder) {
+            AbstractStep step = graph.getStep(stepIndex);
+            if (step instanceof NodeActivityStep && ((NodeActivityStep) step).getActivity() instanceof SetStateActivity) {
+                String nodeId = ((NodeActivityStep) step).getNodeId();
+                List<Integer> stateSteps = stateStepsPerNode.get(nodeId);
+                if (stateSteps == null) {
+                    stateSteps = Lists.newArrayList();
+                    stateStepsPerNode.put(nodeId, stateSteps);
                 }
+                stateSteps.add(stepIndex);
             }
         }
-        return pathsPerNodePerStepMap;
+        return stateStepsPerNode;
+    }
+
+    private String getStateName(AbstractStep step) {
+        return ((SetStateActivity) ((NodeActivityStep) step).getActivity()).getStateName();
     }
 
     private Map<String, Integer> getStateSequence(Workflow workflow) {
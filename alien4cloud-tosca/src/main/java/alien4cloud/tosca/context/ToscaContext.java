@@ -4,6 +4,7 @@ import alien4cloud.component.ICSARRepositorySearchService;
 import alien4cloud.tosca.model.ArchiveRoot;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.alien4cloud.tosca.model.CSARDependency;
@@ -98,6 +99,37 @@ public class ToscaContext {
             this.dependencies = dependencies;
         }
 
+        /**
+         * Create a new context for the given dependencies that reuses the archives and types cached in an existing context. Types of the existing
+         * context dependencies that are not part of the new dependencies (or in another version) are not reused.
+         *
+         * @param dependencies The list of dependencies for this context.
+         * @param cached The context from which to reuse cached archives and types.
+         */
+        public Context(Set<CSARDependency> dependencies, Context cached) {
+            this.dependencies = dependencies;
+            this.archivesMap.putAll(cached.archivesMap);
+            Set<String> cachedDependencyNames = Sets.newHashSet();
+            for (CSARDependency dependency : cached.dependencies) {
+                cachedDependencyNames.add(dependency.getName());
+            }
+            Set<String> dependencyIds = Sets.newHashSet();
+            for (CSARDependency dependency : dependencies) {
+                dependencyIds.add(new Csar(dependency.getName(), dependency.getVersion()).getId());
+            }
+            for (Map.Entry<String, Map<String, AbstractToscaType>> cachedElements : cached.toscaTypesCache.entrySet()) {
+                Map<String, AbstractToscaType> typeElements = new HashMap<>();
+                for (Map.Entry<String, AbstractToscaType> entry : cachedElements.getValue().entrySet()) {
+                    AbstractToscaType element = entry.getValue();
+                    if (!cachedDependencyNames.contains(element.getArchiveName())
+                            || dependencyIds.contains(new Csar(element.getArchiveName(), element.getArchiveVersion()).getId())) {
+                        typeElements.put(entry.getKey(), element);
+                    }
+                }
+                toscaTypesCache.put(cachedElements.getKey(), typeElements);
+            }
+        }
+
         private CSARDependency getDependencyByName(String dependencyName) {
             for (CSARDependency d : dependencies) {
                 if (d.getName().equals(dependencyName)) {
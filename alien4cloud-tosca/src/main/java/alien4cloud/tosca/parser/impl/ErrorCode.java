@@ -70,5 +70,7 @@ public enum ErrorCode {
     EMPTY_TOPOLOGY,
     UNKNWON_WORKFLOW_STEP, WORKFLOW_HAS_ERRORS,
     /** Invalid node template name (contains dot, dash or accent) **/
-    INVALID_NODE_TEMPLATE_NAME;
+    INVALID_NODE_TEMPLATE_NAME,
+    /** An element of the archive failed to be indexed in the catalog. */
+    INDEXING_FAILED;
 }
\ No newline at end of file
@@ -9,6 +9,9 @@ import java.util.function.Consumer;
 
 import org.springframework.stereotype.Service;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 import alien4cloud.exception.InvalidArgumentException;
 import org.alien4cloud.tosca.model.types.DataType;
 import org.alien4cloud.tosca.model.types.PrimitiveDataType;
@@ -24,14 +27,21 @@ import alien4cloud.tosca.properties.constraints.exception.ConstraintValueDoNotMa
 import alien4cloud.tosca.properties.constraints.exception.ConstraintViolationException;
 import alien4cloud.utils.VersionUtil;
 import alien4cloud.utils.version.InvalidVersionException;
+import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Common property constraint utils
+ * <p>
+ * Constraints are initialized for the type of the property they apply to the first time they are checked and then reused for every validation, as well as the
+ * metadata used to report violations. Compiled constraints are bound to the constraint instances (weakly referenced) so that constraints of types that are
+ * re-indexed or no longer used are released with them. Constraints must not be modified once they have been used for a validation.
  */
 @Slf4j
 @Service
 public class ConstraintPropertyService {
+    /** Constraints initialized for a property type by constraint instance (weak keys are compared by identity). */
+    private final Cache<PropertyConstraint, CompiledConstraint> compiledConstraints = CacheBuilder.newBuilder().weakKeys().build();
 
     /**
      * Check the constraints on an unwrapped property value (basically a string, map or list).
@@ -104,27 +114,11 @@ public class ConstraintPropertyService {
      */
     public void checkSimplePropertyConstraint(final String propertyName, final String stringValue, final PropertyDefinition propertyDefinition)
             throws ConstraintViolationException, ConstraintValueDoNotMatchPropertyTypeException {
-        ConstraintInformation consInformation = null;
-
         // check any property definition without constraints (type/value)
         checkBasicType(propertyName, propertyDefinition.getType(), stringValue);
 
         if (propertyDefinition.getConstraints() != null && !propertyDefinition.getConstraints().isEmpty()) {
-            IPropertyType<?> toscaType = ToscaType.fromYamlTypeName(propertyDefinition.getType());
-            for (PropertyConstraint constraint : propertyDefinition.getConstraints()) {
-                try {
-                    consInformation = ConstraintUtil.getConstraintInformation(constraint);
-                    consInformation.setPath(propertyName + ".constraints[" + consInformation.getName() + "]");
-                    constraint.initialize(toscaType);
-                    constraint.validate(toscaType, stringValue);
-                } catch (ConstraintViolationException e) {
-                    throw new ConstraintViolationException(e.getMessage(), e, consInformation);
-                } catch (IntrospectionException e) {
-                    // ConstraintValueDoNotMatchPropertyTypeException is not supposed to be raised here (only in constraint definition validation)
-                    log.info("Constraint introspection error for property <" + propertyName + "> value <" + stringValue + ">", e);
-                    throw new ConstraintTechnicalException("Constraint introspection error for property <" + propertyName + "> value <" + stringValue + ">", e);
-                }
-            }
+            checkConstraints(propertyName, stringValue, propertyDefinition.getType(), propertyDefinition.getConstraints());
         }
     }
 
@@ -134,7 +128,6 @@ public class ConstraintPropertyService {
     private void checkComplexPropertyDerivedFromPrimitiveTypeConstraints(final String propertyName, final String stringValue,
             final PropertyDefinition propertyDefinition, final DataType dataType)
             throws ConstraintViolationException, ConstraintValueDoNotMatchPropertyTypeException {
-        ConstraintInformation consInformation = null;
         boolean hasDefinitionConstraints = propertyDefinition.getConstraints() != null && !propertyDefinition.getConstraints().isEmpty();
         boolean hasTypeConstraints = false;
         if (dataType instanceof PrimitiveDataType && ((PrimitiveDataType) dataType).getConstraints() != null
@@ -156,24 +149,51 @@ public class ConstraintPropertyService {
 
     private void checkConstraints(final String propertyName, final String stringValue, final String typeName, List<PropertyConstraint> constraints)
             throws ConstraintViolationException, ConstraintValueDoNotMatchPropertyTypeException {
-        ConstraintInformation consInformation = null;
         for (PropertyConstraint constraint : constraints) {
-            IPropertyType<?> toscaType = ToscaType.fromYamlTypeName(typeName);
+            CompiledConstraint compiledConstraint = getCompiledConstraint(propertyName, stringValue, typeName, constraint);
             try {
-                consInformation = ConstraintUtil.getConstraintInformation(constraint);
-                consInformation.setPath(propertyName + ".constraints[" + consInformation.getName() + "]");
-                constraint.initialize(toscaType);
-                constraint.validate(toscaType, stringValue);
+                constraint.validate(compiledConstraint.toscaType, stringValue);
             } catch (ConstraintViolationException e) {
+                ConstraintInformation consInformation = new ConstraintInformation(compiledConstraint.name, compiledConstraint.reference, null, null);
+                consInformation.setPath(propertyName + ".constraints[" + compiledConstraint.name + "]");
                 throw new ConstraintViolationException(e.getMessage(), e, consInformation);
-            } catch (IntrospectionException e) {
-                // ConstraintValueDoNotMatchPropertyTypeException is not supposed to be raised here (only in constraint definition validation)
-                log.info("Constraint introspection error for property <" + propertyName + "> value <" + stringValue + ">", e);
-                throw new ConstraintTechnicalException("Constraint introspection error for property <" + propertyName + "> value <" + stringValue + ">", e);
             }
         }
     }
 
+    /**
+     * Get a constraint initialized for the given type, the constraint is initialized only if it has not been already for this type.
+     */
+    private CompiledConstraint getCompiledConstraint(final String propertyName, final String stringValue, final String typeName,
+            final PropertyConstraint constraint) throws ConstraintValueDoNotMatchPropertyTypeException {
+        CompiledConstraint compiledConstraint = compiledConstraints.getIfPresent(constraint);
+        if (compiledConstraint != null && compiledConstraint.typeName.equals(typeName)) {
+            return compiledConstraint;
+        }
+        synchronized (constraint) {
+            compiledConstraint = compiledConstraints.getIfPresent(constraint);
+            if (compiledConstraint == null || !compiledConstraint.typeName.equals(typeName)) {
+                compiledConstraint = compile(propertyName, stringValue, typeName, constraint);
+                compiledConstraints.put(constraint, compiledConstraint);
+            }
+            return compiledConstraint;
+        }
+    }
+
+    private CompiledConstraint compile(final String propertyName, final String stringValue, final String typeName, final PropertyConstraint constraint)
+            throws ConstraintValueDoNotMatchPropertyTypeException {
+        IPropertyType<?> toscaType = ToscaType.fromYamlTypeName(typeName);
+        try {
+            ConstraintInformation consInformation = ConstraintUtil.getConstraintInformation(constraint);
+            constraint.initialize(toscaType);
+            return new CompiledConstraint(typeName, toscaType, consInformation.getName(), consInformation.getReference());
+        } catch (IntrospectionException e) {
+            // ConstraintValueDoNotMatchPropertyTypeException is not supposed to be raised here (only in constraint definition validation)
+            log.info("Constraint introspection error for property <" + propertyName + "> value <" + stringValue + ">", e);
+            throw new ConstraintTechnicalException("Constraint introspection error for property <" + propertyName + "> value <" + stringValue + ">", e);
+        }
+    }
+
     private void checkDataTypePropertyConstraint(String propertyName, Map<String, Object> complexPropertyValue, PropertyDefinition propertyDefinition,
             Consumer<String> missingPropertyConsumer) throws ConstraintViolationException, ConstraintValueDoNotMatchPropertyTypeException {
         DataType dataType = ToscaContext.get(DataType.class, propertyDefinition.getType());
@@ -272,4 +292,15 @@ public class ConstraintPropertyService {
             throw new ConstraintValueDoNotMatchPropertyTypeException(e.getMessage(), e, consInformation);
         }
     }
+
+    /**
+     * A constraint initialized for a property type with the metadata to report violations.
+     */
+    @AllArgsConstructor(suppressConstructorProperties = true)
+    private static class CompiledConstraint {
+        private final String typeName;
+        private final IPropertyType<?> toscaType;
+        private final String name;
+        private final Object reference;
+    }
 }
@@ -0,0 +1,46 @@
+package alien4cloud.tosca.context;
+
+import org.alien4cloud.tosca.model.CSARDependency;
+import org.alien4cloud.tosca.model.Csar;
+import org.alien4cloud.tosca.model.types.NodeType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+import alien4cloud.tosca.model.ArchiveRoot;
+
+public class ToscaContextTest {
+
+    private static ArchiveRoot archive(String name, String version, String nodeTypeId) {
+        ArchiveRoot root = new ArchiveRoot();
+        root.setArchive(new Csar(name, version));
+        NodeType nodeType = new NodeType();
+        nodeType.setElementId(nodeTypeId);
+        nodeType.setArchiveName(name);
+        nodeType.setArchiveVersion(version);
+        root.getNodeTypes().put(nodeTypeId, nodeType);
+        return root;
+    }
+
+    private static boolean isCached(ToscaContext.Context context, String nodeTypeId) {
+        return context.getElement(NodeType.class, element -> element.getElementId().equals(nodeTypeId)).isPresent();
+    }
+
+    @Test
+    public void contextShouldReuseTypesOfUnchangedDependencies() {
+        ToscaContext.Context cached = new ToscaContext.Context(Sets.newHashSet(new CSARDependency("a", "1.0"), new CSARDependency("b", "1.0")));
+        cached.register(archive("a", "1.0", "a.Node"));
+        cached.register(archive("b", "1.0", "b.Node"));
+        // types registered from an archive that is not a dependency
+        cached.register(archive("local", "1.0", "local.Node"));
+
+        ToscaContext.Context context = new ToscaContext.Context(Sets.newHashSet(new CSARDependency("a", "1.0"), new CSARDependency("b", "2.0")), cached);
+
+        Assert.assertTrue(isCached(context, "a.Node"));
+        Assert.assertFalse(isCached(context, "b.Node"));
+        Assert.assertTrue(isCached(context, "local.Node"));
+        // the cache of the initial context is not affected
+        Assert.assertTrue(isCached(cached, "b.Node"));
+    }
+}
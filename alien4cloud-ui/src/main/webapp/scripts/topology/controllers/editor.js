@@ -63,12 +63,15 @@ define(function (require) {
       }
 
       // Version selection management is below, find here topology update handling
+      // Topology dto of the last operation on which the next delta applies, it may be more recent than the scope topology after a property edition.
+      var latestTopologyDTO;
       /**
       * refreshTopology has to be triggered when the topology is updated.
-      * Added to the scope as right now every operation returns the full and update topology.
+      * Added to the scope as every operation results in a full updated topology dto (built from the changes returned by the server).
       */
       $scope.refreshTopology = function(topologyDTO, selectedNodeTemplate, initial) {
         $scope.topology = topologyDTO;
+        latestTopologyDTO = topologyDTO;
         if(topologyDTO.topology.workspace === 'ALIEN_GLOBAL_WORKSPACE') {
           $scope.workspaces = ['ALIEN_GLOBAL_WORKSPACE'];
         } else {
@@ -101,7 +104,36 @@ define(function (require) {
         return _.defined(nullAsString) && nullAsString ? 'null' : null;
       };
 
-      var editorResource = $alresource('rest/latest/editor/:topologyId/execute');
+      var editorResource = $alresource('rest/latest/editor/:topologyId/execute/delta');
+
+      /**
+      * Apply the changes returned after the execution of an operation to the topology dto of the previous operation.
+      */
+      function applyDelta(topologyDTO, delta) {
+        var updatedDTO = _.clone(topologyDTO);
+        updatedDTO.topology = _.clone(topologyDTO.topology);
+        _.each(delta.topologyChanges, function(value, key) {
+          if(value === null) {
+            delete updatedDTO.topology[key];
+          } else {
+            updatedDTO.topology[key] = value;
+          }
+        });
+        updatedDTO.topology.nodeTemplates = _.omit(updatedDTO.topology.nodeTemplates, delta.removedNodeTemplates);
+        _.assign(updatedDTO.topology.nodeTemplates, delta.nodeTemplates);
+        updatedDTO.nodeTypes = _.assign({}, topologyDTO.nodeTypes, delta.nodeTypes);
+        updatedDTO.relationshipTypes = _.assign({}, topologyDTO.relationshipTypes, delta.relationshipTypes);
+        updatedDTO.capabilityTypes = _.assign({}, topologyDTO.capabilityTypes, delta.capabilityTypes);
+        updatedDTO.dataTypes = _.assign({}, topologyDTO.dataTypes, delta.dataTypes);
+        if(_.defined(delta.archiveContentTree)) {
+          updatedDTO.archiveContentTree = delta.archiveContentTree;
+        }
+        // operations to redo are dropped by the new operation
+        updatedDTO.operations = _.take(topologyDTO.operations, delta.lastOperationIndex);
+        updatedDTO.operations.push(delta.operation);
+        updatedDTO.lastOperationIndex = delta.lastOperationIndex;
+        return updatedDTO;
+      }
       $scope.execute = function(operation, successCallback, errorCallback, selectedNodeTemplate, isPropertyEdit) {
         operation.previousOperationId = $scope.getLastOperationId();
         // execute operations, create is a post
@@ -123,6 +155,9 @@ define(function (require) {
           }
 
           if(_.undefined(result.error)) {
+            // the delta applies on the topology dto of the previous operation, the callbacks get the full updated dto
+            result.data = applyDelta(latestTopologyDTO, result.data);
+            latestTopologyDTO = result.data;
             if(_.defined(isPropertyEdit)) {
               // If the call is related to a property value edition this may be a complex one and we should not perform full topology override.
               $scope.topology.operations = result.data.operations;